@@ -0,0 +1,88 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-api:1.0.0-SNAPSHOT
+ *   Bundle      : rmf-api-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf;
+
+/**
+ * Triple whose nodes are represented by integer identifiers, usually the
+ * identifiers of the nodes in a {@link NodeDictionary}.
+ */
+public final class CompactTriple {
+
+	private final int subject;
+	private final int predicate;
+	private final int object;
+
+	public CompactTriple(int subject, int predicate, int object) {
+		this.subject = subject;
+		this.predicate = predicate;
+		this.object = object;
+	}
+
+	public int getSubject() {
+		return subject;
+	}
+
+	public int getPredicate() {
+		return predicate;
+	}
+
+	public int getObject() {
+		return object;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 19;
+		result = prime * result + subject;
+		result = prime * result + predicate;
+		result = prime * result + object;
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this==obj) {
+			return true;
+		}
+		boolean result=false;
+		if(obj instanceof CompactTriple) {
+			CompactTriple other = (CompactTriple) obj;
+			result=
+				subject==other.subject &&
+				predicate==other.predicate &&
+				object==other.object;
+		}
+		return result;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("(%d, %d, %d)",subject,predicate,object);
+	}
+
+}
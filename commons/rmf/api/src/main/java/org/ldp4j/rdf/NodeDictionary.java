@@ -0,0 +1,179 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-api:1.0.0-SNAPSHOT
+ *   Bundle      : rmf-api-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded dictionary that maps nodes to dense integer identifiers. Once a node
+ * is registered it keeps its identifier for the lifetime of the dictionary, and
+ * the registered instance is handed out in place of any equal node. When the
+ * dictionary is full, nodes are no longer registered and are returned as they
+ * are.
+ */
+public final class NodeDictionary {
+
+	public static final int NO_ID=-1;
+
+	private final int capacity;
+	private final ConcurrentMap<Node,Integer> ids;
+	private final ConcurrentMap<String,URIRef> uriRefs;
+	private final AtomicReferenceArray<Node> nodes;
+
+	private int size;
+
+	public NodeDictionary(int capacity) {
+		if(capacity<=0) {
+			throw new IllegalArgumentException("Dictionary capacity must be greater than zero");
+		}
+		this.capacity=capacity;
+		this.ids=new ConcurrentHashMap<Node,Integer>();
+		this.uriRefs=new ConcurrentHashMap<String,URIRef>();
+		this.nodes=new AtomicReferenceArray<Node>(capacity);
+	}
+
+	private synchronized int register(Node node) {
+		Integer id=this.ids.get(node);
+		if(id!=null) {
+			return id;
+		}
+		if(this.size==this.capacity) {
+			return NO_ID;
+		}
+		int result=this.size++;
+		this.nodes.set(result,node);
+		if(node instanceof URIRef) {
+			URIRef uriRef=(URIRef)node;
+			this.uriRefs.put(uriRef.getIdentity().toString(),uriRef);
+		}
+		this.ids.put(node,result);
+		return result;
+	}
+
+	public int capacity() {
+		return this.capacity;
+	}
+
+	public synchronized int size() {
+		return this.size;
+	}
+
+	/**
+	 * Get the identifier of the node, registering it if the dictionary is not
+	 * yet full.
+	 *
+	 * @return the identifier of the node, or {@link #NO_ID} if the node is not
+	 *         registered and the dictionary is full.
+	 */
+	public int id(Node node) {
+		if(node==null) {
+			throw new IllegalArgumentException("Object 'node' cannot be null");
+		}
+		Integer id=this.ids.get(node);
+		if(id!=null) {
+			return id;
+		}
+		return register(node);
+	}
+
+	/**
+	 * Get the identifier of the node without registering it.
+	 *
+	 * @return the identifier of the node, or {@link #NO_ID} if the node is not
+	 *         registered.
+	 */
+	public int lookup(Node node) {
+		if(node==null) {
+			return NO_ID;
+		}
+		Integer id=this.ids.get(node);
+		if(id==null) {
+			return NO_ID;
+		}
+		return id;
+	}
+
+	public Node node(int id) {
+		if(id<0 || id>=this.capacity) {
+			return null;
+		}
+		return this.nodes.get(id);
+	}
+
+	/**
+	 * Get the registered instance equal to the node, registering the node if
+	 * the dictionary is not yet full.
+	 */
+	@SuppressWarnings("unchecked")
+	public <T extends Node> T intern(T node) {
+		int id=id(node);
+		if(id==NO_ID) {
+			return node;
+		}
+		return (T)this.nodes.get(id);
+	}
+
+	/**
+	 * Get the registered URI reference with the given identity, if any. This
+	 * allows skipping the parsing of the identity for known URI references.
+	 */
+	public URIRef uriRef(String identity) {
+		if(identity==null) {
+			return null;
+		}
+		return this.uriRefs.get(identity);
+	}
+
+	/**
+	 * Encode the triple using the identifiers of its nodes.
+	 *
+	 * @return the compact triple, or {@code null} if any of the nodes cannot
+	 *         be registered.
+	 */
+	public CompactTriple encode(Triple triple) {
+		int subject=id(triple.getSubject());
+		int predicate=id(triple.getPredicate());
+		int object=id(triple.getObject());
+		if(subject==NO_ID || predicate==NO_ID || object==NO_ID) {
+			return null;
+		}
+		return new CompactTriple(subject,predicate,object);
+	}
+
+	public Triple decode(CompactTriple triple) {
+		Node subject=node(triple.getSubject());
+		Node predicate=node(triple.getPredicate());
+		Node object=node(triple.getObject());
+		if(!(subject instanceof Resource<?>) || !(predicate instanceof URIRef) || object==null) {
+			throw new IllegalArgumentException("Triple "+triple+" was not encoded by this dictionary");
+		}
+		return new Triple((Resource<?>)subject,(URIRef)predicate,object);
+	}
+
+}
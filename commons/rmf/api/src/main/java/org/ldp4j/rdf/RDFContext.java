@@ -115,4 +115,13 @@ public final class RDFContext {
 		return unmarshaller.unmarshall(source);
 	}
 
+	public <T> void deserialize(T source, Format format, TripleHandler handler) throws IOException {
+		Assertions.notNull(source, "source");
+		Assertions.notNull(format, FORMAT_PARAM);
+		Assertions.notNull(handler, "handler");
+		Unmarshaller<T> unmarshaller=RuntimeInstance.getInstance().newUnmarshaller(format,source);
+		unmarshaller.setConfiguration(getConfiguration(format));
+		unmarshaller.unmarshall(source,handler);
+	}
+
 }
\ No newline at end of file
@@ -27,6 +27,7 @@
 package org.ldp4j.rdf;
 
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
@@ -36,7 +37,48 @@ public final class RDFFactory {
 	private static final AtomicLong FACTORY_COUNTER=new AtomicLong();
 	private final AtomicLong blankNodeCounter=new AtomicLong();
 	private final long factoryId=FACTORY_COUNTER.incrementAndGet();
-	
+	private final NodeDictionary dictionary;
+	private final URIRefInterner interner;
+
+	public RDFFactory() {
+		this(null,null);
+	}
+
+	/**
+	 * Create a factory that interns the URI references it creates in the
+	 * specified interner, so that equal URI references in use share the same
+	 * instance.
+	 */
+	public RDFFactory(URIRefInterner interner) {
+		this(null,interner);
+	}
+
+	/**
+	 * Create a factory that interns the nodes it creates in the specified
+	 * dictionary, so that equal nodes share the same instance and identifier
+	 * while the dictionary has room for them. Once the dictionary is full, the
+	 * URI references are interned in the specified interner, if any.
+	 */
+	public RDFFactory(NodeDictionary dictionary, URIRefInterner interner) {
+		this.dictionary=dictionary;
+		this.interner=interner;
+	}
+
+	public NodeDictionary getDictionary() {
+		return this.dictionary;
+	}
+
+	public URIRefInterner getInterner() {
+		return this.interner;
+	}
+
+	private <T extends Node> T intern(T node) {
+		if(this.dictionary==null) {
+			return node;
+		}
+		return this.dictionary.intern(node);
+	}
+
 	public <T> TypedLiteral<T> newLiteral(T value) {
 		if(value instanceof String) {
 			return newLiteral(value,Datatype.STRING);
@@ -54,12 +96,12 @@ public final class RDFFactory {
 		if(type==null) {
 			return newLiteral(value);
 		} else {
-			return new TypedLiteral<T>(value,type);
+			return intern(new TypedLiteral<T>(value,type));
 		}
 	}
 	
 	public LanguageLiteral newLiteral(String value, String language) {
-		return new LanguageLiteral(value,language);
+		return intern(new LanguageLiteral(value,language));
 	}
 
 	public BlankNode newBlankNode() {
@@ -67,20 +109,45 @@ public final class RDFFactory {
 	}
 
 	public BlankNode newBlankNode(String identity) {
-		String tmpId=identity;
-		if(tmpId==null) {
-			tmpId=
-				String.format(
-					"bn%04X-%04X-%s",
-					factoryId,
-					blankNodeCounter.incrementAndGet(),
-					UUID.randomUUID());
+		if(identity==null) {
+			// Fresh blank nodes are never shared, so they are not interned
+			return
+				new BlankNode(
+					String.format(
+						"bn%04X-%04X-%s",
+						factoryId,
+						blankNodeCounter.incrementAndGet(),
+						UUID.randomUUID()));
 		}
-		return new BlankNode(tmpId);
+		return intern(new BlankNode(identity));
 	}
 	
 	public URIRef newURIRef(URI identity) {
-		return new URIRef(identity);
+		URIRef result=new URIRef(identity);
+		if(this.dictionary!=null) {
+			int id=this.dictionary.id(result);
+			if(id!=NodeDictionary.NO_ID) {
+				return (URIRef)this.dictionary.node(id);
+			}
+		}
+		if(this.interner!=null) {
+			result=this.interner.intern(result);
+		}
+		return result;
+	}
+
+	public URIRef newURIRef(String identity) throws URISyntaxException {
+		URIRef result=null;
+		if(this.dictionary!=null) {
+			result=this.dictionary.uriRef(identity);
+		}
+		if(result==null && this.interner!=null) {
+			result=this.interner.uriRef(identity);
+		}
+		if(result==null) {
+			result=newURIRef(new URI(identity));
+		}
+		return result;
 	}
 	
 	public Triple newTriple(Resource<?> subject, URIRef predicate, Node object) {
@@ -73,7 +73,7 @@ public final class Triple implements Comparable<Triple> {
 			result=
 				ObjectUtils.areEqualObjects(subject, other.subject) &&
 				ObjectUtils.areEqualObjects(predicate, other.predicate) && 
-				ObjectUtils.areEqualObjects(object, other.predicate);
+				ObjectUtils.areEqualObjects(object, other.object);
 		}
 		return result;
 	}
@@ -0,0 +1,135 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-api:1.0.0-SNAPSHOT
+ *   Bundle      : rmf-api-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Weak interner for URI references: equal URI references share the same
+ * instance while any of them is in use, and the interned instances are
+ * released once they are no longer referenced elsewhere. The references are
+ * kept in a concurrent map keyed by the string form of their identity, so
+ * that interning does not serialize the threads that create nodes. The
+ * entries of the released references are purged lazily, whenever a
+ * reference is interned.
+ */
+public final class URIRefInterner {
+
+	private static final class IdentityReference extends WeakReference<URIRef> {
+
+		private final String identity;
+
+		private IdentityReference(String identity, URIRef referent, ReferenceQueue<URIRef> queue) {
+			super(referent,queue);
+			this.identity=identity;
+		}
+
+	}
+
+	private final ConcurrentMap<String,IdentityReference> uriRefs;
+	private final ReferenceQueue<URIRef> released;
+
+	public URIRefInterner() {
+		this.uriRefs=new ConcurrentHashMap<String,IdentityReference>();
+		this.released=new ReferenceQueue<URIRef>();
+	}
+
+	/**
+	 * Get the interned instance equal to the URI reference, interning it if
+	 * there is none.
+	 */
+	public URIRef intern(URIRef uriRef) {
+		if(uriRef==null) {
+			throw new IllegalArgumentException("Object 'uriRef' cannot be null");
+		}
+		purge();
+		String identity=uriRef.getIdentity().toString();
+		IdentityReference candidate=null;
+		while(true) {
+			IdentityReference current=this.uriRefs.get(identity);
+			if(current!=null) {
+				URIRef result=current.get();
+				if(result!=null) {
+					return result;
+				}
+				// The interned instance has been released but its entry has
+				// not been purged yet: replace it
+				if(candidate==null) {
+					candidate=new IdentityReference(identity,uriRef,this.released);
+				}
+				if(this.uriRefs.replace(identity,current,candidate)) {
+					return uriRef;
+				}
+			} else {
+				if(candidate==null) {
+					candidate=new IdentityReference(identity,uriRef,this.released);
+				}
+				if(this.uriRefs.putIfAbsent(identity,candidate)==null) {
+					return uriRef;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Get the interned URI reference with the given identity, if any. This
+	 * allows skipping the parsing of the identity for URI references in use.
+	 */
+	public URIRef uriRef(String identity) {
+		if(identity==null) {
+			return null;
+		}
+		IdentityReference reference=this.uriRefs.get(identity);
+		if(reference==null) {
+			return null;
+		}
+		return reference.get();
+	}
+
+	public int size() {
+		purge();
+		return this.uriRefs.size();
+	}
+
+	/**
+	 * Remove the entries of the released references. An entry is only
+	 * removed if it still holds the released reference, so that an instance
+	 * interned concurrently under the same identity is kept.
+	 */
+	private void purge() {
+		Reference<? extends URIRef> reference=null;
+		while((reference=this.released.poll())!=null) {
+			IdentityReference entry=(IdentityReference)reference;
+			this.uriRefs.remove(entry.identity,entry);
+		}
+	}
+
+}
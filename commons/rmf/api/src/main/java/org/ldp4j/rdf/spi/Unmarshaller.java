@@ -29,9 +29,12 @@ package org.ldp4j.rdf.spi;
 import java.io.IOException;
 
 import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.TripleHandler;
 
 public interface Unmarshaller<T> extends Configurable{
 	
 	Iterable<Triple> unmarshall(T source) throws IOException;
+
+	void unmarshall(T source, TripleHandler handler) throws IOException;
 	
 }
\ No newline at end of file
@@ -35,10 +35,12 @@ import org.ldp4j.rdf.BlankNode;
 import org.ldp4j.rdf.Datatype;
 import org.ldp4j.rdf.Literal;
 import org.ldp4j.rdf.Node;
+import org.ldp4j.rdf.NodeDictionary;
 import org.ldp4j.rdf.RDFFactory;
 import org.ldp4j.rdf.Resource;
 import org.ldp4j.rdf.Triple;
 import org.ldp4j.rdf.URIRef;
+import org.ldp4j.rdf.URIRefInterner;
 import org.ldp4j.rdf.spi.RuntimeInstance;
 import org.ldp4j.rdf.spi.Transformer;
 
@@ -51,7 +53,20 @@ public final class RDFModelDSL {
 	private static final String LANGUAGE_PARAM = "language";
 	private static final String VALUE_PARAM = "value";
 
-	private static final RDFFactory FACTORY = new RDFFactory();
+	/**
+	 * System property that sets the maximum number of nodes registered in the
+	 * dictionary shared by the DSL. Defaults to
+	 * {@value #DEFAULT_DICTIONARY_CAPACITY}.
+	 */
+	public static final String DICTIONARY_CAPACITY="org.ldp4j.rdf.dictionary.capacity";
+
+	private static final int DEFAULT_DICTIONARY_CAPACITY = 8192;
+
+	private static final RDFFactory FACTORY =
+		new RDFFactory(
+			new NodeDictionary(
+				Integer.getInteger(DICTIONARY_CAPACITY,DEFAULT_DICTIONARY_CAPACITY)),
+			new URIRefInterner());
 
 	private RDFModelDSL() {
 	}
@@ -312,6 +327,13 @@ public final class RDFModelDSL {
 				FACTORY.newLiteral(value);
 	}
 
+	/**
+	 * The dictionary shared by the nodes created through the DSL.
+	 */
+	public static NodeDictionary dictionary() {
+		return FACTORY.getDictionary();
+	}
+
 	public static TripleBuilder triple() {
 		return new TripleBuilder(FACTORY);
 	}
@@ -350,7 +372,7 @@ public final class RDFModelDSL {
 	public static URIRef uriRef(String identity) {
 		Assertions.notNull(identity, IDENTITY_PARAM);
 		try {
-			return uriRef(new URI(identity));
+			return FACTORY.newURIRef(identity);
 		} catch (URISyntaxException e) {
 			return null;
 		}
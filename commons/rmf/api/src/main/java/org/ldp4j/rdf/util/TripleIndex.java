@@ -0,0 +1,213 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-api:1.0.0-SNAPSHOT
+ *   Bundle      : rmf-api-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf.util;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.ldp4j.rdf.CompactTriple;
+
+/**
+ * Hash indexes over a set of compact triples. The triples are kept by subject
+ * and predicate (SPO), by predicate and object (POS) and by object and
+ * subject (OSP), so that the triples matching any pattern with at least one
+ * bound term can be retrieved in time proportional to the number of matches.
+ * The terms are indexed by their identifiers.
+ */
+final class TripleIndex {
+
+	/**
+	 * Two-level index. The triples are kept both by their first term and by
+	 * their first and second terms.
+	 */
+	private abstract static class Index {
+
+		private final Map<Integer,Set<CompactTriple>> firsts=new HashMap<Integer,Set<CompactTriple>>();
+		private final Map<Integer,Map<Integer,Set<CompactTriple>>> pairs=new HashMap<Integer,Map<Integer,Set<CompactTriple>>>();
+
+		protected abstract int first(CompactTriple triple);
+
+		protected abstract int second(CompactTriple triple);
+
+		private static void add(Map<Integer,Set<CompactTriple>> buckets, Integer key, CompactTriple triple) {
+			Set<CompactTriple> triples=buckets.get(key);
+			if(triples==null) {
+				triples=new LinkedHashSet<CompactTriple>();
+				buckets.put(key,triples);
+			}
+			triples.add(triple);
+		}
+
+		private static void remove(Map<Integer,Set<CompactTriple>> buckets, Integer key, CompactTriple triple) {
+			Set<CompactTriple> triples=buckets.get(key);
+			if(triples!=null) {
+				triples.remove(triple);
+				if(triples.isEmpty()) {
+					buckets.remove(key);
+				}
+			}
+		}
+
+		private static Set<CompactTriple> nullSafe(Set<CompactTriple> triples) {
+			if(triples==null) {
+				return Collections.emptySet();
+			}
+			return triples;
+		}
+
+		final void add(CompactTriple triple) {
+			Integer first=first(triple);
+			add(this.firsts,first,triple);
+			Map<Integer,Set<CompactTriple>> seconds=this.pairs.get(first);
+			if(seconds==null) {
+				seconds=new HashMap<Integer,Set<CompactTriple>>();
+				this.pairs.put(first,seconds);
+			}
+			add(seconds,second(triple),triple);
+		}
+
+		final void remove(CompactTriple triple) {
+			Integer first=first(triple);
+			remove(this.firsts,first,triple);
+			Map<Integer,Set<CompactTriple>> seconds=this.pairs.get(first);
+			if(seconds!=null) {
+				remove(seconds,second(triple),triple);
+				if(seconds.isEmpty()) {
+					this.pairs.remove(first);
+				}
+			}
+		}
+
+		final Set<CompactTriple> get(Integer first) {
+			return nullSafe(this.firsts.get(first));
+		}
+
+		final Set<CompactTriple> get(Integer first, Integer second) {
+			Map<Integer,Set<CompactTriple>> seconds=this.pairs.get(first);
+			if(seconds==null) {
+				return Collections.emptySet();
+			}
+			return nullSafe(seconds.get(second));
+		}
+
+	}
+
+	private static final class SubjectPredicateIndex extends Index {
+
+		@Override
+		protected int first(CompactTriple triple) {
+			return triple.getSubject();
+		}
+
+		@Override
+		protected int second(CompactTriple triple) {
+			return triple.getPredicate();
+		}
+
+	}
+
+	private static final class PredicateObjectIndex extends Index {
+
+		@Override
+		protected int first(CompactTriple triple) {
+			return triple.getPredicate();
+		}
+
+		@Override
+		protected int second(CompactTriple triple) {
+			return triple.getObject();
+		}
+
+	}
+
+	private static final class ObjectSubjectIndex extends Index {
+
+		@Override
+		protected int first(CompactTriple triple) {
+			return triple.getObject();
+		}
+
+		@Override
+		protected int second(CompactTriple triple) {
+			return triple.getSubject();
+		}
+
+	}
+
+	private final SubjectPredicateIndex spo=new SubjectPredicateIndex();
+	private final PredicateObjectIndex pos=new PredicateObjectIndex();
+	private final ObjectSubjectIndex osp=new ObjectSubjectIndex();
+
+	TripleIndex(Iterable<CompactTriple> triples) {
+		for(CompactTriple triple:triples) {
+			add(triple);
+		}
+	}
+
+	void add(CompactTriple triple) {
+		this.spo.add(triple);
+		this.pos.add(triple);
+		this.osp.add(triple);
+	}
+
+	void remove(CompactTriple triple) {
+		this.spo.remove(triple);
+		this.pos.remove(triple);
+		this.osp.remove(triple);
+	}
+
+	/**
+	 * Get the triples that match a partially bound pattern, that is, a
+	 * pattern with one or two bound terms. The unbound terms are given as
+	 * {@code null}. The returned collection is a live view of the index and
+	 * must not be modified.
+	 */
+	Collection<CompactTriple> get(Integer subject, Integer predicate, Integer object) {
+		Collection<CompactTriple> result=null;
+		if(subject!=null && predicate!=null && object==null) {
+			result=this.spo.get(subject,predicate);
+		} else if(subject==null && predicate!=null && object!=null) {
+			result=this.pos.get(predicate,object);
+		} else if(subject!=null && predicate==null && object!=null) {
+			result=this.osp.get(object,subject);
+		} else if(subject!=null && predicate==null && object==null) {
+			result=this.spo.get(subject);
+		} else if(subject==null && predicate!=null && object==null) {
+			result=this.pos.get(predicate);
+		} else if(subject==null && predicate==null && object!=null) {
+			result=this.osp.get(object);
+		} else {
+			throw new IllegalArgumentException("The pattern must have one or two bound terms");
+		}
+		return result;
+	}
+
+}
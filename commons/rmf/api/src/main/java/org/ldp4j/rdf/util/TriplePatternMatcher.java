@@ -72,16 +72,35 @@ public final class TriplePatternMatcher implements ITripleMatcher {
 		}
 	}
 
+	private final Resource<?> subject;
+	private final URIRef predicate;
+	private final Node object;
+
 	private final ITripleMatcher subjectFilter;
 	private final ITripleMatcher predicateFilter;
 	private final ITripleMatcher objectFilter;
 
 	public TriplePatternMatcher(Resource<?> subject, URIRef predicate, Node object) {
+		this.subject = subject;
+		this.predicate = predicate;
+		this.object = object;
 		subjectFilter = new SubjectMatcher(subject);
 		predicateFilter = new PredicateMatcher(predicate);
 		objectFilter = new ObjectMatcher(object);
 	}
 
+	Resource<?> getSubject() {
+		return subject;
+	}
+
+	URIRef getPredicate() {
+		return predicate;
+	}
+
+	Node getObject() {
+		return object;
+	}
+
 	@Override
 	public boolean accept(Triple t) {
 		return 
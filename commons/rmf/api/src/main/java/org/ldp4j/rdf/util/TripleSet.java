@@ -26,29 +26,185 @@
  */
 package org.ldp4j.rdf.util;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.SortedSet;
 import java.util.TreeSet;
 
 import org.ldp4j.commons.Assertions;
+import org.ldp4j.rdf.CompactTriple;
 import org.ldp4j.rdf.Node;
+import org.ldp4j.rdf.NodeDictionary;
 import org.ldp4j.rdf.Resource;
 import org.ldp4j.rdf.Triple;
 import org.ldp4j.rdf.URIRef;
 
+/**
+ * Mutable set of triples. The triples are either kept sorted or in the order
+ * they were added. The triples are stored as {@link CompactTriple}s: the
+ * nodes registered in the set's {@link NodeDictionary} are represented by
+ * their dictionary identifiers, and the rest (once the dictionary is full) by
+ * identifiers local to the set. The triples are decoded as they are
+ * retrieved. Pattern lookups and removals are answered using hash indexes by
+ * subject, predicate and object, so that their cost is proportional to the
+ * number of matching triples. The indexes are built on the first pattern
+ * lookup and maintained from then on, so callers that only fill and iterate
+ * the set do not pay for them.
+ */
 public final class TripleSet implements ITripleSet {
 
+	public enum Ordering {
+		SORTED,
+		INSERTION,
+		;
+	}
+
 	private static final String TRIPLE_MATCHER_PARAM = "tripleMatcher";
 
-	private static final class ProtectedIterator implements Iterator<Triple> {
+	/**
+	 * Identifiers of the nodes of the set. The nodes registered in the
+	 * dictionary use the dictionary identifiers. The nodes that do not fit in
+	 * the dictionary get negative identifiers local to the set, starting at
+	 * {@code -2} as {@link NodeDictionary#NO_ID} is reserved. As the
+	 * dictionary never releases an identifier, a node keeps the same
+	 * identifier for the lifetime of the set. The local identifiers are kept
+	 * until the set is cleared.
+	 */
+	private static final class Terms {
 
-		private final Iterator<Triple> delegate;
+		private final NodeDictionary dictionary;
+		private final Map<Node,Integer> ids;
+		private final List<Node> nodes;
 
-		private ProtectedIterator(Iterator<Triple> delegate) {
+		private Terms(NodeDictionary dictionary) {
+			this.dictionary=dictionary;
+			this.ids=new HashMap<Node,Integer>();
+			this.nodes=new ArrayList<Node>();
+		}
+
+		private int id(Node node) {
+			if(this.dictionary!=null) {
+				int id=this.dictionary.id(node);
+				if(id!=NodeDictionary.NO_ID) {
+					return id;
+				}
+			}
+			Integer id=this.ids.get(node);
+			if(id==null) {
+				id=-2-this.nodes.size();
+				this.nodes.add(node);
+				this.ids.put(node,id);
+			}
+			return id;
+		}
+
+		private int lookup(Node node) {
+			if(this.dictionary!=null) {
+				int id=this.dictionary.lookup(node);
+				if(id!=NodeDictionary.NO_ID) {
+					return id;
+				}
+			}
+			Integer id=this.ids.get(node);
+			if(id==null) {
+				return NodeDictionary.NO_ID;
+			}
+			return id;
+		}
+
+		private Node node(int id) {
+			if(id>=0) {
+				return this.dictionary.node(id);
+			}
+			return this.nodes.get(-2-id);
+		}
+
+		private CompactTriple encode(Triple triple) {
+			return
+				new CompactTriple(
+					id(triple.getSubject()),
+					id(triple.getPredicate()),
+					id(triple.getObject()));
+		}
+
+		/**
+		 * Encode the triple without registering its nodes.
+		 *
+		 * @return the compact triple, or {@code null} if any of its nodes is
+		 *         not known to the set.
+		 */
+		private CompactTriple find(Triple triple) {
+			int subject=lookup(triple.getSubject());
+			int predicate=lookup(triple.getPredicate());
+			int object=lookup(triple.getObject());
+			if(subject==NodeDictionary.NO_ID || predicate==NodeDictionary.NO_ID || object==NodeDictionary.NO_ID) {
+				return null;
+			}
+			return new CompactTriple(subject,predicate,object);
+		}
+
+		private Triple decode(CompactTriple triple) {
+			return
+				new Triple(
+					(Resource<?>)node(triple.getSubject()),
+					(URIRef)node(triple.getPredicate()),
+					node(triple.getObject()));
+		}
+
+		private void clear() {
+			this.ids.clear();
+			this.nodes.clear();
+		}
+
+	}
+
+	/**
+	 * Orders the compact triples as their triples are ordered. Equal nodes
+	 * share the same identifier, so the nodes are only decoded when their
+	 * identifiers differ.
+	 */
+	private static final class TripleOrder implements Comparator<CompactTriple> {
+
+		private final Terms terms;
+
+		private TripleOrder(Terms terms) {
+			this.terms=terms;
+		}
+
+		private int compare(int one, int other) {
+			if(one==other) {
+				return 0;
+			}
+			return this.terms.node(one).compareTo(this.terms.node(other));
+		}
+
+		@Override
+		public int compare(CompactTriple o1, CompactTriple o2) {
+			int result=compare(o1.getSubject(),o2.getSubject());
+			if(result==0) {
+				result=compare(o1.getPredicate(),o2.getPredicate());
+			}
+			if(result==0) {
+				result=compare(o1.getObject(),o2.getObject());
+			}
+			return result;
+		}
+
+	}
+
+	private static final class DecodingIterator implements Iterator<Triple> {
+
+		private final Terms terms;
+		private final Iterator<CompactTriple> delegate;
+
+		private DecodingIterator(Terms terms, Iterator<CompactTriple> delegate) {
+			this.terms=terms;
 			this.delegate = delegate;
 		}
 
@@ -59,7 +215,7 @@ public final class TripleSet implements ITripleSet {
 
 		@Override
 		public Triple next() {
-			return delegate.next();
+			return terms.decode(delegate.next());
 		}
 
 		@Override
@@ -69,45 +225,128 @@ public final class TripleSet implements ITripleSet {
 
 	}
 
-	private static final Triple[] EMPTY_TRIPLE_ARRAY = new Triple[0];
+	private final Ordering ordering;
+	private final Terms terms;
+	private final Set<CompactTriple> triples;
 
-	private final SortedSet<Triple> triples=new TreeSet<Triple>();
-	
-	@Override
-	public TripleSet get(Resource<?> subject, URIRef predicate, Node object) {
-		return get(new TriplePatternMatcher(subject, predicate, object));
+	private TripleIndex index;
+
+	public TripleSet() {
+		this(Ordering.SORTED);
 	}
 
-	@Override
-	public TripleSet get(ITripleMatcher tripleMatcher) {
+	public TripleSet(Ordering ordering) {
+		this(ordering,RDFModelDSL.dictionary());
+	}
+
+	/**
+	 * Create a set that encodes its triples using the specified dictionary.
+	 * Sets that share the dictionary copy the triples of each other without
+	 * decoding them. If no dictionary is specified, all the nodes get
+	 * identifiers local to the set.
+	 */
+	public TripleSet(Ordering ordering, NodeDictionary dictionary) {
+		Assertions.notNull(ordering, "ordering");
+		this.ordering=ordering;
+		this.terms=new Terms(dictionary);
+		if(Ordering.SORTED.equals(ordering)) {
+			this.triples=new TreeSet<CompactTriple>(new TripleOrder(this.terms));
+		} else {
+			this.triples=new LinkedHashSet<CompactTriple>();
+		}
+	}
+
+	public Ordering getOrdering() {
+		return this.ordering;
+	}
+
+	private Iterable<Triple> decoded(final Iterable<CompactTriple> triples) {
+		return new Iterable<Triple>() {
+			@Override
+			public Iterator<Triple> iterator() {
+				return new DecodingIterator(terms,triples.iterator());
+			}
+		};
+	}
+
+	private Integer boundId(Node node) {
+		if(node==null) {
+			return null;
+		}
+		return this.terms.lookup(node);
+	}
+
+	private Iterable<CompactTriple> lookup(Resource<?> subject, URIRef predicate, Node object) {
+		if(subject==null && predicate==null && object==null) {
+			return this.triples;
+		}
+		if(subject!=null && predicate!=null && object!=null) {
+			CompactTriple triple=this.terms.find(RDFModelDSL.triple(subject,predicate,object));
+			if(triple!=null && this.triples.contains(triple)) {
+				return Collections.singleton(triple);
+			}
+			return Collections.emptySet();
+		}
+		Integer subjectId=boundId(subject);
+		Integer predicateId=boundId(predicate);
+		Integer objectId=boundId(object);
+		Integer unknown=NodeDictionary.NO_ID;
+		if(unknown.equals(subjectId) || unknown.equals(predicateId) || unknown.equals(objectId)) {
+			return Collections.emptySet();
+		}
+		if(this.index==null) {
+			this.index=new TripleIndex(this.triples);
+		}
+		return this.index.get(subjectId,predicateId,objectId);
+	}
+
+	private Iterable<CompactTriple> matches(ITripleMatcher tripleMatcher) {
 		Assertions.notNull(tripleMatcher, TRIPLE_MATCHER_PARAM);
-		TripleSet result=new TripleSet();
-		for(Triple t:triples) {
-			if(tripleMatcher.accept(t)) {
+		if(tripleMatcher instanceof TriplePatternMatcher) {
+			TriplePatternMatcher pattern=(TriplePatternMatcher)tripleMatcher;
+			return lookup(pattern.getSubject(),pattern.getPredicate(),pattern.getObject());
+		}
+		List<CompactTriple> result=new ArrayList<CompactTriple>();
+		for(CompactTriple t:triples) {
+			if(tripleMatcher.accept(this.terms.decode(t))) {
 				result.add(t);
 			}
 		}
 		return result;
 	}
 
+	@Override
+	public TripleSet get(Resource<?> subject, URIRef predicate, Node object) {
+		TripleSet result=new TripleSet(this.ordering,this.terms.dictionary);
+		result.addAll(this,lookup(subject,predicate,object));
+		return result;
+	}
+
+	@Override
+	public TripleSet get(ITripleMatcher tripleMatcher) {
+		TripleSet result=new TripleSet(this.ordering,this.terms.dictionary);
+		result.addAll(this,matches(tripleMatcher));
+		return result;
+	}
+
 	@Override
 	public boolean contains(Triple triple) {
-		return triples.contains(triple);
+		CompactTriple compact=this.terms.find(triple);
+		return compact!=null && this.triples.contains(compact);
 	}
 
 	@Override
 	public <T extends Iterable<Triple>> boolean containsAll(T triples) { 
 		boolean contains=true;
 		for(Iterator<Triple> i=triples.iterator();i.hasNext() && contains;) {
-			contains=this.triples.contains(i.next());
+			contains=contains(i.next());
 		}
 		return contains;
 	}
 
 	@Override
 	public Iterator<Triple> iterator() {
-		final Iterator<Triple> delegate=triples.iterator();
-		return new ProtectedIterator(delegate);
+		return new DecodingIterator(this.terms,this.triples.iterator());
 	}
 
 	@Override
@@ -122,22 +361,60 @@ public final class TripleSet implements ITripleSet {
 
 	@Override
 	public Triple[] toArray() {
-		return triples.toArray(EMPTY_TRIPLE_ARRAY);
+		Triple[] result=new Triple[this.triples.size()];
+		int i=0;
+		for(CompactTriple triple:this.triples) {
+			result[i++]=this.terms.decode(triple);
+		}
+		return result;
+	}
+
+	private void addTriple(CompactTriple triple) {
+		if(this.triples.add(triple) && this.index!=null) {
+			this.index.add(triple);
+		}
+	}
+
+	private void removeTriple(CompactTriple triple) {
+		if(this.triples.remove(triple) && this.index!=null) {
+			this.index.remove(triple);
+		}
+	}
+
+	/**
+	 * Add the compact triples of another set. The triples whose nodes are all
+	 * registered in the shared dictionary are added as they are, and the rest
+	 * are re-encoded.
+	 */
+	private void addAll(TripleSet source, Iterable<CompactTriple> triples) {
+		boolean shared=
+			source.terms.dictionary!=null &&
+			source.terms.dictionary==this.terms.dictionary;
+		for(CompactTriple t:triples) {
+			if(shared && t.getSubject()>=0 && t.getPredicate()>=0 && t.getObject()>=0) {
+				addTriple(t);
+			} else {
+				addTriple(this.terms.encode(source.terms.decode(t)));
+			}
+		}
 	}
 
 	public void add(Triple... triples) {
-		if(triples!=null && triples.length>0) {
-			this.triples.addAll(Arrays.asList(triples));
+		if(triples!=null) {
+			for(Triple t:triples) {
+				addTriple(this.terms.encode(t));
+			}
 		}
 	}
 
 	public <T extends Iterable<Triple>> void add(T triples) {
 		if(triples!=null) {
 			if(triples instanceof TripleSet) {
-				this.triples.addAll(((TripleSet)triples).triples);
+				TripleSet source=(TripleSet)triples;
+				addAll(source,source.triples);
 			} else {
 				for(Triple t:triples) {
-					this.triples.add(t);
+					addTriple(this.terms.encode(t));
 				}
 			}
 		}
@@ -151,45 +428,55 @@ public final class TripleSet implements ITripleSet {
 	}
 
 	public void remove(Triple... triples) {
-		if(triples!=null && triples.length>0) {
-			this.triples.removeAll(Arrays.asList(triples));
+		if(triples!=null) {
+			for(Triple t:triples) {
+				CompactTriple compact=this.terms.find(t);
+				if(compact!=null) {
+					removeTriple(compact);
+				}
+			}
 		}
 	}
 
 	public <T extends Iterable<Triple>> void remove(T triples) {
 		if(triples!=null) {
-			if(triples instanceof TripleSet) {
-				this.triples.removeAll(((TripleSet)triples).triples);
-			} else {
-				for(Triple t:triples) {
-					this.triples.remove(t);
-				}
+			// Copy the triples first, as they may be a view of this set
+			List<Triple> removed=new ArrayList<Triple>();
+			for(Triple t:triples) {
+				removed.add(t);
 			}
+			remove(removed.toArray(new Triple[removed.size()]));
+		}
+	}
+
+	private void removeAll(Iterable<CompactTriple> triples) {
+		// Copy the triples first, as they are a view of this set
+		List<CompactTriple> removed=new ArrayList<CompactTriple>();
+		for(CompactTriple t:triples) {
+			removed.add(t);
+		}
+		for(CompactTriple t:removed) {
+			removeTriple(t);
 		}
 	}
 
 	public void remove(Resource<?> subject, final URIRef predicate, final Node object) {
-		remove(new TriplePatternMatcher(subject, predicate, object));
+		removeAll(lookup(subject, predicate, object));
 	}
 
 	public void remove(ITripleMatcher tripleMatcher) {
-		Assertions.notNull(tripleMatcher, TRIPLE_MATCHER_PARAM);
-		Set<Triple> result=new HashSet<Triple>();
-		for(Triple t:triples) {
-			if(!tripleMatcher.accept(t)) {
-				result.add(t);
-			}
-		}
-		triples.removeAll(result);
+		removeAll(matches(tripleMatcher));
 	}
 	
 	public void clear() {
 		this.triples.clear();
+		this.terms.clear();
+		this.index=null;
 	}
 
 	@Override
 	public String toString() {
-		return RDFOperations.toString(Collections.unmodifiableSortedSet(triples));
+		return RDFOperations.toString(decoded(this.triples));
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,92 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-api:1.0.0-SNAPSHOT
+ *   Bundle      : rmf-api-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.net.URI;
+
+import org.junit.Test;
+
+public class NodeDictionaryTest {
+
+	private final RDFFactory factory=new RDFFactory();
+
+	private URIRef uriRef(String identity) {
+		return factory.newURIRef(URI.create(identity));
+	}
+
+	@Test
+	public void testEqualNodesShareTheRegisteredInstance() throws Exception {
+		RDFFactory interning=new RDFFactory(new NodeDictionary(4),null);
+		URIRef first=interning.newURIRef(URI.create("http://www.example.org/p"));
+		assertThat(interning.newURIRef(URI.create("http://www.example.org/p")),sameInstance(first));
+		assertThat(interning.newURIRef("http://www.example.org/p"),sameInstance(first));
+		Literal<String> literal=interning.newLiteral("value");
+		assertThat(interning.newLiteral("value"),sameInstance(literal));
+		BlankNode blankNode=interning.newBlankNode("bn1");
+		assertThat(interning.newBlankNode("bn1"),sameInstance(blankNode));
+		assertThat(interning.getDictionary().size(),equalTo(3));
+	}
+
+	@Test
+	public void testFullDictionariesFallBackToTheInterner() throws Exception {
+		RDFFactory interning=new RDFFactory(new NodeDictionary(1),new URIRefInterner());
+		URIRef first=interning.newURIRef(URI.create("http://www.example.org/p"));
+		URIRef second=interning.newURIRef(URI.create("http://www.example.org/q"));
+		assertThat(interning.getDictionary().id(first),equalTo(0));
+		assertThat(interning.getDictionary().lookup(second),equalTo(NodeDictionary.NO_ID));
+		assertThat(interning.newURIRef("http://www.example.org/q"),sameInstance(second));
+	}
+
+	@Test
+	public void testTriplesRoundtrip() {
+		NodeDictionary dictionary=new NodeDictionary(8);
+		Triple triple=new Triple(uriRef("http://www.example.org/s"),uriRef("http://www.example.org/p"),factory.newLiteral("value"));
+		CompactTriple compact=dictionary.encode(triple);
+		assertThat(compact,equalTo(new CompactTriple(0,1,2)));
+		assertThat(dictionary.decode(compact),equalTo(triple));
+		assertThat(dictionary.encode(triple),equalTo(compact));
+		assertThat(dictionary.size(),equalTo(3));
+	}
+
+	@Test
+	public void testFullDictionariesDoNotRegisterNodes() {
+		NodeDictionary dictionary=new NodeDictionary(2);
+		URIRef s=uriRef("http://www.example.org/s");
+		URIRef p=uriRef("http://www.example.org/p");
+		URIRef o=uriRef("http://www.example.org/o");
+		assertThat(dictionary.encode(new Triple(s,p,o)),nullValue());
+		assertThat(dictionary.id(o),equalTo(NodeDictionary.NO_ID));
+		assertThat(dictionary.intern(o),sameInstance(o));
+		assertThat(dictionary.id(uriRef("http://www.example.org/p")),equalTo(1));
+	}
+
+}
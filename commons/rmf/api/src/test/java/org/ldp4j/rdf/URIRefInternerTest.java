@@ -0,0 +1,96 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-api:1.0.0-SNAPSHOT
+ *   Bundle      : rmf-api-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class URIRefInternerTest {
+
+	private static final int THREADS=8;
+
+	@Test
+	public void testEqualURIRefsShareTheInternedInstance() throws Exception {
+		RDFFactory interning=new RDFFactory(new URIRefInterner());
+		URIRef first=interning.newURIRef(URI.create("http://www.example.org/p"));
+		assertThat(interning.newURIRef(URI.create("http://www.example.org/p")),sameInstance(first));
+		assertThat(interning.newURIRef("http://www.example.org/p"),sameInstance(first));
+		assertThat(interning.getInterner().uriRef("http://www.example.org/p"),sameInstance(first));
+	}
+
+	@Test
+	public void testUnknownIdentitiesAreNotResolved() throws Exception {
+		URIRefInterner interner=new URIRefInterner();
+		assertThat(interner.uriRef("http://www.example.org/p"),nullValue());
+		assertThat(interner.uriRef(null),nullValue());
+	}
+
+	@Test
+	public void testConcurrentInterningSharesOneInstance() throws Exception {
+		final URIRefInterner interner=new URIRefInterner();
+		final CountDownLatch start=new CountDownLatch(1);
+		ExecutorService executor=Executors.newFixedThreadPool(THREADS);
+		try {
+			List<Future<URIRef>> results=new ArrayList<Future<URIRef>>();
+			for(int i=0;i<THREADS;i++) {
+				results.add(
+					executor.submit(
+						new Callable<URIRef>() {
+							@Override
+							public URIRef call() throws Exception {
+								start.await();
+								return interner.intern(new URIRef(URI.create("http://www.example.org/p")));
+							}
+						}
+					)
+				);
+			}
+			start.countDown();
+			URIRef first=results.get(0).get();
+			for(Future<URIRef> result:results) {
+				assertThat(result.get(),sameInstance(first));
+			}
+			assertThat(interner.size(),equalTo(1));
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,146 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-api:1.0.0-SNAPSHOT
+ *   Bundle      : rmf-api-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf.util;
+
+import static org.ldp4j.rdf.util.RDFModelDSL.literal;
+import static org.ldp4j.rdf.util.RDFModelDSL.triple;
+import static org.ldp4j.rdf.util.RDFModelDSL.uriRef;
+
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.URIRef;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the cost of pattern lookups in an indexed {@link TripleSet} with
+ * that of the linear scan over a sorted set of triples that it replaces.
+ * The benchmark is not part of the unit test suite and is run using the
+ * 'benchmarks' profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=5,time=1,timeUnit=TimeUnit.SECONDS)
+@Measurement(iterations=10,time=1,timeUnit=TimeUnit.SECONDS)
+@Fork(1)
+public class TripleSetBenchmark {
+
+	private static final int SUBJECTS=2000;
+	private static final int PREDICATES=10;
+
+	private SortedSet<Triple> baseline;
+	private TripleSet sorted;
+	private TripleSet insertion;
+	private URIRef[] subjects;
+	private int next;
+
+	private static URIRef subject(int i) {
+		return uriRef("http://www.example.org/resource"+i);
+	}
+
+	private static URIRef predicate(int i) {
+		return uriRef("http://www.example.org/vocab#p"+i);
+	}
+
+	private static TripleSet populate(TripleSet.Ordering ordering) {
+		TripleSet result=new TripleSet(ordering);
+		for(int i=0;i<SUBJECTS;i++) {
+			for(int j=0;j<PREDICATES;j++) {
+				result.add(triple(subject(i),predicate(j),literal(i*PREDICATES+j)));
+			}
+		}
+		return result;
+	}
+
+	private URIRef nextSubject() {
+		URIRef result=this.subjects[this.next];
+		this.next=(this.next+1)%SUBJECTS;
+		return result;
+	}
+
+	@Setup
+	public void setUp() {
+		this.baseline=new TreeSet<Triple>();
+		for(Triple t:populate(TripleSet.Ordering.SORTED)) {
+			this.baseline.add(t);
+		}
+		this.sorted=populate(TripleSet.Ordering.SORTED);
+		this.insertion=populate(TripleSet.Ordering.INSERTION);
+		this.subjects=new URIRef[SUBJECTS];
+		for(int i=0;i<SUBJECTS;i++) {
+			this.subjects[i]=subject(i);
+		}
+		this.next=0;
+	}
+
+	@Benchmark
+	public int scan() {
+		ITripleMatcher matcher=new TriplePatternMatcher(nextSubject(),null,null);
+		int count=0;
+		for(Triple t:this.baseline) {
+			if(matcher.accept(t)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Benchmark
+	public int indexedSorted() {
+		return this.sorted.get(nextSubject(),null,null).size();
+	}
+
+	@Benchmark
+	public int indexedInsertion() {
+		return this.insertion.get(nextSubject(),null,null).size();
+	}
+
+	@Test
+	public void runBenchmarks() throws Exception {
+		new Runner(
+			new OptionsBuilder().
+				include(getClass().getName()).
+				build()).
+			run();
+	}
+
+}
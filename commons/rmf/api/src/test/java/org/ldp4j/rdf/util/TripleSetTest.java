@@ -0,0 +1,153 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-api:1.0.0-SNAPSHOT
+ *   Bundle      : rmf-api-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.ldp4j.rdf.util.RDFModelDSL.literal;
+import static org.ldp4j.rdf.util.RDFModelDSL.triple;
+import static org.ldp4j.rdf.util.RDFModelDSL.uriRef;
+
+import org.junit.Test;
+import org.ldp4j.rdf.NodeDictionary;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.URIRef;
+
+public class TripleSetTest {
+
+	private static final URIRef S1=uriRef("http://www.example.org/s1");
+	private static final URIRef S2=uriRef("http://www.example.org/s2");
+	private static final URIRef P1=uriRef("http://www.example.org/p1");
+	private static final URIRef P2=uriRef("http://www.example.org/p2");
+	private static final URIRef O1=uriRef("http://www.example.org/o1");
+
+	private static final Triple T1=triple(S2,P1,O1);
+	private static final Triple T2=triple(S1,P2,literal("value"));
+	private static final Triple T3=triple(S1,P1,O1);
+	private static final Triple T4=triple(S1,P1,S2);
+
+	private TripleSet populate(TripleSet.Ordering ordering) {
+		TripleSet sut=new TripleSet(ordering);
+		sut.add(T1,T2,T3,T4);
+		return sut;
+	}
+
+	@Test
+	public void testPatternLookups() throws Exception {
+		for(TripleSet.Ordering ordering:TripleSet.Ordering.values()) {
+			TripleSet sut=populate(ordering);
+			assertThat(sut.get(S1,null,null),containsInAnyOrder(T2,T3,T4));
+			assertThat(sut.get(null,P1,null),containsInAnyOrder(T1,T3,T4));
+			assertThat(sut.get(null,null,O1),containsInAnyOrder(T1,T3));
+			assertThat(sut.get(S1,P1,null),containsInAnyOrder(T3,T4));
+			assertThat(sut.get(null,P1,O1),containsInAnyOrder(T1,T3));
+			assertThat(sut.get(S1,null,O1),containsInAnyOrder(T3));
+			assertThat(sut.get(S1,P1,O1),containsInAnyOrder(T3));
+			assertThat(sut.get(S2,P2,null).isEmpty(),equalTo(true));
+			assertThat(sut.get(null,null,null).size(),equalTo(4));
+			assertThat(sut.get(new TriplePatternMatcher(S1,P1,null)),containsInAnyOrder(T3,T4));
+		}
+	}
+
+	@Test
+	public void testLookupsMatchLinearScan() throws Exception {
+		TripleSet sut=populate(TripleSet.Ordering.INSERTION);
+		ITripleMatcher scan=new ITripleMatcher() {
+			@Override
+			public boolean accept(Triple t) {
+				return t.getSubject().equals(S1) && t.getPredicate().equals(P1);
+			}
+		};
+		assertThat(sut.get(scan),containsInAnyOrder(T3,T4));
+		assertThat(sut.get(S1,P1,null).size(),equalTo(sut.get(scan).size()));
+	}
+
+	@Test
+	public void testOrderings() throws Exception {
+		assertThat(populate(TripleSet.Ordering.INSERTION),contains(T1,T2,T3,T4));
+		TripleSet sorted=populate(TripleSet.Ordering.SORTED);
+		assertThat(sorted,contains(RDFOperations.toTripleSet(T4,T3,T2,T1).toArray()));
+		assertThat(sorted.get(S1,null,null).getOrdering(),equalTo(TripleSet.Ordering.SORTED));
+	}
+
+	@Test
+	public void testIndexesAreMaintainedAfterLookups() throws Exception {
+		TripleSet sut=populate(TripleSet.Ordering.INSERTION);
+		assertThat(sut.get(S1,null,null).size(),equalTo(3));
+		sut.remove(T3);
+		Triple t5=triple(S1,P2,O1);
+		sut.add(t5);
+		assertThat(sut.get(S1,null,null),containsInAnyOrder(T2,T4,t5));
+		assertThat(sut.get(null,null,O1),containsInAnyOrder(T1,t5));
+		sut.clear();
+		assertThat(sut.get(S1,null,null).isEmpty(),equalTo(true));
+	}
+
+	@Test
+	public void testRemovesMatchingTriples() throws Exception {
+		TripleSet sut=populate(TripleSet.Ordering.SORTED);
+		sut.remove(S1,P1,null);
+		assertThat(sut,containsInAnyOrder(T1,T2));
+		sut.remove(new TriplePatternMatcher(null,null,O1));
+		assertThat(sut,containsInAnyOrder(T2));
+	}
+
+	@Test
+	public void testNodesThatDoNotFitInTheDictionaryAreKeptLocally() throws Exception {
+		for(TripleSet.Ordering ordering:TripleSet.Ordering.values()) {
+			NodeDictionary dictionary=new NodeDictionary(2);
+			TripleSet sut=new TripleSet(ordering,dictionary);
+			sut.add(T1,T2,T3,T4);
+			assertThat(dictionary.size(),equalTo(2));
+			assertThat(sut,containsInAnyOrder(T1,T2,T3,T4));
+			assertThat(sut.contains(triple(S1,P2,literal("value"))),equalTo(true));
+			assertThat(sut.contains(triple(S2,P2,O1)),equalTo(false));
+			assertThat(sut.get(null,P1,O1),containsInAnyOrder(T1,T3));
+			sut.remove(T3);
+			assertThat(sut.get(S1,null,null),containsInAnyOrder(T2,T4));
+		}
+		TripleSet sorted=new TripleSet(TripleSet.Ordering.SORTED,new NodeDictionary(1));
+		sorted.add(T1,T2,T3,T4);
+		assertThat(sorted,contains(populate(TripleSet.Ordering.SORTED).toArray()));
+	}
+
+	@Test
+	public void testSetsSharingTheDictionaryCopyTheirTriples() throws Exception {
+		NodeDictionary dictionary=new NodeDictionary(16);
+		TripleSet source=new TripleSet(TripleSet.Ordering.INSERTION,dictionary);
+		source.add(T1,T2,T3,T4);
+		TripleSet sut=new TripleSet(TripleSet.Ordering.SORTED,dictionary);
+		sut.add(source);
+		assertThat(sut,containsInAnyOrder(T1,T2,T3,T4));
+		TripleSet other=new TripleSet(TripleSet.Ordering.INSERTION,null);
+		other.add(source);
+		assertThat(other,contains(T1,T2,T3,T4));
+	}
+
+}
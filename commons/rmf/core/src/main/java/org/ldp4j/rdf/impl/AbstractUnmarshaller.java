@@ -26,6 +26,11 @@
  */
 package org.ldp4j.rdf.impl;
 
+import java.io.IOException;
+import java.io.Reader;
+
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.TripleHandler;
 import org.ldp4j.rdf.spi.Configuration;
 import org.ldp4j.rdf.spi.Unmarshaller;
 
@@ -53,4 +58,20 @@ public abstract class AbstractUnmarshaller<T> implements Unmarshaller<T> {
 				UnmarshallOptions.ordering(getConfiguration()));
 	}
 
+	@Override
+	public final Iterable<Triple> unmarshall(T source) throws IOException {
+		return getParser().parse(toReader(source));
+	}
+
+	@Override
+	public final void unmarshall(T source, TripleHandler handler) throws IOException {
+		getParser().parse(toReader(source),handler);
+	}
+
+	/**
+	 * Adapt the source to a character stream that the parser can consume
+	 * incrementally.
+	 */
+	protected abstract Reader toReader(T source) throws IOException;
+
 }
@@ -26,15 +26,14 @@
  */
 package org.ldp4j.rdf.impl;
 
-import java.io.IOException;
-
-import org.ldp4j.rdf.Triple;
+import java.io.Reader;
+import java.io.StringReader;
 
 final class CharSequenceUnmarshaller extends AbstractUnmarshaller<CharSequence> {
 
 	@Override
-	public Iterable<Triple> unmarshall(CharSequence source) throws IOException {
-		return getParser().parse(source.toString());
+	protected Reader toReader(CharSequence source) {
+		return new StringReader(source.toString());
 	}
-	
+
 }
\ No newline at end of file
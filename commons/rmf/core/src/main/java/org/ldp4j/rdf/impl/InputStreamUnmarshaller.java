@@ -26,17 +26,18 @@
  */
 package org.ldp4j.rdf.impl;
 
-import java.io.IOException;
 import java.io.InputStream;
-
-import org.apache.commons.io.IOUtils;
-import org.ldp4j.rdf.Triple;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
 
 final class InputStreamUnmarshaller extends AbstractUnmarshaller<InputStream> {
 
+	private static final Charset CHARSET=Charset.forName("UTF-8");
+
 	@Override
-	public Iterable<Triple> unmarshall(InputStream source) throws IOException {
-		return getParser().parse(IOUtils.toString(source));
+	protected Reader toReader(InputStream source) {
+		return new InputStreamReader(source,CHARSET);
 	}
-	
+
 }
\ No newline at end of file
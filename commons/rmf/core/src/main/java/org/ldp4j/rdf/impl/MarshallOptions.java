@@ -0,0 +1,64 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-core:1.0.0-SNAPSHOT
+ *   Bundle      : rmf-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf.impl;
+
+import org.ldp4j.rdf.Format;
+import org.ldp4j.rdf.spi.Configuration;
+
+public final class MarshallOptions {
+
+	public static final String MARSHALL_STYLE="org.ldp4j.rdf.marshall.style";
+
+	/**
+	 * The pretty printing style groups the triples by subject before writing
+	 * them, thus it keeps the whole content in memory. The streaming style
+	 * writes each triple as soon as it is received, and must be explicitly
+	 * requested. Only Turtle and RDF/XML are written as they are received:
+	 * the JSON-LD writer always buffers the whole content, whatever the style.
+	 */
+	public enum MarshallStyle {
+		PRETTY_PRINTING,
+		STREAMING,
+		;
+	}
+
+	private MarshallOptions() {
+	}
+
+	static MarshallStyle style(Configuration configuration) {
+		return configuration.getOption(MARSHALL_STYLE, MarshallStyle.class, MarshallStyle.PRETTY_PRINTING);
+	}
+
+	/**
+	 * @return whether the streaming style writes the content in the specified
+	 *         format without buffering it first
+	 */
+	public static boolean isStreamable(Format format) {
+		return Format.TURTLE.equals(format) || Format.RDF_XML.equals(format);
+	}
+
+}
@@ -26,17 +26,21 @@
  */
 package org.ldp4j.rdf.impl;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 
 import org.ldp4j.rdf.Triple;
 import org.ldp4j.rdf.spi.Marshaller;
 import org.ldp4j.rdf.spi.Configuration;
 
-import org.apache.commons.io.IOUtils;
-
 final class OutputStreamMarshaller implements Marshaller<OutputStream> {
 
+	private static final Charset CHARSET=Charset.forName("UTF-8");
+
 	private Configuration options;
 
 	@Override
@@ -51,8 +55,8 @@ final class OutputStreamMarshaller implements Marshaller<OutputStream> {
 
 	@Override
 	public void marshall(Iterable<Triple> triples, OutputStream target) throws IOException {
-		String output = new RDFModelFormater(getConfiguration().getBase(),getConfiguration().getNamespaces(),getConfiguration().getFormat()).format(triples);
-		IOUtils.write(output, target);
+		Writer writer=new BufferedWriter(new OutputStreamWriter(target,CHARSET));
+		new RDFModelFormater(getConfiguration().getBase(),getConfiguration().getNamespaces(),getConfiguration().getFormat(),MarshallOptions.style(getConfiguration())).format(triples,writer);
 	}
 
 }
\ No newline at end of file
@@ -41,6 +41,7 @@ import org.ldp4j.rdf.NodeVisitor;
 import org.ldp4j.rdf.Triple;
 import org.ldp4j.rdf.TypedLiteral;
 import org.ldp4j.rdf.URIRef;
+import org.ldp4j.rdf.impl.MarshallOptions.MarshallStyle;
 import org.megatwork.rdf.sesame.TurtlePrettyPrinter;
 import org.openrdf.model.Statement;
 import org.openrdf.model.ValueFactory;
@@ -195,18 +196,37 @@ final class RDFModelFormater {
 	private final URI baseURI;
 	private final Format format;
 	private final Namespaces namespaces;
+	private final MarshallStyle style;
 
 	RDFModelFormater(URI baseURI, Namespaces namespaces, Format format) {
+		this(baseURI,namespaces,format,MarshallStyle.PRETTY_PRINTING);
+	}
+
+	RDFModelFormater(URI baseURI, Namespaces namespaces, Format format, MarshallStyle style) {
 		this.baseURI   =baseURI;
 		this.format    =format;
 		this.namespaces=new Namespaces(namespaces);
+		this.style     =style;
 	}
 
 	public String format(Iterable<Triple> triples) throws IOException {
 		StringWriter writer=new StringWriter();
+		format(triples,writer);
+		return writer.toString();
+	}
+
+	/**
+	 * Format the specified triples writing the result into the specified
+	 * writer. The writer is flushed but not closed. Turtle is pretty printed
+	 * by default, which requires keeping the whole content in memory. In the
+	 * {@link MarshallStyle#STREAMING streaming} style Turtle and RDF/XML are
+	 * written as the triples are received, whereas JSON-LD is always buffered
+	 * by the underlying writer.
+	 */
+	public void format(Iterable<Triple> triples, Writer writer) throws IOException {
 		try {
 			exportTriples(triples, cretateWriter(writer));
-			return writer.toString();
+			writer.flush();
 		} catch (RDFHandlerException e) {
 			throw new IOException(e);
 		}
@@ -239,9 +259,11 @@ final class RDFModelFormater {
 		}
 	}
 
-	private RDFWriter cretateWriter(StringWriter writer) {
+	private RDFWriter cretateWriter(Writer writer) {
 		RDFWriter result=null;
-		if(format.equals(Format.TURTLE)) {
+		if(format.equals(Format.TURTLE) && style.equals(MarshallStyle.STREAMING)) {
+			result=new RebasingTurtleWriter(writer);
+		} else if(format.equals(Format.TURTLE)) {
 			result=new TurtlePrettyPrinter(new MemValueFactory().createURI(baseURI.toString()),writer);
 		} else {
 			RDFWriterRegistry registry=RDFWriterRegistry.getInstance();
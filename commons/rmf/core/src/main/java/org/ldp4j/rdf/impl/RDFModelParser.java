@@ -27,16 +27,17 @@
 package org.ldp4j.rdf.impl;
 
 import java.io.IOException;
-import java.io.StringReader;
+import java.io.Reader;
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Collections;
 
 import org.ldp4j.rdf.Format;
 import org.ldp4j.rdf.Namespaces;
 import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.TripleHandler;
 import org.ldp4j.rdf.impl.UnmarshallOptions.Ordering;
 import org.ldp4j.rdf.impl.UnmarshallOptions.UnmarshallStyle;
+import org.ldp4j.rdf.util.RDFModelDSL;
 import org.ldp4j.rdf.util.TripleSet;
 import org.megatwork.rdf.sesame.SesameModelParser;
 import org.openrdf.OpenRDFException;
@@ -63,7 +64,7 @@ final class RDFModelParser {
 		
 		Iterable<Triple> triples();
 		
-		void addTriple(Triple triple);
+		void addTriple(Triple triple) throws IOException;
 		
 	}
 
@@ -74,7 +75,7 @@ final class RDFModelParser {
 	}
 
 	private final class UnorderedTripleSink implements TripleSink {
-		private List<Triple> triples=new ArrayList<Triple>();
+		private TripleSet triples=new TripleSet(TripleSet.Ordering.INSERTION,RDFModelDSL.dictionary());
 	
 		@Override
 		public Iterable<Triple> triples() {
@@ -88,7 +89,7 @@ final class RDFModelParser {
 	}
 
 	private final class SortingTripleSink implements TripleSink {
-		private TripleSet triples=new TripleSet();
+		private TripleSet triples=new TripleSet(TripleSet.Ordering.SORTED,RDFModelDSL.dictionary());
 	
 		@Override
 		public Iterable<Triple> triples() {
@@ -101,12 +102,30 @@ final class RDFModelParser {
 		}
 	}
 
+	private static final class HandlerTripleSink implements TripleSink {
+		private final TripleHandler handler;
+
+		private HandlerTripleSink(TripleHandler handler) {
+			this.handler = handler;
+		}
+
+		@Override
+		public Iterable<Triple> triples() {
+			return Collections.<Triple>emptyList();
+		}
+
+		@Override
+		public void addTriple(Triple triple) throws IOException {
+			this.handler.handleTriple(triple);
+		}
+	}
+
 	private static final class RepositoryBasedTripleProducer implements TripleProducer {
-		private final String content;
+		private final Reader content;
 		private final RDFFormat format;
 		private final String base;
 	
-		private RepositoryBasedTripleProducer(String content, RDFFormat format, String base) {
+		private RepositoryBasedTripleProducer(Reader content, RDFFormat format, String base) {
 			this.content = content;
 			this.format = format;
 			this.base = base;
@@ -148,7 +167,7 @@ final class RDFModelParser {
 			}
 		}
 
-		private void importRepository(RepositoryConnection connection, TripleSink sink) throws RepositoryException {
+		private void importRepository(RepositoryConnection connection, TripleSink sink) throws RepositoryException, IOException {
 			RepositoryResult<Statement> statements = null;
 			try {
 				statements=connection.getStatements(null, null, null, false);
@@ -161,8 +180,8 @@ final class RDFModelParser {
 			}
 		}
 
-		private void populateRepository(String content, RepositoryConnection connection) throws IOException, RDFParseException, RepositoryException {
-			connection.add(new StringReader(content), this.base, this.format);
+		private void populateRepository(Reader content, RepositoryConnection connection) throws IOException, RDFParseException, RepositoryException {
+			connection.add(content, this.base, this.format);
 		}
 
 		private Namespaces getNamespaces(RepositoryConnection connection) throws RepositoryException {
@@ -199,12 +218,58 @@ final class RDFModelParser {
 		}
 	}
 
+	/**
+	 * Converts each statement as soon as the parser reports it, and pushes the
+	 * resulting triple to the sink. Namespaces are collected as they are
+	 * declared, so that only those already seen are available for decoding
+	 * the statements.
+	 */
+	private static final class StreamingRDFHandler implements RDFHandler {
+
+		private final TripleSink sink;
+		private final SesameModelParser tripleParser;
+		private final Namespaces namespaces;
+
+		private StreamingRDFHandler(TripleSink sink) {
+			this.sink = sink;
+			this.namespaces = new Namespaces();
+			this.tripleParser = new SesameModelParser(this.namespaces);
+		}
+
+		@Override
+		public void startRDF() throws RDFHandlerException {
+		}
+
+		@Override
+		public void endRDF() throws RDFHandlerException {
+		}
+
+		@Override
+		public void handleNamespace(String prefix, String uri) throws RDFHandlerException {
+			this.namespaces.addPrefix(prefix,uri);
+		}
+
+		@Override
+		public void handleStatement(Statement st) throws RDFHandlerException {
+			try {
+				this.sink.addTriple(this.tripleParser.parseStatement(st));
+			} catch (IOException e) {
+				throw new RDFHandlerException(e);
+			}
+		}
+
+		@Override
+		public void handleComment(String comment) throws RDFHandlerException {
+		}
+
+	}
+
 	private static final class ParserBasedTripleProducer implements TripleProducer {
-		private final String content;
+		private final Reader content;
 		private final RDFFormat format;
 		private final String base;
 	
-		private ParserBasedTripleProducer(String content, RDFFormat format, String base) {
+		private ParserBasedTripleProducer(Reader content, RDFFormat format, String base) {
 			this.content = content;
 			this.format = format;
 			this.base = base;
@@ -212,37 +277,15 @@ final class RDFModelParser {
 	
 		@Override
 		public void injectTriples(TripleSink sink) throws IOException {
+			RDFParser parser=Rio.createParser(this.format);
+			parser.setRDFHandler(new StreamingRDFHandler(sink));
 			try {
-				final Namespaces namespaces = new Namespaces();
-				final List<Statement> statements=new ArrayList<Statement>();
-				RDFParser parser = 
-					Rio.createParser(this.format);
-						parser.setRDFHandler(
-							new RDFHandler() {
-								@Override
-								public void startRDF() throws RDFHandlerException {
-								}
-								@Override
-								public void endRDF() throws RDFHandlerException {
-								}
-								@Override
-								public void handleNamespace(String prefix, String uri) throws RDFHandlerException {
-									namespaces.addPrefix(prefix,uri);
-								}
-								@Override
-								public void handleStatement(Statement st) throws RDFHandlerException {
-									statements.add(st);
-								}
-								@Override
-								public void handleComment(String comment) throws RDFHandlerException {
-								}
-							}
-						);
-				parser.parse(new StringReader(this.content), this.base);
-				SesameModelParser tripleParser=new SesameModelParser(namespaces);
-				for(Statement st:statements) {
-					sink.addTriple(tripleParser.parseStatement(st));
+				parser.parse(this.content, this.base);
+			} catch (RDFHandlerException e) {
+				if(e.getCause() instanceof IOException) {
+					throw (IOException)e.getCause();
 				}
+				throw new IOException(e);
 			} catch (OpenRDFException e) {
 				throw new IOException(e);
 			}
@@ -265,7 +308,7 @@ final class RDFModelParser {
 		this.ordering = ordering;
 	}
 
-	private TripleProducer getProducer(String content) {
+	private TripleProducer getProducer(Reader content) {
 		RDFFormat format = 
 			RDFFormat.
 				forMIMEType(
@@ -296,10 +339,20 @@ final class RDFModelParser {
 		return sink;
 	}
 
-	public Iterable<Triple> parse(final String content) throws IOException {
+	public Iterable<Triple> parse(final Reader content) throws IOException {
 		TripleSink sink = getTripleSink();
 		TripleProducer producer = getProducer(content);
 		producer.injectTriples(sink);
 		return sink.triples();
 	}
+
+	/**
+	 * Parse the content and hand each triple to the specified handler as soon
+	 * as it is available. Triples are delivered in the order they are
+	 * produced, regardless of the configured ordering.
+	 */
+	public void parse(final Reader content, final TripleHandler handler) throws IOException {
+		TripleProducer producer = getProducer(content);
+		producer.injectTriples(new HandlerTripleSink(handler));
+	}
 }
\ No newline at end of file
@@ -30,6 +30,7 @@ import java.io.IOException;
 
 import org.ldp4j.rdf.Format;
 import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.TripleHandler;
 import org.ldp4j.rdf.spi.Configuration;
 import org.ldp4j.rdf.spi.Unmarshaller;
 
@@ -55,4 +56,9 @@ final class UnavailableUnmarshaller<T> implements Unmarshaller<T> {
 		throw new IOException(error);
 	}
 
+	@Override
+	public void unmarshall(T source, TripleHandler handler) throws IOException {
+		throw new IOException(error);
+	}
+
 }
\ No newline at end of file
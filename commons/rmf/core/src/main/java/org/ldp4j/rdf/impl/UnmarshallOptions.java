@@ -40,6 +40,11 @@ public final class UnmarshallOptions {
 	
 	public static final String UNMARSHALL_STYLE="org.ldp4j.rdf.unmarshall.style";
 	
+	/**
+	 * The parser based style converts each statement as soon as it is parsed.
+	 * The repository based style loads the whole content in an in-memory
+	 * repository before converting it, and must be explicitly requested.
+	 */
 	public enum UnmarshallStyle {
 		REPOSITORY_BASED,
 		PARSER_BASED,
@@ -51,7 +56,7 @@ public final class UnmarshallOptions {
 	}
 
 	static UnmarshallStyle style(Configuration configuration) {
-		return configuration.getOption(UNMARSHALL_STYLE, UnmarshallStyle.class, UnmarshallStyle.REPOSITORY_BASED);
+		return configuration.getOption(UNMARSHALL_STYLE, UnmarshallStyle.class, UnmarshallStyle.PARSER_BASED);
 	}
 
 }
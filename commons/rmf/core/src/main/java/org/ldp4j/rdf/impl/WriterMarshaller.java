@@ -49,8 +49,7 @@ final class WriterMarshaller implements Marshaller<Writer> {
 
 	@Override
 	public void marshall(Iterable<Triple> triples, Writer target) throws IOException {
-		String output = new RDFModelFormater(getConfiguration().getBase(),getConfiguration().getNamespaces(),getConfiguration().getFormat()).format(triples);
-		target.write(output);
+		new RDFModelFormater(getConfiguration().getBase(),getConfiguration().getNamespaces(),getConfiguration().getFormat(),MarshallOptions.style(getConfiguration())).format(triples,target);
 	}
 
 }
\ No newline at end of file
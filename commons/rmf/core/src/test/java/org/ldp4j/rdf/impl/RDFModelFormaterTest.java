@@ -0,0 +1,123 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-core:1.0.0-SNAPSHOT
+ *   Bundle      : rmf-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.ldp4j.rdf.util.RDFModelDSL.literal;
+import static org.ldp4j.rdf.util.RDFModelDSL.triple;
+import static org.ldp4j.rdf.util.RDFModelDSL.uriRef;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.ldp4j.rdf.Format;
+import org.ldp4j.rdf.Namespaces;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.impl.MarshallOptions.MarshallStyle;
+import org.ldp4j.rdf.impl.UnmarshallOptions.Ordering;
+import org.ldp4j.rdf.impl.UnmarshallOptions.UnmarshallStyle;
+import org.ldp4j.rdf.util.TripleSet;
+
+public class RDFModelFormaterTest {
+
+	private static final URI BASE = URI.create("http://www.example.org/");
+
+	private static final List<Triple> TRIPLES=
+		Arrays.asList(
+			triple(uriRef(BASE.resolve("example")),uriRef("http://www.example.org/vocab#size"),literal(3)),
+			triple(uriRef(BASE.resolve("example")),uriRef("http://www.example.org/vocab#property"),uriRef(BASE.resolve("example/test"))),
+			triple(uriRef(BASE.resolve("example/test")),uriRef("http://www.example.org/vocab#propertyInverse"),uriRef(BASE.resolve("example")))
+		);
+
+	private RDFModelFormater formater(MarshallStyle style) {
+		return new RDFModelFormater(BASE,new Namespaces(),Format.TURTLE,style);
+	}
+
+	private TripleSet parse(String content) throws Exception {
+		TripleSet result=new TripleSet();
+		RDFModelParser parser=new RDFModelParser(BASE,Format.TURTLE,UnmarshallStyle.PARSER_BASED,Ordering.KEEP_TRIPLE_ORDER);
+		for(Triple triple:parser.parse(new StringReader(content))) {
+			result.add(triple);
+		}
+		return result;
+	}
+
+	@Test
+	public void testStylesProduceTheSameTriples() throws Exception {
+		TripleSet streamed=parse(formater(MarshallStyle.STREAMING).format(TRIPLES));
+		TripleSet prettyPrinted=parse(formater(MarshallStyle.PRETTY_PRINTING).format(TRIPLES));
+		assertThat(streamed.size(),equalTo(TRIPLES.size()));
+		assertThat(prettyPrinted.containsAll(streamed),equalTo(true));
+		assertThat(streamed.containsAll(prettyPrinted),equalTo(true));
+	}
+
+	/**
+	 * When the last triple is pulled, the triples of the first subject must
+	 * have been written already.
+	 */
+	@Test
+	public void testStreamingWritesTriplesAsTheyAreReceived() throws Exception {
+		final StringWriter writer=new StringWriter();
+		final StringBuilder written=new StringBuilder();
+		Iterable<Triple> triples=new Iterable<Triple>() {
+			@Override
+			public Iterator<Triple> iterator() {
+				final Iterator<Triple> delegate=TRIPLES.iterator();
+				return new Iterator<Triple>() {
+					private int pulled;
+					@Override
+					public boolean hasNext() {
+						return delegate.hasNext();
+					}
+					@Override
+					public Triple next() {
+						if(++this.pulled==TRIPLES.size()) {
+							written.append(writer.toString());
+						}
+						return delegate.next();
+					}
+					@Override
+					public void remove() {
+						throw new UnsupportedOperationException();
+					}
+				};
+			}
+		};
+		formater(MarshallStyle.STREAMING).format(triples,writer);
+		assertThat(written.toString(),containsString("vocab#size"));
+		assertThat(written.toString(),containsString("vocab#property"));
+		assertThat(writer.toString(),containsString("vocab#propertyInverse"));
+	}
+
+}
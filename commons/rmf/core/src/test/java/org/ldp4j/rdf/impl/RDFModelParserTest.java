@@ -0,0 +1,125 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.commons.rmf:rmf-core:1.0.0-SNAPSHOT
+ *   Bundle      : rmf-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.rdf.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+import static org.ldp4j.rdf.util.RDFModelDSL.literal;
+import static org.ldp4j.rdf.util.RDFModelDSL.triple;
+import static org.ldp4j.rdf.util.RDFModelDSL.uriRef;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.ldp4j.rdf.Format;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.TripleHandler;
+import org.ldp4j.rdf.impl.UnmarshallOptions.Ordering;
+import org.ldp4j.rdf.impl.UnmarshallOptions.UnmarshallStyle;
+import org.ldp4j.rdf.util.TripleSet;
+
+public class RDFModelParserTest {
+
+	private static final URI BASE = URI.create("http://www.example.org/");
+
+	private static final String CONTENT=
+		"@prefix ex: <http://www.example.org/vocab#> .\n"+
+		"<example> ex:size 3 ; ex:property <example/test> .\n"+
+		"<example/test> ex:propertyInverse <example> .\n";
+
+	private RDFModelParser parser(UnmarshallStyle style, Ordering ordering) {
+		return new RDFModelParser(BASE,Format.TURTLE,style,ordering);
+	}
+
+	private TripleSet parse(UnmarshallStyle style) throws IOException {
+		TripleSet result=new TripleSet();
+		for(Triple triple:parser(style,Ordering.SORT_TRIPLES).parse(new StringReader(CONTENT))) {
+			result.add(triple);
+		}
+		return result;
+	}
+
+	@Test
+	public void testStylesProduceTheSameTriples() throws Exception {
+		TripleSet streamed=parse(UnmarshallStyle.PARSER_BASED);
+		TripleSet stored=parse(UnmarshallStyle.REPOSITORY_BASED);
+		assertThat(streamed.size(),equalTo(3));
+		assertThat(streamed.containsAll(stored),equalTo(true));
+		assertThat(stored.containsAll(streamed),equalTo(true));
+	}
+
+	@Test
+	public void testTriplesAreHandledInParsingOrder() throws Exception {
+		final List<Triple> triples=new ArrayList<Triple>();
+		parser(UnmarshallStyle.PARSER_BASED,Ordering.SORT_TRIPLES).
+			parse(
+				new StringReader(CONTENT),
+				new TripleHandler() {
+					@Override
+					public void handleTriple(Triple triple) {
+						triples.add(triple);
+					}
+				}
+			);
+		Triple[] expected={
+			triple(uriRef(BASE.resolve("example")),uriRef("http://www.example.org/vocab#size"),literal(3)),
+			triple(uriRef(BASE.resolve("example")),uriRef("http://www.example.org/vocab#property"),uriRef(BASE.resolve("example/test"))),
+			triple(uriRef(BASE.resolve("example/test")),uriRef("http://www.example.org/vocab#propertyInverse"),uriRef(BASE.resolve("example")))
+		};
+		assertThat(triples.size(),equalTo(expected.length));
+		for(int i=0;i<expected.length;i++) {
+			assertThat(triples.get(i).compareTo(expected[i]),equalTo(0));
+		}
+	}
+
+	@Test
+	public void testHandlerFailuresArePropagated() throws Exception {
+		final IOException failure=new IOException("Failure");
+		try {
+			parser(UnmarshallStyle.PARSER_BASED,Ordering.SORT_TRIPLES).
+				parse(
+					new StringReader(CONTENT),
+					new TripleHandler() {
+						@Override
+						public void handleTriple(Triple triple) throws IOException {
+							throw failure;
+						}
+					}
+				);
+			fail("Handler failure should have been propagated");
+		} catch (IOException e) {
+			assertThat(e,sameInstance(failure));
+		}
+	}
+
+}
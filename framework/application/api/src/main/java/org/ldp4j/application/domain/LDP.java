@@ -249,6 +249,19 @@ public final class LDP extends AbstractImmutableVocabulary<ImmutableTerm> {
 	 */
 	public static final Term INDIRECT_CONTAINER;
 
+	/**
+	 * PAGE
+	 * <p>
+	 * {@code http://www.w3.org/ns/ldp#Page}.
+	 * <p>
+	 * URI signifying that the resource is an in-sequence page resource, as
+	 * defined by LDP Paging. Typically used on Link rel='type' response
+	 * headers.
+	 * 
+	 * @see <a href="http://www.w3.org/ns/ldp#Page">ldp:Page</a>
+	 */
+	public static final Term PAGE;
+
 	/* ---------------------------------------------------------------------- */
 	/* INDIVIDUALS                                                            */
 	/* ---------------------------------------------------------------------- */
@@ -345,6 +358,7 @@ public final class LDP extends AbstractImmutableVocabulary<ImmutableTerm> {
 		BASIC_CONTAINER=term("BasicContainer");
 		DIRECT_CONTAINER=term("DirectContainer");
 		INDIRECT_CONTAINER=term("IndirectContainer");
+		PAGE=term("Page");
 		// Initialize individuals
 		MEMBER_SUBJECT=term("MemberSubject");
 		PREFER_CONTAINMENT=term("PreferContainment");
@@ -32,6 +32,14 @@ import org.ldp4j.application.data.Name;
 
 public interface ContainerSnapshot extends ResourceSnapshot {
 
+	/**
+	 * Get a read-only view of the members of the container. The snapshots of
+	 * the members are retrieved as the view is iterated, so handlers that only
+	 * need some of the members, or that need to know how many members there
+	 * are, do not pay for the rest.
+	 *
+	 * @return the members of the container
+	 */
 	Set<? extends ResourceSnapshot> members();
 
 	ResourceSnapshot addMember(Name<?> resourceName);
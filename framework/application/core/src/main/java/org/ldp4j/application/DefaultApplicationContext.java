@@ -26,15 +26,21 @@
  */
 package org.ldp4j.application;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.data.ManagedIndividualId;
 import org.ldp4j.application.endpoint.Endpoint;
 import org.ldp4j.application.endpoint.EndpointLifecycleListener;
 import org.ldp4j.application.endpoint.EndpointManagementService;
+import org.ldp4j.application.endpoint.Tombstone;
 import org.ldp4j.application.engine.ApplicationInitializationException;
 import org.ldp4j.application.engine.context.ApplicationContext;
 import org.ldp4j.application.engine.context.ApplicationContextException;
@@ -64,22 +70,27 @@ import org.ldp4j.application.spi.RepositoryRegistry;
 import org.ldp4j.application.spi.ResourceRepository;
 import org.ldp4j.application.spi.RuntimeInstance;
 import org.ldp4j.application.spi.ServiceRegistry;
+import org.ldp4j.application.spi.TombstoneRepository;
+import org.ldp4j.application.template.BasicContainerTemplate;
+import org.ldp4j.application.template.ContainerTemplate;
+import org.ldp4j.application.template.DirectContainerTemplate;
+import org.ldp4j.application.template.IndirectContainerTemplate;
+import org.ldp4j.application.template.MembershipAwareContainerTemplate;
 import org.ldp4j.application.template.ResourceTemplate;
 import org.ldp4j.application.template.TemplateIntrospector;
 import org.ldp4j.application.template.TemplateManagementService;
+import org.ldp4j.application.template.TemplateVisitor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.Maps;
-
 public final class DefaultApplicationContext implements ApplicationContext {
 
 	private static final class GonePublicResource implements PublicResource {
 
-		private final Endpoint endpoint;
+		private final Tombstone tombstone;
 
-		private GonePublicResource(Endpoint endpoint) {
-			this.endpoint = endpoint;
+		private GonePublicResource(Tombstone tombstone) {
+			this.tombstone = tombstone;
 		}
 
 		@Override
@@ -89,17 +100,17 @@ public final class DefaultApplicationContext implements ApplicationContext {
 
 		@Override
 		public String path() {
-			return endpoint.path();
+			return tombstone.path();
 		}
 
 		@Override
 		public EntityTag entityTag() {
-			return endpoint.entityTag();
+			return tombstone.entityTag();
 		}
 
 		@Override
 		public Date lastModified() {
-			return endpoint.lastModified();
+			return tombstone.lastModified();
 		}
 
 		@Override
@@ -114,7 +125,7 @@ public final class DefaultApplicationContext implements ApplicationContext {
 
 		@Override
 		public ManagedIndividualId individualId() {
-			return ManagedIndividualId.createId(endpoint.resourceId().name(), endpoint.resourceId().templateId());
+			return ManagedIndividualId.createId(tombstone.resourceId().name(), tombstone.resourceId().templateId());
 		}
 
 		@Override
@@ -141,11 +152,85 @@ public final class DefaultApplicationContext implements ApplicationContext {
 	private final class LocalEndpointLifecycleListener implements EndpointLifecycleListener {
 		@Override
 		public void endpointCreated(Endpoint endpoint) {
+			DefaultApplicationContext.this.goneEndpoints.remove(endpoint.path());
 		}
 		@Override
 		public void endpointDeleted(Endpoint endpoint) {
-			DefaultApplicationContext.this.goneEndpoints.put(endpoint.path(),endpoint);
+			DefaultApplicationContext.this.goneEndpoints.add(Tombstone.create(endpoint,System.currentTimeMillis()));
+		}
+	}
+
+	/**
+	 * The capabilities of the root and non-root resources of a template,
+	 * which do not change once the template has been loaded.
+	 */
+	private static final class TemplateCapabilities {
+
+		private final MutableCapabilities root;
+		private final MutableCapabilities member;
+
+		private TemplateCapabilities(ResourceTemplate template) {
+			this.root=capabilities(template,true);
+			this.member=capabilities(template,false);
+		}
+
+		private static MutableCapabilities capabilities(ResourceTemplate template, boolean root) {
+			MutableCapabilities result=new MutableCapabilities();
+			Class<? extends ResourceHandler> handlerClass = template.handlerClass();
+			result.setModifiable(Modifiable.class.isAssignableFrom(handlerClass));
+			result.setDeletable(Deletable.class.isAssignableFrom(handlerClass) && !root);
+			// TODO: Analyze how to provide patch support
+			result.setPatchable(false);
+			TemplateIntrospector introspector = TemplateIntrospector.newInstance(template);
+			result.setFactory(introspector.isContainer());
+			return result;
+		}
+
+		private Capabilities forResource(Resource resource) {
+			return resource.isRoot()?this.root:this.member;
 		}
+
+	}
+
+	/**
+	 * Computes the capabilities of every template of the library.
+	 */
+	private final class CapabilitiesPrecomputer implements TemplateVisitor {
+
+		private void precompute(ResourceTemplate template) {
+			DefaultApplicationContext.this.capabilities.putIfAbsent(template,new TemplateCapabilities(template));
+		}
+
+		@Override
+		public void visitResourceTemplate(ResourceTemplate template) {
+			precompute(template);
+		}
+
+		@Override
+		public void visitContainerTemplate(ContainerTemplate template) {
+			precompute(template);
+		}
+
+		@Override
+		public void visitBasicContainerTemplate(BasicContainerTemplate template) {
+			precompute(template);
+		}
+
+		@Override
+		public void visitMembershipAwareContainerTemplate(MembershipAwareContainerTemplate template) {
+			precompute(template);
+		}
+
+		@Override
+		public void visitDirectContainerTemplate(DirectContainerTemplate template) {
+			precompute(template);
+		}
+
+		@Override
+		public void visitIndirectContainerTemplate(IndirectContainerTemplate template) {
+			precompute(template);
+		}
+
 	}
 
 	private static Logger LOGGER=LoggerFactory.getLogger(DefaultApplicationContext.class);
@@ -154,6 +239,7 @@ public final class DefaultApplicationContext implements ApplicationContext {
 
 	private ResourceRepository resourceRepository;
 	private EndpointRepository endpointRepository;
+	private TombstoneRepository goneEndpoints;
 	private ApplicationLifecycleService applicationLifecycleService;
 	private TemplateManagementService templateManagementService;
 	private EndpointManagementService endpointManagementService;
@@ -165,12 +251,12 @@ public final class DefaultApplicationContext implements ApplicationContext {
 
 	private final DefaultPublicResourceFactory factory;
 	private final EndpointLifecycleListener endpointLifecycleListener;
-	private final Map<String,Endpoint> goneEndpoints;
+	private final ConcurrentMap<ResourceTemplate,TemplateCapabilities> capabilities;
 
 
 	private DefaultApplicationContext() {
 		this.factory=DefaultPublicResourceFactory.newInstance(this);
-		this.goneEndpoints=Maps.newLinkedHashMap();
+		this.capabilities=new ConcurrentHashMap<ResourceTemplate,TemplateCapabilities>();
 		this.endpointLifecycleListener = new LocalEndpointLifecycleListener();
 	}
 
@@ -216,6 +302,11 @@ public final class DefaultApplicationContext implements ApplicationContext {
 		return this;
 	}
 
+	private DefaultApplicationContext withTombstoneRepository(TombstoneRepository tombstoneRepository) {
+		this.goneEndpoints=checkNotNull(tombstoneRepository,"Tombstone repository cannot be null");
+		return this;
+	}
+
 	private String applicationFailureMessage(String message, Object... objects) {
 		return "[" + this.application.getName() + "] " + String.format(message,objects);
 	}
@@ -231,9 +322,11 @@ public final class DefaultApplicationContext implements ApplicationContext {
 		LifecycleManager.init(this.resourceControllerService);
 		LifecycleManager.init(this.templateManagementService);
 		LifecycleManager.init(this.writeSessionService);
+		LifecycleManager.init(this.goneEndpoints);
 	}
 
 	private void shutdownComponents() {
+		shutdown(this.goneEndpoints);
 		shutdown(this.endpointManagementService);
 		shutdown(this.resourceControllerService);
 		shutdown(this.templateManagementService);
@@ -292,6 +385,23 @@ public final class DefaultApplicationContext implements ApplicationContext {
 		}
 	}
 
+	List<Resource> createResources(Endpoint endpoint, List<DataSet> dataSets) throws ApplicationExecutionException {
+		ResourceId resourceId=endpoint.resourceId();
+		Container resource = this.resourceRepository.find(resourceId,Container.class);
+		if(resource==null) {
+			String errorMessage = applicationFailureMessage("Could not find container for endpoint '%s'",endpoint);
+			LOGGER.error(errorMessage);
+			throw new ApplicationExecutionException(errorMessage);
+		}
+		try {
+			return this.resourceControllerService.createResources(resource,dataSets);
+		} catch (Exception e) {
+			String errorMessage = applicationFailureMessage("Batch resource create failed at '%s'",endpoint);
+			LOGGER.error(errorMessage,e);
+			throw new ApplicationExecutionException(errorMessage,e);
+		}
+	}
+
 	void deleteResource(Endpoint endpoint) throws ApplicationExecutionException {
 		ResourceId resourceId=endpoint.resourceId();
 		Resource resource = this.resourceRepository.find(resourceId,Resource.class);
@@ -326,18 +436,23 @@ public final class DefaultApplicationContext implements ApplicationContext {
 		}
 	}
 
+	/**
+	 * The capabilities are computed once per template when the application is
+	 * initialized, and shared by all the endpoints of the resources of the
+	 * template.
+	 */
 	Capabilities endpointCapabilities(Endpoint endpoint) {
-		MutableCapabilities result=new MutableCapabilities();
 		Resource resource = resolveResource(endpoint);
 		ResourceTemplate template=resourceTemplate(resource);
-		Class<? extends ResourceHandler> handlerClass = template.handlerClass();
-		result.setModifiable(Modifiable.class.isAssignableFrom(handlerClass));
-		result.setDeletable(Deletable.class.isAssignableFrom(handlerClass) && !resource.isRoot());
-		// TODO: Analyze how to provide patch support
-		result.setPatchable(false);
-		TemplateIntrospector introspector = TemplateIntrospector.newInstance(template);
-		result.setFactory(introspector.isContainer());
-		return result;
+		TemplateCapabilities result=this.capabilities.get(template);
+		if(result==null) {
+			result=new TemplateCapabilities(template);
+			TemplateCapabilities previous=this.capabilities.putIfAbsent(template,result);
+			if(previous!=null) {
+				result=previous;
+			}
+		}
+		return result.forResource(resource);
 	}
 
 	ResourceTemplate resourceTemplate(Resource resource) {
@@ -348,6 +463,7 @@ public final class DefaultApplicationContext implements ApplicationContext {
 		try {
 			this.endpointManagementService.registerEndpointLifecycleListener(this.endpointLifecycleListener);
 			this.application = this.applicationLifecycleService.initialize(applicationClassName);
+			this.templateManagementService.visitTemplates(new CapabilitiesPrecomputer());
 		} catch (ApplicationInitializationException e) {
 			String errorMessage = "Application '"+applicationClassName+"' initilization failed";
 			LOGGER.error(errorMessage,e);
@@ -387,9 +503,9 @@ public final class DefaultApplicationContext implements ApplicationContext {
 		checkNotNull(path,"Endpoint path cannot be null");
 		PublicResource resolved = resolveResource(path);
 		if(resolved==null) {
-			Endpoint endpoint=this.goneEndpoints.get(path);
-			if(endpoint!=null) {
-				resolved=new GonePublicResource(endpoint);
+			Tombstone tombstone=this.goneEndpoints.find(path);
+			if(tombstone!=null) {
+				resolved=new GonePublicResource(tombstone);
 			}
 		}
 		return resolved;
@@ -418,6 +534,22 @@ public final class DefaultApplicationContext implements ApplicationContext {
 		return this.factory.createResource(ResourceId.createId(id.name(), id.managerId()));
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<ManagedIndividualId,String> resolvePaths(Collection<ManagedIndividualId> ids) {
+		checkNotNull(ids,"Individual identifiers cannot be null");
+		Map<ManagedIndividualId,String> result=new LinkedHashMap<ManagedIndividualId,String>();
+		for(ManagedIndividualId id:ids) {
+			Endpoint endpoint=this.endpointRepository.endpointOfResource(ResourceId.createId(id.name(),id.managerId()));
+			if(endpoint!=null) {
+				result.put(id,endpoint.path());
+			}
+		}
+		return result;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -448,6 +580,7 @@ public final class DefaultApplicationContext implements ApplicationContext {
 			new DefaultApplicationContext().
 				withEndpointRepository(repositoryRegistry.getEndpointRepository()).
 				withResourceRepository(repositoryRegistry.getResourceRepository()).
+				withTombstoneRepository(repositoryRegistry.getTombstoneRepository()).
 				withApplicationLifecycleService(serviceRegistry.getService(ApplicationLifecycleService.class)).
 				withTemplateManagementService(serviceRegistry.getService(TemplateManagementService.class)).
 				withEndpointManagementService(serviceRegistry.getService(EndpointManagementService.class)).
@@ -42,8 +42,6 @@ import org.ldp4j.application.data.ManagedIndividual;
 import org.ldp4j.application.data.ManagedIndividualId;
 import org.ldp4j.application.data.Property;
 import org.ldp4j.application.data.Value;
-import org.ldp4j.application.data.validation.ValidationConstraint;
-import org.ldp4j.application.data.validation.ValidationConstraintFactory;
 import org.ldp4j.application.data.validation.Validator.ValidatorBuilder;
 import org.ldp4j.application.domain.LDP;
 import org.ldp4j.application.domain.RDF;
@@ -67,11 +65,21 @@ import org.ldp4j.application.template.MembershipAwareContainerTemplate;
 import org.ldp4j.application.template.ResourceTemplate;
 import org.ldp4j.application.template.TemplateVisitor;
 
+import com.google.common.base.Function;
+import com.google.common.collect.Collections2;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 abstract class DefaultPublicContainer<T extends ContainerTemplate> extends DefaultPublicRDFSource implements PublicContainer {
 
+	private static final Function<ResourceId,ManagedIndividualId> TO_INDIVIDUAL_ID=
+		new Function<ResourceId,ManagedIndividualId>() {
+			@Override
+			public ManagedIndividualId apply(ResourceId memberId) {
+				return ManagedIndividualId.createId(memberId.name(),memberId.templateId());
+			}
+		};
+
 	private final class IndividualFilter implements IndividualVisitor {
 		private final List<Individual<?, ?>> toRemove;
 
@@ -136,7 +144,7 @@ abstract class DefaultPublicContainer<T extends ContainerTemplate> extends Defau
 				ctx.property(RDF.TYPE),
 				ctx.reference(LDP.CONTAINER));
 		if(contentPreferences.mayInclude(Preference.CONTAINMENT_TRIPLES)) {
-			for(PublicResource member:members()) {
+			for(ManagedIndividualId member:ctx.members(this,contentPreferences)) {
 				individual.addValue(
 					ctx.property(LDP.CONTAINS),
 					ctx.newIndividual(member));
@@ -147,15 +155,22 @@ abstract class DefaultPublicContainer<T extends ContainerTemplate> extends Defau
 	@Override
 	protected void configureValidationConstraints(ValidatorBuilder builder, Individual<?, ?> individual, DataSet metadata) {
 		super.configureValidationConstraints(builder, individual, metadata);
-		URI propertyId = LDP.CONTAINS.as(URI.class);
-		Property property = individual.property(propertyId);
-		ValidationConstraint<Property> constraint=null;
-		if(property!=null) {
-			constraint=ValidationConstraintFactory.readOnlyProperty(property);
-		} else {
-			constraint=ValidationConstraintFactory.readOnlyProperty(propertyId);
-		}
-		builder.withPropertyConstraint(constraint);
+		builder.withDataSetConstraint(containmentTriples().validationConstraint());
+	}
+
+	@Override
+	protected void removeMembershipMetadata(DataSet dataSet) {
+		super.removeMembershipMetadata(dataSet);
+		containmentTriples().removeFrom(dataSet);
+	}
+
+	private MembershipTriples containmentTriples() {
+		return
+			MembershipTriples.
+				memberObjects(
+					resolveAs(Container.class),
+					individualId(),
+					LDP.CONTAINS.as(URI.class));
 	}
 
 	/**
@@ -170,6 +185,43 @@ abstract class DefaultPublicContainer<T extends ContainerTemplate> extends Defau
 		return Collections.unmodifiableList(members);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public final int numberOfMembers() {
+		return resolveAs(Container.class).numberOfMembers();
+	}
+
+	/**
+	 * Get the identifiers of the individuals of the members to include in a
+	 * representation built using the specified preferences. If paging is
+	 * required, only the members of the requested page are retrieved.
+	 */
+	final Collection<ManagedIndividualId> memberIndividualIds(ContentPreferences contentPreferences) {
+		return memberIndividualIds(resolveAs(Container.class),contentPreferences);
+	}
+
+	/**
+	 * If paging is not required, the identifiers are converted as the shared
+	 * snapshot of the members of the container is iterated, so that the
+	 * members are not copied again.
+	 */
+	static Collection<ManagedIndividualId> memberIndividualIds(Container container, ContentPreferences contentPreferences) {
+		Collection<ResourceId> memberIds=null;
+		if(!contentPreferences.isPagingRequired()) {
+			memberIds=container.memberIdsView();
+		} else {
+			int pageSize=contentPreferences.getPageSize();
+			long offset=(long)contentPreferences.getPage()*pageSize;
+			if(offset>=container.numberOfMembers()) {
+				return Collections.emptyList();
+			}
+			memberIds=container.memberIds((int)offset,pageSize);
+		}
+		return Collections2.transform(memberIds,TO_INDIVIDUAL_ID);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -180,6 +232,19 @@ abstract class DefaultPublicContainer<T extends ContainerTemplate> extends Defau
 		return createResource(resource.id());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<PublicResource> createResources(List<DataSet> dataSets) throws ApplicationExecutionException {
+		List<Resource> resources=applicationContext().createResources(endpoint(),dataSets);
+		List<PublicResource> result=new ArrayList<PublicResource>(resources.size());
+		for(Resource resource:resources) {
+			result.add(createResource(resource.id()));
+		}
+		return Collections.unmodifiableList(result);
+	}
+
 	private void cleanIndividual(Individual<?,?> individual) {
 		for(Property property:individual) {
 			URI propertyId = property.predicate();
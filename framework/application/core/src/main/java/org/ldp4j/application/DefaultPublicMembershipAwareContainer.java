@@ -30,8 +30,8 @@ import java.net.URI;
 
 import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.data.Individual;
+import org.ldp4j.application.data.ManagedIndividualId;
 import org.ldp4j.application.data.Property;
-import org.ldp4j.application.data.validation.ValidationConstraint;
 import org.ldp4j.application.data.validation.ValidationConstraintFactory;
 import org.ldp4j.application.data.validation.Validator.ValidatorBuilder;
 import org.ldp4j.application.domain.LDP;
@@ -39,8 +39,8 @@ import org.ldp4j.application.domain.RDF;
 import org.ldp4j.application.endpoint.Endpoint;
 import org.ldp4j.application.engine.context.ContentPreferences;
 import org.ldp4j.application.engine.context.PublicMembershipAwareContainer;
-import org.ldp4j.application.engine.context.PublicResource;
 import org.ldp4j.application.engine.context.ContentPreferences.Preference;
+import org.ldp4j.application.resource.Container;
 import org.ldp4j.application.template.MembershipAwareContainerTemplate;
 import org.ldp4j.application.vocabulary.Term;
 
@@ -60,17 +60,17 @@ abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareCo
 		URI predicate = containerTemplate().membershipPredicate();
 		switch(containerTemplate().membershipRelation()) {
 		case HAS_MEMBER:
-			populateHasMember(individual, ctx, predicate);
+			populateHasMember(ctx.members(this,contentPreferences), individual, ctx, predicate);
 			break;
 		case IS_MEMBER_OF:
-			populateIsMemberOf(individual, ctx, predicate);
+			populateIsMemberOf(ctx.members(this,contentPreferences), individual, ctx, predicate);
 			break;
 
 		}
 	}
 
-	private void populateIsMemberOf(Individual<?, ?> individual, Context ctx, URI predicate) {
-		for(PublicResource member:members()) {
+	private void populateIsMemberOf(Iterable<ManagedIndividualId> members, Individual<?, ?> individual, Context ctx, URI predicate) {
+		for(ManagedIndividualId member:members) {
 			Individual<?,?> tmp=ctx.newIndividual(member);
 			tmp.addValue(
 				predicate,
@@ -78,8 +78,8 @@ abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareCo
 		}
 	}
 
-	private void populateHasMember(Individual<?, ?> individual, Context ctx, URI predicate) {
-		for(PublicResource member:members()) {
+	private void populateHasMember(Iterable<ManagedIndividualId> members, Individual<?, ?> individual, Context ctx, URI predicate) {
+		for(ManagedIndividualId member:members) {
 			individual.addValue(
 				predicate,
 				ctx.newIndividual(member));
@@ -113,38 +113,34 @@ abstract class DefaultPublicMembershipAwareContainer<T extends MembershipAwareCo
 	}
 
 	final void configureMemberValidationConstraints(ValidatorBuilder builder, Individual<?, ?> individual, DataSet metadata) {
+		builder.withDataSetConstraint(memberTriples(individual.id()).validationConstraint());
+	}
+
+	final MembershipTriples memberTriples(Object membershipResourceId) {
+		Container container=resolveAs(Container.class);
 		URI predicate = containerTemplate().membershipPredicate();
+		MembershipTriples result=null;
 		switch(containerTemplate().membershipRelation()) {
 		case HAS_MEMBER:
-			configureHasMemberValidationConstraints(builder,individual,metadata,predicate);
+			result=MembershipTriples.memberObjects(container,membershipResourceId,predicate);
 			break;
 		case IS_MEMBER_OF:
-			configureIsMemberOfValidationConstraints(builder,individual,metadata,predicate);
+			result=MembershipTriples.memberSubjects(container,predicate,membershipResourceId);
 			break;
-
 		}
+		return result;
 	}
 
-	private void configureIsMemberOfValidationConstraints(ValidatorBuilder builder, Individual<?, ?> individual, DataSet metadata, URI predicate) {
-		if(members().isEmpty()) {
-			builder.withPropertyConstraint(ValidationConstraintFactory.readOnlyProperty(predicate));
-		} else {
-			for(PublicResource member:members()) {
-				Individual<?,?> tmp=metadata.individualOfId(member.individualId());
-				builder.withPropertyConstraint(ValidationConstraintFactory.readOnlyProperty(tmp.property(predicate)));
-			}
-		}
-	}
-
-	private void configureHasMemberValidationConstraints(ValidatorBuilder builder, Individual<?, ?> individual, DataSet metadata, URI predicate) {
-		ValidationConstraint<Property> constraint=null;
-		Property property = individual.property(predicate);
-		if(property!=null) {
-			constraint=ValidationConstraintFactory.readOnlyProperty(property);
+	@Override
+	protected void removeMembershipMetadata(DataSet dataSet) {
+		super.removeMembershipMetadata(dataSet);
+		Object membershipResourceId=null;
+		if(!isRoot()) {
+			membershipResourceId=parent().individualId();
 		} else {
-			constraint=ValidationConstraintFactory.readOnlyProperty(individual.id(),predicate);
+			membershipResourceId=LDP.MEMBER_SUBJECT.as(URI.class);
 		}
-		builder.withPropertyConstraint(constraint);
+		memberTriples(membershipResourceId).removeFrom(dataSet);
 	}
 
 	@Override
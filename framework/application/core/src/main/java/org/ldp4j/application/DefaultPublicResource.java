@@ -27,6 +27,7 @@
 package org.ldp4j.application;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -52,6 +53,7 @@ import org.ldp4j.application.domain.RDF;
 import org.ldp4j.application.endpoint.Endpoint;
 import org.ldp4j.application.engine.context.ApplicationExecutionException;
 import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.engine.context.ContentPreferences.Preference;
 import org.ldp4j.application.engine.context.PublicBasicContainer;
 import org.ldp4j.application.engine.context.PublicDirectContainer;
 import org.ldp4j.application.engine.context.PublicIndirectContainer;
@@ -73,9 +75,26 @@ abstract class DefaultPublicResource extends DefaultPublicEndpoint implements Pu
 	protected static final class Context {
 
 		private final DataSet dataSet;
+		private final Map<ResourceId,Collection<ManagedIndividualId>> members;
 
 		private Context(DataSet dataSet) {
 			this.dataSet = dataSet;
+			this.members = new HashMap<ResourceId,Collection<ManagedIndividualId>>();
+		}
+
+		/**
+		 * Get the members of a container to include in the representation.
+		 * The view of the members is created the first time they are requested
+		 * and shared afterwards by the containment and membership triples of
+		 * the container. The view is not a copy of the members.
+		 */
+		public Iterable<ManagedIndividualId> members(DefaultPublicContainer<?> container, ContentPreferences contentPreferences) {
+			Collection<ManagedIndividualId> result=this.members.get(container.id());
+			if(result==null) {
+				result=container.memberIndividualIds(contentPreferences);
+				this.members.put(container.id(),result);
+			}
+			return result;
 		}
 
 		public URI property(Term term) {
@@ -121,6 +140,14 @@ abstract class DefaultPublicResource extends DefaultPublicEndpoint implements Pu
 	}
 
 	private static final URI HAS_ATTACHMENT = URI.create("http://www.ldp4j.org/ns/application#hasAttachment");
+
+	private static final ContentPreferences METADATA_PREFERENCES=
+		ContentPreferences.
+			builder().
+				withOmit(Preference.CONTAINMENT_TRIPLES).
+				withOmit(Preference.MEMBERSHIP_TRIPLES).
+				build();
+
 	private final ManagedIndividualId individualId;
 
 	protected DefaultPublicResource(DefaultApplicationContext applicationContext, Endpoint endpoint) {
@@ -149,17 +176,13 @@ abstract class DefaultPublicResource extends DefaultPublicEndpoint implements Pu
 	@Override
 	public final DataSet entity(ContentPreferences contentPreferences) throws ApplicationExecutionException {
 		DataSet dataSet=resourceData(contentPreferences);
-		DataSet representation = DataSetFactory.createDataSet(id().name());
-		DataSetUtils.
-			merge(
-				dataSet,
-				representation);
-		Context ctx = new Context(representation);
+		DataSet metadata = DataSetFactory.createDataSet(id().name());
+		Context ctx = new Context(metadata);
 		fillInMetadata(
 			contentPreferences,
 			ctx.newIndividual(individualId()),
 			ctx);
-		return representation;
+		return DataSetFactory.createOverlay(dataSet,metadata);
 	}
 
 	@Override
@@ -178,11 +201,17 @@ abstract class DefaultPublicResource extends DefaultPublicEndpoint implements Pu
 		// Second, remove the framework/protocol metadata from the
 		// representation that will be handed to the application
 		DataSetUtils.remove(metadata, dataSet);
+		removeMembershipMetadata(dataSet);
 
 		// Third, request the modification using the cleansed and validated data
 		applicationContext().modifyResource(endpoint(),dataSet);
 	}
 
+	/**
+	 * Get the framework/protocol metadata of the resource but the containment
+	 * and membership triples, which are validated and removed symbolically
+	 * (see {@link MembershipTriples}).
+	 */
 	protected DataSet metadata() {
 		DataSet metadata =
 			DataSetFactory.
@@ -192,7 +221,7 @@ abstract class DefaultPublicResource extends DefaultPublicEndpoint implements Pu
 		ManagedIndividualId id = individualId();
 
 		fillInMetadata(
-			ContentPreferences.defaultPreferences(),
+			METADATA_PREFERENCES,
 			ctx.newIndividual(id),
 			ctx);
 		return metadata;
@@ -247,6 +276,35 @@ abstract class DefaultPublicResource extends DefaultPublicEndpoint implements Pu
 		);
 	}
 
+	protected void removeMembershipMetadata(final DataSet dataSet) {
+		for(PublicResource attachment:attachments().values()) {
+			attachment.accept(
+				new PublicResourceVisitor<Void>() {
+					@Override
+					public Void visitRDFSource(PublicRDFSource resource) {
+						// Nothing to do
+						return null;
+					}
+					@Override
+					public Void visitBasicContainer(PublicBasicContainer resource) {
+						// Nothing to do
+						return null;
+					}
+					@Override
+					public Void visitDirectContainer(PublicDirectContainer resource) {
+						((DefaultPublicDirectContainer)resource).memberTriples(individualId()).removeFrom(dataSet);
+						return null;
+					}
+					@Override
+					public Void visitIndirectContainer(PublicIndirectContainer resource) {
+						((DefaultPublicIndirectContainer)resource).memberTriples(individualId()).removeFrom(dataSet);
+						return null;
+					}
+				}
+			);
+		}
+	}
+
 	protected void configureValidationConstraints(ValidatorBuilder builder, Individual<?,?> individual, DataSet metadata) {
 		builder.withPropertyConstraint(ValidationConstraintFactory.mandatoryPropertyValues(individual.property(RDF.TYPE.as(URI.class))));
 		Set<URI> properties=Sets.newHashSet();
@@ -0,0 +1,277 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application;
+
+import java.net.URI;
+import java.util.List;
+
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.DataSetUtils;
+import org.ldp4j.application.data.FormatUtils;
+import org.ldp4j.application.data.Individual;
+import org.ldp4j.application.data.ManagedIndividualId;
+import org.ldp4j.application.data.Property;
+import org.ldp4j.application.data.Value;
+import org.ldp4j.application.data.validation.ValidationConstraint;
+import org.ldp4j.application.data.validation.ValidationFailure;
+import org.ldp4j.application.data.validation.ValidationLog;
+import org.ldp4j.application.resource.Container;
+import org.ldp4j.application.resource.ResourceId;
+
+import com.google.common.base.Joiner;
+import com.google.common.base.Objects;
+import com.google.common.collect.Lists;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * The containment or membership triples of a container, described
+ * symbolically so that they can be validated and removed from a data set
+ * without being materialized. Values are checked against the membership index
+ * of the container, so the cost depends on the size of the data set and not
+ * on the number of members of the container.
+ */
+final class MembershipTriples {
+
+	private static final class ValidationLogImpl implements ValidationLog {
+
+		private final List<String> violations;
+		private boolean checked;
+
+		private ValidationLogImpl() {
+			this.violations=Lists.newArrayList();
+			this.checked=false;
+		}
+
+		private void markChecked() {
+			this.checked=true;
+		}
+
+		private void addAddedValue(URI predicate, Value value) {
+			this.violations.add("Added undesired value '"+FormatUtils.formatValue(value)+"' to property '"+predicate+"'");
+		}
+
+		private void addRemovedValues(URI predicate, int count) {
+			this.violations.add("Removed "+count+" required values from property '"+predicate+"'");
+		}
+
+		@Override
+		public boolean checked() {
+			return this.checked;
+		}
+
+		@Override
+		public boolean success() {
+			return this.violations.isEmpty();
+		}
+
+		@Override
+		public ValidationFailure validationFailure() {
+			return new ValidationFailure() {
+				@Override
+				public String toString() {
+					return Joiner.on(", ").join(violations);
+				}
+			};
+		}
+
+	}
+
+	private final class MembershipValidationConstraint implements ValidationConstraint<DataSet> {
+
+		@Override
+		public ValidationLog validate(DataSet dataSet) {
+			ValidationLogImpl log=new ValidationLogImpl();
+			log.markChecked();
+			int found=0;
+			if(subjectId!=null) {
+				found=checkMemberObjects(dataSet,log);
+			} else {
+				found=checkMemberSubjects(dataSet,log);
+			}
+			int expected=container.numberOfMembers();
+			if(found<expected) {
+				log.addRemovedValues(predicate,expected-found);
+			}
+			return log;
+		}
+
+		@Override
+		public boolean mustBeChecked() {
+			return container.numberOfMembers()>0;
+		}
+
+		@Override
+		public ValidationFailure uncheckedFailure() {
+			return new ValidationFailure() {
+				@Override
+				public String toString() {
+					return "Could not check member values for property '"+predicate+"'";
+				}
+			};
+		}
+
+		@Override
+		public String toString() {
+			return
+				Objects.
+					toStringHelper("MembershipTriples").
+						omitNullValues().
+						add("subject",subjectId==null?null:FormatUtils.formatId(subjectId)).
+						add("predicate",predicate).
+						add("object",objectId==null?null:FormatUtils.formatId(objectId)).
+						add("members",container.numberOfMembers()).
+						toString();
+		}
+
+	}
+
+	private final Container container;
+	private final URI predicate;
+	private final Object subjectId;
+	private final Object objectId;
+
+	private MembershipTriples(Container container, Object subjectId, URI predicate, Object objectId) {
+		this.container=checkNotNull(container,"Container cannot be null");
+		this.predicate=checkNotNull(predicate,"Predicate cannot be null");
+		this.subjectId=subjectId;
+		this.objectId=objectId;
+	}
+
+	private boolean isMember(Object id) {
+		if(!(id instanceof ManagedIndividualId)) {
+			return false;
+		}
+		ManagedIndividualId individualId=(ManagedIndividualId)id;
+		return this.container.hasMember(ResourceId.createId(individualId.name(),individualId.managerId()));
+	}
+
+	private boolean isMember(Value value) {
+		return value instanceof Individual<?,?> && isMember(((Individual<?,?>)value).id());
+	}
+
+	private int checkMemberObjects(DataSet dataSet, ValidationLogImpl log) {
+		int found=0;
+		Property property=memberObjects(dataSet);
+		if(property!=null) {
+			for(Value value:property) {
+				if(isMember(value)) {
+					found++;
+				} else {
+					log.addAddedValue(this.predicate,value);
+				}
+			}
+		}
+		return found;
+	}
+
+	private int checkMemberSubjects(DataSet dataSet, ValidationLogImpl log) {
+		int found=0;
+		for(Individual<?,?> individual:dataSet) {
+			Property property=individual.property(this.predicate);
+			if(property==null) {
+				continue;
+			}
+			boolean member=isMember(individual.id());
+			for(Value value:property) {
+				boolean target=DataSetUtils.hasIdentifiedIndividual(this.objectId,value);
+				if(member && target) {
+					found++;
+				} else if(member || target) {
+					log.addAddedValue(this.predicate,value);
+				}
+			}
+		}
+		return found;
+	}
+
+	private Property memberObjects(DataSet dataSet) {
+		Individual<?,?> individual=dataSet.individualOfId(this.subjectId);
+		if(individual==null) {
+			return null;
+		}
+		return individual.property(this.predicate);
+	}
+
+	/**
+	 * Get a constraint that verifies that a data set includes exactly these
+	 * triples.
+	 */
+	ValidationConstraint<DataSet> validationConstraint() {
+		return new MembershipValidationConstraint();
+	}
+
+	/**
+	 * Remove these triples from a data set.
+	 */
+	void removeFrom(DataSet dataSet) {
+		if(this.subjectId!=null) {
+			Property property=memberObjects(dataSet);
+			if(property==null) {
+				return;
+			}
+			List<Value> members=Lists.newArrayList();
+			for(Value value:property) {
+				if(isMember(value)) {
+					members.add(value);
+				}
+			}
+			for(Value member:members) {
+				property.individual().removeValue(this.predicate,member);
+			}
+		} else {
+			Individual<?,?> target=dataSet.individualOfId(this.objectId);
+			if(target==null) {
+				return;
+			}
+			for(Individual<?,?> individual:dataSet) {
+				if(isMember(individual.id())) {
+					individual.removeValue(this.predicate,target);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Triples whose subject is the specified individual and whose objects are
+	 * the members of the container.
+	 */
+	static MembershipTriples memberObjects(Container container, Object subjectId, URI predicate) {
+		checkNotNull(subjectId,"Subject identifier cannot be null");
+		return new MembershipTriples(container,subjectId,predicate,null);
+	}
+
+	/**
+	 * Triples whose subjects are the members of the container and whose object
+	 * is the specified individual.
+	 */
+	static MembershipTriples memberSubjects(Container container, URI predicate, Object objectId) {
+		checkNotNull(objectId,"Object identifier cannot be null");
+		return new MembershipTriples(container,null,predicate,objectId);
+	}
+
+}
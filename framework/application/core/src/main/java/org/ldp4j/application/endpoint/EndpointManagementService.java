@@ -28,7 +28,10 @@ package org.ldp4j.application.endpoint;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
@@ -241,8 +244,7 @@ public final class EndpointManagementService implements Service {
 			try {
 				String resourcePath = calculateResourcePath(resource,candidatePath);
 				Endpoint newEndpoint = this.factoryService.createEndpoint(resource,resourcePath,entityTag,lastModified);
-				this.endpointRepository.add(newEndpoint);
-				return newEndpoint;
+				return this.endpointRepository.add(newEndpoint);
 			} catch (EndpointNotFoundException e) {
 				throw new EndpointCreationException("Could not calculate path for resource '"+resource.id()+"'",e);
 			} catch (IllegalArgumentException e) {
@@ -279,6 +281,23 @@ public final class EndpointManagementService implements Service {
 		return endpoint;
 	}
 	
+	public List<Endpoint> deleteResourceEndpoints(Collection<? extends Resource> resources) throws EndpointNotFoundException {
+		checkNotNull(resources,"Resources cannot be null");
+		List<Endpoint> endpoints=new ArrayList<Endpoint>(resources.size());
+		for(Resource resource:resources) {
+			Endpoint endpoint = this.endpointRepository.endpointOfResource(resource.id());
+			if(endpoint==null) {
+				throw new EndpointNotFoundException(resource.id());
+			}
+			endpoints.add(endpoint);
+		}
+		this.endpointRepository.removeAll(endpoints);
+		for(Endpoint endpoint:endpoints) {
+			this.listenerManager.notify(new EndpointDeletionNotification(endpoint));
+		}
+		return endpoints;
+	}
+
 	public static ServiceBuilder<EndpointManagementService> serviceBuilder() {
 		return new EndpointManagementServiceBuilder();
 	}
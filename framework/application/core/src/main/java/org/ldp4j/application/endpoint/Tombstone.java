@@ -0,0 +1,106 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.endpoint;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Date;
+
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.resource.ResourceId;
+
+import com.google.common.base.Objects;
+
+/**
+ * Compact record of a deleted endpoint, with just the information required
+ * for answering requests to its path with a {@code 410 Gone} response.
+ */
+public final class Tombstone {
+
+	private final String path;
+	private final ResourceId resourceId;
+	private final EntityTag entityTag;
+	private final long lastModified;
+	private final long deleted;
+
+	public Tombstone(String path, ResourceId resourceId, EntityTag entityTag, long lastModified, long deleted) {
+		this.path=checkNotNull(path,"Path cannot be null");
+		this.resourceId=checkNotNull(resourceId,"Resource identifier cannot be null");
+		this.entityTag=checkNotNull(entityTag,"Entity tag cannot be null");
+		this.lastModified=lastModified;
+		this.deleted=deleted;
+	}
+
+	public String path() {
+		return this.path;
+	}
+
+	public ResourceId resourceId() {
+		return this.resourceId;
+	}
+
+	public EntityTag entityTag() {
+		return this.entityTag;
+	}
+
+	public Date lastModified() {
+		return new Date(this.lastModified);
+	}
+
+	/**
+	 * @return the time, in milliseconds since the epoch, at which the
+	 *         endpoint was deleted
+	 */
+	public long deleted() {
+		return this.deleted;
+	}
+
+	@Override
+	public String toString() {
+		return
+			Objects.
+				toStringHelper(getClass()).
+					add("path",this.path).
+					add("resourceId",this.resourceId).
+					add("entityTag",this.entityTag).
+					add("lastModified",this.lastModified).
+					add("deleted",this.deleted).
+					toString();
+	}
+
+	public static Tombstone create(Endpoint endpoint, long deleted) {
+		checkNotNull(endpoint,"Endpoint cannot be null");
+		return
+			new Tombstone(
+				endpoint.path(),
+				endpoint.resourceId(),
+				endpoint.entityTag(),
+				endpoint.lastModified().getTime(),
+				deleted);
+	}
+
+}
@@ -0,0 +1,470 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.ldp4j.application.endpoint.Endpoint;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.lifecycle.LifecycleException;
+import org.ldp4j.application.lifecycle.Managed;
+import org.ldp4j.application.resource.ResourceId;
+import org.ldp4j.application.spi.EndpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Endpoint repository backed by a {@link RecordLog}. The indexes by path and
+ * by resource identifier are kept in memory, whereas the endpoints themselves
+ * are loaded from the log on demand and kept in a bounded cache. Endpoints
+ * that are still in use are tracked too, so that there is a single instance
+ * of each endpoint at a time. Every change to an endpoint, including those
+ * made through {@link Endpoint#modify(EntityTag, Date)}, is appended to the
+ * log, which is compacted as it grows. Hence, the endpoints added are
+ * copied, and the copy returned by {@link #add(Endpoint)} is the instance to
+ * be used.
+ * <p>
+ * The identifiers of removed endpoints are never handed out again: the
+ * highest identifier used is restored from the deletion records too, and is
+ * kept in a sequence record when the deletions are compacted away.
+ */
+final class FileBasedEndpointRepository implements EndpointRepository, Managed {
+
+	private final class PersistentEndpoint implements Endpoint {
+
+		private final long id;
+		private final String path;
+		private final ResourceId resourceId;
+
+		private EntityTag entityTag;
+		private Date lastModified;
+
+		private PersistentEndpoint(long id, String path, ResourceId resourceId, EntityTag entityTag, Date lastModified) {
+			this.id=id;
+			this.path=path;
+			this.resourceId=resourceId;
+			this.entityTag=entityTag;
+			this.lastModified=lastModified;
+		}
+
+		@Override
+		public long id() {
+			return this.id;
+		}
+
+		@Override
+		public String path() {
+			return this.path;
+		}
+
+		@Override
+		public ResourceId resourceId() {
+			return this.resourceId;
+		}
+
+		@Override
+		public synchronized EntityTag entityTag() {
+			return this.entityTag;
+		}
+
+		@Override
+		public synchronized Date lastModified() {
+			return this.lastModified;
+		}
+
+		@Override
+		public void modify(EntityTag newEntityTag, Date newLastModified) {
+			synchronized(this) {
+				this.entityTag=newEntityTag;
+				this.lastModified=new Date(newLastModified.getTime());
+			}
+			update(this);
+		}
+
+		@Override
+		public String toString() {
+			return
+				Objects.
+					toStringHelper(getClass()).
+						omitNullValues().
+						add("id",this.id).
+						add("path",this.path).
+						add("resourceId",this.resourceId).
+						add("entityTag",entityTag()).
+						add("lastModified",lastModified().getTime()).
+						toString();
+		}
+
+	}
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(FileBasedEndpointRepository.class);
+
+	private static final byte PUT      = 1;
+	private static final byte DELETE   = 2;
+	private static final byte SEQUENCE = 3;
+
+	private final File file;
+	private final int syncBatch;
+
+	private final AtomicLong counter=new AtomicLong();
+	private final ConcurrentMap<Long,Long> offsets=new ConcurrentHashMap<Long,Long>();
+	private final ConcurrentMap<String,Long> endpointsByPath=new ConcurrentHashMap<String,Long>();
+	private final ConcurrentMap<ResourceId,Long> endpointsByResourceName=new ConcurrentHashMap<ResourceId,Long>();
+	private final Cache<Long,PersistentEndpoint> cache;
+	private final Cache<Long,PersistentEndpoint> instances;
+
+	private volatile RecordLog log;
+	private long records;
+
+	FileBasedEndpointRepository(File file, int cacheSize, int syncBatch) {
+		this.file=file;
+		this.syncBatch=syncBatch;
+		this.cache=CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+		this.instances=CacheBuilder.newBuilder().weakValues().build();
+	}
+
+	private RecordLog log() {
+		RecordLog result=this.log;
+		checkState(result!=null,"Endpoint repository has not been initialized");
+		return result;
+	}
+
+	private byte[] encode(PersistentEndpoint endpoint) throws IOException {
+		RecordCodec.Writer writer=RecordCodec.writer();
+		DataOutput out=writer.output();
+		out.writeByte(PUT);
+		out.writeLong(endpoint.id());
+		out.writeUTF(endpoint.path());
+		RecordCodec.writeResourceId(out,endpoint.resourceId());
+		RecordCodec.writeEntityTag(out,endpoint.entityTag());
+		out.writeLong(endpoint.lastModified().getTime());
+		return writer.toByteArray();
+	}
+
+	private PersistentEndpoint decode(DataInput in) throws IOException {
+		long id=in.readLong();
+		String path=in.readUTF();
+		ResourceId resourceId=RecordCodec.readResourceId(in);
+		EntityTag entityTag=RecordCodec.readEntityTag(in);
+		Date lastModified=new Date(in.readLong());
+		return new PersistentEndpoint(id,path,resourceId,entityTag,lastModified);
+	}
+
+	private byte[] encodeSequence() throws IOException {
+		RecordCodec.Writer writer=RecordCodec.writer();
+		writer.output().writeByte(SEQUENCE);
+		writer.output().writeLong(this.counter.get());
+		return writer.toByteArray();
+	}
+
+	private void updateCounter(long id) {
+		if(id>this.counter.get()) {
+			this.counter.set(id);
+		}
+	}
+
+	private void replay(long offset, byte[] payload) throws IOException {
+		this.records++;
+		DataInput in=RecordCodec.reader(payload);
+		byte type=in.readByte();
+		if(type==PUT) {
+			PersistentEndpoint endpoint=decode(in);
+			this.offsets.put(endpoint.id(),offset);
+			this.endpointsByPath.put(endpoint.path(),endpoint.id());
+			this.endpointsByResourceName.put(endpoint.resourceId(),endpoint.id());
+			updateCounter(endpoint.id());
+		} else if(type==DELETE) {
+			Long id=in.readLong();
+			this.offsets.remove(id);
+			this.endpointsByPath.remove(in.readUTF(),id);
+			this.endpointsByResourceName.remove(RecordCodec.readResourceId(in),id);
+			updateCounter(id);
+		} else if(type==SEQUENCE) {
+			updateCounter(in.readLong());
+		} else {
+			throw new IOException("Unknown endpoint record type '"+type+"'");
+		}
+	}
+
+	/**
+	 * Rewrite the latest version of each endpoint, preceded by the highest
+	 * identifier used, so that the rest of the records can be discarded.
+	 */
+	synchronized void compact() throws IOException {
+		List<Long> ids=new ArrayList<Long>(this.offsets.keySet());
+		List<Long> live=new ArrayList<Long>(ids.size());
+		for(Long id:ids) {
+			live.add(this.offsets.get(id));
+		}
+		List<Long> relocated=new ArrayList<Long>(ids.size());
+		this.log=log().compact(Collections.singletonList(encodeSequence()),live,null,relocated);
+		for(int i=0;i<ids.size();i++) {
+			this.offsets.put(ids.get(i),relocated.get(i));
+		}
+		this.records=ids.size()+1;
+	}
+
+	private boolean requiresCompaction() {
+		return FileBasedRepositoryRegistry.requiresCompaction(this.records,this.offsets.size());
+	}
+
+	/**
+	 * A failed compaction leaves the current log in place, so there is no
+	 * need to fail the update that triggered it.
+	 */
+	private void compactIfNeeded() {
+		if(!requiresCompaction()) {
+			return;
+		}
+		try {
+			compact();
+		} catch (IOException e) {
+			LOGGER.warn("Could not compact endpoint repository '"+this.file.getAbsolutePath()+"'",e);
+		}
+	}
+
+	/**
+	 * Restore the endpoint, unless there is already an instance of it in use.
+	 * Restoring is serialized with the updates, so that the offset used
+	 * matches the log.
+	 */
+	private synchronized PersistentEndpoint load(Long id) {
+		Long offset=this.offsets.get(id);
+		if(offset==null) {
+			return null;
+		}
+		PersistentEndpoint endpoint=this.instances.getIfPresent(id);
+		if(endpoint==null) {
+			try {
+				DataInput in=RecordCodec.reader(log().read(offset));
+				in.readByte();
+				endpoint=decode(in);
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not load endpoint "+id,e);
+			}
+		}
+		remember(endpoint);
+		return endpoint;
+	}
+
+	private PersistentEndpoint find(Long id) {
+		if(id==null) {
+			return null;
+		}
+		PersistentEndpoint endpoint=this.cache.getIfPresent(id);
+		if(endpoint==null) {
+			endpoint=load(id);
+		}
+		return endpoint;
+	}
+
+	private void remember(PersistentEndpoint endpoint) {
+		this.cache.put(endpoint.id(),endpoint);
+		this.instances.put(endpoint.id(),endpoint);
+	}
+
+	private synchronized void update(PersistentEndpoint endpoint) {
+		if(!this.offsets.containsKey(endpoint.id())) {
+			return;
+		}
+		try {
+			this.offsets.put(endpoint.id(),log().append(encode(endpoint)));
+			this.records++;
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+		remember(endpoint);
+		compactIfNeeded();
+	}
+
+	@Override
+	public long nextIdentifier() {
+		return this.counter.incrementAndGet();
+	}
+
+	@Override
+	public Endpoint endpointOfPath(String path) {
+		return find(this.endpointsByPath.get(path));
+	}
+
+	@Override
+	public Endpoint endpointOfResource(ResourceId id) {
+		return find(this.endpointsByResourceName.get(id));
+	}
+
+	@Override
+	public synchronized void remove(Endpoint endpoint) {
+		checkNotNull(endpoint,"Endpoint cannot be null");
+		Long id=endpoint.id();
+		if(!this.offsets.containsKey(id)) {
+			return;
+		}
+		try {
+			log().append(encodeDeletion(endpoint));
+			this.records++;
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+		forget(endpoint);
+		compactIfNeeded();
+	}
+
+	@Override
+	public synchronized void removeAll(Collection<? extends Endpoint> endpoints) {
+		checkNotNull(endpoints,"Endpoints cannot be null");
+		List<Endpoint> removed=new ArrayList<Endpoint>(endpoints.size());
+		List<byte[]> payloads=new ArrayList<byte[]>(endpoints.size());
+		try {
+			for(Endpoint endpoint:endpoints) {
+				checkNotNull(endpoint,"Endpoint cannot be null");
+				if(this.offsets.containsKey(endpoint.id())) {
+					removed.add(endpoint);
+					payloads.add(encodeDeletion(endpoint));
+				}
+			}
+			log().appendAll(payloads);
+			this.records+=payloads.size();
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+		for(Endpoint endpoint:removed) {
+			forget(endpoint);
+		}
+		compactIfNeeded();
+	}
+
+	private byte[] encodeDeletion(Endpoint endpoint) throws IOException {
+		RecordCodec.Writer writer=RecordCodec.writer();
+		writer.output().writeByte(DELETE);
+		writer.output().writeLong(endpoint.id());
+		writer.output().writeUTF(endpoint.path());
+		RecordCodec.writeResourceId(writer.output(),endpoint.resourceId());
+		return writer.toByteArray();
+	}
+
+	private void forget(Endpoint endpoint) {
+		Long id=endpoint.id();
+		this.endpointsByPath.remove(endpoint.path(),id);
+		this.endpointsByResourceName.remove(endpoint.resourceId(),id);
+		this.offsets.remove(id);
+		this.cache.invalidate(id);
+		this.instances.invalidate(id);
+	}
+
+	@Override
+	public synchronized Endpoint add(Endpoint endpoint) {
+		checkNotNull(endpoint,"Endpoint cannot be null");
+		if(this.offsets.containsKey(endpoint.id())) {
+			throw new IllegalArgumentException("An endpoint with id '"+endpoint.id()+"' already exists");
+		}
+		if(this.endpointsByPath.containsKey(endpoint.path())) {
+			throw new IllegalArgumentException("An endpoint with path '"+endpoint.path()+"' already exists");
+		}
+		if(this.endpointsByResourceName.containsKey(endpoint.resourceId())) {
+			throw new IllegalArgumentException("An endpoint with resource name '"+endpoint.resourceId()+"' already exists");
+		}
+		PersistentEndpoint persistent=
+			new PersistentEndpoint(
+				endpoint.id(),
+				endpoint.path(),
+				endpoint.resourceId(),
+				endpoint.entityTag(),
+				new Date(endpoint.lastModified().getTime()));
+		try {
+			this.offsets.put(persistent.id(),log().append(encode(persistent)));
+			this.records++;
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+		remember(persistent);
+		this.endpointsByPath.put(persistent.path(),persistent.id());
+		this.endpointsByResourceName.put(persistent.resourceId(),persistent.id());
+		compactIfNeeded();
+		return persistent;
+	}
+
+	@Override
+	public synchronized void init() throws LifecycleException {
+		try {
+			this.log=
+				RecordLog.open(
+					this.file,
+					this.syncBatch,
+					new RecordLog.RecordHandler() {
+						@Override
+						public void handleRecord(long offset, byte[] payload) throws IOException {
+							replay(offset,payload);
+						}
+					}
+				);
+			if(requiresCompaction()) {
+				compact();
+			}
+		} catch (IOException e) {
+			throw new LifecycleException("Could not open endpoint repository '"+this.file.getAbsolutePath()+"'",e);
+		}
+	}
+
+	@Override
+	public synchronized void shutdown() throws LifecycleException {
+		RecordLog current=this.log;
+		this.log=null;
+		this.offsets.clear();
+		this.endpointsByPath.clear();
+		this.endpointsByResourceName.clear();
+		this.cache.invalidateAll();
+		this.instances.invalidateAll();
+		this.records=0;
+		if(current!=null) {
+			try {
+				current.close();
+			} catch (IOException e) {
+				throw new LifecycleException("Could not close endpoint repository '"+this.file.getAbsolutePath()+"'",e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,80 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.impl;
+
+import java.io.File;
+
+import org.ldp4j.application.spi.EndpointRepository;
+import org.ldp4j.application.spi.RepositoryRegistry;
+import org.ldp4j.application.spi.ResourceRepository;
+import org.ldp4j.application.spi.ServiceRegistry;
+import org.ldp4j.application.spi.TombstoneRepository;
+
+final class FileBasedRepositoryRegistry implements RepositoryRegistry {
+
+	private static final String RESOURCES_LOG = "resources.log";
+	private static final String ENDPOINTS_LOG = "endpoints.log";
+
+	/**
+	 * Minimum number of records a log must have before it is compacted.
+	 */
+	private static final long COMPACTION_THRESHOLD = 1024;
+
+	private final ResourceRepository resourceRepository;
+	private final EndpointRepository endpointRepository;
+	private final TombstoneRepository tombstoneRepository;
+
+	FileBasedRepositoryRegistry(File directory, int cacheSize, int syncBatch, ServiceRegistry serviceRegistry) {
+		resourceRepository = new FileBasedResourceRepository(new File(directory,RESOURCES_LOG),cacheSize,syncBatch,serviceRegistry);
+		endpointRepository = new FileBasedEndpointRepository(new File(directory,ENDPOINTS_LOG),cacheSize,syncBatch);
+		tombstoneRepository = TombstoneStore.newInstance();
+	}
+
+	/**
+	 * Logs are compacted, on startup or as they are updated, once obsolete
+	 * records outnumber the live ones.
+	 */
+	static boolean requiresCompaction(long records, long liveRecords) {
+		return records>=COMPACTION_THRESHOLD && records>2*liveRecords;
+	}
+
+	@Override
+	public ResourceRepository getResourceRepository() {
+		return resourceRepository;
+	}
+
+	@Override
+	public EndpointRepository getEndpointRepository() {
+		return endpointRepository;
+	}
+
+	@Override
+	public TombstoneRepository getTombstoneRepository() {
+		return tombstoneRepository;
+	}
+
+}
@@ -0,0 +1,576 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.impl;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.ldp4j.application.lifecycle.LifecycleException;
+import org.ldp4j.application.lifecycle.Managed;
+import org.ldp4j.application.resource.Attachment;
+import org.ldp4j.application.resource.Container;
+import org.ldp4j.application.resource.MemberChanges;
+import org.ldp4j.application.resource.Resource;
+import org.ldp4j.application.resource.ResourceFactoryService;
+import org.ldp4j.application.resource.ResourceId;
+import org.ldp4j.application.spi.ResourceRepository;
+import org.ldp4j.application.spi.ServiceRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Resource repository backed by a {@link RecordLog}. Only the offsets of the
+ * latest version of each resource and the members of the containers are kept
+ * in memory: the resources themselves are restored from the log on demand and
+ * kept in a bounded cache of hot resources. Restored resources that are still
+ * in use are tracked too, so that there is a single instance of each resource
+ * at a time and no change made through it is lost.
+ * <p>
+ * Once stored, containers are updated with records for the members added and
+ * removed since, instead of with the whole list of members. The containers
+ * stored or restored by the repository track those changes themselves, so
+ * the cost of an update is proportional to the changes, not to the number
+ * of members. The log is
+ * compacted as it grows, and every container is then rewritten with its
+ * current members.
+ */
+final class FileBasedResourceRepository implements ResourceRepository, Managed {
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(FileBasedResourceRepository.class);
+
+	private static final byte PUT            = 1;
+	private static final byte DELETE         = 2;
+	private static final byte UPDATE         = 3;
+	private static final byte MEMBER_ADDED   = 4;
+	private static final byte MEMBER_REMOVED = 5;
+
+	/**
+	 * The part of a resource record that is common to every version of the
+	 * resource: everything but its members.
+	 */
+	private static final class ResourceRecord {
+
+		private final ResourceId id;
+		private final ResourceId parentId;
+		private final Map<String,ResourceId> attachments;
+
+		private ResourceRecord(ResourceId id, ResourceId parentId, Map<String,ResourceId> attachments) {
+			this.id=id;
+			this.parentId=parentId;
+			this.attachments=attachments;
+		}
+
+		private void write(DataOutput out) throws IOException {
+			RecordCodec.writeResourceId(out,this.id);
+			RecordCodec.writeResourceId(out,this.parentId);
+			out.writeInt(this.attachments.size());
+			for(Entry<String,ResourceId> entry:this.attachments.entrySet()) {
+				out.writeUTF(entry.getKey());
+				RecordCodec.writeResourceId(out,entry.getValue());
+			}
+		}
+
+		private static ResourceRecord read(DataInput in) throws IOException {
+			ResourceId id=RecordCodec.readResourceId(in);
+			ResourceId parentId=RecordCodec.readResourceId(in);
+			int attachmentCount=in.readInt();
+			Map<String,ResourceId> attachments=new LinkedHashMap<String,ResourceId>();
+			for(int i=0;i<attachmentCount;i++) {
+				String attachmentId=in.readUTF();
+				attachments.put(attachmentId,RecordCodec.readResourceId(in));
+			}
+			return new ResourceRecord(id,parentId,attachments);
+		}
+
+		private static ResourceRecord of(Resource resource) {
+			Map<String,ResourceId> attachments=new LinkedHashMap<String,ResourceId>();
+			for(Attachment attachment:resource.attachments()) {
+				attachments.put(attachment.id(),attachment.resourceId());
+			}
+			return new ResourceRecord(resource.id(),resource.parentId(),attachments);
+		}
+
+	}
+
+	/**
+	 * The records needed for storing a resource: either its whole state, or
+	 * the changes to the members of an already stored container.
+	 */
+	private final class Change {
+
+		private final Resource resource;
+		private final Collection<ResourceId> members;
+		private final List<ResourceId> added;
+		private final List<ResourceId> removed;
+		private int index;
+
+		private Change(Resource resource) {
+			this.resource=resource;
+			this.added=new ArrayList<ResourceId>();
+			this.removed=new ArrayList<ResourceId>();
+			if(!(resource instanceof Container)) {
+				this.members=Collections.emptySet();
+			} else if(!FileBasedResourceRepository.this.offsets.containsKey(resource.id())) {
+				this.members=((Container)resource).memberIds();
+			} else {
+				this.members=null;
+				MemberChanges changes=((Container)resource).memberChanges();
+				if(changes!=null) {
+					this.added.addAll(changes.added());
+					this.removed.addAll(changes.removed());
+				} else {
+					diff((Container)resource);
+				}
+			}
+		}
+
+		/**
+		 * Fallback for containers whose member changes are not tracked, i.e.,
+		 * instances that were not stored nor restored by this repository.
+		 */
+		private void diff(Container container) {
+			Set<ResourceId> current=container.memberIds();
+			Set<ResourceId> stored=FileBasedResourceRepository.this.members.get(container.id());
+			if(stored==null) {
+				stored=Collections.emptySet();
+			}
+			for(ResourceId member:current) {
+				if(!stored.contains(member)) {
+					this.added.add(member);
+				}
+			}
+			for(ResourceId member:stored) {
+				if(!current.contains(member)) {
+					this.removed.add(member);
+				}
+			}
+		}
+
+		private void encode(List<byte[]> payloads) throws IOException {
+			this.index=payloads.size();
+			ResourceRecord record=ResourceRecord.of(this.resource);
+			if(this.members!=null) {
+				payloads.add(encodePut(record,this.members));
+			} else {
+				payloads.add(encodeUpdate(record));
+				for(ResourceId member:this.added) {
+					payloads.add(encodeMembership(MEMBER_ADDED,record.id,member));
+				}
+				for(ResourceId member:this.removed) {
+					payloads.add(encodeMembership(MEMBER_REMOVED,record.id,member));
+				}
+			}
+		}
+
+		private void apply(List<Long> newOffsets) {
+			ResourceId id=this.resource.id();
+			FileBasedResourceRepository.this.offsets.put(id,newOffsets.get(this.index));
+			if(this.members!=null) {
+				replaceMembers(id,this.members);
+			} else {
+				for(ResourceId member:this.added) {
+					addMember(id,member);
+				}
+				for(ResourceId member:this.removed) {
+					removeMember(id,member);
+				}
+			}
+			if(this.resource instanceof Container) {
+				((Container)this.resource).acknowledgeMemberChanges();
+			}
+			remember(this.resource);
+		}
+
+	}
+
+	private final File file;
+	private final int syncBatch;
+	private final ServiceRegistry serviceRegistry;
+
+	private final ConcurrentMap<ResourceId,Long> offsets=new ConcurrentHashMap<ResourceId,Long>();
+	private final Map<ResourceId,Set<ResourceId>> members=new HashMap<ResourceId,Set<ResourceId>>();
+	private final Cache<ResourceId,Resource> cache;
+	private final Cache<ResourceId,Resource> instances;
+
+	private volatile RecordLog log;
+	private long records;
+
+	FileBasedResourceRepository(File file, int cacheSize, int syncBatch, ServiceRegistry serviceRegistry) {
+		this.file=file;
+		this.syncBatch=syncBatch;
+		this.serviceRegistry=serviceRegistry;
+		this.cache=CacheBuilder.newBuilder().maximumSize(cacheSize).build();
+		this.instances=CacheBuilder.newBuilder().weakValues().build();
+	}
+
+	private RecordLog log() {
+		RecordLog result=this.log;
+		checkState(result!=null,"Resource repository has not been initialized");
+		return result;
+	}
+
+	private static byte[] encodePut(ResourceRecord record, Collection<ResourceId> members) throws IOException {
+		RecordCodec.Writer writer=RecordCodec.writer();
+		DataOutput out=writer.output();
+		out.writeByte(PUT);
+		record.write(out);
+		out.writeInt(members.size());
+		for(ResourceId member:members) {
+			RecordCodec.writeResourceId(out,member);
+		}
+		return writer.toByteArray();
+	}
+
+	private static byte[] encodeUpdate(ResourceRecord record) throws IOException {
+		RecordCodec.Writer writer=RecordCodec.writer();
+		writer.output().writeByte(UPDATE);
+		record.write(writer.output());
+		return writer.toByteArray();
+	}
+
+	private static byte[] encodeMembership(byte type, ResourceId containerId, ResourceId memberId) throws IOException {
+		RecordCodec.Writer writer=RecordCodec.writer();
+		writer.output().writeByte(type);
+		RecordCodec.writeResourceId(writer.output(),containerId);
+		RecordCodec.writeResourceId(writer.output(),memberId);
+		return writer.toByteArray();
+	}
+
+	private static byte[] encodeDeletion(Resource resource) throws IOException {
+		RecordCodec.Writer writer=RecordCodec.writer();
+		writer.output().writeByte(DELETE);
+		RecordCodec.writeResourceId(writer.output(),resource.id());
+		return writer.toByteArray();
+	}
+
+	private void replaceMembers(ResourceId containerId, Collection<ResourceId> newMembers) {
+		if(newMembers.isEmpty()) {
+			this.members.remove(containerId);
+		} else {
+			this.members.put(containerId,new LinkedHashSet<ResourceId>(newMembers));
+		}
+	}
+
+	private void addMember(ResourceId containerId, ResourceId memberId) {
+		Set<ResourceId> containerMembers=this.members.get(containerId);
+		if(containerMembers==null) {
+			containerMembers=new LinkedHashSet<ResourceId>();
+			this.members.put(containerId,containerMembers);
+		}
+		containerMembers.add(memberId);
+	}
+
+	private void removeMember(ResourceId containerId, ResourceId memberId) {
+		Set<ResourceId> containerMembers=this.members.get(containerId);
+		if(containerMembers!=null && containerMembers.remove(memberId) && containerMembers.isEmpty()) {
+			this.members.remove(containerId);
+		}
+	}
+
+	private Collection<ResourceId> membersOf(ResourceId containerId) {
+		Set<ResourceId> result=this.members.get(containerId);
+		if(result==null) {
+			return Collections.emptySet();
+		}
+		return result;
+	}
+
+	private void remember(Resource resource) {
+		this.cache.put(resource.id(),resource);
+		this.instances.put(resource.id(),resource);
+	}
+
+	private void forget(ResourceId id) {
+		this.offsets.remove(id);
+		this.members.remove(id);
+		this.cache.invalidate(id);
+		this.instances.invalidate(id);
+	}
+
+	private void replay(long offset, byte[] payload) throws IOException {
+		this.records++;
+		DataInput in=RecordCodec.reader(payload);
+		byte type=in.readByte();
+		if(type==PUT) {
+			ResourceRecord record=ResourceRecord.read(in);
+			int memberCount=in.readInt();
+			List<ResourceId> restored=new ArrayList<ResourceId>(memberCount);
+			for(int i=0;i<memberCount;i++) {
+				restored.add(RecordCodec.readResourceId(in));
+			}
+			this.offsets.put(record.id,offset);
+			replaceMembers(record.id,restored);
+		} else if(type==UPDATE) {
+			this.offsets.put(ResourceRecord.read(in).id,offset);
+		} else if(type==MEMBER_ADDED) {
+			addMember(RecordCodec.readResourceId(in),RecordCodec.readResourceId(in));
+		} else if(type==MEMBER_REMOVED) {
+			removeMember(RecordCodec.readResourceId(in),RecordCodec.readResourceId(in));
+		} else if(type==DELETE) {
+			ResourceId id=RecordCodec.readResourceId(in);
+			this.offsets.remove(id);
+			this.members.remove(id);
+		} else {
+			throw new IOException("Unknown resource record type '"+type+"'");
+		}
+	}
+
+	/**
+	 * Rewrite the latest version of each resource, including its current
+	 * members, so that the rest of the records can be discarded.
+	 */
+	synchronized void compact() throws IOException {
+		List<ResourceId> ids=new ArrayList<ResourceId>(this.offsets.keySet());
+		List<Long> live=new ArrayList<Long>(ids.size());
+		for(ResourceId id:ids) {
+			live.add(this.offsets.get(id));
+		}
+		List<Long> relocated=new ArrayList<Long>(ids.size());
+		this.log=
+			log().compact(
+				Collections.<byte[]>emptyList(),
+				live,
+				new RecordLog.RecordRewriter() {
+					@Override
+					public byte[] rewriteRecord(byte[] payload) throws IOException {
+						DataInput in=RecordCodec.reader(payload);
+						in.readByte();
+						ResourceRecord record=ResourceRecord.read(in);
+						return encodePut(record,membersOf(record.id));
+					}
+				},
+				relocated);
+		for(int i=0;i<ids.size();i++) {
+			this.offsets.put(ids.get(i),relocated.get(i));
+		}
+		this.records=ids.size();
+	}
+
+	private boolean requiresCompaction() {
+		return FileBasedRepositoryRegistry.requiresCompaction(this.records,this.offsets.size());
+	}
+
+	/**
+	 * A failed compaction leaves the current log in place, so there is no
+	 * need to fail the update that triggered it.
+	 */
+	private void compactIfNeeded() {
+		if(!requiresCompaction()) {
+			return;
+		}
+		try {
+			compact();
+		} catch (IOException e) {
+			LOGGER.warn("Could not compact resource repository '"+this.file.getAbsolutePath()+"'",e);
+		}
+	}
+
+	/**
+	 * Restore the resource, unless there is already an instance of it in use.
+	 * Restoring is serialized with the updates, so that the offset and the
+	 * members used match those of the log.
+	 */
+	private synchronized Resource load(ResourceId id) {
+		Long offset=this.offsets.get(id);
+		if(offset==null) {
+			return null;
+		}
+		Resource resource=this.instances.getIfPresent(id);
+		if(resource==null) {
+			try {
+				DataInput in=RecordCodec.reader(log().read(offset));
+				in.readByte();
+				ResourceRecord record=ResourceRecord.read(in);
+				resource=
+					this.serviceRegistry.
+						getService(ResourceFactoryService.class).
+							restoreResource(record.id,record.parentId,record.attachments,membersOf(record.id));
+				if(resource instanceof Container) {
+					((Container)resource).acknowledgeMemberChanges();
+				}
+			} catch (IOException e) {
+				throw new IllegalStateException("Could not load resource "+id,e);
+			}
+		}
+		remember(resource);
+		return resource;
+	}
+
+	private Resource find(ResourceId id) {
+		Resource resource=this.cache.getIfPresent(id);
+		if(resource==null) {
+			resource=load(id);
+		}
+		return resource;
+	}
+
+	@Override
+	public <T extends Resource> T find(ResourceId id, Class<? extends T> expectedResourceClass) {
+		checkNotNull(expectedResourceClass,"Expected resource class cannot be null");
+		Resource found=find(id);
+		if(expectedResourceClass.isInstance(found)) {
+			return expectedResourceClass.cast(found);
+		}
+		return null;
+	}
+
+	@Override
+	public Resource resourceOfId(ResourceId id) {
+		Resource found=find(id);
+		if(found instanceof Container) {
+			return null;
+		}
+		return found;
+	}
+
+	@Override
+	public Container containerOfId(ResourceId id) {
+		return find(id,Container.class);
+	}
+
+	@Override
+	public synchronized void add(Resource resource) {
+		checkNotNull(resource,"Resource cannot be null");
+		addAll(Collections.singletonList(resource));
+	}
+
+	@Override
+	public synchronized void remove(Resource resource) {
+		checkNotNull(resource,"Resource cannot be null");
+		removeAll(Collections.singletonList(resource));
+	}
+
+	@Override
+	public synchronized void addAll(Collection<? extends Resource> resources) {
+		checkNotNull(resources,"Resources cannot be null");
+		List<Change> changes=new ArrayList<Change>(resources.size());
+		List<byte[]> payloads=new ArrayList<byte[]>(resources.size());
+		List<Long> newOffsets;
+		try {
+			for(Resource resource:resources) {
+				checkNotNull(resource,"Resource cannot be null");
+				Change change=new Change(resource);
+				change.encode(payloads);
+				changes.add(change);
+			}
+			newOffsets=log().appendAll(payloads);
+			this.records+=payloads.size();
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+		for(Change change:changes) {
+			change.apply(newOffsets);
+		}
+		compactIfNeeded();
+	}
+
+	@Override
+	public synchronized void removeAll(Collection<? extends Resource> resources) {
+		checkNotNull(resources,"Resources cannot be null");
+		List<Resource> removed=new ArrayList<Resource>(resources.size());
+		List<byte[]> payloads=new ArrayList<byte[]>(resources.size());
+		try {
+			for(Resource resource:resources) {
+				checkNotNull(resource,"Resource cannot be null");
+				if(this.offsets.containsKey(resource.id())) {
+					removed.add(resource);
+					payloads.add(encodeDeletion(resource));
+				}
+			}
+			log().appendAll(payloads);
+			this.records+=payloads.size();
+		} catch (IOException e) {
+			throw Throwables.propagate(e);
+		}
+		for(Resource resource:removed) {
+			forget(resource.id());
+		}
+		compactIfNeeded();
+	}
+
+	@Override
+	public synchronized void init() throws LifecycleException {
+		try {
+			this.log=
+				RecordLog.open(
+					this.file,
+					this.syncBatch,
+					new RecordLog.RecordHandler() {
+						@Override
+						public void handleRecord(long offset, byte[] payload) throws IOException {
+							replay(offset,payload);
+						}
+					}
+				);
+			if(requiresCompaction()) {
+				compact();
+			}
+		} catch (IOException e) {
+			throw new LifecycleException("Could not open resource repository '"+this.file.getAbsolutePath()+"'",e);
+		}
+	}
+
+	@Override
+	public synchronized void shutdown() throws LifecycleException {
+		RecordLog current=this.log;
+		this.log=null;
+		this.offsets.clear();
+		this.members.clear();
+		this.cache.invalidateAll();
+		this.instances.invalidateAll();
+		this.records=0;
+		if(current!=null) {
+			try {
+				current.close();
+			} catch (IOException e) {
+				throw new LifecycleException("Could not close resource repository '"+this.file.getAbsolutePath()+"'",e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.File;
+
+import org.ldp4j.application.spi.RepositoryRegistry;
+import org.ldp4j.application.spi.RuntimeInstance;
+import org.ldp4j.application.spi.ServiceRegistry;
+
+/**
+ * Runtime instance that keeps the resources and endpoints of the application
+ * in append-only logs, so that they survive restarts. To use it, set the
+ * {@value RuntimeInstance#LDP4J_APPLICATION_SPI_PROPERTY} system property to
+ * the name of this class.
+ */
+public final class FileBasedRuntimeInstance extends RuntimeInstance {
+
+	/**
+	 * System property for configuring the directory where the logs are
+	 * stored. Defaults to the <code>.ldp4j</code> directory of the home
+	 * directory of the user.
+	 */
+	public static final String DIRECTORY = "org.ldp4j.application.impl.filebased.directory";
+
+	/**
+	 * System property for configuring the maximum number of resources (and
+	 * endpoints) kept in memory. Defaults to {@value #DEFAULT_CACHE_SIZE}.
+	 */
+	public static final String CACHE_SIZE = "org.ldp4j.application.impl.filebased.cache.size";
+
+	/**
+	 * System property for configuring the number of updates after which the
+	 * logs are forced to disk. Defaults to {@value #DEFAULT_SYNC_BATCH}. Use
+	 * {@code 1} to force every update, or {@code 0} to force them only on
+	 * shutdown.
+	 */
+	public static final String SYNC_BATCH = "org.ldp4j.application.impl.filebased.sync.batch";
+
+	private static final int DEFAULT_CACHE_SIZE = 10000;
+	private static final int DEFAULT_SYNC_BATCH = 32;
+
+	private final ServiceRegistry serviceRegistry;
+	private final RepositoryRegistry repositoryRegistry;
+
+	public FileBasedRuntimeInstance() {
+		this(defaultDirectory());
+	}
+
+	public FileBasedRuntimeInstance(File directory) {
+		checkNotNull(directory,"Directory cannot be null");
+		checkArgument(directory.isDirectory() || directory.mkdirs(),"Could not create directory '%s'",directory.getAbsolutePath());
+		this.serviceRegistry = new InMemoryServiceRegistry();
+		this.repositoryRegistry =
+			new FileBasedRepositoryRegistry(
+				directory,
+				Integer.getInteger(CACHE_SIZE,DEFAULT_CACHE_SIZE),
+				Integer.getInteger(SYNC_BATCH,DEFAULT_SYNC_BATCH),
+				this.serviceRegistry);
+	}
+
+	private static File defaultDirectory() {
+		String directory=System.getProperty(DIRECTORY);
+		if(directory!=null) {
+			return new File(directory);
+		}
+		return new File(new File(System.getProperty("user.home")),".ldp4j");
+	}
+
+	@Override
+	public RepositoryRegistry getRepositoryRegistry() {
+		return repositoryRegistry;
+	}
+
+	@Override
+	public ServiceRegistry getServiceRegistry() {
+		return serviceRegistry;
+	}
+
+}
@@ -26,11 +26,11 @@
  */
 package org.ldp4j.application.impl;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.Lock;
 
 import org.ldp4j.application.endpoint.Endpoint;
 import org.ldp4j.application.lifecycle.LifecycleException;
@@ -38,15 +38,29 @@ import org.ldp4j.application.lifecycle.Managed;
 import org.ldp4j.application.resource.ResourceId;
 import org.ldp4j.application.spi.EndpointRepository;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Lookups are lock-free. Updates lock the stripes of both the path and the
+ * resource identifier of the endpoint, so that the three indexes are updated
+ * atomically with regard to other updates that share any of these keys, while
+ * updates on unrelated endpoints proceed in parallel. The endpoint is
+ * published in the identifier index before it is made reachable through the
+ * secondary indexes, and unlinked from these before it is discarded, so
+ * readers never observe a dangling reference.
+ */
 final class InMemoryEndpointRepository implements EndpointRepository, Managed {
 
+	private static final int STRIPES = 64;
+
 	private final AtomicLong counter=new AtomicLong();
 
-	private ReadWriteLock lock=new ReentrantReadWriteLock();
-	private final Map<Long,Endpoint> endpointsById=new HashMap<Long,Endpoint>();
-	private final Map<String,Long> endpointsByPath=new HashMap<String,Long>();
-	private final Map<ResourceId,Long> endpointsByResourceName=new HashMap<ResourceId,Long>();
-	
+	private final Striped<Lock> locks=Striped.lock(STRIPES);
+	private final ConcurrentMap<Long,Endpoint> endpointsById=new ConcurrentHashMap<Long,Endpoint>();
+	private final ConcurrentMap<String,Long> endpointsByPath=new ConcurrentHashMap<String,Long>();
+	private final ConcurrentMap<ResourceId,Long> endpointsByResourceName=new ConcurrentHashMap<ResourceId,Long>();
+
 	InMemoryEndpointRepository() {
 	}
 
@@ -57,6 +71,27 @@ final class InMemoryEndpointRepository implements EndpointRepository, Managed {
 		return endpointsById.get(id);
 	}
 
+	private ImmutableList<Lock> lock(Endpoint endpoint) {
+		// Striped returns the locks in a consistent order, which prevents
+		// deadlocks between updates that share stripes
+		ImmutableList<Lock> result=
+			ImmutableList.copyOf(
+				locks.bulkGet(
+					ImmutableList.<Object>of(
+						endpoint.path(),
+						endpoint.resourceId())));
+		for(Lock lock:result) {
+			lock.lock();
+		}
+		return result;
+	}
+
+	private void unlock(ImmutableList<Lock> acquired) {
+		for(Lock lock:acquired.reverse()) {
+			lock.unlock();
+		}
+	}
+
 	@Override
 	public long nextIdentifier() {
 		return counter.incrementAndGet();
@@ -64,55 +99,53 @@ final class InMemoryEndpointRepository implements EndpointRepository, Managed {
 
 	@Override
 	public Endpoint endpointOfPath(String path) {
-		lock.readLock().lock();
-		try {
-			return endpointOfId(endpointsByPath.get(path));
-		} finally {
-			lock.readLock().unlock();
-		}
+		return endpointOfId(endpointsByPath.get(path));
 	}
 
 	@Override
 	public Endpoint endpointOfResource(ResourceId id) {
-		lock.readLock().lock();
-		try {
-			return endpointOfId(endpointsByResourceName.get(id));
-		} finally {
-			lock.readLock().unlock();
-		}
+		return endpointOfId(endpointsByResourceName.get(id));
 	}
 
 	@Override
 	public void remove(Endpoint endpoint) {
-		lock.writeLock().lock();
+		ImmutableList<Lock> acquired=lock(endpoint);
 		try {
-			endpointsById.remove(endpoint.id());
-			endpointsByPath.remove(endpoint.path());
-			endpointsByResourceName.remove(endpoint.resourceId());
+			Long id=endpoint.id();
+			endpointsByPath.remove(endpoint.path(),id);
+			endpointsByResourceName.remove(endpoint.resourceId(),id);
+			endpointsById.remove(id);
 		} finally {
-			lock.writeLock().unlock();
+			unlock(acquired);
 		}
 	}
 
 	@Override
-	public void add(Endpoint endpoint) {
-		lock.writeLock().lock();
+	public void removeAll(Collection<? extends Endpoint> endpoints) {
+		for(Endpoint endpoint:endpoints) {
+			remove(endpoint);
+		}
+	}
+
+	@Override
+	public Endpoint add(Endpoint endpoint) {
+		ImmutableList<Lock> acquired=lock(endpoint);
 		try {
-			if(endpointsById.containsKey(endpoint.id())) {
-				throw new IllegalArgumentException("An endpoint with id '"+endpoint.id()+"' already exists");
-			}
 			if(endpointsByPath.containsKey(endpoint.path())) {
 				throw new IllegalArgumentException("An endpoint with path '"+endpoint.path()+"' already exists");
 			}
 			if(endpointsByResourceName.containsKey(endpoint.resourceId())) {
 				throw new IllegalArgumentException("An endpoint with resource name '"+endpoint.resourceId()+"' already exists");
 			}
-			endpointsById.put(endpoint.id(), endpoint);
+			if(endpointsById.putIfAbsent(endpoint.id(),endpoint)!=null) {
+				throw new IllegalArgumentException("An endpoint with id '"+endpoint.id()+"' already exists");
+			}
 			endpointsByPath.put(endpoint.path(), endpoint.id());
 			endpointsByResourceName.put(endpoint.resourceId(), endpoint.id());
 		} finally {
-			lock.writeLock().unlock();
+			unlock(acquired);
 		}
+		return endpoint;
 	}
 
 	@Override
@@ -122,14 +155,9 @@ final class InMemoryEndpointRepository implements EndpointRepository, Managed {
 
 	@Override
 	public void shutdown() throws LifecycleException {
-		lock.writeLock().lock();
-		try {
-			endpointsById.clear();
-			endpointsByPath.clear();
-			endpointsByResourceName.clear();
-		} finally {
-			lock.writeLock().unlock();
-		}
+		endpointsByPath.clear();
+		endpointsByResourceName.clear();
+		endpointsById.clear();
 	}
-	
+
 }
\ No newline at end of file
@@ -29,15 +29,18 @@ package org.ldp4j.application.impl;
 import org.ldp4j.application.spi.EndpointRepository;
 import org.ldp4j.application.spi.RepositoryRegistry;
 import org.ldp4j.application.spi.ResourceRepository;
+import org.ldp4j.application.spi.TombstoneRepository;
 
 final class InMemoryRepositoryRegistry implements RepositoryRegistry {
 
 	private final ResourceRepository resourceRepository;
 	private final EndpointRepository endpointRepository;
+	private final TombstoneRepository tombstoneRepository;
 
 	InMemoryRepositoryRegistry() {
 		resourceRepository = new InMemoryResourceRepository();
 		endpointRepository = new InMemoryEndpointRepository();
+		tombstoneRepository = TombstoneStore.newInstance();
 	}
 
 	@Override
@@ -50,4 +53,9 @@ final class InMemoryRepositoryRegistry implements RepositoryRegistry {
 		return endpointRepository;
 	}
 
+	@Override
+	public TombstoneRepository getTombstoneRepository() {
+		return tombstoneRepository;
+	}
+
 }
\ No newline at end of file
@@ -28,10 +28,10 @@ package org.ldp4j.application.impl;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
 
 import org.ldp4j.application.lifecycle.LifecycleException;
 import org.ldp4j.application.lifecycle.Managed;
@@ -41,26 +41,30 @@ import org.ldp4j.application.resource.ResourceId;
 import org.ldp4j.application.resource.ResourceVisitor;
 import org.ldp4j.application.spi.ResourceRepository;
 
+import com.google.common.util.concurrent.Striped;
+
+/**
+ * Lookups are lock-free. Updates are serialized per resource identifier using
+ * lock striping, so that concurrent updates on different resources do not
+ * contend with each other.
+ */
 final class InMemoryResourceRepository implements ResourceRepository, Managed {
 
-	private final ReadWriteLock lock=new ReentrantReadWriteLock();
-	private final Map<ResourceId,Resource> resources=new LinkedHashMap<ResourceId,Resource>();
-	private final Map<ResourceId,Container> containers=new LinkedHashMap<ResourceId,Container>();
+	private static final int STRIPES = 64;
+
+	private final Striped<Lock> locks=Striped.lock(STRIPES);
+	private final ConcurrentMap<ResourceId,Resource> resources=new ConcurrentHashMap<ResourceId,Resource>();
+	private final ConcurrentMap<ResourceId,Container> containers=new ConcurrentHashMap<ResourceId,Container>();
 
 	InMemoryResourceRepository() {
 	}
 
 	private Resource find(ResourceId id) {
-		lock.readLock().lock();
-		try {
-			Resource result=resources.get(id);
-			if(result==null) {
-				result=containers.get(id);
-			}
-			return result;
-		} finally {
-			lock.readLock().unlock();
+		Resource result=resources.get(id);
+		if(result==null) {
+			result=containers.get(id);
 		}
+		return result;
 	}
 
 	@Override
@@ -75,28 +79,19 @@ final class InMemoryResourceRepository implements ResourceRepository, Managed {
 
 	@Override
 	public Resource resourceOfId(ResourceId id) {
-		lock.readLock().lock();
-		try {
-			return resources.get(id);
-		} finally {
-			lock.readLock().unlock();
-		}
+		return resources.get(id);
 	}
 
 	@Override
 	public Container containerOfId(ResourceId id) {
-		lock.readLock().lock();
-		try {
-			return containers.get(id);
-		} finally {
-			lock.readLock().unlock();
-		}
+		return containers.get(id);
 	}
 
 	@Override
 	public void add(Resource resource) {
 		checkNotNull(resource,"Resource cannot be null");
-		lock.writeLock().lock();
+		Lock lock=locks.get(resource.id());
+		lock.lock();
 		try {
 			resource.accept(
 				new ResourceVisitor() {
@@ -111,19 +106,36 @@ final class InMemoryResourceRepository implements ResourceRepository, Managed {
 				}
 			);
 		} finally {
-			lock.writeLock().unlock();
+			lock.unlock();
 		}
 	}
 
 	@Override
 	public void remove(Resource resource) {
 		checkNotNull(resource,"Resource cannot be null");
-		lock.writeLock().lock();
+		Lock lock=locks.get(resource.id());
+		lock.lock();
 		try {
 			resources.remove(resource.id());
 			containers.remove(resource.id());
 		} finally {
-			lock.writeLock().unlock();
+			lock.unlock();
+		}
+	}
+
+	@Override
+	public void addAll(Collection<? extends Resource> resources) {
+		checkNotNull(resources,"Resources cannot be null");
+		for(Resource resource:resources) {
+			add(resource);
+		}
+	}
+
+	@Override
+	public void removeAll(Collection<? extends Resource> resources) {
+		checkNotNull(resources,"Resources cannot be null");
+		for(Resource resource:resources) {
+			remove(resource);
 		}
 	}
 
@@ -134,12 +146,7 @@ final class InMemoryResourceRepository implements ResourceRepository, Managed {
 
 	@Override
 	public void shutdown() throws LifecycleException {
-		lock.writeLock().lock();
-		try {
-			resources.clear();
-			containers.clear();
-		} finally {
-			lock.writeLock().unlock();
-		}
+		resources.clear();
+		containers.clear();
 	}
 }
\ No newline at end of file
@@ -0,0 +1,195 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.impl;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.URI;
+
+import javax.xml.namespace.QName;
+
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.resource.ResourceId;
+
+/**
+ * Binary encoding of the values stored by the file-based repositories.
+ */
+final class RecordCodec {
+
+	static final class Writer {
+
+		private final ByteArrayOutputStream bytes;
+		private final DataOutputStream out;
+
+		private Writer() {
+			this.bytes=new ByteArrayOutputStream();
+			this.out=new DataOutputStream(this.bytes);
+		}
+
+		DataOutput output() {
+			return this.out;
+		}
+
+		byte[] toByteArray() throws IOException {
+			this.out.flush();
+			return this.bytes.toByteArray();
+		}
+
+	}
+
+	private static final byte STRING_NAME  = 'S';
+	private static final byte URI_NAME     = 'U';
+	private static final byte QNAME_NAME   = 'Q';
+	private static final byte LONG_NAME    = 'L';
+	private static final byte INTEGER_NAME = 'I';
+	private static final byte NUMBER_NAME  = 'N';
+
+	private static final byte NULL_VALUE     = 0;
+	private static final byte NON_NULL_VALUE = 1;
+
+	private RecordCodec() {
+	}
+
+	static Writer writer() {
+		return new Writer();
+	}
+
+	static DataInput reader(byte[] payload) {
+		return new DataInputStream(new ByteArrayInputStream(payload));
+	}
+
+	static void writeResourceId(DataOutput out, ResourceId id) throws IOException {
+		if(id==null) {
+			out.writeByte(NULL_VALUE);
+			return;
+		}
+		out.writeByte(NON_NULL_VALUE);
+		out.writeUTF(id.templateId());
+		writeName(out,id.name());
+	}
+
+	static ResourceId readResourceId(DataInput in) throws IOException {
+		if(in.readByte()==NULL_VALUE) {
+			return null;
+		}
+		String templateId=in.readUTF();
+		return ResourceId.createId(readName(in),templateId);
+	}
+
+	private static void writeName(DataOutput out, Name<?> name) throws IOException {
+		Object id=name.id();
+		if(id instanceof String) {
+			out.writeByte(STRING_NAME);
+			out.writeUTF((String)id);
+		} else if(id instanceof URI) {
+			out.writeByte(URI_NAME);
+			out.writeUTF(id.toString());
+		} else if(id instanceof QName) {
+			out.writeByte(QNAME_NAME);
+			out.writeUTF(id.toString());
+		} else if(id instanceof Long) {
+			out.writeByte(LONG_NAME);
+			out.writeLong((Long)id);
+		} else if(id instanceof Integer) {
+			out.writeByte(INTEGER_NAME);
+			out.writeInt((Integer)id);
+		} else if(id instanceof Number && id instanceof Serializable) {
+			out.writeByte(NUMBER_NAME);
+			ByteArrayOutputStream bytes=new ByteArrayOutputStream();
+			ObjectOutputStream oos=new ObjectOutputStream(bytes);
+			oos.writeObject(id);
+			oos.close();
+			out.writeInt(bytes.size());
+			out.write(bytes.toByteArray());
+		} else {
+			throw new IllegalArgumentException("Cannot persist names of type '"+id.getClass().getCanonicalName()+"'");
+		}
+	}
+
+	private static Name<?> readName(DataInput in) throws IOException {
+		NamingScheme scheme=NamingScheme.getDefault();
+		byte type=in.readByte();
+		Name<?> result=null;
+		switch(type) {
+		case STRING_NAME:
+			result=scheme.name(in.readUTF());
+			break;
+		case URI_NAME:
+			result=scheme.name(URI.create(in.readUTF()));
+			break;
+		case QNAME_NAME:
+			result=scheme.name(QName.valueOf(in.readUTF()));
+			break;
+		case LONG_NAME:
+			result=scheme.name(in.readLong());
+			break;
+		case INTEGER_NAME:
+			result=scheme.name(in.readInt());
+			break;
+		case NUMBER_NAME:
+			byte[] bytes=new byte[in.readInt()];
+			in.readFully(bytes);
+			result=scheme.name(readNumber(bytes));
+			break;
+		default:
+			throw new IOException("Unknown name type '"+type+"'");
+		}
+		return result;
+	}
+
+	private static Number readNumber(byte[] bytes) throws IOException {
+		ObjectInputStream ois=new ObjectInputStream(new ByteArrayInputStream(bytes));
+		try {
+			return (Number)ois.readObject();
+		} catch (ClassNotFoundException e) {
+			throw new IOException("Could not restore number",e);
+		} finally {
+			ois.close();
+		}
+	}
+
+	static void writeEntityTag(DataOutput out, EntityTag entityTag) throws IOException {
+		out.writeUTF(entityTag.getValue());
+		out.writeBoolean(entityTag.isWeak());
+	}
+
+	static EntityTag readEntityTag(DataInput in) throws IOException {
+		String value=in.readUTF();
+		return new EntityTag(value,in.readBoolean());
+	}
+
+}
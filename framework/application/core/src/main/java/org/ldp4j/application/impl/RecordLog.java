@@ -0,0 +1,411 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.impl;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only log of checksummed records. Each record is stored as its
+ * length, the CRC32 of its payload and the payload itself, and is identified
+ * by the offset at which it starts. On opening, the log is read sequentially
+ * and any incomplete or corrupt tail left by an interrupted write is
+ * discarded. Appended records are forced to disk in batches.
+ * <p>
+ * Compaction writes the kept records to a {@code .compacting} file, and then
+ * swaps it with the log by renaming the log to a {@code .backup} file first.
+ * Opening a log completes or rolls back any swap interrupted by a crash.
+ */
+final class RecordLog {
+
+	interface RecordHandler {
+
+		void handleRecord(long offset, byte[] payload) throws IOException;
+
+	}
+
+	interface RecordRewriter {
+
+		byte[] rewriteRecord(byte[] payload) throws IOException;
+
+	}
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(RecordLog.class);
+
+	private static final int HEADER_SIZE=8;
+
+	private static final String COMPACTING_SUFFIX=".compacting";
+	private static final String BACKUP_SUFFIX=".backup";
+
+	private final File file;
+	private final int syncBatch;
+	private final RandomAccessFile raf;
+	private final FileChannel channel;
+
+	private long size;
+	private int unsynced;
+
+	private RecordLog(File file, int syncBatch) throws IOException {
+		this.file=file;
+		this.syncBatch=syncBatch;
+		this.raf=new RandomAccessFile(file,"rw");
+		this.channel=this.raf.getChannel();
+	}
+
+	private static int checksum(byte[] payload) {
+		CRC32 crc=new CRC32();
+		crc.update(payload);
+		return (int)crc.getValue();
+	}
+
+	/**
+	 * The stream is not closed, as that would close the channel too.
+	 */
+	private void recover(RecordHandler handler) throws IOException {
+		long length=this.channel.size();
+		long offset=0;
+		DataInputStream in=new DataInputStream(new BufferedInputStream(Channels.newInputStream(this.channel.position(0))));
+		while(length-offset>=HEADER_SIZE) {
+			int recordLength=in.readInt();
+			int recordChecksum=in.readInt();
+			if(recordLength<0 || recordLength>length-offset-HEADER_SIZE) {
+				break;
+			}
+			byte[] payload=new byte[recordLength];
+			in.readFully(payload);
+			if(checksum(payload)!=recordChecksum) {
+				break;
+			}
+			handler.handleRecord(offset,payload);
+			offset+=HEADER_SIZE+recordLength;
+		}
+		if(offset<length) {
+			LOGGER.warn("Discarding {} bytes of incomplete records from '{}'",length-offset,this.file.getAbsolutePath());
+			this.channel.truncate(offset);
+		}
+		this.size=offset;
+	}
+
+	File file() {
+		return this.file;
+	}
+
+	/**
+	 * @return the number of bytes used by the records of the log
+	 */
+	synchronized long size() {
+		return this.size;
+	}
+
+	/**
+	 * Append a record to the log.
+	 *
+	 * @param payload
+	 *            the contents of the record
+	 * @return the offset of the record
+	 * @throws IOException
+	 *             if the record cannot be written
+	 */
+	synchronized long append(byte[] payload) throws IOException {
+		byte[] record=new byte[HEADER_SIZE+payload.length];
+		ByteBuffer.wrap(record).putInt(payload.length).putInt(checksum(payload)).put(payload);
+		ByteBuffer buffer=ByteBuffer.wrap(record);
+		long offset=this.size;
+		long position=offset;
+		while(buffer.hasRemaining()) {
+			position+=this.channel.write(buffer,position);
+		}
+		this.size=position;
+		this.unsynced++;
+		if(this.syncBatch>0 && this.unsynced>=this.syncBatch) {
+			sync();
+		}
+		return offset;
+	}
+
+	/**
+	 * Append a group of records to the log with a single write. The records
+	 * count as one towards the sync batch.
+	 *
+	 * @param payloads
+	 *            the contents of the records
+	 * @return the offsets of the records, in the same order
+	 * @throws IOException
+	 *             if the records cannot be written
+	 */
+	synchronized List<Long> appendAll(List<byte[]> payloads) throws IOException {
+		int length=0;
+		for(byte[] payload:payloads) {
+			length+=HEADER_SIZE+payload.length;
+		}
+		byte[] records=new byte[length];
+		ByteBuffer writer=ByteBuffer.wrap(records);
+		List<Long> offsets=new ArrayList<Long>(payloads.size());
+		long offset=this.size;
+		for(byte[] payload:payloads) {
+			offsets.add(offset);
+			writer.putInt(payload.length).putInt(checksum(payload)).put(payload);
+			offset+=HEADER_SIZE+payload.length;
+		}
+		ByteBuffer buffer=ByteBuffer.wrap(records);
+		long position=this.size;
+		while(buffer.hasRemaining()) {
+			position+=this.channel.write(buffer,position);
+		}
+		this.size=position;
+		if(!payloads.isEmpty()) {
+			this.unsynced++;
+		}
+		if(this.syncBatch>0 && this.unsynced>=this.syncBatch) {
+			sync();
+		}
+		return offsets;
+	}
+
+	/**
+	 * Read the record that starts at a given offset.
+	 *
+	 * @param offset
+	 *            the offset of the record
+	 * @return the contents of the record
+	 * @throws IOException
+	 *             if the record cannot be read or is corrupt
+	 */
+	byte[] read(long offset) throws IOException {
+		ByteBuffer header=ByteBuffer.allocate(HEADER_SIZE);
+		readFully(header,offset);
+		ByteBuffer fields=ByteBuffer.wrap(header.array());
+		int recordLength=fields.getInt();
+		int recordChecksum=fields.getInt();
+		ByteBuffer buffer=ByteBuffer.allocate(recordLength);
+		readFully(buffer,offset+HEADER_SIZE);
+		byte[] payload=buffer.array();
+		if(checksum(payload)!=recordChecksum) {
+			throw new IOException("Corrupt record at offset "+offset+" of '"+this.file.getAbsolutePath()+"'");
+		}
+		return payload;
+	}
+
+	private void readFully(ByteBuffer buffer, long offset) throws IOException {
+		long position=offset;
+		while(buffer.hasRemaining()) {
+			int read=this.channel.read(buffer,position);
+			if(read<0) {
+				throw new IOException("Unexpected end of '"+this.file.getAbsolutePath()+"' at offset "+position);
+			}
+			position+=read;
+		}
+	}
+
+	/**
+	 * Force the pending records to disk.
+	 *
+	 * @throws IOException
+	 *             if the records cannot be forced
+	 */
+	synchronized void sync() throws IOException {
+		if(this.unsynced>0) {
+			this.channel.force(false);
+			this.unsynced=0;
+		}
+	}
+
+	synchronized void close() throws IOException {
+		try {
+			sync();
+		} finally {
+			this.raf.close();
+		}
+	}
+
+	/**
+	 * Rewrite the log so that it only includes the specified records, as they
+	 * are.
+	 *
+	 * @param offsets
+	 *            the offsets of the records to keep
+	 * @param newOffsets
+	 *            the list where the offsets of the kept records in the
+	 *            rewritten log are to be added, in the same order
+	 * @return the rewritten log
+	 * @throws IOException
+	 *             if the log cannot be rewritten
+	 * @see #compact(List, List, RecordRewriter, List)
+	 */
+	synchronized RecordLog compact(List<Long> offsets, List<Long> newOffsets) throws IOException {
+		return compact(new ArrayList<byte[]>(),offsets,null,newOffsets);
+	}
+
+	/**
+	 * Rewrite the log so that it only includes the specified records,
+	 * preceded by some new ones. The rewritten log replaces the original one
+	 * only once it has been completely written to disk, and only then the
+	 * current log is closed: if the log cannot be rewritten, the current log
+	 * can still be used.
+	 *
+	 * @param leading
+	 *            the contents of the records to write before the kept ones
+	 * @param offsets
+	 *            the offsets of the records to keep
+	 * @param rewriter
+	 *            the rewriter for the contents of the kept records, or
+	 *            {@code null} if they are to be kept as they are
+	 * @param newOffsets
+	 *            the list where the offsets of the kept records in the
+	 *            rewritten log are to be added, in the same order
+	 * @return the rewritten log
+	 * @throws IOException
+	 *             if the log cannot be rewritten
+	 */
+	synchronized RecordLog compact(List<byte[]> leading, List<Long> offsets, RecordRewriter rewriter, List<Long> newOffsets) throws IOException {
+		File tmpFile=siblingFile(this.file,COMPACTING_SUFFIX);
+		if(tmpFile.exists() && !tmpFile.delete()) {
+			throw new IOException("Could not delete stale file '"+tmpFile.getAbsolutePath()+"'");
+		}
+		RecordLog compacted=new RecordLog(tmpFile,0);
+		try {
+			for(byte[] payload:leading) {
+				compacted.append(payload);
+			}
+			for(Long offset:offsets) {
+				byte[] payload=read(offset);
+				if(rewriter!=null) {
+					payload=rewriter.rewriteRecord(payload);
+				}
+				newOffsets.add(compacted.append(payload));
+			}
+			compacted.close();
+		} catch (IOException e) {
+			compacted.close();
+			throw e;
+		}
+		replace(this.file,tmpFile);
+		close();
+		RecordLog result=new RecordLog(this.file,this.syncBatch);
+		result.size=result.channel.size();
+		return result;
+	}
+
+	private static File siblingFile(File file, String suffix) {
+		return new File(file.getPath()+suffix);
+	}
+
+	private static void rename(File source, File target) throws IOException {
+		if(!source.renameTo(target)) {
+			throw new IOException("Could not rename '"+source.getAbsolutePath()+"' to '"+target.getAbsolutePath()+"'");
+		}
+	}
+
+	private static void deleteStale(File file) {
+		if(file.exists() && !file.delete()) {
+			LOGGER.warn("Could not delete stale file '{}'",file.getAbsolutePath());
+		}
+	}
+
+	/**
+	 * Swap the log with its rewritten version. At any time, either the log,
+	 * or the completely written rewritten version, is in place or can be
+	 * restored from the backup.
+	 */
+	private static void replace(File file, File replacement) throws IOException {
+		File backup=siblingFile(file,BACKUP_SUFFIX);
+		if(backup.exists() && !backup.delete()) {
+			throw new IOException("Could not delete stale file '"+backup.getAbsolutePath()+"'");
+		}
+		rename(file,backup);
+		try {
+			rename(replacement,file);
+		} catch (IOException e) {
+			if(!backup.renameTo(file)) {
+				LOGGER.error("Could not restore '{}' from '{}'",file.getAbsolutePath(),backup.getAbsolutePath());
+			}
+			throw e;
+		}
+		deleteStale(backup);
+	}
+
+	/**
+	 * Complete or roll back a swap interrupted by a crash. The log may only be
+	 * missing once its rewritten version has been completely written, so the
+	 * rewritten version is preferred over the backup.
+	 */
+	private static void restore(File file) throws IOException {
+		File compacting=siblingFile(file,COMPACTING_SUFFIX);
+		File backup=siblingFile(file,BACKUP_SUFFIX);
+		if(!file.exists()) {
+			if(compacting.exists()) {
+				LOGGER.warn("Completing the interrupted compaction of '{}'",file.getAbsolutePath());
+				rename(compacting,file);
+			} else if(backup.exists()) {
+				LOGGER.warn("Restoring '{}' from its backup",file.getAbsolutePath());
+				rename(backup,file);
+			}
+		}
+		deleteStale(compacting);
+		deleteStale(backup);
+	}
+
+	/**
+	 * Open a log, replaying its records in order.
+	 *
+	 * @param file
+	 *            the file that backs the log
+	 * @param syncBatch
+	 *            the number of appended records after which the log is
+	 *            forced to disk. If not positive, the log is only forced when
+	 *            explicitly requested or closed
+	 * @param handler
+	 *            the handler for the records already stored in the log
+	 * @return the opened log
+	 * @throws IOException
+	 *             if the log cannot be opened
+	 */
+	static RecordLog open(File file, int syncBatch, RecordHandler handler) throws IOException {
+		restore(file);
+		RecordLog log=new RecordLog(file,syncBatch);
+		try {
+			log.recover(handler);
+		} catch (IOException e) {
+			log.raf.close();
+			throw e;
+		}
+		return log;
+	}
+
+}
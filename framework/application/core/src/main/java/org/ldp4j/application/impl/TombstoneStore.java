@@ -0,0 +1,494 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.impl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.ldp4j.application.endpoint.Tombstone;
+import org.ldp4j.application.lifecycle.LifecycleException;
+import org.ldp4j.application.lifecycle.Managed;
+import org.ldp4j.application.spi.TombstoneRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+
+/**
+ * Bounded store of the tombstones of deleted endpoints. At most
+ * {@code capacity} tombstones are kept in memory, and tombstones older than
+ * the retention period are discarded. The paths of the stored tombstones are
+ * tracked by a Bloom filter, so that looking up a path that was never
+ * deleted does not require touching the store. <br>
+ * If a spill file is configured, the tombstones evicted from memory because
+ * of the capacity limit (and those still in memory on shutdown) are appended
+ * to the file, and only their offsets are kept in memory. The spill file is
+ * compacted as it grows, and spilled tombstones are forgotten once they
+ * expire.
+ */
+public final class TombstoneStore implements TombstoneRepository, Managed {
+
+	/**
+	 * System property for configuring the maximum number of tombstones kept
+	 * in memory. Defaults to {@value #DEFAULT_CAPACITY}.
+	 */
+	public static final String CAPACITY = "org.ldp4j.application.tombstones.capacity";
+
+	/**
+	 * System property for configuring for how long, in milliseconds, the
+	 * tombstones are kept. Defaults to {@code 0}, which keeps them until they
+	 * are evicted.
+	 */
+	public static final String RETENTION = "org.ldp4j.application.tombstones.retention";
+
+	/**
+	 * System property for configuring the file where the tombstones evicted
+	 * from memory are spilled. By default evicted tombstones are discarded.
+	 */
+	public static final String SPILL_FILE = "org.ldp4j.application.tombstones.file";
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(TombstoneStore.class);
+
+	private static final int DEFAULT_CAPACITY = 10000;
+	private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final byte PUT    = 1;
+	private static final byte DELETE = 2;
+
+	private final int capacity;
+	private final long retention;
+	private final File spillFile;
+
+	private final ReadWriteLock lock=new ReentrantReadWriteLock();
+	private final LinkedHashMap<String,Tombstone> tombstones=new LinkedHashMap<String,Tombstone>();
+	private final LinkedHashMap<String,Spilled> spilled=new LinkedHashMap<String,Spilled>();
+
+	private BloomFilter<CharSequence> filter;
+	private int expectedInsertions;
+	private int insertions;
+
+	private RecordLog log;
+	private long records;
+
+	/**
+	 * Location of a spilled tombstone, together with its deletion time so
+	 * that expired tombstones can be discarded without reading them back.
+	 */
+	private static final class Spilled {
+
+		private final long offset;
+		private final long deleted;
+
+		private Spilled(long offset, long deleted) {
+			this.offset=offset;
+			this.deleted=deleted;
+		}
+
+	}
+
+	public TombstoneStore(int capacity, long retention, File spillFile) {
+		checkArgument(capacity>0,"Capacity must be greater than zero");
+		checkArgument(retention>=0,"Retention cannot be negative");
+		this.capacity=capacity;
+		this.retention=retention;
+		this.spillFile=spillFile;
+		rebuildFilter();
+	}
+
+	private boolean isExpired(Tombstone tombstone, long now) {
+		return isExpired(tombstone.deleted(),now);
+	}
+
+	private boolean isExpired(long deleted, long now) {
+		return this.retention>0 && now-deleted>this.retention;
+	}
+
+	/**
+	 * Recreate the Bloom filter from the live paths. Required once the
+	 * filter has seen more insertions than it was sized for, as it cannot
+	 * forget the paths of the tombstones that are no longer stored.
+	 */
+	private void rebuildFilter() {
+		int live=this.tombstones.size()+this.spilled.size();
+		this.expectedInsertions=Math.max(this.capacity,2*live);
+		this.filter=BloomFilter.create(Funnels.stringFunnel(UTF_8),this.expectedInsertions,FALSE_POSITIVE_PROBABILITY);
+		for(String path:this.tombstones.keySet()) {
+			this.filter.put(path);
+		}
+		for(String path:this.spilled.keySet()) {
+			this.filter.put(path);
+		}
+		this.insertions=live;
+	}
+
+	private void track(String path) {
+		if(this.insertions>=this.expectedInsertions) {
+			rebuildFilter();
+		}
+		this.filter.put(path);
+		this.insertions++;
+	}
+
+	private void evict(long now) {
+		Iterator<Tombstone> iterator=this.tombstones.values().iterator();
+		while(iterator.hasNext()) {
+			Tombstone eldest=iterator.next();
+			boolean expired=isExpired(eldest,now);
+			if(!expired && this.tombstones.size()<=this.capacity) {
+				break;
+			}
+			iterator.remove();
+			if(!expired) {
+				spill(eldest);
+			}
+		}
+	}
+
+	private void spill(Tombstone tombstone) {
+		if(this.log==null) {
+			return;
+		}
+		try {
+			long offset=this.log.append(encode(tombstone));
+			this.spilled.remove(tombstone.path());
+			this.spilled.put(tombstone.path(),new Spilled(offset,tombstone.deleted()));
+			this.records++;
+		} catch (IOException e) {
+			LOGGER.warn("Could not spill tombstone of '{}' to '{}'",tombstone.path(),this.spillFile.getAbsolutePath(),e);
+		}
+	}
+
+	private void forgetSpilled(String path) {
+		if(this.spilled.remove(path)==null) {
+			return;
+		}
+		try {
+			RecordCodec.Writer writer=RecordCodec.writer();
+			writer.output().writeByte(DELETE);
+			writer.output().writeUTF(path);
+			this.log.append(writer.toByteArray());
+			this.records++;
+		} catch (IOException e) {
+			LOGGER.warn("Could not discard spilled tombstone of '{}' from '{}'",path,this.spillFile.getAbsolutePath(),e);
+		}
+	}
+
+	/**
+	 * Tombstones are spilled in deletion order, so the expired ones are
+	 * found at the head of the spilled tombstones. There is no need to log
+	 * their removal, as expired records are dropped when replaying the file.
+	 */
+	private void expireSpilled(long now) {
+		if(this.retention==0) {
+			return;
+		}
+		Iterator<Spilled> iterator=this.spilled.values().iterator();
+		while(iterator.hasNext() && isExpired(iterator.next().deleted,now)) {
+			iterator.remove();
+		}
+	}
+
+	private Tombstone loadSpilled(long offset) {
+		try {
+			DataInput in=RecordCodec.reader(this.log.read(offset));
+			in.readByte();
+			return decode(in);
+		} catch (IOException e) {
+			LOGGER.warn("Could not load spilled tombstone at offset {} of '{}'",offset,this.spillFile.getAbsolutePath(),e);
+			return null;
+		}
+	}
+
+	private static byte[] encode(Tombstone tombstone) throws IOException {
+		RecordCodec.Writer writer=RecordCodec.writer();
+		DataOutput out=writer.output();
+		out.writeByte(PUT);
+		out.writeUTF(tombstone.path());
+		RecordCodec.writeResourceId(out,tombstone.resourceId());
+		RecordCodec.writeEntityTag(out,tombstone.entityTag());
+		out.writeLong(tombstone.lastModified().getTime());
+		out.writeLong(tombstone.deleted());
+		return writer.toByteArray();
+	}
+
+	private static Tombstone decode(DataInput in) throws IOException {
+		return
+			new Tombstone(
+				in.readUTF(),
+				RecordCodec.readResourceId(in),
+				RecordCodec.readEntityTag(in),
+				in.readLong(),
+				in.readLong());
+	}
+
+	private void replay(long offset, byte[] payload) throws IOException {
+		this.records++;
+		DataInput in=RecordCodec.reader(payload);
+		byte type=in.readByte();
+		if(type==PUT) {
+			Tombstone tombstone=decode(in);
+			this.spilled.remove(tombstone.path());
+			if(!isExpired(tombstone,System.currentTimeMillis())) {
+				this.spilled.put(tombstone.path(),new Spilled(offset,tombstone.deleted()));
+			}
+		} else if(type==DELETE) {
+			this.spilled.remove(in.readUTF());
+		} else {
+			throw new IOException("Unknown tombstone record type '"+type+"'");
+		}
+	}
+
+	private boolean requiresCompaction() {
+		return FileBasedRepositoryRegistry.requiresCompaction(this.records,this.spilled.size());
+	}
+
+	private void compact() throws IOException {
+		List<Map.Entry<String,Spilled>> entries=new ArrayList<Map.Entry<String,Spilled>>(this.spilled.entrySet());
+		List<Long> live=new ArrayList<Long>(entries.size());
+		for(Map.Entry<String,Spilled> entry:entries) {
+			live.add(entry.getValue().offset);
+		}
+		List<Long> relocated=new ArrayList<Long>(entries.size());
+		this.log=this.log.compact(live,relocated);
+		for(int i=0;i<entries.size();i++) {
+			Map.Entry<String,Spilled> entry=entries.get(i);
+			entry.setValue(new Spilled(relocated.get(i),entry.getValue().deleted));
+		}
+		this.records=entries.size();
+	}
+
+	private void compactIfNeeded() {
+		if(!requiresCompaction()) {
+			return;
+		}
+		try {
+			compact();
+		} catch (IOException e) {
+			LOGGER.warn("Could not compact tombstone store '"+this.spillFile.getAbsolutePath()+"'",e);
+		}
+	}
+
+	@Override
+	public void add(Tombstone tombstone) {
+		checkNotNull(tombstone,"Tombstone cannot be null");
+		this.lock.writeLock().lock();
+		try {
+			this.tombstones.remove(tombstone.path());
+			if(this.log!=null) {
+				forgetSpilled(tombstone.path());
+			}
+			this.tombstones.put(tombstone.path(),tombstone);
+			track(tombstone.path());
+			long now=System.currentTimeMillis();
+			evict(now);
+			if(this.log!=null) {
+				expireSpilled(now);
+				compactIfNeeded();
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void remove(String path) {
+		checkNotNull(path,"Path cannot be null");
+		this.lock.readLock().lock();
+		try {
+			if(!this.filter.mightContain(path)) {
+				return;
+			}
+		} finally {
+			this.lock.readLock().unlock();
+		}
+		this.lock.writeLock().lock();
+		try {
+			this.tombstones.remove(path);
+			if(this.log!=null) {
+				forgetSpilled(path);
+				compactIfNeeded();
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public Tombstone find(String path) {
+		checkNotNull(path,"Path cannot be null");
+		this.lock.readLock().lock();
+		try {
+			if(!this.filter.mightContain(path)) {
+				return null;
+			}
+			long now=System.currentTimeMillis();
+			Tombstone tombstone=this.tombstones.get(path);
+			if(tombstone==null && this.log!=null) {
+				Spilled location=this.spilled.get(path);
+				if(location!=null && !isExpired(location.deleted,now)) {
+					tombstone=loadSpilled(location.offset);
+				}
+			}
+			if(tombstone==null || isExpired(tombstone,now)) {
+				return null;
+			}
+			return tombstone;
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of tombstones kept in memory
+	 */
+	public int size() {
+		this.lock.readLock().lock();
+		try {
+			return this.tombstones.size();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of tombstones spilled to the spill file
+	 */
+	int spilled() {
+		this.lock.readLock().lock();
+		try {
+			return this.spilled.size();
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * @return the number of records in the spill file
+	 */
+	long records() {
+		this.lock.readLock().lock();
+		try {
+			return this.records;
+		} finally {
+			this.lock.readLock().unlock();
+		}
+	}
+
+	@Override
+	public void init() throws LifecycleException {
+		if(this.spillFile==null) {
+			return;
+		}
+		this.lock.writeLock().lock();
+		try {
+			this.log=
+				RecordLog.open(
+					this.spillFile,
+					0,
+					new RecordLog.RecordHandler() {
+						@Override
+						public void handleRecord(long offset, byte[] payload) throws IOException {
+							replay(offset,payload);
+						}
+					}
+				);
+			if(requiresCompaction()) {
+				compact();
+			}
+			rebuildFilter();
+		} catch (IOException e) {
+			throw new LifecycleException("Could not open tombstone store '"+this.spillFile.getAbsolutePath()+"'",e);
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public void shutdown() throws LifecycleException {
+		this.lock.writeLock().lock();
+		try {
+			RecordLog current=this.log;
+			if(current!=null) {
+				for(Tombstone tombstone:this.tombstones.values()) {
+					spill(tombstone);
+				}
+			}
+			this.log=null;
+			this.tombstones.clear();
+			this.spilled.clear();
+			this.records=0;
+			rebuildFilter();
+			if(current!=null) {
+				try {
+					current.close();
+				} catch (IOException e) {
+					throw new LifecycleException("Could not close tombstone store '"+this.spillFile.getAbsolutePath()+"'",e);
+				}
+			}
+		} finally {
+			this.lock.writeLock().unlock();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return
+			Objects.
+				toStringHelper(getClass()).
+					omitNullValues().
+					add("capacity",this.capacity).
+					add("retention",this.retention).
+					add("spillFile",this.spillFile).
+					toString();
+	}
+
+	public static TombstoneStore newInstance() {
+		String spillFile=System.getProperty(SPILL_FILE);
+		return
+			new TombstoneStore(
+				Integer.getInteger(CAPACITY,DEFAULT_CAPACITY),
+				Long.getLong(RETENTION,0L),
+				spillFile==null?null:new File(spillFile));
+	}
+
+}
@@ -26,6 +26,8 @@
  */
 package org.ldp4j.application.resource;
 
+import java.util.List;
+
 import org.ldp4j.application.data.DataSet;
 
 interface Adapter {
@@ -40,4 +42,6 @@ interface Adapter {
 
 	Resource create(DataSet content) throws FeatureException;
 
+	List<Resource> createAll(List<DataSet> contents) throws FeatureException;
+
 }
\ No newline at end of file
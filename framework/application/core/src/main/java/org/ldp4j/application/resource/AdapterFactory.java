@@ -26,6 +26,11 @@
  */
 package org.ldp4j.application.resource;
 
+import static com.google.common.base.Preconditions.checkState;
+
+import java.util.ArrayList;
+import java.util.List;
+
 import org.ldp4j.application.session.ContainerSnapshot;
 import org.ldp4j.application.session.ResourceSnapshot;
 import org.ldp4j.application.session.SnapshotVisitor;
@@ -75,6 +80,14 @@ final class AdapterFactory {
 		protected void finalizeSession() {
 			this.service.terminateSession(this.session);
 		}
+
+		protected boolean checkpointBatch() {
+			return this.service.checkpointBatch(this.session);
+		}
+
+		protected void commitBatch() {
+			this.service.commitBatch(this.session);
+		}
 		
 		protected Resource detach(ResourceSnapshot snapshot) {
 			return this.service.detach(this.session, snapshot);
@@ -125,6 +138,17 @@ final class AdapterFactory {
 						Container.class.getCanonicalName()));
 		}
 
+		@Override
+		public List<Resource> createAll(List<DataSet> contents) {
+			finalizeSession();
+			throw 
+				new IllegalStateException(
+					new UnsupportedFeatureException(
+						this.resourceId.templateId(),
+						this.delegate.getClass().getCanonicalName(),
+						Container.class.getCanonicalName()));
+		}
+
 	}
 
 	private static class ContainerAdapter extends ResourceAdapter<ContainerSnapshot> {
@@ -145,6 +169,36 @@ final class AdapterFactory {
 				finalizeSession();
 			}
 		}
+
+		/**
+		 * All the members are created within the same write session, and the
+		 * changes saved by the handler are committed at once when every
+		 * member has been created. If the creation of any member fails, or
+		 * the handler does not save the changes of any member, no member is
+		 * created.
+		 */
+		@Override
+		public List<Resource> createAll(List<DataSet> contents) {
+			try {
+				ContainerHandler handler=as(ContainerHandler.class);
+				List<ResourceSnapshot> snapshots=new ArrayList<ResourceSnapshot>(contents.size());
+				for(DataSet content:contents) {
+					ResourceSnapshot snapshot=handler.create(resource(),content,writeSession());
+					checkState(checkpointBatch(),"Handler did not save the changes of member %s of the batch",snapshots.size());
+					snapshots.add(snapshot);
+				}
+				commitBatch();
+				List<Resource> result=new ArrayList<Resource>(snapshots.size());
+				for(ResourceSnapshot snapshot:snapshots) {
+					result.add(detach(snapshot));
+				}
+				return result;
+			} catch (UnsupportedFeatureException e) {
+				throw new IllegalStateException(e);
+			} finally {
+				finalizeSession();
+			}
+		}
 	
 	}
 
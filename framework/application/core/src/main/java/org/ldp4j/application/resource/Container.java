@@ -26,16 +26,50 @@
  */
 package org.ldp4j.application.resource;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Set;
 
 public interface Container extends Resource {
 
 	Set<ResourceId> memberIds();
 
+	/**
+	 * Get an immutable snapshot of the members of the container, in the order
+	 * they were added. The snapshot is not affected by later modifications,
+	 * so it can be iterated while the container is modified. The members are
+	 * only copied the first time a snapshot is requested after the container
+	 * has been modified, and the copy is shared by later requests.
+	 */
+	Collection<ResourceId> memberIdsView();
+
+	int numberOfMembers();
+
+	/**
+	 * Get a window of the members of the container, in the order they were
+	 * added, without copying the rest of them.
+	 */
+	List<ResourceId> memberIds(int offset, int limit);
+
 	boolean hasMember(ResourceId resourceId);
 	
 	Resource addMember(ResourceId resourceId);
 
 	boolean removeMember(ResourceId resourceId);
 
+	/**
+	 * Get the members added and removed since the member changes were last
+	 * acknowledged, so that the container can be stored incrementally.
+	 *
+	 * @return the changes, or {@code null} if they are not being tracked
+	 *         because they have never been acknowledged
+	 */
+	MemberChanges memberChanges();
+
+	/**
+	 * Acknowledge that the current members have been stored, discarding the
+	 * changes tracked so far, and track the changes made from now on.
+	 */
+	void acknowledgeMemberChanges();
+
 }
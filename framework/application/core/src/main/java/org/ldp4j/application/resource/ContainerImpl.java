@@ -26,18 +26,39 @@
  */
 package org.ldp4j.application.resource;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.ldp4j.application.template.ContainerTemplate;
 
+import com.google.common.collect.ImmutableSet;
+
 final class ContainerImpl extends ResourceImpl implements Container {
 
+	/**
+	 * The members are guarded by the container's lock. Readers get an
+	 * immutable snapshot of them, which is shared until the members are
+	 * modified.
+	 */
 	private final Set<ResourceId> members;
+	private ImmutableSet<ResourceId> snapshot;
+
+	/**
+	 * The changes are only tracked once acknowledged, so that containers that
+	 * are never stored incrementally do not keep a second copy of their
+	 * members.
+	 */
+	private Set<ResourceId> addedMembers;
+	private Set<ResourceId> removedMembers;
 
 	protected ContainerImpl(ResourceId id, ResourceId parentId) {
 		super(id,parentId);
@@ -57,28 +78,91 @@ final class ContainerImpl extends ResourceImpl implements Container {
 		return (ContainerTemplate)super.getTemplate(id());
 	}
 
+	private synchronized ImmutableSet<ResourceId> snapshot() {
+		if(this.snapshot==null) {
+			this.snapshot=ImmutableSet.copyOf(this.members);
+		}
+		return this.snapshot;
+	}
+
 	@Override
 	public Set<ResourceId> memberIds() {
-		return Collections.unmodifiableSet(new LinkedHashSet<ResourceId>(this.members));
+		return snapshot();
 	}
 
 	@Override
-	public Resource addMember(ResourceId resourceName) {
+	public Collection<ResourceId> memberIdsView() {
+		return snapshot();
+	}
+
+	@Override
+	public synchronized int numberOfMembers() {
+		return this.members.size();
+	}
+
+	@Override
+	public synchronized List<ResourceId> memberIds(int offset, int limit) {
+		checkArgument(offset>=0,"Offset cannot be negative");
+		checkArgument(limit>=0,"Limit cannot be negative");
+		List<ResourceId> window=new ArrayList<ResourceId>(Math.min(limit,Math.max(0,this.members.size()-offset)));
+		Iterator<ResourceId> iterator=this.members.iterator();
+		for(int i=0;i<offset && iterator.hasNext();i++) {
+			iterator.next();
+		}
+		while(window.size()<limit && iterator.hasNext()) {
+			window.add(iterator.next());
+		}
+		return Collections.unmodifiableList(window);
+	}
+
+	@Override
+	public synchronized Resource addMember(ResourceId resourceName) {
 		checkNotNull(resourceName,"Member resource name cannot be null");
 		checkState(!this.members.contains(resourceName),"A resource with id '%s' is already a member of the container",resourceName);
 		ResourceImpl newResource=createChild(resourceName,template().memberTemplate());
 		this.members.add(newResource.id());
+		this.snapshot=null;
+		if(this.addedMembers!=null && !this.removedMembers.remove(newResource.id())) {
+			this.addedMembers.add(newResource.id());
+		}
 		return newResource;
 	}
 
+	synchronized void restoreMember(ResourceId resourceId) {
+		if(this.members.add(resourceId)) {
+			this.snapshot=null;
+		}
+	}
+
 	@Override
-	public boolean hasMember(ResourceId resource) {
+	public synchronized boolean hasMember(ResourceId resource) {
 		return this.members.contains(resource);
 	}
 
 	@Override
-	public boolean removeMember(ResourceId resourceId) {
-		return this.members.remove(resourceId);
+	public synchronized boolean removeMember(ResourceId resourceId) {
+		boolean removed=this.members.remove(resourceId);
+		if(removed) {
+			this.snapshot=null;
+		}
+		if(removed && this.addedMembers!=null && !this.addedMembers.remove(resourceId)) {
+			this.removedMembers.add(resourceId);
+		}
+		return removed;
+	}
+
+	@Override
+	public synchronized MemberChanges memberChanges() {
+		if(this.addedMembers==null) {
+			return null;
+		}
+		return new MemberChanges(this.addedMembers,this.removedMembers);
+	}
+
+	@Override
+	public synchronized void acknowledgeMemberChanges() {
+		this.addedMembers=new LinkedHashSet<ResourceId>();
+		this.removedMembers=new LinkedHashSet<ResourceId>();
 	}
 
 	@Override
@@ -26,6 +26,8 @@
  */
 package org.ldp4j.application.resource;
 
+import java.util.List;
+
 import org.ldp4j.application.session.WriteSessionConfiguration;
 import org.ldp4j.application.session.WriteSessionService;
 import org.ldp4j.application.spi.Service;
@@ -88,6 +90,15 @@ public class ResourceControllerService implements Service {
 		return adapter(container,configuration).create(dataSet);
 	}
 	
+	public List<Resource> createResources(Container container, List<DataSet> dataSets) throws FeatureException {
+		WriteSessionConfiguration configuration = 
+			WriteSessionConfiguration.
+				builder().
+					withBatch(true).
+					build();
+		return adapter(container,configuration).createAll(dataSets);
+	}
+
 	public static ServiceBuilder<ResourceControllerService> serviceBuilder() {
 		return new ResourceControllerServiceBuilder();
 	}
@@ -28,6 +28,9 @@ package org.ldp4j.application.resource;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.ldp4j.application.spi.Service;
@@ -84,6 +87,10 @@ public final class ResourceFactoryService implements Service {
 		checkNotNull(resourceId,"ResourceSnapshot identifier cannot be null");
 		final ResourceId parentId=parent!=null?parent.id():null;
 		final ResourceId id=ResourceId.createId(resourceId, template);
+		return createResource(template,id,parentId);
+	}
+
+	private ResourceImpl createResource(ResourceTemplate template, final ResourceId id, final ResourceId parentId) {
 		final AtomicReference<ResourceImpl> result=new AtomicReference<ResourceImpl>();
 		template.
 			accept(
@@ -133,6 +140,44 @@ public final class ResourceFactoryService implements Service {
 		return expectedResourceClass.cast(newResource);
 	}
 
+	/**
+	 * Recreate a resource from its persisted state, that is, without
+	 * executing any of the checks that apply when attaching resources or
+	 * adding members.
+	 *
+	 * @param id
+	 *            the identifier of the resource
+	 * @param parentId
+	 *            the identifier of the parent resource, or {@code null} if the
+	 *            resource is a root resource
+	 * @param attachments
+	 *            the identifiers of the attached resources, by attachment
+	 *            identifier
+	 * @param members
+	 *            the identifiers of the members of the resource. Must be empty
+	 *            unless the resource is a container
+	 * @return the restored resource
+	 */
+	public Resource restoreResource(ResourceId id, ResourceId parentId, Map<String,ResourceId> attachments, Collection<ResourceId> members) {
+		checkNotNull(id,"Resource identifier cannot be null");
+		checkNotNull(attachments,"Attachments cannot be null");
+		checkNotNull(members,"Members cannot be null");
+		ResourceImpl resource=createResource(findTemplate(id.templateId()),id,parentId);
+		for(Entry<String,ResourceId> entry:attachments.entrySet()) {
+			resource.restoreAttachment(entry.getKey(),entry.getValue());
+		}
+		if(!members.isEmpty()) {
+			if(!(resource instanceof ContainerImpl)) {
+				throw new IllegalStateException("Resource '"+id+"' is not a container");
+			}
+			ContainerImpl container=(ContainerImpl)resource;
+			for(ResourceId member:members) {
+				container.restoreMember(member);
+			}
+		}
+		return resource;
+	}
+
 	public static ServiceBuilder<ResourceFactoryService> serviceBuilder() {
 		return new ResourceFactoryServiceBuilder();
 	}
@@ -195,6 +195,13 @@ class ResourceImpl extends AbstractResource implements Resource {
 		return clazz.cast(newResource);
 	}
 
+	final void restoreAttachment(String attachmentId, ResourceId resourceId) {
+		AttachmentId aId = AttachmentId.createId(attachmentId,resourceId);
+		attachments.put(aId,new AttachmentImpl(aId));
+		attachmentsById.put(aId.id(),aId);
+		attachmentsByResourceId.put(aId.resourceId(),aId);
+	}
+
 	@Override
 	public boolean detach(Attachment attachment) {
 		boolean found=this.attachments.containsValue(attachment);
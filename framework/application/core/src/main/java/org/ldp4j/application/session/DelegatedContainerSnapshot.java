@@ -87,14 +87,6 @@ final class DelegatedContainerSnapshot extends DelegatedResourceSnapshot impleme
 		return super.persistencyState().softRemoveMember((DelegatedResourceSnapshot)member,this);
 	}
 
-	@Override
-	public String toString() {
-		return 
-			stringHelper().
-				add("members", members()).
-				toString();
-	}
-
 	List<DelegatedResourceSnapshot> newMembers() {
 		return super.persistencyState().newMembers(this);
 	}
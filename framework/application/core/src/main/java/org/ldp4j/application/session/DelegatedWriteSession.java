@@ -132,6 +132,8 @@ final class DelegatedWriteSession implements WriteSession {
 
 	private volatile Status status;
 
+	private boolean batchSaved;
+
 	protected DelegatedWriteSession(WriteSessionConfiguration configuration, ResourceRepository resourceRepository, TemplateManagementService templateManagementService, WriteSessionService writeSessionService) {
 		this.configuration = configuration;
 		this.resourceRepository = resourceRepository;
@@ -260,7 +262,7 @@ final class DelegatedWriteSession implements WriteSession {
 
 	String getDesiredPath(DelegatedResourceSnapshot snapshot) {
 		String desiredPath=null;
-		if(isMainResource(snapshot)) {
+		if(this.configuration.getPath()!=null && isMainResource(snapshot)) {
 			desiredPath=this.configuration.getPath();
 		}
 		if(LOGGER.isDebugEnabled()) {
@@ -338,9 +340,39 @@ final class DelegatedWriteSession implements WriteSession {
 		delegatedResource.delete();
 	}
 
+	/**
+	 * Check whether the changes have been saved since the last checkpoint of
+	 * a batch session, and start a new checkpoint.
+	 */
+	boolean checkpointBatch() {
+		checkState(this.configuration.isBatch(),"Write session is not a batch session");
+		checkState(this.status.equals(Status.ACTIVE),WRITE_SESSION_NOT_ACTIVE,this.status);
+		boolean result=this.batchSaved;
+		this.batchSaved=false;
+		return result;
+	}
+
+	/**
+	 * Commit the changes saved during a batch session.
+	 */
+	void commitBatch() {
+		checkState(this.configuration.isBatch(),"Write session is not a batch session");
+		checkState(this.status.equals(Status.ACTIVE),WRITE_SESSION_NOT_ACTIVE,this.status);
+		commit();
+	}
+
 	@Override
 	public void saveChanges() throws WriteSessionException {
 		checkState(this.status.equals(Status.ACTIVE),WRITE_SESSION_NOT_ACTIVE,this.status);
+		if(this.configuration.isBatch()) {
+			LOGGER.debug("Deferring commit of batch session");
+			this.batchSaved=true;
+			return;
+		}
+		commit();
+	}
+
+	private void commit() {
 		this.status=Status.COMPLETED;
 		for(Entry<ResourceId, DelegatedResourceSnapshot> entry:this.resourceCache.entrySet()) {
 			DelegatedResourceSnapshot resource = entry.getValue();
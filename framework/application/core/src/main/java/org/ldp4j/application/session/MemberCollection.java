@@ -29,10 +29,11 @@ package org.ldp4j.application.session;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
-import java.util.Collections;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,66 +44,143 @@ import org.ldp4j.application.resource.ResourceId;
 import org.ldp4j.application.resource.ResourceVisitor;
 
 import com.google.common.base.Objects;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
 
+/**
+ * The members of a container snapshot. Membership is tracked by resource
+ * identifier, and the snapshots of the members are only resolved when they
+ * are actually used.
+ */
 final class MemberCollection {
-	
-	private final Map<ResourceId,DelegatedResourceSnapshot> members;
-	private final List<DelegatedResourceSnapshot> newMembers;
 
-	private MemberCollection() {
-		this.members=new LinkedHashMap<ResourceId, DelegatedResourceSnapshot>();
-		this.newMembers=new LinkedList<DelegatedResourceSnapshot>();
+	/**
+	 * Read-only view of the members that resolves the snapshot of each member
+	 * as the iteration reaches it. Iterators walk a snapshot of the member
+	 * identifiers, which is shared until the membership changes, and skip the
+	 * members removed since the iterator was created. A member that cannot
+	 * be resolved is reported as an {@link IllegalStateException} rather than
+	 * skipped, so that the iteration is always consistent with
+	 * {@link #size()}.
+	 */
+	private final class MemberView extends AbstractSet<DelegatedResourceSnapshot> {
+
+		@Override
+		public Iterator<DelegatedResourceSnapshot> iterator() {
+			final Iterator<ResourceId> ids=memberIdSnapshot().iterator();
+			return new AbstractIterator<DelegatedResourceSnapshot>() {
+				@Override
+				protected DelegatedResourceSnapshot computeNext() {
+					while(ids.hasNext()) {
+						DelegatedResourceSnapshot member=materialize(ids.next());
+						if(member!=null) {
+							return member;
+						}
+					}
+					return endOfData();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return memberIds.size();
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return o instanceof DelegatedResourceSnapshot && hasMember((DelegatedResourceSnapshot)o);
+		}
+
 	}
-	
-	private void registerMember(DelegatedResourceSnapshot snapshot) {
-		checkState(!members.containsKey(snapshot.resourceId()),"A resource with id '%s' is already a member of the container",snapshot.resourceId());
-		this.members.put(snapshot.resourceId(),snapshot);
+
+	private final DelegatedWriteSession session;
+	private final Set<ResourceId> memberIds;
+	private final Map<ResourceId,DelegatedResourceSnapshot> materialized;
+	private final Map<ResourceId,DelegatedResourceSnapshot> newMembers;
+
+	private List<ResourceId> memberIdSnapshot;
+
+	private MemberCollection(DelegatedWriteSession session, Set<ResourceId> memberIds) {
+		this.session=session;
+		this.memberIds=memberIds;
+		this.materialized=new HashMap<ResourceId,DelegatedResourceSnapshot>();
+		this.newMembers=new LinkedHashMap<ResourceId,DelegatedResourceSnapshot>();
+	}
+
+	private DelegatedResourceSnapshot materialize(ResourceId memberId) {
+		DelegatedResourceSnapshot member=this.materialized.get(memberId);
+		if(member==null && this.session!=null && this.memberIds.contains(memberId)) {
+			member=this.session.resolveResource(memberId);
+			checkState(member!=null,"Member '%s' of the container could not be resolved",memberId);
+			this.materialized.put(memberId,member);
+		}
+		return member;
+	}
+
+	private List<ResourceId> memberIdSnapshot() {
+		if(this.memberIdSnapshot==null) {
+			this.memberIdSnapshot=ImmutableList.copyOf(this.memberIds);
+		}
+		return this.memberIdSnapshot;
 	}
 
 	Set<DelegatedResourceSnapshot> members() {
-		return Collections.unmodifiableSet(new LinkedHashSet<DelegatedResourceSnapshot>(this.members.values()));
+		return new MemberView();
 	}
 
 	boolean hasMember(ResourceSnapshot resource) {
-		return members.containsValue(resource);
+		if(!(resource instanceof DelegatedResourceSnapshot)) {
+			return false;
+		}
+		DelegatedResourceSnapshot snapshot=(DelegatedResourceSnapshot)resource;
+		if(!this.memberIds.contains(snapshot.resourceId())) {
+			return false;
+		}
+		DelegatedResourceSnapshot known=this.materialized.get(snapshot.resourceId());
+		return known==null || known==snapshot;
 	}
 
 	void addMember(DelegatedResourceSnapshot snapshot) {
 		checkNotNull(snapshot,"Member cannot be null");
-		registerMember(snapshot);
-		this.newMembers.add(snapshot);
+		checkState(!this.memberIds.contains(snapshot.resourceId()),"A resource with id '%s' is already a member of the container",snapshot.resourceId());
+		this.memberIds.add(snapshot.resourceId());
+		this.memberIdSnapshot=null;
+		this.materialized.put(snapshot.resourceId(),snapshot);
+		this.newMembers.put(snapshot.resourceId(),snapshot);
 	}
 
 	boolean removeMember(ResourceSnapshot member) {
-		if(member==null) return false;
-		boolean result = this.members.containsValue(member);
+		boolean result=hasMember(member);
 		if(result) {
-			this.newMembers.remove(member);
-			// TODO: Check that this works :-S
-			this.members.remove(member.name());
+			ResourceId memberId=((DelegatedResourceSnapshot)member).resourceId();
+			this.memberIds.remove(memberId);
+			this.memberIdSnapshot=null;
+			this.materialized.remove(memberId);
+			this.newMembers.remove(memberId);
 		}
 		return result;
 	}
-	
+
 	List<DelegatedResourceSnapshot> newMembers() {
-		return Collections.unmodifiableList(this.newMembers);
+		return ImmutableList.copyOf(this.newMembers.values());
 	}
-	
+
 	@Override
 	public String toString() {
-		return 
+		return
 			Objects.
 				toStringHelper(getClass()).
-					add("members",this.members.keySet()).
+					add("members",this.memberIds).
 					toString();
 	}
 
 	static MemberCollection newInstance() {
-		return new MemberCollection();
+		return new MemberCollection(null,new LinkedHashSet<ResourceId>());
 	}
 
 	static MemberCollection createFromResource(Resource resource, final DelegatedWriteSession session) {
-		final MemberCollection memberRepository = new MemberCollection();
+		final Set<ResourceId> memberIds=new LinkedHashSet<ResourceId>();
 		resource.accept(
 			new ResourceVisitor() {
 				@Override
@@ -111,13 +189,11 @@ final class MemberCollection {
 				}
 				@Override
 				public void visitContainer(Container resource) {
-					for(ResourceId memberId:resource.memberIds()) {
-						memberRepository.registerMember(session.resolveResource(memberId));
-					}
+					memberIds.addAll(resource.memberIds());
 				}
 			}
 		);
-		return memberRepository;
+		return new MemberCollection(session,memberIds);
 	}
-	
+
 }
\ No newline at end of file
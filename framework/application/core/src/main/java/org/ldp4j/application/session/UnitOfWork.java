@@ -29,12 +29,15 @@ package org.ldp4j.application.session;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Preconditions.checkState;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Equivalence;
+
 final class UnitOfWork {
 
 	private final class NullEventHandler implements EventHandler {
@@ -76,13 +79,57 @@ final class UnitOfWork {
 		
 	}
 	
+	/**
+	 * Insertion-ordered set of snapshots compared by identity, which keeps
+	 * registration and membership checks constant time without relying on
+	 * the equality of the snapshots.
+	 */
+	private static final class IdentitySet implements Iterable<DelegatedResourceSnapshot> {
+
+		private static final Equivalence<Object> IDENTITY=Equivalence.identity();
+
+		private final Set<Equivalence.Wrapper<Object>> objects=new LinkedHashSet<Equivalence.Wrapper<Object>>();
+
+		boolean add(DelegatedResourceSnapshot obj) {
+			return this.objects.add(IDENTITY.wrap((Object)obj));
+		}
+
+		boolean remove(DelegatedResourceSnapshot obj) {
+			return this.objects.remove(IDENTITY.wrap((Object)obj));
+		}
+
+		boolean contains(DelegatedResourceSnapshot obj) {
+			return this.objects.contains(IDENTITY.wrap((Object)obj));
+		}
+
+		@Override
+		public Iterator<DelegatedResourceSnapshot> iterator() {
+			final Iterator<Equivalence.Wrapper<Object>> delegate=this.objects.iterator();
+			return new Iterator<DelegatedResourceSnapshot>() {
+				@Override
+				public boolean hasNext() {
+					return delegate.hasNext();
+				}
+				@Override
+				public DelegatedResourceSnapshot next() {
+					return (DelegatedResourceSnapshot)delegate.next().get();
+				}
+				@Override
+				public void remove() {
+					delegate.remove();
+				}
+			};
+		}
+
+	}
+
 	private static final Logger LOGGER=LoggerFactory.getLogger(UnitOfWork.class);
 	
 	private static ThreadLocal<UnitOfWork> CURRENT=new ThreadLocal<UnitOfWork>();
 	
-	private final List<DelegatedResourceSnapshot> newObjects=new ArrayList<DelegatedResourceSnapshot>();
-	private final List<DelegatedResourceSnapshot> dirtyObjects=new ArrayList<DelegatedResourceSnapshot>();
-	private final List<DelegatedResourceSnapshot> deletedObjects=new ArrayList<DelegatedResourceSnapshot>();
+	private final IdentitySet newObjects=new IdentitySet();
+	private final IdentitySet dirtyObjects=new IdentitySet();
+	private final IdentitySet deletedObjects=new IdentitySet();
 
 	private EventHandler handler;
 
@@ -121,8 +168,7 @@ final class UnitOfWork {
 	public void registerDirty(DelegatedResourceSnapshot resource) {
 		checkNotNull(resource,"Snapshot cannot be null");
 		checkState(!deletedObjects.contains(resource),"Snapshot has been already deleted");
-		if(!dirtyObjects.contains(resource) && !newObjects.contains(resource)) {
-			dirtyObjects.add(resource);
+		if(!newObjects.contains(resource) && dirtyObjects.add(resource)) {
 			traceRegistration(resource, "dirty");
 			handler.notifyObjectUpdate(resource);
 		}
@@ -134,8 +180,7 @@ final class UnitOfWork {
 			return;
 		}
 		dirtyObjects.remove(snapshot);
-		if(!deletedObjects.contains(snapshot)) {
-			deletedObjects.add(snapshot);
+		if(deletedObjects.add(snapshot)) {
 			traceRegistration(snapshot, "deleted");
 			handler.notifyObjectDeletion(snapshot);
 		}
@@ -32,6 +32,7 @@ public final class WriteSessionConfiguration {
 	
 	private String path;
 	private ResourceSnapshot targetSnapshot;
+	private boolean batch;
 
 	private WriteSessionConfiguration() {
 	}
@@ -40,6 +41,10 @@ public final class WriteSessionConfiguration {
 		this.path=path;
 	}
 	
+	private void setBatch(boolean batch) {
+		this.batch=batch;
+	}
+
 	public void setTargetSnapshot(ResourceSnapshot targetSnapshot) {
 		this.targetSnapshot = targetSnapshot;
 	}
@@ -52,6 +57,14 @@ public final class WriteSessionConfiguration {
 		return this.targetSnapshot;
 	}
 
+	/**
+	 * In batch sessions the changes saved by the handlers are not committed
+	 * until the whole batch has been processed.
+	 */
+	public boolean isBatch() {
+		return this.batch;
+	}
+
 	@Override
 	public String toString() {
 		return 
@@ -59,6 +72,7 @@ public final class WriteSessionConfiguration {
 				toStringHelper("WriteSessionConfiguration").
 					add("path",this.path).
 					add("targetSnapshot",this.targetSnapshot).
+					add("batch",this.batch).
 					toString();
 	}
 
@@ -79,6 +93,11 @@ public final class WriteSessionConfiguration {
 			return this;
 		}
 		
+		public WriteSessionConfigurationBuilder withBatch(boolean batch) {
+			this.configuration.setBatch(batch);
+			return this;
+		}
+
 		public WriteSessionConfiguration build() {
 			return this.configuration;
 		}
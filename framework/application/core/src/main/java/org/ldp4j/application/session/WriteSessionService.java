@@ -28,7 +28,9 @@ package org.ldp4j.application.session;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
 import org.ldp4j.application.endpoint.Endpoint;
@@ -63,30 +65,45 @@ public final class WriteSessionService implements Service {
 		
 	}
 
-	private final class ResourceProcessor implements UnitOfWork.Visitor {
-	
-		private final Date lastModified;
+	/**
+	 * Groups the changes of a unit of work so that they can be applied as
+	 * batched repository mutations.
+	 */
+	private static final class ChangeCollector implements UnitOfWork.Visitor {
+
 		private final DelegatedWriteSession session;
-	
-		private ResourceProcessor(Date lastModified, DelegatedWriteSession session) {
-			this.lastModified = lastModified;
+		private final List<Resource> created=new ArrayList<Resource>();
+		private final List<String> desiredPaths=new ArrayList<String>();
+		private final List<Resource> modified=new ArrayList<Resource>();
+		private final List<Resource> deleted=new ArrayList<Resource>();
+
+		private ChangeCollector(DelegatedWriteSession session) {
 			this.session = session;
 		}
-	
+
 		@Override
 		public void visitNew(DelegatedResourceSnapshot obj) {
-			createResource(obj.delegate(),this.lastModified,this.session.getDesiredPath(obj));
+			this.created.add(obj.delegate());
+			this.desiredPaths.add(this.session.getDesiredPath(obj));
 		}
-	
+
 		@Override
 		public void visitDirty(DelegatedResourceSnapshot obj) {
-			modifyResource(obj.delegate(),this.lastModified);
+			this.modified.add(obj.delegate());
 		}
-	
+
 		@Override
 		public void visitDeleted(DelegatedResourceSnapshot obj) {
-			deleteResource(obj.delegate(),this.lastModified);
+			this.deleted.add(obj.delegate());
+		}
+
+		private List<Resource> stored() {
+			List<Resource> result=new ArrayList<Resource>(this.created.size()+this.modified.size());
+			result.addAll(this.created);
+			result.addAll(this.modified);
+			return result;
 		}
+
 	}
 
 	private static final Logger LOGGER=LoggerFactory.getLogger(WriteSessionService.class);
@@ -132,6 +149,23 @@ public final class WriteSessionService implements Service {
 		}
 	}
 	
+	/**
+	 * Check whether the handler saved its changes since the previous
+	 * checkpoint of a batch session.
+	 */
+	public boolean checkpointBatch(WriteSession writeSession) {
+		checkArgument(writeSession instanceof DelegatedWriteSession,"Invalid session");
+		return ((DelegatedWriteSession)writeSession).checkpointBatch();
+	}
+
+	/**
+	 * Commit all the changes saved by the handlers during a batch session.
+	 */
+	public void commitBatch(WriteSession writeSession) {
+		checkArgument(writeSession instanceof DelegatedWriteSession,"Invalid session");
+		((DelegatedWriteSession)writeSession).commitBatch();
+	}
+
 	public ResourceSnapshot attach(WriteSession writeSession, Resource resource, Class<? extends ResourceHandler> handlerClass) {
 		return writeSession.find(ResourceSnapshot.class, resource.id().name(), handlerClass);
 	}
@@ -145,7 +179,24 @@ public final class WriteSessionService implements Service {
 	
 	void commitSession(DelegatedWriteSession session) {
 		logLifecycleMessage("Commiting session...");
-		UnitOfWork.getCurrent().accept(new ResourceProcessor(new Date(),session));
+		ChangeCollector changes=new ChangeCollector(session);
+		UnitOfWork.getCurrent().accept(changes);
+		Date lastModified=new Date();
+		if(!changes.created.isEmpty() || !changes.modified.isEmpty()) {
+			this.resourceRepository.addAll(changes.stored());
+		}
+		// Endpoints are created one by one, as the path of a new member
+		// depends on the endpoint of its (maybe also new) parent.
+		for(int i=0;i<changes.created.size();i++) {
+			createEndpoint(changes.created.get(i),lastModified,changes.desiredPaths.get(i));
+		}
+		for(Resource resource:changes.modified) {
+			modifyEndpoint(resource,lastModified);
+		}
+		if(!changes.deleted.isEmpty()) {
+			this.resourceRepository.removeAll(changes.deleted);
+			deleteEndpoints(changes.deleted);
+		}
 	}
 
 	private void logLifecycleMessage(String msg, Object... args) {
@@ -158,10 +209,8 @@ public final class WriteSessionService implements Service {
 		return new EntityTag(UUID.randomUUID().toString());
 	}
 
-	private void createResource(Resource resource, Date lastModified, String relativePath) {
+	private void createEndpoint(Resource resource, Date lastModified, String relativePath) {
 		try {
-			
-			resourceRepository.add(resource);
 			Endpoint newEndpoint=
 				endpointManagementService.
 					createEndpointForResource(
@@ -178,9 +227,8 @@ public final class WriteSessionService implements Service {
 		}
 	}
 
-	private void modifyResource(Resource resource, Date lastModified) {
+	private void modifyEndpoint(Resource resource, Date lastModified) {
 		try {
-			resourceRepository.add(resource);
 			Endpoint endpoint = 
 				endpointManagementService.modifyResourceEndpoint(
 					resource,
@@ -195,13 +243,14 @@ public final class WriteSessionService implements Service {
 		}
 	}
 
-	private void deleteResource(Resource resource, Date lastModified) {
+	private void deleteEndpoints(List<Resource> resources) {
 		try {
-			resourceRepository.remove(resource);
-			Endpoint endpoint = endpointManagementService.deleteResourceEndpoint(resource);
+			List<Endpoint> endpoints=endpointManagementService.deleteResourceEndpoints(resources);
 			if(LOGGER.isTraceEnabled()) {
-				LOGGER.trace("Deleted "+resource);
-				LOGGER.trace("Deleted "+endpoint);
+				for(int i=0;i<resources.size();i++) {
+					LOGGER.trace("Deleted "+resources.get(i));
+					LOGGER.trace("Deleted "+endpoints.get(i));
+				}
 			}
 		} catch (EndpointNotFoundException e) {
 			throw new IllegalStateException(e);
@@ -26,6 +26,8 @@
  */
 package org.ldp4j.application.spi;
 
+import java.util.Collection;
+
 import org.ldp4j.application.endpoint.Endpoint;
 import org.ldp4j.application.resource.ResourceId;
 
@@ -35,10 +37,26 @@ public interface EndpointRepository {
 
 	Endpoint endpointOfResource(ResourceId id);
 
-	void add(Endpoint endpoint);
+	/**
+	 * Add an endpoint to the repository. The repository may keep a different
+	 * instance than the one specified, in which case that instance must be
+	 * used from then on, so that the changes made to it are kept.
+	 *
+	 * @return the instance of the endpoint kept by the repository
+	 */
+	Endpoint add(Endpoint endpoint);
 
 	void remove(Endpoint endpoint);
 
+	/**
+	 * Remove a group of endpoints as a batch. Implementations may use the
+	 * batch to amortize their costs, for instance by persisting all the
+	 * changes with a single write. The batch is not atomic: concurrent
+	 * readers may observe some of the endpoints removed before the others,
+	 * and if the operation fails some of them may have been removed already.
+	 */
+	void removeAll(Collection<? extends Endpoint> endpoints);
+
 	long nextIdentifier();
 
 }
\ No newline at end of file
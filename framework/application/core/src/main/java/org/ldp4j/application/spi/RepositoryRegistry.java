@@ -33,4 +33,6 @@ public interface RepositoryRegistry {
 	
 	EndpointRepository getEndpointRepository();
 	
+	TombstoneRepository getTombstoneRepository();
+
 }
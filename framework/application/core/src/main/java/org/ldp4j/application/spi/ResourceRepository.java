@@ -26,6 +26,8 @@
  */
 package org.ldp4j.application.spi;
 
+import java.util.Collection;
+
 import org.ldp4j.application.resource.Container;
 import org.ldp4j.application.resource.Resource;
 import org.ldp4j.application.resource.ResourceId;
@@ -42,4 +44,22 @@ public interface ResourceRepository {
 
 	void remove(Resource resource);
 
+	/**
+	 * Add a group of resources as a batch. Implementations may use the batch
+	 * to amortize their costs, for instance by persisting all the changes
+	 * with a single write. The batch is not atomic: concurrent readers may
+	 * observe some of the resources added before the others, and if the
+	 * operation fails some of them may have been added already.
+	 */
+	void addAll(Collection<? extends Resource> resources);
+
+	/**
+	 * Remove a group of resources as a batch. Implementations may use the
+	 * batch to amortize their costs, for instance by persisting all the
+	 * changes with a single write. The batch is not atomic: concurrent
+	 * readers may observe some of the resources removed before the others,
+	 * and if the operation fails some of them may have been removed already.
+	 */
+	void removeAll(Collection<? extends Resource> resources);
+
 }
\ No newline at end of file
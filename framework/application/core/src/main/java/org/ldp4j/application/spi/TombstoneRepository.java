@@ -0,0 +1,57 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.spi;
+
+import org.ldp4j.application.endpoint.Tombstone;
+
+/**
+ * Keeps the tombstones of the endpoints that have been deleted, so that
+ * requests to their former paths can be told apart from requests to paths
+ * that were never published. Repositories may forget tombstones, for
+ * instance once they are old enough.
+ */
+public interface TombstoneRepository {
+
+	/**
+	 * Record the tombstone of a deleted endpoint, replacing any tombstone
+	 * already recorded for the same path.
+	 */
+	void add(Tombstone tombstone);
+
+	/**
+	 * Discard the tombstone of a path, if any, as the path is in use again.
+	 */
+	void remove(String path);
+
+	/**
+	 * @return the tombstone of the endpoint that was published at the
+	 *         specified path, or {@code null} if there is no such endpoint or
+	 *         its tombstone is not retained anymore
+	 */
+	Tombstone find(String path);
+
+}
@@ -92,6 +92,11 @@ public final class TemplateManagementService implements Service {
 		return this.manager.getTemplate(handlerClass);
 	}
 	
+	public void visitTemplates(TemplateVisitor visitor) {
+		checkState(manager!=null,"Template Management Service has not been initialized yet");
+		this.manager.accept(visitor);
+	}
+
 	public <T extends ResourceHandler> T getHandler(Class<? extends T> handlerClass) {
 		ResourceTemplate template=findTemplateByHandler(handlerClass);
 		return this.manager.getHandler(handlerClass, template);
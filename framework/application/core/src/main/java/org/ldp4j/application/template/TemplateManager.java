@@ -63,6 +63,11 @@ public final class TemplateManager {
 		return this.library.findById(templateId);
 
 	}
+	public void accept(TemplateVisitor visitor) {
+		checkNotNull(visitor,"Template visitor cannot be null");
+		this.library.accept(visitor);
+	}
+
 	public ResourceTemplate getTemplate(Class<? extends ResourceHandler> handlerClass) {
 		checkNotNull(handlerClass,"Handler class cannot be null");
 		return this.library.findByHandler(handlerClass);
@@ -0,0 +1,162 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Collection;
+import java.util.Iterator;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.ManagedIndividualId;
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.resource.Container;
+import org.ldp4j.application.resource.Resource;
+import org.ldp4j.application.resource.ResourceFactoryService;
+import org.ldp4j.application.resource.ResourceId;
+import org.ldp4j.application.spi.RuntimeInstance;
+import org.ldp4j.application.template.TemplateManagementService;
+import org.ldp4j.application.template.TemplateManager;
+import org.ldp4j.example.BookContainerHandler;
+import org.ldp4j.example.BookHandler;
+import org.ldp4j.example.PersonHandler;
+
+public class DefaultPublicContainerTest {
+
+	private Container container;
+
+	@Before
+	public void setUp() throws Exception {
+		TemplateManager manager=
+			TemplateManager.
+				builder().
+					withHandlerClasses(PersonHandler.class).
+					build();
+		RuntimeInstance.
+			getInstance().
+				getServiceRegistry().
+					getService(TemplateManagementService.class).
+						setTemplateManager(manager);
+		Resource me=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("me"),null);
+		container=me.attach("books",ResourceId.createId(name("myBooks"),BookContainerHandler.ID),Container.class);
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		RuntimeInstance.setInstance(null);
+	}
+
+	private Name<?> name(String id) {
+		return NamingScheme.getDefault().name(id);
+	}
+
+	private ManagedIndividualId addMember(String id) {
+		ResourceId memberId=container.addMember(ResourceId.createId(name(id),BookHandler.ID)).id();
+		return ManagedIndividualId.createId(memberId.name(),memberId.templateId());
+	}
+
+	@Test
+	public void testUnpagedMembersAreASnapshotOfTheContainer() throws Exception {
+		ManagedIndividualId first=addMember("book1");
+		Collection<ManagedIndividualId> members=
+			DefaultPublicContainer.memberIndividualIds(container,ContentPreferences.defaultPreferences());
+		assertThat(members,contains(first));
+		ManagedIndividualId second=addMember("book2");
+		assertThat(members,contains(first));
+		assertThat(members.size(),equalTo(1));
+		assertThat(
+			DefaultPublicContainer.memberIndividualIds(container,ContentPreferences.defaultPreferences()),
+			contains(first,second));
+	}
+
+	@Test
+	public void testMembersCanBeAddedWhileIterated() throws Exception {
+		ManagedIndividualId first=addMember("book1");
+		ManagedIndividualId second=addMember("book2");
+		Collection<ManagedIndividualId> members=
+			DefaultPublicContainer.memberIndividualIds(container,ContentPreferences.defaultPreferences());
+		Iterator<ManagedIndividualId> iterator=members.iterator();
+		assertThat(iterator.next(),equalTo(first));
+		ManagedIndividualId third=addMember("book3");
+		container.removeMember(ResourceId.createId(name("book1"),BookHandler.ID));
+		assertThat(iterator.next(),equalTo(second));
+		assertThat(iterator.hasNext(),equalTo(false));
+		assertThat(container.memberIdsView().size(),equalTo(2));
+		assertThat(
+			DefaultPublicContainer.memberIndividualIds(container,ContentPreferences.defaultPreferences()),
+			contains(second,third));
+	}
+
+	@Test
+	public void testSnapshotIsSharedUntilTheContainerIsModified() throws Exception {
+		addMember("book1");
+		Collection<ResourceId> snapshot=container.memberIdsView();
+		assertThat(container.memberIdsView(),sameInstance(snapshot));
+		addMember("book2");
+		assertThat(container.memberIdsView(),not(sameInstance(snapshot)));
+	}
+
+	@Test
+	public void testMemberViewCanBeIteratedRepeatedly() throws Exception {
+		ManagedIndividualId first=addMember("book1");
+		ManagedIndividualId second=addMember("book2");
+		Collection<ManagedIndividualId> members=
+			DefaultPublicContainer.memberIndividualIds(container,ContentPreferences.defaultPreferences());
+		assertThat(members,contains(first,second));
+		assertThat(members,contains(first,second));
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testMemberViewIsReadOnly() throws Exception {
+		addMember("book1");
+		Iterator<ResourceId> iterator=container.memberIdsView().iterator();
+		iterator.next();
+		iterator.remove();
+	}
+
+	@Test
+	public void testPagedMembers() throws Exception {
+		addMember("book1");
+		addMember("book2");
+		ManagedIndividualId third=addMember("book3");
+		ContentPreferences preferences=ContentPreferences.defaultPreferences();
+		preferences.paginate(2,1);
+		assertThat(DefaultPublicContainer.memberIndividualIds(container,preferences),contains(third));
+		preferences.paginate(2,2);
+		assertThat(DefaultPublicContainer.memberIndividualIds(container,preferences),emptyIterable());
+	}
+
+}
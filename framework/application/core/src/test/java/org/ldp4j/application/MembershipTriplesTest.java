@@ -0,0 +1,187 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.net.URI;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.DataSetFactory;
+import org.ldp4j.application.data.ExternalIndividual;
+import org.ldp4j.application.data.Individual;
+import org.ldp4j.application.data.ManagedIndividual;
+import org.ldp4j.application.data.ManagedIndividualId;
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.data.validation.Validator;
+import org.ldp4j.application.domain.LDP;
+import org.ldp4j.application.resource.Container;
+import org.ldp4j.application.resource.Resource;
+import org.ldp4j.application.resource.ResourceFactoryService;
+import org.ldp4j.application.resource.ResourceId;
+import org.ldp4j.application.spi.RuntimeInstance;
+import org.ldp4j.application.template.TemplateManagementService;
+import org.ldp4j.application.template.TemplateManager;
+import org.ldp4j.example.BookContainerHandler;
+import org.ldp4j.example.BookHandler;
+import org.ldp4j.example.PersonHandler;
+
+import com.google.common.collect.Lists;
+
+public class MembershipTriplesTest {
+
+	private static final int MEMBERS=1000;
+
+	private static final URI CONTAINS=LDP.CONTAINS.as(URI.class);
+	private static final URI IS_PART_OF=URI.create("http://www.example.org/vocab#isPartOf");
+
+	private Container container;
+	private List<ResourceId> members;
+
+	@Before
+	public void setUp() throws Exception {
+		TemplateManager manager=
+			TemplateManager.
+				builder().
+					withHandlerClasses(PersonHandler.class).
+					build();
+		RuntimeInstance.
+			getInstance().
+				getServiceRegistry().
+					getService(TemplateManagementService.class).
+						setTemplateManager(manager);
+		Resource me=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("me"),null);
+		container=me.attach("books",ResourceId.createId(name("myBooks"),BookContainerHandler.ID),Container.class);
+		members=Lists.newArrayList();
+		for(int i=0;i<MEMBERS;i++) {
+			members.add(container.addMember(ResourceId.createId(name("book"+i),BookHandler.ID)).id());
+		}
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		RuntimeInstance.setInstance(null);
+	}
+
+	private Name<?> name(String id) {
+		return NamingScheme.getDefault().name(id);
+	}
+
+	private ManagedIndividualId individualId(ResourceId resourceId) {
+		return ManagedIndividualId.createId(resourceId.name(),resourceId.templateId());
+	}
+
+	private Individual<?,?> individual(DataSet dataSet, ResourceId resourceId) {
+		return dataSet.individual(individualId(resourceId),ManagedIndividual.class);
+	}
+
+	private DataSet containmentData() {
+		DataSet dataSet=DataSetFactory.createDataSet(name("data"));
+		Individual<?,?> subject=individual(dataSet,container.id());
+		for(ResourceId member:members) {
+			subject.addValue(CONTAINS,individual(dataSet,member));
+		}
+		return dataSet;
+	}
+
+	private DataSet isPartOfData(Object targetId) {
+		DataSet dataSet=DataSetFactory.createDataSet(name("data"));
+		Individual<?,?> target=dataSet.individual((URI)targetId,ExternalIndividual.class);
+		for(ResourceId member:members) {
+			individual(dataSet,member).addValue(IS_PART_OF,target);
+		}
+		return dataSet;
+	}
+
+	private boolean isValid(MembershipTriples triples, DataSet dataSet) {
+		return
+			Validator.
+				builder().
+					withDataSetConstraint(triples.validationConstraint()).
+					build().
+						validate(dataSet).
+							isValid();
+	}
+
+	@Test
+	public void testValidatesMemberObjectsAgainstMembershipIndex() throws Exception {
+		MembershipTriples triples=MembershipTriples.memberObjects(container,individualId(container.id()),CONTAINS);
+		DataSet dataSet=containmentData();
+		assertThat(isValid(triples,dataSet),equalTo(true));
+
+		Individual<?,?> subject=dataSet.individualOfId(individualId(container.id()));
+		subject.removeValue(CONTAINS,dataSet.individualOfId(individualId(members.get(0))));
+		assertThat(isValid(triples,dataSet),equalTo(false));
+
+		subject.addValue(CONTAINS,individual(dataSet,members.get(0)));
+		subject.addValue(CONTAINS,individual(dataSet,ResourceId.createId(name("other"),BookHandler.ID)));
+		assertThat(isValid(triples,dataSet),equalTo(false));
+	}
+
+	@Test
+	public void testValidatesMemberSubjectsAgainstMembershipIndex() throws Exception {
+		URI target=URI.create("http://www.example.org/target");
+		MembershipTriples triples=MembershipTriples.memberSubjects(container,IS_PART_OF,target);
+		DataSet dataSet=isPartOfData(target);
+		assertThat(isValid(triples,dataSet),equalTo(true));
+
+		Individual<?,?> other=individual(dataSet,ResourceId.createId(name("other"),BookHandler.ID));
+		other.addValue(IS_PART_OF,dataSet.individual(URI.create("http://www.example.org/another"),ExternalIndividual.class));
+		assertThat(isValid(triples,dataSet),equalTo(true));
+
+		other.addValue(IS_PART_OF,dataSet.individualOfId(target));
+		assertThat(isValid(triples,dataSet),equalTo(false));
+	}
+
+	@Test
+	public void testRejectsMissingMemberSubjects() throws Exception {
+		URI target=URI.create("http://www.example.org/target");
+		MembershipTriples triples=MembershipTriples.memberSubjects(container,IS_PART_OF,target);
+		DataSet dataSet=isPartOfData(target);
+		individual(dataSet,members.get(1)).removeValue(IS_PART_OF,dataSet.individualOfId(target));
+		assertThat(isValid(triples,dataSet),equalTo(false));
+	}
+
+	@Test
+	public void testRemovesOnlyMemberTriples() throws Exception {
+		MembershipTriples triples=MembershipTriples.memberObjects(container,individualId(container.id()),CONTAINS);
+		DataSet dataSet=containmentData();
+		Individual<?,?> subject=dataSet.individualOfId(individualId(container.id()));
+		Individual<?,?> other=individual(dataSet,ResourceId.createId(name("other"),BookHandler.ID));
+		subject.addValue(CONTAINS,other);
+		triples.removeFrom(dataSet);
+		assertThat(subject.property(CONTAINS).numberOfValues(),equalTo(1));
+		assertThat(subject.property(CONTAINS).hasIdentifiedIndividual(other.id()),equalTo(true));
+	}
+
+}
@@ -0,0 +1,356 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.endpoint.Endpoint;
+import org.ldp4j.application.endpoint.EndpointFactoryService;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.lifecycle.Managed;
+import org.ldp4j.application.resource.Container;
+import org.ldp4j.application.resource.Resource;
+import org.ldp4j.application.resource.ResourceFactoryService;
+import org.ldp4j.application.resource.ResourceId;
+import org.ldp4j.application.spi.EndpointRepository;
+import org.ldp4j.application.spi.ResourceRepository;
+import org.ldp4j.application.spi.RuntimeInstance;
+import org.ldp4j.application.template.TemplateManagementService;
+import org.ldp4j.application.template.TemplateManager;
+import org.ldp4j.example.BookContainerHandler;
+import org.ldp4j.example.BookHandler;
+import org.ldp4j.example.PersonHandler;
+
+public class FileBasedRuntimeInstanceTest {
+
+	private static final int MEMBERS=200;
+
+	private File directory;
+	private ResourceRepository resourceRepository;
+	private EndpointRepository endpointRepository;
+
+	@Before
+	public void setUp() throws Exception {
+		directory=File.createTempFile("ldp4j",".repository");
+		directory.delete();
+		RuntimeInstance.setInstance(new FileBasedRuntimeInstance(directory));
+		TemplateManager manager=
+			TemplateManager.
+				builder().
+					withHandlerClasses(PersonHandler.class).
+					build();
+		RuntimeInstance.
+			getInstance().
+				getServiceRegistry().
+					getService(TemplateManagementService.class).
+						setTemplateManager(manager);
+		resourceRepository=RuntimeInstance.getInstance().getRepositoryRegistry().getResourceRepository();
+		endpointRepository=RuntimeInstance.getInstance().getRepositoryRegistry().getEndpointRepository();
+		start();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		stop();
+		RuntimeInstance.setInstance(null);
+		for(File file:directory.listFiles()) {
+			file.delete();
+		}
+		directory.delete();
+	}
+
+	private void start() throws Exception {
+		((Managed)resourceRepository).init();
+		((Managed)endpointRepository).init();
+	}
+
+	private void stop() throws Exception {
+		((Managed)endpointRepository).shutdown();
+		((Managed)resourceRepository).shutdown();
+	}
+
+	private void restart() throws Exception {
+		stop();
+		start();
+	}
+
+	private static void write(File file, byte[] contents) throws Exception {
+		FileOutputStream out=new FileOutputStream(file);
+		try {
+			out.write(contents);
+		} finally {
+			out.close();
+		}
+	}
+
+	private Name<?> name(String id) {
+		return NamingScheme.getDefault().name(id);
+	}
+
+	@Test
+	public void testResourcesSurviveRestart() throws Exception {
+		Resource me=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("me"),null);
+		Container books=me.attach("books",ResourceId.createId(name("myBooks"),BookContainerHandler.ID),Container.class);
+		Resource book=books.addMember(ResourceId.createId(name("book1"),BookHandler.ID));
+		resourceRepository.add(me);
+		resourceRepository.add(books);
+		resourceRepository.add(book);
+		resourceRepository.remove(book);
+
+		restart();
+
+		Resource restoredMe=resourceRepository.resourceOfId(me.id());
+		assertThat(restoredMe,notNullValue());
+		assertThat(restoredMe.isRoot(),equalTo(true));
+		assertThat(restoredMe.findAttachment(books.id()).id(),equalTo("books"));
+		Container restoredBooks=resourceRepository.containerOfId(books.id());
+		assertThat(restoredBooks,notNullValue());
+		assertThat(restoredBooks.parentId(),equalTo(me.id()));
+		assertThat(restoredBooks.memberIds(),contains(book.id()));
+		assertThat(resourceRepository.find(book.id(),Resource.class),nullValue());
+	}
+
+	@Test
+	public void testContainersAreStoredIncrementally() throws Exception {
+		Resource me=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("me"),null);
+		Container books=me.attach("books",ResourceId.createId(name("myBooks"),BookContainerHandler.ID),Container.class);
+		resourceRepository.add(me);
+		resourceRepository.add(books);
+		assertThat(books.memberChanges().isEmpty(),equalTo(true));
+		List<Resource> added=new ArrayList<Resource>();
+		for(int i=0;i<5;i++) {
+			Resource book=books.addMember(ResourceId.createId(name("book"+i),BookHandler.ID));
+			assertThat(books.memberChanges().added(),contains(book.id()));
+			resourceRepository.add(book);
+			resourceRepository.add(books);
+			assertThat(books.memberChanges().isEmpty(),equalTo(true));
+			added.add(book);
+		}
+		books.removeMember(added.get(0).id());
+		assertThat(books.memberChanges().removed(),contains(added.get(0).id()));
+		resourceRepository.add(books);
+
+		restart();
+
+		Container restoredBooks=resourceRepository.containerOfId(books.id());
+		assertThat(restoredBooks.memberIds(),contains(added.get(1).id(),added.get(2).id(),added.get(3).id(),added.get(4).id()));
+		assertThat(restoredBooks.memberChanges().isEmpty(),equalTo(true));
+	}
+
+	@Test
+	public void testAddedEndpointIsTheInstanceKept() throws Exception {
+		Resource me=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("me"),null);
+		Endpoint endpoint=EndpointFactoryService.defaultFactory().createEndpoint(me,"root",new EntityTag("root"),new Date(1000));
+		Endpoint added=endpointRepository.add(endpoint);
+		assertThat(endpointRepository.endpointOfPath("root"),sameInstance(added));
+		assertThat(endpointRepository.endpointOfResource(me.id()),sameInstance(added));
+		added.modify(new EntityTag("modified",true),new Date(2000));
+
+		restart();
+
+		Endpoint restored=endpointRepository.endpointOfPath("root");
+		assertThat(restored.entityTag(),equalTo(new EntityTag("modified",true)));
+		assertThat(restored.lastModified(),equalTo(new Date(2000)));
+	}
+
+	@Test
+	public void testEndpointsSurviveRestart() throws Exception {
+		Resource me=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("me"),null);
+		Endpoint endpoint=EndpointFactoryService.defaultFactory().createEndpoint(me,"root",new EntityTag("root"),new Date(1000));
+		endpointRepository.add(endpoint);
+		endpointRepository.endpointOfPath("root").modify(new EntityTag("modified",true),new Date(2000));
+
+		restart();
+
+		Endpoint restored=endpointRepository.endpointOfResource(me.id());
+		assertThat(restored,notNullValue());
+		assertThat(restored.id(),equalTo(endpoint.id()));
+		assertThat(restored.path(),equalTo("root"));
+		assertThat(restored.entityTag(),equalTo(new EntityTag("modified",true)));
+		assertThat(restored.lastModified(),equalTo(new Date(2000)));
+		assertThat(endpointRepository.nextIdentifier(),equalTo(endpoint.id()+1));
+
+		endpointRepository.remove(restored);
+		restart();
+
+		assertThat(endpointRepository.endpointOfPath("root"),nullValue());
+		assertThat(endpointRepository.endpointOfResource(me.id()),nullValue());
+	}
+
+	@Test
+	public void testIncompleteRecordsAreDiscarded() throws Exception {
+		Resource me=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("me"),null);
+		resourceRepository.add(me);
+		stop();
+
+		FileOutputStream out=new FileOutputStream(new File(directory,"resources.log"),true);
+		try {
+			out.write(new byte[]{0,0,0,100,1,2,3});
+		} finally {
+			out.close();
+		}
+
+		start();
+		assertThat(resourceRepository.find(me.id(),Resource.class),instanceOf(Resource.class));
+		Resource other=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("other"),null);
+		resourceRepository.add(other);
+
+		restart();
+		assertThat(resourceRepository.resourceOfId(other.id()),notNullValue());
+	}
+
+	@Test
+	public void testContainerUpdatesOnlyLogMembershipChanges() throws Exception {
+		Resource me=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("me"),null);
+		Container books=me.attach("books",ResourceId.createId(name("myBooks"),BookContainerHandler.ID),Container.class);
+		resourceRepository.add(me);
+		resourceRepository.add(books);
+		File log=new File(directory,"resources.log");
+		long[] sizes=new long[MEMBERS];
+		List<Resource> added=new ArrayList<Resource>();
+		for(int i=0;i<MEMBERS;i++) {
+			Resource book=books.addMember(ResourceId.createId(name("book"+i),BookHandler.ID));
+			resourceRepository.addAll(Arrays.asList(books,book));
+			added.add(book);
+			sizes[i]=log.length();
+		}
+		long first=sizes[1]-sizes[0];
+		long last=sizes[MEMBERS-1]-sizes[MEMBERS-2];
+		assertThat(last,lessThan(2*first));
+
+		books.removeMember(added.get(0).id());
+		resourceRepository.addAll(Arrays.asList(books));
+		resourceRepository.removeAll(Arrays.asList(added.get(0)));
+
+		restart();
+		Container restored=resourceRepository.containerOfId(books.id());
+		assertThat(restored.numberOfMembers(),equalTo(MEMBERS-1));
+		assertThat(restored.memberIds().iterator().next(),equalTo(added.get(1).id()));
+
+		((FileBasedResourceRepository)resourceRepository).compact();
+		restart();
+		restored=resourceRepository.containerOfId(books.id());
+		assertThat(restored.numberOfMembers(),equalTo(MEMBERS-1));
+		assertThat(restored.hasMember(added.get(0).id()),equalTo(false));
+		assertThat(restored.hasMember(added.get(MEMBERS-1).id()),equalTo(true));
+	}
+
+	@Test
+	public void testResourcesInUseAreNotRestoredAgain() throws Exception {
+		FileBasedResourceRepository repository=
+			new FileBasedResourceRepository(
+				new File(directory,"small.log"),
+				1,
+				0,
+				RuntimeInstance.getInstance().getServiceRegistry());
+		repository.init();
+		try {
+			Resource me=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("me"),null);
+			Resource other=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("other"),null);
+			repository.add(me);
+			repository.add(other);
+			repository.shutdown();
+			repository.init();
+			Resource inUse=repository.resourceOfId(me.id());
+			assertThat(repository.resourceOfId(other.id()),notNullValue());
+			assertThat(repository.resourceOfId(me.id()),sameInstance(inUse));
+		} finally {
+			repository.shutdown();
+		}
+	}
+
+	@Test
+	public void testInterruptedCompactionsAreRecovered() throws Exception {
+		Resource me=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("me"),null);
+		resourceRepository.add(me);
+		stop();
+		File log=new File(directory,"resources.log");
+		File compacting=new File(directory,"resources.log.compacting");
+		File backup=new File(directory,"resources.log.backup");
+
+		// Crashed while writing the compacted log
+		write(compacting,new byte[]{0,0,0,100});
+		start();
+		assertThat(resourceRepository.resourceOfId(me.id()),notNullValue());
+		assertThat(compacting.exists(),equalTo(false));
+		stop();
+
+		// Crashed after moving the log away
+		assertThat(log.renameTo(backup),equalTo(true));
+		start();
+		assertThat(resourceRepository.resourceOfId(me.id()),notNullValue());
+		assertThat(backup.exists(),equalTo(false));
+		stop();
+
+		// Crashed before putting the compacted log in place
+		assertThat(log.renameTo(compacting),equalTo(true));
+		write(backup,new byte[]{0,0,0,100});
+		start();
+		assertThat(resourceRepository.resourceOfId(me.id()),notNullValue());
+		assertThat(compacting.exists(),equalTo(false));
+		assertThat(backup.exists(),equalTo(false));
+	}
+
+	@Test
+	public void testRemovedEndpointIdentifiersAreNotReused() throws Exception {
+		Resource me=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("me"),null);
+		Resource other=ResourceFactoryService.defaultFactory().createResource(PersonHandler.ID,name("other"),null);
+		Endpoint first=EndpointFactoryService.defaultFactory().createEndpoint(me,"me",new EntityTag("me"),new Date(1000));
+		Endpoint second=EndpointFactoryService.defaultFactory().createEndpoint(other,"other",new EntityTag("other"),new Date(1000));
+		endpointRepository.add(first);
+		endpointRepository.add(second);
+		endpointRepository.remove(second);
+		((FileBasedEndpointRepository)endpointRepository).compact();
+
+		restart();
+
+		assertThat(endpointRepository.endpointOfPath("other"),nullValue());
+		assertThat(endpointRepository.endpointOfPath("me").id(),equalTo(first.id()));
+		assertThat(endpointRepository.nextIdentifier(),greaterThan(second.id()));
+	}
+
+}
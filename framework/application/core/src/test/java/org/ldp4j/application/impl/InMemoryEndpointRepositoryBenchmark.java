@@ -0,0 +1,127 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.impl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.ldp4j.application.endpoint.Endpoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Reports the throughput of the mixed workload of
+ * {@link InMemoryEndpointRepositoryTest} for increasing levels of
+ * concurrency (from 1 to 64 threads). The benchmark is not part of the unit
+ * test suite and is run using the 'benchmarks' profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=5,time=1,timeUnit=TimeUnit.SECONDS)
+@Measurement(iterations=10,time=1,timeUnit=TimeUnit.SECONDS)
+@Fork(1)
+public class InMemoryEndpointRepositoryBenchmark {
+
+	private static final int[] THREADS={1,2,4,8,16,32,64};
+
+	private static final AtomicInteger WORKERS=new AtomicInteger();
+
+	@State(Scope.Thread)
+	public static class Worker {
+
+		private String prefix;
+		private int next;
+
+		@Setup
+		public void setUp() {
+			this.prefix="t"+WORKERS.getAndIncrement()+"-";
+		}
+
+		private String nextName() {
+			return this.prefix+(this.next++);
+		}
+
+	}
+
+	private InMemoryEndpointRepository sut;
+
+	@Setup(Level.Iteration)
+	public void setUp() throws Exception {
+		this.sut=new InMemoryEndpointRepository();
+		this.sut.init();
+	}
+
+	@TearDown(Level.Iteration)
+	public void tearDown() throws Exception {
+		this.sut.shutdown();
+	}
+
+	/**
+	 * One operation of the mixed workload: add an endpoint, look it up by
+	 * path and by resource, and remove every other endpoint added.
+	 */
+	@Benchmark
+	public boolean mixedWorkload(Worker worker) {
+		String name=worker.nextName();
+		Endpoint endpoint=InMemoryEndpointRepositoryTest.endpoint(this.sut,name);
+		this.sut.add(endpoint);
+		boolean found=
+			this.sut.endpointOfPath(endpoint.path())==endpoint &&
+			this.sut.endpointOfResource(endpoint.resourceId())==endpoint;
+		if(worker.next%2==0) {
+			this.sut.remove(endpoint);
+		}
+		return found;
+	}
+
+	@Test
+	public void runBenchmarks() throws Exception {
+		for(int threads:THREADS) {
+			new Runner(
+				new OptionsBuilder().
+					include(getClass().getName()).
+					threads(threads).
+					build()).
+				run();
+		}
+	}
+
+}
@@ -0,0 +1,230 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.endpoint.Endpoint;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.resource.ResourceId;
+
+public class InMemoryEndpointRepositoryTest {
+
+	private static final int THREADS=8;
+	private static final int OPERATIONS_PER_THREAD=250;
+
+	private static final class TestEndpoint implements Endpoint {
+
+		private final long id;
+		private final String path;
+		private final ResourceId resourceId;
+
+		private TestEndpoint(long id, String path, ResourceId resourceId) {
+			this.id=id;
+			this.path=path;
+			this.resourceId=resourceId;
+		}
+
+		@Override
+		public long id() {
+			return id;
+		}
+
+		@Override
+		public String path() {
+			return path;
+		}
+
+		@Override
+		public ResourceId resourceId() {
+			return resourceId;
+		}
+
+		@Override
+		public EntityTag entityTag() {
+			return null;
+		}
+
+		@Override
+		public Date lastModified() {
+			return null;
+		}
+
+		@Override
+		public void modify(EntityTag newEntityTag, Date newLastModified) {
+			// Not needed
+		}
+
+	}
+
+	private InMemoryEndpointRepository sut;
+
+	@Before
+	public void setUp() throws Exception {
+		sut=new InMemoryEndpointRepository();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		sut.shutdown();
+	}
+
+	private Endpoint endpoint(String name) {
+		return endpoint(sut,name);
+	}
+
+	@Test
+	public void testLookupAfterAdd() throws Exception {
+		Endpoint endpoint=endpoint("one");
+		sut.add(endpoint);
+		assertThat(sut.endpointOfPath(endpoint.path()),sameInstance(endpoint));
+		assertThat(sut.endpointOfResource(endpoint.resourceId()),sameInstance(endpoint));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCannotReusePath() throws Exception {
+		Endpoint endpoint=endpoint("one");
+		sut.add(endpoint);
+		sut.add(new TestEndpoint(sut.nextIdentifier(),endpoint.path(),endpoint("two").resourceId()));
+	}
+
+	@Test
+	public void testFailedAddDoesNotLeaveTraces() throws Exception {
+		Endpoint endpoint=endpoint("one");
+		sut.add(endpoint);
+		Endpoint clash=new TestEndpoint(sut.nextIdentifier(),"resources/other/",endpoint.resourceId());
+		try {
+			sut.add(clash);
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		assertThat(sut.endpointOfPath(clash.path()),nullValue());
+		assertThat(sut.endpointOfResource(endpoint.resourceId()),sameInstance(endpoint));
+	}
+
+	@Test
+	public void testLookupAfterRemove() throws Exception {
+		Endpoint endpoint=endpoint("one");
+		sut.add(endpoint);
+		sut.remove(endpoint);
+		assertThat(sut.endpointOfPath(endpoint.path()),nullValue());
+		assertThat(sut.endpointOfResource(endpoint.resourceId()),nullValue());
+	}
+
+	/**
+	 * Mixed workload where each thread repeatedly creates, looks up and
+	 * deletes its own endpoints, verifying that the indexes are kept
+	 * consistent.
+	 */
+	@Test
+	public void testConcurrentMixedWorkload() throws Exception {
+		runWorkload(sut,THREADS,OPERATIONS_PER_THREAD);
+		for(int i=0;i<THREADS;i++) {
+			for(int j=0;j<OPERATIONS_PER_THREAD;j++) {
+				String path="resources/t"+i+"-"+j+"/";
+				if(j%2==0) {
+					assertThat(sut.endpointOfPath(path),nullValue());
+				} else {
+					assertThat(sut.endpointOfPath(path).path(),equalTo(path));
+				}
+			}
+		}
+	}
+
+	static Endpoint endpoint(InMemoryEndpointRepository repository, String name) {
+		return
+			new TestEndpoint(
+				repository.nextIdentifier(),
+				"resources/"+name+"/",
+				ResourceId.createId(NamingScheme.getDefault().name(name),"template"));
+	}
+
+	/**
+	 * Run the mixed workload with the given number of threads, returning the
+	 * time it took in nanoseconds.
+	 */
+	static long runWorkload(final InMemoryEndpointRepository repository, int threads, final int operations) throws Exception {
+		ExecutorService executor=Executors.newFixedThreadPool(threads);
+		try {
+			final CountDownLatch start=new CountDownLatch(1);
+			List<Future<Integer>> results=new ArrayList<Future<Integer>>();
+			for(int i=0;i<threads;i++) {
+				final String prefix="t"+i+"-";
+				results.add(
+					executor.submit(
+						new Callable<Integer>() {
+							@Override
+							public Integer call() throws Exception {
+								start.await();
+								int failures=0;
+								for(int j=0;j<operations;j++) {
+									Endpoint endpoint=endpoint(repository,prefix+j);
+									repository.add(endpoint);
+									if(repository.endpointOfPath(endpoint.path())!=endpoint) {
+										failures++;
+									}
+									if(repository.endpointOfResource(endpoint.resourceId())!=endpoint) {
+										failures++;
+									}
+									if(j%2==0) {
+										repository.remove(endpoint);
+									}
+								}
+								return failures;
+							}
+						}
+					)
+				);
+			}
+			long begin=System.nanoTime();
+			start.countDown();
+			for(Future<Integer> result:results) {
+				assertThat(result.get(),equalTo(0));
+			}
+			return System.nanoTime()-begin;
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
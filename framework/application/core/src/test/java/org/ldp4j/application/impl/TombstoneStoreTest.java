@@ -0,0 +1,168 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.File;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.endpoint.Tombstone;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.resource.ResourceId;
+
+public class TombstoneStoreTest {
+
+	private File file;
+
+	@Before
+	public void setUp() throws Exception {
+		file=File.createTempFile("ldp4j",".tombstones");
+		file.delete();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		file.delete();
+	}
+
+	private Tombstone tombstone(String path, long deleted) {
+		return
+			new Tombstone(
+				path,
+				ResourceId.createId(NamingScheme.getDefault().name(path),"template"),
+				new EntityTag(path),
+				deleted-1000,
+				deleted);
+	}
+
+	private Tombstone tombstone(String path) {
+		return tombstone(path,System.currentTimeMillis());
+	}
+
+	@Test
+	public void testFindsStoredTombstones() throws Exception {
+		TombstoneStore sut=new TombstoneStore(10,0,null);
+		sut.add(tombstone("resource/1/"));
+		Tombstone found=sut.find("resource/1/");
+		assertThat(found,notNullValue());
+		assertThat(found.entityTag(),equalTo(new EntityTag("resource/1/")));
+		assertThat(sut.find("resource/2/"),nullValue());
+		sut.remove("resource/1/");
+		assertThat(sut.find("resource/1/"),nullValue());
+	}
+
+	@Test
+	public void testCapacityIsBounded() throws Exception {
+		TombstoneStore sut=new TombstoneStore(100,0,null);
+		for(int i=0;i<1000;i++) {
+			sut.add(tombstone("resource/"+i+"/"));
+		}
+		assertThat(sut.size(),equalTo(100));
+		assertThat(sut.find("resource/0/"),nullValue());
+		assertThat(sut.find("resource/999/"),notNullValue());
+	}
+
+	@Test
+	public void testExpiredTombstonesAreDiscarded() throws Exception {
+		TombstoneStore sut=new TombstoneStore(10,60000,null);
+		sut.add(tombstone("old/",System.currentTimeMillis()-120000));
+		sut.add(tombstone("new/"));
+		assertThat(sut.find("old/"),nullValue());
+		assertThat(sut.find("new/"),notNullValue());
+		assertThat(sut.size(),equalTo(1));
+	}
+
+	@Test
+	public void testEvictedTombstonesAreSpilled() throws Exception {
+		TombstoneStore sut=new TombstoneStore(10,0,file);
+		sut.init();
+		for(int i=0;i<100;i++) {
+			sut.add(tombstone("resource/"+i+"/"));
+		}
+		assertThat(sut.size(),equalTo(10));
+		assertThat(sut.find("resource/0/"),notNullValue());
+		sut.remove("resource/1/");
+		assertThat(sut.find("resource/1/"),nullValue());
+		sut.shutdown();
+
+		TombstoneStore other=new TombstoneStore(10,0,file);
+		other.init();
+		try {
+			assertThat(other.find("resource/0/").path(),equalTo("resource/0/"));
+			assertThat(other.find("resource/1/"),nullValue());
+			assertThat(other.find("resource/99/"),notNullValue());
+			assertThat(other.find("resource/100/"),nullValue());
+		} finally {
+			other.shutdown();
+		}
+	}
+
+	@Test
+	public void testSpillFileIsCompactedAtRuntime() throws Exception {
+		TombstoneStore sut=new TombstoneStore(1,0,file);
+		sut.init();
+		try {
+			sut.add(tombstone("resource/0/"));
+			for(int i=1;i<5000;i++) {
+				sut.add(tombstone("resource/"+i+"/"));
+				sut.remove("resource/"+(i-1)+"/");
+			}
+			assertThat(sut.spilled(),equalTo(0));
+			assertThat(sut.records(),lessThan(2048L));
+			assertThat(sut.find("resource/4999/"),notNullValue());
+		} finally {
+			sut.shutdown();
+		}
+	}
+
+	@Test
+	public void testExpiredSpilledTombstonesAreDiscarded() throws Exception {
+		TombstoneStore sut=new TombstoneStore(1,100,file);
+		sut.init();
+		try {
+			sut.add(tombstone("first/"));
+			sut.add(tombstone("second/"));
+			assertThat(sut.spilled(),equalTo(1));
+			Thread.sleep(200);
+			sut.add(tombstone("new/"));
+			assertThat(sut.spilled(),equalTo(0));
+			assertThat(sut.find("first/"),nullValue());
+			assertThat(sut.find("new/"),notNullValue());
+		} finally {
+			sut.shutdown();
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.resource;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.spi.RuntimeInstance;
+import org.ldp4j.application.template.TemplateManagementService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the cost of creating members one at a time with the cost of
+ * creating them in a single batch. Every measured invocation creates the
+ * members in a freshly published container. The benchmark is not part of the
+ * unit test suite and is run using the 'benchmarks' profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=10)
+@Measurement(iterations=20)
+@Fork(1)
+public class ResourceControllerServiceBenchmark {
+
+	private static final int MEMBERS=500;
+
+	private ResourceControllerService sut;
+	private TemplateManagementService tms;
+	private List<DataSet> dataSets;
+
+	private int containers;
+	private Container container;
+
+	@Setup
+	public void setUp() throws Exception {
+		ResourceControllerServiceTest.setUpBefore();
+		sut=RuntimeInstance.getInstance().getServiceRegistry().getService(ResourceControllerService.class);
+		tms=RuntimeInstance.getInstance().getServiceRegistry().getService(TemplateManagementService.class);
+		dataSets=ResourceControllerServiceTest.getBooks(MEMBERS);
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		ResourceControllerServiceTest.tearDownAfter();
+	}
+
+	@Setup(Level.Iteration)
+	public void publishContainer() {
+		container=ResourceControllerServiceTest.publishBookContainer(tms,"cost-"+(containers++),MEMBERS);
+	}
+
+	@Benchmark
+	public int singleCreations() throws Exception {
+		int created=0;
+		for(DataSet dataSet:dataSets) {
+			sut.createResource(container,dataSet,null);
+			created++;
+		}
+		return created;
+	}
+
+	@Benchmark
+	public List<Resource> batchCreation() throws Exception {
+		return sut.createResources(container,dataSets);
+	}
+
+	@Test
+	public void runBenchmarks() throws Exception {
+		new Runner(
+			new OptionsBuilder().
+				include(getClass().getName()).
+				build()).
+			run();
+	}
+
+}
@@ -29,11 +29,16 @@ package org.ldp4j.application.resource;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.fail;
 import static org.ldp4j.application.data.IndividualReferenceBuilder.newReference;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -48,22 +53,66 @@ import org.ldp4j.application.endpoint.Endpoint;
 import org.ldp4j.application.endpoint.EndpointFactoryService;
 import org.ldp4j.application.engine.context.EntityTag;
 import org.ldp4j.application.ext.ResourceHandler;
+import org.ldp4j.application.ext.annotations.BasicContainer;
 import org.ldp4j.application.impl.InMemoryRuntimeInstance;
+import org.ldp4j.application.session.ContainerSnapshot;
+import org.ldp4j.application.session.ResourceSnapshot;
+import org.ldp4j.application.session.WriteSession;
 import org.ldp4j.application.session.WriteSessionConfiguration;
+import org.ldp4j.application.session.WriteSessionException;
 import org.ldp4j.application.spi.RuntimeInstance;
 import org.ldp4j.application.template.TemplateManagementService;
 import org.ldp4j.application.template.TemplateManager;
 import org.ldp4j.example.BookContainerHandler;
 import org.ldp4j.example.BookHandler;
+import org.ldp4j.example.InMemoryContainerHandler;
 import org.ldp4j.example.PersonHandler;
 import org.ldp4j.example.InMemoryContainerHandler.NameProvider;
 
 public class ResourceControllerServiceTest {
 
+	/**
+	 * Book container handler that does not save the changes of the members
+	 * it has been told to forget.
+	 */
+	@BasicContainer(
+		id = ForgetfulBookContainerHandler.ID,
+		memberHandler = BookHandler.class
+	)
+	public static class ForgetfulBookContainerHandler extends InMemoryContainerHandler {
+
+		static final String ID="forgetfulBookContainerTemplate";
+
+		private final Set<Name<?>> forgotten=new HashSet<Name<?>>();
+
+		public ForgetfulBookContainerHandler() {
+			super("ForgetfulBookContainer");
+		}
+
+		void forget(Name<?> name) {
+			this.forgotten.add(name);
+		}
+
+		@Override
+		public ResourceSnapshot create(ContainerSnapshot container, DataSet representation, WriteSession session) {
+			Name<?> nextName=nameProvider(container.name()).nextMemberName();
+			ResourceSnapshot newMember=container.addMember(nextName);
+			if(!this.forgotten.contains(nextName)) {
+				try {
+					session.saveChanges();
+				} catch (WriteSessionException e) {
+					throw new IllegalStateException("Could not create member",e);
+				}
+			}
+			return newMember;
+		}
+
+	}
+
 	private ResourceControllerService sut;
 	private TemplateManagementService tms;
 
-	private <T extends Resource> T publishResource(Class<? extends T> clazz, String templateId, Name<?> resourceName, String path) {
+	private static <T extends Resource> T publishResource(Class<? extends T> clazz, String templateId, Name<?> resourceName, String path) {
 		T resource=ResourceFactoryService.defaultFactory().createResource(templateId,resourceName,null,clazz);
 		RuntimeInstance.
 			getInstance().
@@ -80,7 +129,7 @@ public class ResourceControllerServiceTest {
 		return resource;
 	}
 
-	private DataSet getInitialData(IndividualReference<?, ?> reference, Date date) {
+	private static DataSet getInitialData(IndividualReference<?, ?> reference, Date date) {
 		DataSet initial=
 			DataDSL.
 				dataSet().
@@ -97,7 +146,7 @@ public class ResourceControllerServiceTest {
 		return initial;
 	}
 
-	private Name<?> name(String id) {
+	private static Name<?> name(String id) {
 		return NamingScheme.getDefault().name(id);
 	}
 
@@ -120,6 +169,28 @@ public class ResourceControllerServiceTest {
 		return initial;
 	}
 
+	static Container publishBookContainer(TemplateManagementService tms, String resourcePath, int members) {
+		Name<?> resourceName = name(resourcePath);
+		Container resource = publishResource(Container.class,BookContainerHandler.ID, resourceName, resourcePath);
+		NameProvider nameProvider = NameProvider.create(resourceName);
+		for(int i=0;i<members;i++) {
+			nameProvider.addMemberName(name(resourcePath+"-book"+i));
+		}
+		BookContainerHandler containerHandler = tms.getHandler(BookContainerHandler.class);
+		containerHandler.add(resourceName, null);
+		containerHandler.setBookHandler(tms.getHandler(BookHandler.class));
+		containerHandler.addNameProvider(resourceName, nameProvider);
+		return resource;
+	}
+
+	static List<DataSet> getBooks(int members) {
+		List<DataSet> dataSets=new ArrayList<DataSet>(members);
+		for(int i=0;i<members;i++) {
+			dataSets.add(getInitialData(newReference().toLocalIndividual().named("Book"+i), new Date()));
+		}
+		return dataSets;
+	}
+
 	private <T extends ResourceHandler> T getHandler(Class<? extends T> handlerClass) {
 		return tms.getHandler(handlerClass);
 	}
@@ -132,6 +203,7 @@ public class ResourceControllerServiceTest {
 			TemplateManager.
 				builder().
 					withHandlers(personHandler).
+					withHandlerClasses(ForgetfulBookContainerHandler.class).
 					build();
 		RuntimeInstance.
 			getInstance().
@@ -246,4 +318,92 @@ public class ResourceControllerServiceTest {
 		assertThat(data,sameInstance(initialData));
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testCreateResources() throws Exception {
+		Container resource = publishBookContainer(tms,"batch",3);
+		List<DataSet> dataSets = getBooks(3);
+
+		List<Resource> newResources = sut.createResources(resource,dataSets);
+		assertThat(newResources.size(),equalTo(3));
+		for(int i=0;i<3;i++) {
+			Resource newResource=newResources.get(i);
+			assertThat((Object)newResource.id().name(),equalTo((Object)name("batch-book"+i)));
+			assertThat(newResource.id().templateId(),equalTo(BookHandler.ID));
+			assertThat(
+				RuntimeInstance.
+					getInstance().
+						getRepositoryRegistry().
+							getEndpointRepository().
+								endpointOfResource(newResource.id()),
+				notNullValue());
+			assertThat(sut.getResource(newResource),sameInstance(dataSets.get(i)));
+		}
+	}
+
+	/**
+	 * The handler runs out of member names when creating the last member, so
+	 * none of the members of the batch must be created.
+	 */
+	@Test
+	public void testBatchCreationIsAllOrNothing() throws Exception {
+		Container resource = publishBookContainer(tms,"rollback",2);
+		List<DataSet> dataSets = getBooks(3);
+		try {
+			sut.createResources(resource,dataSets);
+			fail("Batch creation should fail if any member cannot be created");
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+		RuntimeInstance runtime=RuntimeInstance.getInstance();
+		assertThat(
+			runtime.
+				getRepositoryRegistry().
+					getResourceRepository().
+						containerOfId(resource.id()).
+							numberOfMembers(),
+			equalTo(0));
+		for(int i=0;i<2;i++) {
+			ResourceId memberId=ResourceId.createId(name("rollback-book"+i),BookHandler.ID);
+			assertThat(runtime.getRepositoryRegistry().getResourceRepository().resourceOfId(memberId),nullValue());
+			assertThat(runtime.getRepositoryRegistry().getEndpointRepository().endpointOfResource(memberId),nullValue());
+		}
+	}
+
+	/**
+	 * The handler does not save the changes of the second member, so none of
+	 * the members of the batch must be created.
+	 */
+	@Test
+	public void testBatchCreationFailsIfHandlerDoesNotSaveChanges() throws Exception {
+		Name<?> resourceName=name("forgetful");
+		Container resource=publishResource(Container.class,ForgetfulBookContainerHandler.ID,resourceName,"forgetful");
+		NameProvider nameProvider=NameProvider.create(resourceName);
+		for(int i=0;i<3;i++) {
+			nameProvider.addMemberName(name("forgetful-book"+i));
+		}
+		ForgetfulBookContainerHandler handler=getHandler(ForgetfulBookContainerHandler.class);
+		handler.add(resourceName,null);
+		handler.addNameProvider(resourceName,nameProvider);
+		handler.forget(name("forgetful-book1"));
+		try {
+			sut.createResources(resource,getBooks(3));
+			fail("Batch creation should fail if the handler does not save the changes of a member");
+		} catch (IllegalStateException e) {
+			// Expected
+		}
+		RuntimeInstance runtime=RuntimeInstance.getInstance();
+		assertThat(
+			runtime.
+				getRepositoryRegistry().
+					getResourceRepository().
+						containerOfId(resource.id()).
+							numberOfMembers(),
+			equalTo(0));
+		for(int i=0;i<2;i++) {
+			ResourceId memberId=ResourceId.createId(name("forgetful-book"+i),BookHandler.ID);
+			assertThat(runtime.getRepositoryRegistry().getResourceRepository().resourceOfId(memberId),nullValue());
+			assertThat(runtime.getRepositoryRegistry().getEndpointRepository().endpointOfResource(memberId),nullValue());
+		}
+	}
+
+}
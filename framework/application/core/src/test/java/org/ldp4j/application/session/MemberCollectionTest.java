@@ -0,0 +1,103 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.session;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.resource.ResourceId;
+
+public class MemberCollectionTest {
+
+	private MemberCollection sut;
+
+	@Before
+	public void setUp() throws Exception {
+		sut=MemberCollection.newInstance();
+	}
+
+	private DelegatedResourceSnapshot snapshot(String name) {
+		return new DelegatedResourceSnapshot(ResourceId.createId(NamingScheme.getDefault().name(name),"template"));
+	}
+
+	@Test
+	public void testMembership() throws Exception {
+		DelegatedResourceSnapshot first=snapshot("first");
+		DelegatedResourceSnapshot second=snapshot("second");
+		sut.addMember(first);
+		sut.addMember(second);
+		assertThat(sut.hasMember(first),equalTo(true));
+		assertThat(sut.hasMember(snapshot("first")),equalTo(false));
+		assertThat(sut.members().size(),equalTo(2));
+		assertThat(sut.members(),contains(first,second));
+		assertThat(sut.newMembers(),contains(first,second));
+	}
+
+	@Test
+	public void testRemoveMember() throws Exception {
+		DelegatedResourceSnapshot first=snapshot("first");
+		DelegatedResourceSnapshot second=snapshot("second");
+		sut.addMember(first);
+		sut.addMember(second);
+		assertThat(sut.removeMember(first),equalTo(true));
+		assertThat(sut.removeMember(first),equalTo(false));
+		assertThat(sut.hasMember(first),equalTo(false));
+		assertThat(sut.members(),contains(second));
+		assertThat(sut.newMembers(),contains(second));
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testCannotAddMemberTwice() throws Exception {
+		DelegatedResourceSnapshot first=snapshot("first");
+		sut.addMember(first);
+		sut.addMember(snapshot("first"));
+	}
+
+	@Test
+	public void testIteratorsWalkTheMembershipWhenCreated() throws Exception {
+		DelegatedResourceSnapshot first=snapshot("first");
+		DelegatedResourceSnapshot second=snapshot("second");
+		sut.addMember(first);
+		Iterator<DelegatedResourceSnapshot> before=sut.members().iterator();
+		sut.addMember(second);
+		Iterator<DelegatedResourceSnapshot> after=sut.members().iterator();
+		assertThat(before.next(),sameInstance(first));
+		assertThat(before.hasNext(),equalTo(false));
+		sut.removeMember(first);
+		assertThat(after.next(),sameInstance(second));
+		assertThat(after.hasNext(),equalTo(false));
+		assertThat(sut.members(),contains(second));
+	}
+
+}
@@ -0,0 +1,155 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.session;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.resource.ResourceId;
+
+public class UnitOfWorkTest {
+
+	private static final class RecordingVisitor implements UnitOfWork.Visitor {
+
+		private final List<DelegatedResourceSnapshot> created=new ArrayList<DelegatedResourceSnapshot>();
+		private final List<DelegatedResourceSnapshot> modified=new ArrayList<DelegatedResourceSnapshot>();
+		private final List<DelegatedResourceSnapshot> deleted=new ArrayList<DelegatedResourceSnapshot>();
+
+		@Override
+		public void visitNew(DelegatedResourceSnapshot obj) {
+			created.add(obj);
+		}
+
+		@Override
+		public void visitDirty(DelegatedResourceSnapshot obj) {
+			modified.add(obj);
+		}
+
+		@Override
+		public void visitDeleted(DelegatedResourceSnapshot obj) {
+			deleted.add(obj);
+		}
+
+	}
+
+	private UnitOfWork sut;
+
+	@Before
+	public void setUp() throws Exception {
+		sut=UnitOfWork.newCurrent();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		UnitOfWork.setCurrent(null);
+	}
+
+	private DelegatedResourceSnapshot snapshot(String name) {
+		return new DelegatedResourceSnapshot(ResourceId.createId(NamingScheme.getDefault().name(name),"template"));
+	}
+
+	private RecordingVisitor visit() {
+		RecordingVisitor visitor=new RecordingVisitor();
+		sut.accept(visitor);
+		return visitor;
+	}
+
+	@Test
+	public void testRegistrationOrderIsPreserved() throws Exception {
+		DelegatedResourceSnapshot first=snapshot("first");
+		DelegatedResourceSnapshot second=snapshot("second");
+		DelegatedResourceSnapshot third=snapshot("third");
+		sut.registerNew(second);
+		sut.registerNew(first);
+		sut.registerDirty(third);
+		sut.registerDirty(third);
+		sut.registerDirty(first);
+		RecordingVisitor visitor=visit();
+		assertThat(visitor.created,contains(second,first));
+		assertThat(visitor.modified,contains(third));
+		assertThat(visitor.deleted,empty());
+	}
+
+	@Test
+	public void testSnapshotsAreTrackedByIdentity() throws Exception {
+		DelegatedResourceSnapshot first=snapshot("resource");
+		DelegatedResourceSnapshot second=snapshot("resource");
+		sut.registerNew(first);
+		sut.registerNew(second);
+		sut.registerDeleted(second);
+		RecordingVisitor visitor=visit();
+		assertThat(visitor.created,contains(first));
+		assertThat(visitor.deleted,empty());
+	}
+
+	@Test
+	public void testDeletionSupersedesModification() throws Exception {
+		DelegatedResourceSnapshot first=snapshot("first");
+		sut.registerDirty(first);
+		sut.registerDeleted(first);
+		sut.registerDeleted(first);
+		RecordingVisitor visitor=visit();
+		assertThat(visitor.modified,empty());
+		assertThat(visitor.deleted,contains(first));
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testCannotModifyDeletedSnapshot() throws Exception {
+		DelegatedResourceSnapshot first=snapshot("first");
+		sut.registerDeleted(first);
+		sut.registerDirty(first);
+	}
+
+	@Test
+	public void testRegistersManySnapshots() throws Exception {
+		int count=1000;
+		List<DelegatedResourceSnapshot> snapshots=new ArrayList<DelegatedResourceSnapshot>(count);
+		for(int i=0;i<count;i++) {
+			snapshots.add(snapshot("resource"+i));
+		}
+		for(DelegatedResourceSnapshot snapshot:snapshots) {
+			sut.registerNew(snapshot);
+		}
+		for(DelegatedResourceSnapshot snapshot:snapshots) {
+			sut.registerDirty(snapshot);
+		}
+		for(int i=0;i<count;i+=2) {
+			sut.registerDeleted(snapshots.get(i));
+		}
+		assertThat(visit().created.size(),equalTo(count/2));
+	}
+
+}
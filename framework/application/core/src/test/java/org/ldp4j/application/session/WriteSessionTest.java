@@ -27,10 +27,12 @@
 package org.ldp4j.application.session;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
 
 import java.util.Date;
 
@@ -45,6 +47,8 @@ import org.ldp4j.application.engine.context.EntityTag;
 import org.ldp4j.application.ext.ContainerHandler;
 import org.ldp4j.application.ext.ResourceHandler;
 import org.ldp4j.application.impl.InMemoryRuntimeInstance;
+import org.ldp4j.application.resource.Container;
+import org.ldp4j.application.resource.ResourceId;
 import org.ldp4j.application.resource.ResourceFactoryService;
 import org.ldp4j.application.session.UnitOfWork.Visitor;
 import org.ldp4j.application.spi.RuntimeInstance;
@@ -231,6 +235,30 @@ public class WriteSessionTest {
 		assertUnavailable(myWife, ResourceSnapshot.class,PersonHandler.class);
 	}
 
+	@Test
+	public void testUnresolvableMembersAreReported() throws Exception {
+		uow = UnitOfWork.newCurrent();
+		org.ldp4j.application.resource.Resource rootResource=ResourceFactoryService.defaultFactory().createResource("personTemplate",name("me"),null);
+		Container container=rootResource.attach("books",ResourceId.createId(name("myBooks"),BookContainerHandler.ID),Container.class);
+		container.addMember(ResourceId.createId(name("book1"),BookHandler.ID));
+		RuntimeInstance.
+			getInstance().
+				getRepositoryRegistry().
+					getResourceRepository().
+						add(container);
+		UnitOfWork.setCurrent(null);
+
+		prepareSession(Action.CHECK, container);
+		ContainerSnapshot books=sut.find(ContainerSnapshot.class,name("myBooks"),BookContainerHandler.class);
+		assertThat(books.members().size(),equalTo(1));
+		try {
+			books.members().iterator().next();
+			fail("Should not skip members that cannot be resolved");
+		} catch (IllegalStateException e) {
+			assertThat(e.getMessage(),containsString("book1"));
+		}
+	}
+
 	private Name<?> name(String id) {
 		return NamingScheme.getDefault().name(id);
 	}
@@ -26,6 +26,8 @@
  */
 package org.ldp4j.application.data;
 
+import static com.google.common.base.Preconditions.checkNotNull;
+
 public final class DataSetFactory {
 
 	private DataSetFactory() {
@@ -34,5 +36,23 @@ public final class DataSetFactory {
 	public static DataSet createDataSet(Name<?> id) {
 		return new MutableDataSet(id);
 	}
+
+	/**
+	 * Create a read-only view of a data set with the individuals and values of
+	 * another data set laid over it. Neither data set is copied, so changes to
+	 * any of them are visible through the view.
+	 *
+	 * @param base
+	 *            the data set at the bottom of the view
+	 * @param overlay
+	 *            the data set laid over the base one. The view takes its name
+	 *            from this data set
+	 * @return the view
+	 */
+	public static DataSet createOverlay(DataSet base, DataSet overlay) {
+		checkNotNull(base,"Base data set cannot be null");
+		checkNotNull(overlay,"Overlay data set cannot be null");
+		return new OverlayDataSet(base,overlay);
+	}
 	
 }
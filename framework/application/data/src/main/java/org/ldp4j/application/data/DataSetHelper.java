@@ -32,7 +32,6 @@ import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.data.Individual;
 import org.ldp4j.application.data.Literal;
 import org.ldp4j.application.data.Property;
-import org.ldp4j.application.data.Value;
 import org.ldp4j.application.data.ValueVisitor;
 
 public final class DataSetHelper {
@@ -53,50 +52,6 @@ public final class DataSetHelper {
 		
 	}
 
-	private static class DataSetIterator{
-	
-		private static final class TripleConsumerAdapter implements ValueVisitor {
-			private final Individual<?, ?> individual;
-			private final DataSetHelper.TripleConsumer consumer;
-			private final URI predicate;
-	
-			private TripleConsumerAdapter(Property property, Individual<?, ?> individual, DataSetHelper.TripleConsumer consumer) {
-				this.predicate  = property.predicate();
-				this.individual = individual;
-				this.consumer   = consumer;
-			}
-	
-			@Override
-			public void visitLiteral(Literal<?> value) {
-				this.consumer.consume(this.individual,this.predicate,value);
-			}
-	
-			@Override
-			public void visitIndividual(Individual<?, ?> value) {
-				this.consumer.consume(this.individual,this.predicate,value);
-			}
-			
-		}
-	
-		private final DataSet dataSet;
-	
-		private DataSetIterator(DataSet dataSet) {
-			this.dataSet = dataSet;
-		}
-		
-		void iterate(DataSetHelper.TripleConsumer processor) {
-			for(Individual<?,?> individual:this.dataSet) {
-				for(Property property:individual) {
-					DataSetIterator.TripleConsumerAdapter visitor = new TripleConsumerAdapter(property,individual, processor);
-					for(Value value:property) {
-						value.accept(visitor);
-					}
-				}
-			}
-		}
-		
-	}
-
 	public static Individual<?, ?> to;
 
 	private final DataSet dataSet;
@@ -105,30 +60,37 @@ public final class DataSetHelper {
 		this.dataSet = dataSet;
 	}
 	
+	private static void moveReference(Individual<?,?> subject, URI predicate, Individual<?,?> from, Individual<?,?> to) {
+		if(subject!=from && subject!=to) {
+			subject.removeValue(predicate,from);
+			subject.addValue(predicate,to);
+		}
+	}
+
 	private void rename(final Individual<?,?> from, final Individual<?,?> to) {
-		DataSetHelper.DataSetIterator iterator = new DataSetIterator(this.dataSet);
-		DataSetHelper.TripleConsumer consumer = new TripleConsumer(){
-			@Override
-			public void consume(Individual<?, ?> subject, URI predicate, Literal<?> object) {
-				if(subject==from) {
-					to.addValue(predicate,object);
-				}
-			}
-			@Override
-			public void consume(Individual<?, ?> subject, URI predicate, Individual<?, ?> object) {
-				if(subject==from) {
-					Value value=object;
-					if(value==from) {
-						value=to;
+		for(final Property property:from) {
+			property.accept(
+				new ValueVisitor() {
+					@Override
+					public void visitLiteral(Literal<?> value) {
+						to.addValue(property.predicate(),value);
+					}
+					@Override
+					public void visitIndividual(Individual<?, ?> value) {
+						to.addValue(property.predicate(),value==from?to:value);
 					}
-					to.addValue(predicate,value);
-				} else if(subject!=to && object==from) {
-					subject.removeValue(predicate, object);
-					subject.addValue(predicate, to);
 				}
+			);
+		}
+		if(from.dataSet() instanceof MutableDataSet) {
+			for(MutableDataSet.Reference reference:((MutableDataSet)from.dataSet()).references(from)) {
+				moveReference(reference.subject(),reference.predicate(),from,to);
+			}
+		} else {
+			for(Property property:DataSetUtils.referencesTo(from)) {
+				moveReference(property.individual(),property.predicate(),from,to);
 			}
-		};
-		iterator.iterate(consumer);
+		}
 		this.dataSet.remove(from);
 	}
 
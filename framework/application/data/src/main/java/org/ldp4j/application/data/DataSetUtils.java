@@ -27,8 +27,10 @@
 package org.ldp4j.application.data;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 public final class DataSetUtils {
@@ -151,6 +153,28 @@ public final class DataSetUtils {
 		return false;
 	}
 
+	/**
+	 * Get the properties of the individuals of the data set of an individual
+	 * that have that individual as value. For the data sets created by the
+	 * {@link DataSetFactory} the cost is proportional to the number of
+	 * references, not to the size of the data set.
+	 */
+	public static Collection<Property> referencesTo(Individual<?,?> individual) {
+		DataSet dataSet=individual.dataSet();
+		if(dataSet instanceof MutableDataSet) {
+			return ((MutableDataSet)dataSet).referencesTo(individual);
+		}
+		List<Property> result=new ArrayList<Property>();
+		for(Individual<?,?> subject:dataSet) {
+			for(Property property:subject) {
+				if(property.values().contains(individual)) {
+					result.add(property);
+				}
+			}
+		}
+		return result;
+	}
+
 	public static void merge(DataSet source, DataSet target) {
 		IndividualFinder finder=new IndividualFinder(target);
 		for(Individual<?, ?> individual:source) {
@@ -26,26 +26,122 @@
  */
 package org.ldp4j.application.data;
 
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Set;
 
 
 final class MutableDataSet implements DataSet {
 
+	/**
+	 * A property of an individual of the data set that has another
+	 * individual of the data set as value.
+	 */
+	static final class Reference {
+
+		private final Individual<?,?> subject;
+		private final URI predicate;
+
+		private Reference(Individual<?,?> subject, URI predicate) {
+			this.subject=subject;
+			this.predicate=predicate;
+		}
+
+		Individual<?,?> subject() {
+			return this.subject;
+		}
+
+		URI predicate() {
+			return this.predicate;
+		}
+
+	}
+
 	private final Name<?> name;
 	private final Map<Object,Individual<?,?>> individuals;
+	private final Map<Individual<?,?>,Map<Individual<?,?>,Set<URI>>> references;
 	private final IndividualFactory factory;
 	
 	public MutableDataSet(Name<?> name) {
 		this.name = name;
 		this.individuals=new LinkedHashMap<Object, Individual<?,?>>();
+		this.references=new HashMap<Individual<?,?>,Map<Individual<?,?>,Set<URI>>>();
 		this.factory=new IndividualFactory(this);
 	}
+
+	/**
+	 * Record that an individual of the data set is the value of a property
+	 * of another individual.
+	 */
+	void addReference(Individual<?,?> subject, URI predicate, Individual<?,?> object) {
+		Map<Individual<?,?>,Set<URI>> subjects=this.references.get(object);
+		if(subjects==null) {
+			subjects=new LinkedHashMap<Individual<?,?>,Set<URI>>();
+			this.references.put(object,subjects);
+		}
+		Set<URI> predicates=subjects.get(subject);
+		if(predicates==null) {
+			predicates=new LinkedHashSet<URI>();
+			subjects.put(subject,predicates);
+		}
+		predicates.add(predicate);
+	}
+
+	void removeReference(Individual<?,?> subject, URI predicate, Individual<?,?> object) {
+		Map<Individual<?,?>,Set<URI>> subjects=this.references.get(object);
+		if(subjects==null) {
+			return;
+		}
+		Set<URI> predicates=subjects.get(subject);
+		if(predicates!=null && predicates.remove(predicate) && predicates.isEmpty()) {
+			subjects.remove(subject);
+			if(subjects.isEmpty()) {
+				this.references.remove(object);
+			}
+		}
+	}
+
+	/**
+	 * Get the subjects and predicates of the properties of the individuals of
+	 * the data set that have the specified individual as value. Unlike
+	 * {@link #referencesTo(Individual)}, no property snapshots are taken, so
+	 * the references can be removed without copying the values of the
+	 * properties.
+	 */
+	List<Reference> references(Individual<?,?> object) {
+		Map<Individual<?,?>,Set<URI>> subjects=this.references.get(object);
+		if(subjects==null) {
+			return Collections.emptyList();
+		}
+		List<Reference> result=new ArrayList<Reference>();
+		for(Entry<Individual<?,?>,Set<URI>> entry:subjects.entrySet()) {
+			for(URI predicate:entry.getValue()) {
+				result.add(new Reference(entry.getKey(),predicate));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Get the properties of the individuals of the data set that have the
+	 * specified individual as value.
+	 */
+	Collection<Property> referencesTo(Individual<?,?> object) {
+		List<Property> result=new ArrayList<Property>();
+		for(Reference reference:references(object)) {
+			result.add(reference.subject().property(reference.predicate()));
+		}
+		return result;
+	}
 	
 	@Override
 	public Name<?> name() {
@@ -150,28 +246,27 @@ final class MutableDataSet implements DataSet {
 	@Override
 	public void remove(final Individual<?, ?> src) {
 		if(this==src.dataSet()) {
-			for(final Individual<?,?> individual:this) {
-				for(final Property property:individual) {
-					for(Value value:property) {
-						value.accept(
-							new ValueVisitor() {
-								@Override
-								public void visitLiteral(Literal<?> value) {
-									// Nothing todo
-								}
-								@Override
-								public void visitIndividual(Individual<?, ?> value) {
-									if(value==src) {
-										individual.removeValue(property.predicate(), value);
-									}
-								}
+			for(Reference reference:references(src)) {
+				reference.subject().removeValue(reference.predicate(),src);
+			}
+			for(final Property property:src) {
+				for(Value value:property) {
+					value.accept(
+						new ValueVisitor() {
+							@Override
+							public void visitLiteral(Literal<?> value) {
+								// Nothing todo
 							}
-						);
-					}
+							@Override
+							public void visitIndividual(Individual<?, ?> value) {
+								removeReference(src,property.predicate(),value);
+							}
+						}
+					);
 				}
-				this.individuals.remove(src.id());
 			}
+			this.individuals.remove(src.id());
 		}
 	}
 
-}
\ No newline at end of file
+}
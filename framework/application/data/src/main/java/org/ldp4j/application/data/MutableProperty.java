@@ -27,31 +27,91 @@
 package org.ldp4j.application.data;
 
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.Locale;
 import java.util.concurrent.atomic.AtomicReference;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+/**
+ * Values of a property of an individual. Property values are modified by a
+ * single writer (serialized by the enclosing {@link PropertyCollection}) and
+ * read through snapshots of the {@link PropertyValues}, which are not
+ * affected by later modifications.
+ */
 final class MutableProperty implements Property {
 
+	/**
+	 * Strategy used for storing the values of properties. It is selected using
+	 * the {@code org.ldp4j.application.data.valueStorage} system property.
+	 */
+	enum ValueStorage {
+		/**
+		 * Insertion-ordered, hash-indexed values. This is the default
+		 * strategy.
+		 */
+		HASHED {
+			@Override
+			PropertyValues newValues() {
+				return PropertyValues.hashed();
+			}
+		},
+		/**
+		 * Copy-on-write arrays.
+		 */
+		COPY_ON_WRITE {
+			@Override
+			PropertyValues newValues() {
+				return PropertyValues.copyOnWrite();
+			}
+		},
+		;
+
+		abstract PropertyValues newValues();
+
+		static ValueStorage fromSystemProperties() {
+			String value=System.getProperty(VALUE_STORAGE_PROPERTY);
+			if(value==null) {
+				return HASHED;
+			}
+			try {
+				return valueOf(value.trim().toUpperCase(Locale.ENGLISH).replace('-','_'));
+			} catch (IllegalArgumentException e) {
+				LOGGER.warn("Unknown value storage '{}': using {}",value,HASHED);
+				return HASHED;
+			}
+		}
+
+	}
+
+	static final String VALUE_STORAGE_PROPERTY="org.ldp4j.application.data.valueStorage";
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(MutableProperty.class);
+
+	private static final ValueStorage STORAGE=ValueStorage.fromSystemProperties();
+
 	private final URI predicate;
 	private final Individual<?,?> individual;
-	private final Set<Value> values;
 	private final MutableDataSet dataSet;
-	
+	private final PropertyValues values;
+
 	MutableProperty(Individual<?,?> individual, MutableDataSet dataSet, URI predicate) {
 		this.individual = individual;
 		this.dataSet = dataSet;
 		this.predicate = predicate;
-		this.values=new CopyOnWriteArraySet<Value>();
+		this.values=STORAGE.newValues();
 	}
-	
+
+	/**
+	 * Create a snapshot of a property.
+	 */
 	MutableProperty(MutableProperty property) {
-		this(property.individual,property.dataSet,property.predicate);
-		this.values.addAll(property.values());
+		this.individual = property.individual;
+		this.dataSet = property.dataSet;
+		this.predicate = property.predicate;
+		this.values=property.values.snapshot();
 	}
 
 	private MutableDataSet dataSet() {
@@ -75,7 +135,7 @@ final class MutableProperty implements Property {
 
 	@Override
 	public Collection<Value> values() {
-		return new ArrayList<Value>(this.values);
+		return this.values.snapshot().asCollection();
 	}
 
 	@Override
@@ -85,7 +145,7 @@ final class MutableProperty implements Property {
 
 	@Override
 	public boolean hasValues() {
-		return !this.values.isEmpty();
+		return this.values.size()>0;
 	}
 
 	@Override
@@ -102,7 +162,8 @@ final class MutableProperty implements Property {
 
 	@Override
 	public boolean hasIdentifiedIndividual(Object id) {
-		return DataSetUtils.hasIdentifiedIndividual(id, this);
+		Individual<?,?> value=dataSet().individualOfId(id);
+		return value!=null && this.values.contains(value);
 	}
 
 	void addValue(Value value) {
@@ -127,7 +188,9 @@ final class MutableProperty implements Property {
 					if(target!=value) {
 						mergeIndividuals(value,target);
 					}
-					values.add(target);
+					if(MutableProperty.this.values.add(target)) {
+						dataSet().addReference(MutableProperty.this.individual,MutableProperty.this.predicate,target);
+					}
 				}
 				private Individual<?, ?> addIndividualToDataset(Individual<?, ?> value) {
 					final AtomicReference<Individual<?,?>> newIndividual=new AtomicReference<Individual<?,?>>();
@@ -161,7 +224,9 @@ final class MutableProperty implements Property {
 	}
 
 	void removeValue(Value value) {
-		this.values.remove(value);
+		if(this.values.remove(value) && value instanceof Individual<?,?>) {
+			dataSet().removeReference(this.individual,this.predicate,(Individual<?,?>)value);
+		}
 	}
 
 }
\ No newline at end of file
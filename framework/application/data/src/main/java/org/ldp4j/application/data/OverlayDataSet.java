@@ -0,0 +1,469 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-data:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-data-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.data;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.common.base.Function;
+import com.google.common.base.Predicate;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+
+/**
+ * Read-only view of a data set with the individuals and property values of
+ * another data set laid over it. The view is backed by both data sets, which
+ * are not copied: individuals, properties and values are combined as they
+ * are accessed. Individuals and individual values are presented as views of
+ * this data set, so that navigating the view yields the same triples as
+ * merging the overlay into a copy of the base data set.
+ */
+final class OverlayDataSet implements DataSet {
+
+	private abstract static class OverlayIndividual<T,S extends Individual<T,S>> implements Individual<T,S> {
+
+		private final OverlayDataSet dataSet;
+		private final T id;
+		private final Individual<?,?> base;
+		private final Individual<?,?> overlay;
+
+		private OverlayIndividual(OverlayDataSet dataSet, T id, Individual<?,?> base, Individual<?,?> overlay) {
+			this.dataSet=dataSet;
+			this.id=id;
+			this.base=base;
+			this.overlay=overlay;
+		}
+
+		private static Property property(Individual<?,?> individual, URI propertyId) {
+			return individual==null?null:individual.property(propertyId);
+		}
+
+		@Override
+		public final DataSet dataSet() {
+			return this.dataSet;
+		}
+
+		@Override
+		public final T id() {
+			return this.id;
+		}
+
+		@Override
+		public final int numberOfProperties() {
+			return propertyIds().size();
+		}
+
+		@Override
+		public final boolean hasProperties() {
+			return
+				(this.base!=null && this.base.hasProperties()) ||
+				(this.overlay!=null && this.overlay.hasProperties());
+		}
+
+		@Override
+		public final Collection<? extends Property> properties() {
+			List<Property> result=new ArrayList<Property>();
+			for(URI propertyId:propertyIds()) {
+				result.add(property(propertyId));
+			}
+			return result;
+		}
+
+		@Override
+		public final boolean hasProperty(URI propertyId) {
+			return
+				(this.base!=null && this.base.hasProperty(propertyId)) ||
+				(this.overlay!=null && this.overlay.hasProperty(propertyId));
+		}
+
+		@Override
+		public final Property property(URI propertyId) {
+			Property baseProperty=property(this.base,propertyId);
+			Property overlayProperty=property(this.overlay,propertyId);
+			if(baseProperty==null && overlayProperty==null) {
+				return null;
+			}
+			return new OverlayProperty(this,propertyId,baseProperty,overlayProperty);
+		}
+
+		@Override
+		public final S addValue(URI propertyId, Value value) {
+			throw new UnsupportedOperationException("Overlay data sets cannot be modified");
+		}
+
+		@Override
+		public final S removeValue(URI propertyId, Value value) {
+			throw new UnsupportedOperationException("Overlay data sets cannot be modified");
+		}
+
+		@Override
+		public final Set<URI> propertyIds() {
+			Set<URI> result=new LinkedHashSet<URI>();
+			if(this.base!=null) {
+				result.addAll(this.base.propertyIds());
+			}
+			if(this.overlay!=null) {
+				result.addAll(this.overlay.propertyIds());
+			}
+			return result;
+		}
+
+		@Override
+		public final Iterator<Property> iterator() {
+			return Lists.<Property>newArrayList(properties()).iterator();
+		}
+
+		@Override
+		public final void accept(ValueVisitor visitor) {
+			visitor.visitIndividual(this);
+		}
+
+		@Override
+		public final String toString() {
+			return "Individual("+FormatUtils.formatIndividualId(this)+")";
+		}
+
+	}
+
+	private static final class OverlayManagedIndividual extends OverlayIndividual<ManagedIndividualId,ManagedIndividual> implements ManagedIndividual {
+
+		private OverlayManagedIndividual(OverlayDataSet dataSet, ManagedIndividualId id, Individual<?,?> base, Individual<?,?> overlay) {
+			super(dataSet,id,base,overlay);
+		}
+
+		@Override
+		public Name<?> name() {
+			return id().name();
+		}
+
+		@Override
+		public String managerId() {
+			return id().managerId();
+		}
+
+		@Override
+		public void accept(IndividualVisitor visitor) {
+			visitor.visitManagedIndividual(this);
+		}
+
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static final class OverlayLocalIndividual extends OverlayIndividual<Name,LocalIndividual> implements LocalIndividual {
+
+		private OverlayLocalIndividual(OverlayDataSet dataSet, Name id, Individual<?,?> base, Individual<?,?> overlay) {
+			super(dataSet,id,base,overlay);
+		}
+
+		@Override
+		public Name<?> name() {
+			return id();
+		}
+
+		@Override
+		public void accept(IndividualVisitor visitor) {
+			visitor.visitLocalIndividual(this);
+		}
+
+	}
+
+	private static final class OverlayExternalIndividual extends OverlayIndividual<URI,ExternalIndividual> implements ExternalIndividual {
+
+		private OverlayExternalIndividual(OverlayDataSet dataSet, URI id, Individual<?,?> base, Individual<?,?> overlay) {
+			super(dataSet,id,base,overlay);
+		}
+
+		@Override
+		public URI location() {
+			return id();
+		}
+
+		@Override
+		public void accept(IndividualVisitor visitor) {
+			visitor.visitExternalIndividual(this);
+		}
+
+	}
+
+	private static final class OverlayProperty implements Property {
+
+		private final OverlayIndividual<?,?> individual;
+		private final URI predicate;
+		private final Property base;
+		private final Property overlay;
+
+		private OverlayProperty(OverlayIndividual<?,?> individual, URI predicate, Property base, Property overlay) {
+			this.individual=individual;
+			this.predicate=predicate;
+			this.base=base;
+			this.overlay=overlay;
+		}
+
+		@Override
+		public Individual<?,?> individual() {
+			return this.individual;
+		}
+
+		@Override
+		public URI predicate() {
+			return this.predicate;
+		}
+
+		/**
+		 * Iterate the values of the base property followed by those values of
+		 * the overlay property that are not already included in the base
+		 * property, that is, neither individuals with the same identifier nor
+		 * literals with the same value. Individual values are replaced by
+		 * their views.
+		 */
+		@Override
+		public Iterator<Value> iterator() {
+			final OverlayDataSet dataSet=this.individual.dataSet;
+			Function<Value,Value> toView=new Function<Value,Value>() {
+				@Override
+				public Value apply(Value value) {
+					return dataSet.view(value);
+				}
+			};
+			Iterator<Value> result=null;
+			if(this.base==null) {
+				result=Iterators.transform(this.overlay.iterator(),toView);
+			} else if(this.overlay==null) {
+				result=Iterators.transform(this.base.iterator(),toView);
+			} else {
+				Iterator<Value> added=
+					Iterators.filter(
+						this.overlay.iterator(),
+						new Predicate<Value>() {
+							@Override
+							public boolean apply(Value value) {
+								if(value instanceof Individual<?,?>) {
+									return !base.hasIdentifiedIndividual(((Individual<?,?>)value).id());
+								}
+								return !(value instanceof Literal<?>) || !base.hasLiteralValue((Literal<?>)value);
+							}
+						}
+					);
+				result=Iterators.transform(Iterators.concat(this.base.iterator(),added),toView);
+			}
+			return result;
+		}
+
+		@Override
+		public Collection<? extends Value> values() {
+			return Lists.newArrayList(iterator());
+		}
+
+		@Override
+		public int numberOfValues() {
+			if(this.base==null) {
+				return this.overlay.numberOfValues();
+			} else if(this.overlay==null) {
+				return this.base.numberOfValues();
+			}
+			return Iterators.size(iterator());
+		}
+
+		@Override
+		public boolean hasValues() {
+			return
+				(this.base!=null && this.base.hasValues()) ||
+				(this.overlay!=null && this.overlay.hasValues());
+		}
+
+		@Override
+		public void accept(ValueVisitor visitor) {
+			for(Iterator<Value> it=iterator();it.hasNext();) {
+				it.next().accept(visitor);
+			}
+		}
+
+		@Override
+		public boolean hasLiteralValue(Literal<?> value) {
+			return DataSetUtils.hasLiteral(value,this);
+		}
+
+		@Override
+		public boolean hasIdentifiedIndividual(Object id) {
+			return
+				(this.base!=null && this.base.hasIdentifiedIndividual(id)) ||
+				(this.overlay!=null && this.overlay.hasIdentifiedIndividual(id));
+		}
+
+	}
+
+	private final class ViewFactory implements IndividualVisitor {
+
+		private final Individual<?,?> base;
+		private final Individual<?,?> overlay;
+		private Individual<?,?> view;
+
+		private ViewFactory(Individual<?,?> base, Individual<?,?> overlay) {
+			this.base=base;
+			this.overlay=overlay;
+		}
+
+		private Individual<?,?> create() {
+			(this.base!=null?this.base:this.overlay).accept(this);
+			return this.view;
+		}
+
+		@Override
+		public void visitManagedIndividual(ManagedIndividual individual) {
+			this.view=new OverlayManagedIndividual(OverlayDataSet.this,individual.id(),this.base,this.overlay);
+		}
+
+		@Override
+		public void visitLocalIndividual(LocalIndividual individual) {
+			this.view=new OverlayLocalIndividual(OverlayDataSet.this,individual.id(),this.base,this.overlay);
+		}
+
+		@Override
+		public void visitExternalIndividual(ExternalIndividual individual) {
+			this.view=new OverlayExternalIndividual(OverlayDataSet.this,individual.id(),this.base,this.overlay);
+		}
+
+	}
+
+	private final DataSet base;
+	private final DataSet overlay;
+	private final Map<Object,Individual<?,?>> views;
+
+	OverlayDataSet(DataSet base, DataSet overlay) {
+		this.base=base;
+		this.overlay=overlay;
+		this.views=new HashMap<Object,Individual<?,?>>();
+	}
+
+	private synchronized Individual<?,?> view(Object id) {
+		Individual<?,?> result=this.views.get(id);
+		if(result==null) {
+			Individual<?,?> baseIndividual=this.base.individualOfId(id);
+			Individual<?,?> overlayIndividual=this.overlay.individualOfId(id);
+			if(baseIndividual==null && overlayIndividual==null) {
+				return null;
+			}
+			result=new ViewFactory(baseIndividual,overlayIndividual).create();
+			this.views.put(id,result);
+		}
+		return result;
+	}
+
+	private Value view(Value value) {
+		if(value instanceof Individual<?,?>) {
+			Individual<?,?> result=view(((Individual<?,?>)value).id());
+			if(result!=null) {
+				return result;
+			}
+		}
+		return value;
+	}
+
+	@Override
+	public Name<?> name() {
+		return this.overlay.name();
+	}
+
+	@Override
+	public int numberOfIndividuals() {
+		return individualIds().size();
+	}
+
+	@Override
+	public boolean hasIndividuals() {
+		return this.base.hasIndividuals() || this.overlay.hasIndividuals();
+	}
+
+	@Override
+	public Collection<? extends Individual<?,?>> individuals() {
+		List<Individual<?,?>> result=new ArrayList<Individual<?,?>>();
+		for(Object id:individualIds()) {
+			result.add(view(id));
+		}
+		return result;
+	}
+
+	@Override
+	public Set<Object> individualIds() {
+		Set<Object> result=new LinkedHashSet<Object>(this.base.individualIds());
+		result.addAll(this.overlay.individualIds());
+		return result;
+	}
+
+	@Override
+	public boolean hasIndividual(Object id) {
+		return this.base.hasIndividual(id) || this.overlay.hasIndividual(id);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public <T> Individual<T,?> individualOfId(T id) {
+		return (Individual<T,?>)view(id);
+	}
+
+	@Override
+	public <T, S extends Individual<T, S>> S individual(T id, Class<? extends S> clazz) {
+		Individual<T,?> result=individualOfId(id);
+		if(result==null || !clazz.isInstance(result)) {
+			throw new UnsupportedOperationException("Overlay data sets cannot be modified");
+		}
+		return clazz.cast(result);
+	}
+
+	@Override
+	public Iterator<Individual<?,?>> iterator() {
+		return Lists.<Individual<?,?>>newArrayList(individuals()).iterator();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for(Individual<?,?> individual:this) {
+			if(individual.hasProperties()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public void remove(Individual<?,?> src) {
+		throw new UnsupportedOperationException("Overlay data sets cannot be modified");
+	}
+
+	@Override
+	public String toString() {
+		return "DataSet("+FormatUtils.formatName(name())+") {base="+this.base+", overlay="+this.overlay+"}";
+	}
+
+}
@@ -0,0 +1,344 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-data:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-data-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.data;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Storage for the values of a property. The values are modified by a single
+ * writer and read through snapshots, which are not affected by later
+ * modifications.
+ */
+abstract class PropertyValues implements Iterable<Value> {
+
+	private static final Value[] NO_VALUES=new Value[0];
+
+	/**
+	 * Insertion-ordered values kept in an append-only array of slots, with a
+	 * concurrent hash index from values to slots. A snapshot covers the slots
+	 * in use when it is taken, so values are always appended in place.
+	 * Removed values leave an empty slot behind, and are removed in place
+	 * unless a snapshot of the current slots has been taken, in which case
+	 * the slots and the index are compacted into fresh copies first. The
+	 * slots are also compacted once most of them are empty.
+	 */
+	private static final class Hashed extends PropertyValues {
+
+		private static final int INITIAL_CAPACITY=4;
+
+		private Value[] slots;
+		private ConcurrentMap<Value,Integer> positions;
+		private int used;
+		private int live;
+		private boolean shared;
+
+		private Hashed() {
+			this.slots=new Value[INITIAL_CAPACITY];
+			this.positions=new ConcurrentHashMap<Value,Integer>();
+		}
+
+		private void compact() {
+			Value[] newSlots=new Value[Math.max(INITIAL_CAPACITY,this.live*2)];
+			ConcurrentMap<Value,Integer> newPositions=new ConcurrentHashMap<Value,Integer>();
+			int position=0;
+			for(int i=0;i<this.used;i++) {
+				Value value=this.slots[i];
+				if(value!=null) {
+					newSlots[position]=value;
+					newPositions.put(value,position);
+					position++;
+				}
+			}
+			this.slots=newSlots;
+			this.positions=newPositions;
+			this.used=position;
+			this.shared=false;
+		}
+
+		@Override
+		int size() {
+			return this.live;
+		}
+
+		@Override
+		boolean contains(Value value) {
+			return this.positions.containsKey(value);
+		}
+
+		@Override
+		boolean add(Value value) {
+			if(this.positions.containsKey(value)) {
+				return false;
+			}
+			if(this.used==this.slots.length) {
+				this.slots=Arrays.copyOf(this.slots,this.used*2);
+			}
+			this.slots[this.used]=value;
+			this.positions.put(value,this.used);
+			this.used++;
+			this.live++;
+			return true;
+		}
+
+		@Override
+		boolean remove(Value value) {
+			if(!this.positions.containsKey(value)) {
+				return false;
+			}
+			if(this.shared) {
+				compact();
+			}
+			int position=this.positions.remove(value);
+			this.slots[position]=null;
+			this.live--;
+			if(this.used>INITIAL_CAPACITY && this.live<this.used/2) {
+				compact();
+			}
+			return true;
+		}
+
+		@Override
+		PropertyValues snapshot() {
+			this.shared=true;
+			return new Snapshot(this.slots,this.used,this.live,this.positions);
+		}
+
+	}
+
+	/**
+	 * Values kept in an array that is replaced on every modification.
+	 */
+	private static final class CopyOnWrite extends PropertyValues {
+
+		private Value[] values;
+
+		private CopyOnWrite() {
+			this.values=NO_VALUES;
+		}
+
+		private int indexOf(Value value) {
+			for(int i=0;i<this.values.length;i++) {
+				if(this.values[i].equals(value)) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		int size() {
+			return this.values.length;
+		}
+
+		@Override
+		boolean contains(Value value) {
+			return indexOf(value)>=0;
+		}
+
+		@Override
+		boolean add(Value value) {
+			if(contains(value)) {
+				return false;
+			}
+			Value[] newValues=Arrays.copyOf(this.values,this.values.length+1);
+			newValues[this.values.length]=value;
+			this.values=newValues;
+			return true;
+		}
+
+		@Override
+		boolean remove(Value value) {
+			int index=indexOf(value);
+			if(index<0) {
+				return false;
+			}
+			Value[] newValues=new Value[this.values.length-1];
+			System.arraycopy(this.values,0,newValues,0,index);
+			System.arraycopy(this.values,index+1,newValues,index,newValues.length-index);
+			this.values=newValues;
+			return true;
+		}
+
+		@Override
+		PropertyValues snapshot() {
+			return new Snapshot(this.values,this.values.length,this.values.length,null);
+		}
+
+	}
+
+	/**
+	 * Read-only view of the first slots of an array. If an index is
+	 * available, only the positions below the limit of the snapshot are
+	 * taken into account, as later values may have been added to it.
+	 */
+	private static final class Snapshot extends PropertyValues {
+
+		private final Value[] slots;
+		private final int limit;
+		private final int size;
+		private final ConcurrentMap<Value,Integer> positions;
+
+		private Snapshot(Value[] slots, int limit, int size, ConcurrentMap<Value,Integer> positions) {
+			this.slots=slots;
+			this.limit=limit;
+			this.size=size;
+			this.positions=positions;
+		}
+
+		@Override
+		int size() {
+			return this.size;
+		}
+
+		@Override
+		boolean contains(Value value) {
+			if(this.positions!=null) {
+				Integer position=this.positions.get(value);
+				return position!=null && position<this.limit;
+			}
+			for(int i=0;i<this.limit;i++) {
+				if(value.equals(this.slots[i])) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		boolean add(Value value) {
+			throw new UnsupportedOperationException("Snapshots cannot be modified");
+		}
+
+		@Override
+		boolean remove(Value value) {
+			throw new UnsupportedOperationException("Snapshots cannot be modified");
+		}
+
+		@Override
+		PropertyValues snapshot() {
+			return this;
+		}
+
+		@Override
+		public Iterator<Value> iterator() {
+			return new SlotIterator(this.slots,this.limit);
+		}
+
+	}
+
+	private static final class SlotIterator implements Iterator<Value> {
+
+		private final Value[] slots;
+		private final int limit;
+		private int next;
+
+		private SlotIterator(Value[] slots, int limit) {
+			this.slots=slots;
+			this.limit=limit;
+			this.next=skipEmpty(0);
+		}
+
+		private int skipEmpty(int from) {
+			int position=from;
+			while(position<this.limit && this.slots[position]==null) {
+				position++;
+			}
+			return position;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return this.next<this.limit;
+		}
+
+		@Override
+		public Value next() {
+			if(!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Value result=this.slots[this.next];
+			this.next=skipEmpty(this.next+1);
+			return result;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Removal not supported");
+		}
+
+	}
+
+	abstract int size();
+
+	abstract boolean contains(Value value);
+
+	abstract boolean add(Value value);
+
+	abstract boolean remove(Value value);
+
+	/**
+	 * Get a read-only snapshot of the current values.
+	 */
+	abstract PropertyValues snapshot();
+
+	@Override
+	public Iterator<Value> iterator() {
+		return snapshot().iterator();
+	}
+
+	final Collection<Value> asCollection() {
+		return new AbstractCollection<Value>() {
+			@Override
+			public Iterator<Value> iterator() {
+				return PropertyValues.this.iterator();
+			}
+			@Override
+			public int size() {
+				return PropertyValues.this.size();
+			}
+			@Override
+			public boolean contains(Object o) {
+				return o instanceof Value && PropertyValues.this.contains((Value)o);
+			}
+		};
+	}
+
+	static PropertyValues hashed() {
+		return new Hashed();
+	}
+
+	static PropertyValues copyOnWrite() {
+		return new CopyOnWrite();
+	}
+
+}
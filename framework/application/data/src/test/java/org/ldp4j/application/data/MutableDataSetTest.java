@@ -0,0 +1,131 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-data:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-data-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.net.URI;
+import java.util.Collection;
+
+import org.junit.Test;
+
+public class MutableDataSetTest {
+
+	private static final int INDIVIDUALS=1000;
+
+	private static final URI KNOWS=URI.create("http://www.example.org/vocab#knows");
+	private static final URI LIKES=URI.create("http://www.example.org/vocab#likes");
+
+	private Name<?> name(String id) {
+		return NamingScheme.getDefault().name(id);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Individual<?,?> local(DataSet dataSet, String id) {
+		return dataSet.individual((Name)name(id),LocalIndividual.class);
+	}
+
+	@Test
+	public void testTracksReferences() throws Exception {
+		DataSet dataSet=DataSetFactory.createDataSet(name("data"));
+		Individual<?,?> target=local(dataSet,"target");
+		Individual<?,?> first=local(dataSet,"first");
+		Individual<?,?> second=local(dataSet,"second");
+		first.addValue(KNOWS,target);
+		first.addValue(LIKES,target);
+		second.addValue(KNOWS,target);
+		assertThat(DataSetUtils.referencesTo(target).size(),equalTo(3));
+		first.removeValue(LIKES,target);
+		Collection<Property> references=DataSetUtils.referencesTo(target);
+		assertThat(references.size(),equalTo(2));
+		for(Property property:references) {
+			assertThat(property.predicate(),equalTo(KNOWS));
+		}
+	}
+
+	@Test
+	public void testRemoveCleansReferences() throws Exception {
+		DataSet dataSet=DataSetFactory.createDataSet(name("data"));
+		Individual<?,?> target=local(dataSet,"target");
+		Individual<?,?> other=local(dataSet,"other");
+		for(int i=0;i<INDIVIDUALS;i++) {
+			Individual<?,?> individual=local(dataSet,"individual"+i);
+			individual.addValue(LIKES,other);
+			if(i%100==0) {
+				individual.addValue(KNOWS,target);
+			}
+		}
+		target.addValue(KNOWS,other);
+		dataSet.remove(target);
+		assertThat(dataSet.individualOfId(target.id()),nullValue());
+		assertThat(DataSetUtils.referencesTo(target).isEmpty(),equalTo(true));
+		assertThat(local(dataSet,"individual0").property(KNOWS),nullValue());
+		assertThat(DataSetUtils.referencesTo(other).size(),equalTo(INDIVIDUALS));
+	}
+
+	@Test
+	public void testRemoveValuesOfSubjectWithManyValues() throws Exception {
+		DataSet dataSet=DataSetFactory.createDataSet(name("data"));
+		Individual<?,?> subject=local(dataSet,"subject");
+		Individual<?,?>[] values=new Individual<?,?>[10*INDIVIDUALS];
+		for(int i=0;i<values.length;i++) {
+			values[i]=local(dataSet,"value"+i);
+			subject.addValue(KNOWS,values[i]);
+		}
+		for(int i=0;i<values.length;i++) {
+			dataSet.remove(values[i]);
+			assertThat(DataSetUtils.referencesTo(values[i]).isEmpty(),equalTo(true));
+			if(i==values.length/2) {
+				assertThat(subject.property(KNOWS).numberOfValues(),equalTo(values.length-i-1));
+				assertThat(subject.property(KNOWS).hasIdentifiedIndividual(values[i].id()),equalTo(false));
+				assertThat(subject.property(KNOWS).hasIdentifiedIndividual(values[i+1].id()),equalTo(true));
+			}
+		}
+		assertThat(subject.property(KNOWS),nullValue());
+		assertThat(dataSet.numberOfIndividuals(),equalTo(1));
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@Test
+	public void testReplaceMovesReferences() throws Exception {
+		DataSet dataSet=DataSetFactory.createDataSet(name("data"));
+		Individual<?,?> source=local(dataSet,"source");
+		Individual<?,?> subject=local(dataSet,"subject");
+		subject.addValue(KNOWS,source);
+		source.addValue(LIKES,source);
+		source.addValue(KNOWS,DataSetUtils.newLiteral("value"));
+		Individual<?,?> target=DataSetHelper.newInstance(dataSet).replace(source.id(),(Name)name("target"),LocalIndividual.class);
+		assertThat(dataSet.individualOfId(source.id()),nullValue());
+		assertThat(subject.property(KNOWS).hasIdentifiedIndividual(target.id()),equalTo(true));
+		assertThat(target.property(LIKES).hasIdentifiedIndividual(target.id()),equalTo(true));
+		assertThat(target.property(KNOWS).numberOfValues(),equalTo(1));
+		assertThat(DataSetUtils.referencesTo(target).size(),equalTo(2));
+	}
+
+}
@@ -0,0 +1,110 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-data:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-data-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.data;
+
+import java.net.URI;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures the cost of building and iterating a property with many values.
+ * The benchmark is not part of the unit test suite and is run using the
+ * 'benchmarks' profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations=5,time=1,timeUnit=TimeUnit.SECONDS)
+@Measurement(iterations=10,time=1,timeUnit=TimeUnit.SECONDS)
+@Fork(1)
+public class MutablePropertyBenchmark {
+
+	private static final int VALUES=100000;
+
+	private static final URI PREDICATE=URI.create("http://www.example.org/vocab#value");
+
+	private Individual<?,?> subject;
+
+	@SuppressWarnings("rawtypes")
+	private static Individual<?,?> local(DataSet dataSet, String id) {
+		return dataSet.individual((Name)NamingScheme.getDefault().name(id),LocalIndividual.class);
+	}
+
+	private static Individual<?,?> populate() {
+		DataSet dataSet=DataSetFactory.createDataSet(NamingScheme.getDefault().name("data"));
+		Individual<?,?> result=local(dataSet,"subject");
+		for(int i=0;i<VALUES;i++) {
+			result.addValue(PREDICATE,local(dataSet,"value"+i));
+		}
+		return result;
+	}
+
+	@Setup
+	public void setUp() {
+		this.subject=populate();
+	}
+
+	@Benchmark
+	public Individual<?,?> build() {
+		return populate();
+	}
+
+	@Benchmark
+	public int iterate() {
+		int count=0;
+		for(Property property:this.subject) {
+			for(Iterator<Value> it=property.iterator();it.hasNext();it.next()) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Test
+	public void runBenchmarks() throws Exception {
+		new Runner(
+			new OptionsBuilder().
+				include(getClass().getName()).
+				build()).
+			run();
+	}
+
+}
@@ -0,0 +1,150 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-data:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-data-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.net.URI;
+import java.util.Iterator;
+
+import org.junit.Test;
+
+public class MutablePropertyTest {
+
+	private static final int VALUES=1000;
+
+	private static final URI PREDICATE=URI.create("http://www.example.org/vocab#value");
+
+	private Name<?> name(String id) {
+		return NamingScheme.getDefault().name(id);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private Individual<?,?> local(DataSet dataSet, String id) {
+		return dataSet.individual((Name)name(id),LocalIndividual.class);
+	}
+
+	private Individual<?,?> subject(DataSet dataSet) {
+		return local(dataSet,"subject");
+	}
+
+	@Test
+	public void testValuesKeepInsertionOrder() throws Exception {
+		DataSet dataSet=DataSetFactory.createDataSet(name("data"));
+		Individual<?,?> subject=subject(dataSet);
+		for(int i=0;i<10;i++) {
+			subject.addValue(PREDICATE,DataSetUtils.newLiteral(i));
+		}
+		int expected=0;
+		for(Value value:subject.property(PREDICATE)) {
+			assertThat(((Literal<?>)value).get(),equalTo((Object)expected++));
+		}
+		assertThat(expected,equalTo(10));
+	}
+
+	@Test
+	public void testSnapshotsAreNotAffectedByLaterModifications() throws Exception {
+		DataSet dataSet=DataSetFactory.createDataSet(name("data"));
+		Individual<?,?> subject=subject(dataSet);
+		Individual<?,?> first=local(dataSet,"first");
+		Individual<?,?> second=local(dataSet,"second");
+		subject.addValue(PREDICATE,first);
+		Property snapshot=subject.property(PREDICATE);
+		Iterator<Value> iterator=snapshot.iterator();
+		subject.addValue(PREDICATE,second);
+		subject.removeValue(PREDICATE,first);
+		assertThat(iterator.next(),equalTo((Value)first));
+		assertThat(snapshot.numberOfValues(),equalTo(1));
+		assertThat(snapshot.hasIdentifiedIndividual(first.id()),equalTo(true));
+		Property current=subject.property(PREDICATE);
+		assertThat(current.numberOfValues(),equalTo(1));
+		assertThat(current.hasIdentifiedIndividual(second.id()),equalTo(true));
+		assertThat(current.hasIdentifiedIndividual(first.id()),equalTo(false));
+	}
+
+	@Test
+	public void testBuildAndIterateLargeProperty() throws Exception {
+		DataSet dataSet=DataSetFactory.createDataSet(name("data"));
+		Individual<?,?> subject=subject(dataSet);
+		for(int i=0;i<VALUES;i++) {
+			subject.addValue(PREDICATE,local(dataSet,"value"+i));
+		}
+		int count=0;
+		for(Property property:subject) {
+			for(Iterator<Value> it=property.iterator();it.hasNext();it.next()) {
+				count++;
+			}
+		}
+		assertThat(count,equalTo(VALUES));
+		assertThat(subject.property(PREDICATE).hasIdentifiedIndividual(name("value"+(VALUES-1))),equalTo(true));
+	}
+
+	@Test
+	public void testInterleavedReadsAndModifications() throws Exception {
+		DataSet dataSet=DataSetFactory.createDataSet(name("data"));
+		Individual<?,?> subject=subject(dataSet);
+		Value[] values=new Value[VALUES];
+		for(int i=0;i<VALUES;i++) {
+			values[i]=DataSetUtils.newLiteral(i);
+		}
+		subject.addValue(PREDICATE,values[0]);
+		Property first=subject.property(PREDICATE);
+		Property middle=null;
+		for(int i=1;i<VALUES;i++) {
+			Property snapshot=subject.property(PREDICATE);
+			int count=0;
+			for(Value value:snapshot) {
+				assertThat(value,equalTo(values[count++]));
+			}
+			assertThat(count,equalTo(i));
+			if(i==VALUES/2) {
+				middle=snapshot;
+			}
+			subject.addValue(PREDICATE,values[i]);
+		}
+		for(int i=0;i<VALUES;i+=2) {
+			Property snapshot=subject.property(PREDICATE);
+			subject.removeValue(PREDICATE,values[i]);
+			assertThat(snapshot.values().contains(values[i]),equalTo(true));
+			assertThat(subject.property(PREDICATE).values().contains(values[i]),equalTo(false));
+		}
+		assertThat(first.numberOfValues(),equalTo(1));
+		assertThat(first.values().contains(values[1]),equalTo(false));
+		assertThat(middle.numberOfValues(),equalTo(VALUES/2));
+		assertThat(middle.values().contains(values[VALUES/2]),equalTo(false));
+		assertThat(middle.values().contains(values[0]),equalTo(true));
+		Property current=subject.property(PREDICATE);
+		assertThat(current.numberOfValues(),equalTo(VALUES/2));
+		int expected=1;
+		for(Value value:current) {
+			assertThat(value,equalTo(values[expected]));
+			expected+=2;
+		}
+	}
+
+}
@@ -0,0 +1,115 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-application-data:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-application-data-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.application.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.net.URI;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class OverlayDataSetTest {
+
+	private static final URI TYPE=URI.create("http://www.w3.org/1999/02/22-rdf-syntax-ns#type");
+	private static final URI KNOWS=URI.create("http://www.example.org/vocab#knows");
+	private static final URI NAME=URI.create("http://www.example.org/vocab#name");
+
+	private DataSet base;
+	private DataSet overlay;
+	private DataSet view;
+	private ManagedIndividualId selfId;
+	private ManagedIndividualId friendId;
+
+	private Name<?> name(String id) {
+		return NamingScheme.getDefault().name(id);
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		selfId=ManagedIndividualId.createId(name("self"),"template");
+		friendId=ManagedIndividualId.createId(name("friend"),"template");
+		base=DataSetFactory.createDataSet(name("base"));
+		Individual<?,?> self=base.individual(selfId,ManagedIndividual.class);
+		Individual<?,?> friend=base.individual(friendId,ManagedIndividual.class);
+		self.addValue(NAME,DataSetUtils.newLiteral("self"));
+		self.addValue(KNOWS,friend);
+		friend.addValue(NAME,DataSetUtils.newLiteral("friend"));
+		overlay=DataSetFactory.createDataSet(name("overlay"));
+		Individual<?,?> metadata=overlay.individual(selfId,ManagedIndividual.class);
+		metadata.addValue(TYPE,overlay.individual(URI.create("http://www.w3.org/ns/ldp#Resource"),ExternalIndividual.class));
+		metadata.addValue(KNOWS,overlay.individual(friendId,ManagedIndividual.class));
+		view=DataSetFactory.createOverlay(base,overlay);
+	}
+
+	@Test
+	public void testCombinesIndividualsAndProperties() throws Exception {
+		assertThat(view.name(),equalTo((Object)name("overlay")));
+		assertThat(view.individualIds(),contains((Object)selfId,friendId,URI.create("http://www.w3.org/ns/ldp#Resource")));
+		Individual<?,?> self=view.individualOfId(selfId);
+		assertThat(self,instanceOf(ManagedIndividual.class));
+		assertThat(self.dataSet(),sameInstance(view));
+		assertThat(self.propertyIds(),contains(NAME,KNOWS,TYPE));
+		assertThat(self.property(KNOWS).numberOfValues(),equalTo(1));
+	}
+
+	@Test
+	public void testDuplicateLiteralsAreIncludedOnce() throws Exception {
+		Individual<?,?> metadata=overlay.individualOfId(selfId);
+		metadata.addValue(NAME,DataSetUtils.newLiteral("self"));
+		metadata.addValue(NAME,DataSetUtils.newLiteral("me"));
+		Property name=view.individualOfId(selfId).property(NAME);
+		assertThat(name.numberOfValues(),equalTo(2));
+		assertThat(name.values().size(),equalTo(2));
+		assertThat(name.hasLiteralValue(DataSetUtils.newLiteral("self")),equalTo(true));
+		assertThat(name.hasLiteralValue(DataSetUtils.newLiteral("me")),equalTo(true));
+	}
+
+	@Test
+	public void testIndividualValuesAreViews() throws Exception {
+		Individual<?,?> self=view.individualOfId(selfId);
+		Value value=self.property(KNOWS).iterator().next();
+		assertThat(value,sameInstance((Value)view.individualOfId(friendId)));
+		assertThat(((Individual<?,?>)value).property(NAME).numberOfValues(),equalTo(1));
+	}
+
+	@Test
+	public void testReflectsChangesInLayers() throws Exception {
+		overlay.individual(friendId,ManagedIndividual.class).addValue(NAME,DataSetUtils.newLiteral("buddy"));
+		assertThat(view.individualOfId(friendId).property(NAME).numberOfValues(),equalTo(2));
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testCannotBeModified() throws Exception {
+		view.individualOfId(selfId).addValue(NAME,DataSetUtils.newLiteral("other"));
+	}
+
+}
@@ -26,6 +26,9 @@
  */
 package org.ldp4j.application.engine.context;
 
+import java.util.Collection;
+import java.util.Map;
+
 import org.ldp4j.application.data.ManagedIndividualId;
 import org.ldp4j.application.engine.lifecycle.ApplicationLifecycleListener;
 
@@ -41,6 +44,13 @@ public interface ApplicationContext {
 
 	PublicResource resolveResource(ManagedIndividualId id);
 
+	/**
+	 * Resolve the paths of the endpoints of a group of managed individuals
+	 * at once, without materializing their public resources. Individuals
+	 * that have no endpoint are not included in the result.
+	 */
+	Map<ManagedIndividualId,String> resolvePaths(Collection<ManagedIndividualId> ids);
+
 	void registerApplicationLifecycleListener(ApplicationLifecycleListener listener);
 
 	void deregisterApplicationLifecycleListener(ApplicationLifecycleListener listener);
@@ -65,12 +65,22 @@ public final class ContentPreferences {
 		}
 	}
 	
+	/**
+	 * Page size used to signal that the members of a container are not paged.
+	 */
+	public static final int UNPAGED=0;
+
 	private final Set<Preference> include;
 	private final Set<Preference> omit;
-	
+
+	private int pageSize;
+	private int page;
+
 	private ContentPreferences() {
 		this.include=Sets.newTreeSet();
 		this.omit=Sets.newTreeSet();
+		this.pageSize=UNPAGED;
+		this.page=0;
 	}
 	
 	public Set<Preference> includes() {
@@ -103,6 +113,33 @@ public final class ContentPreferences {
 		}
 	}
 	
+	/**
+	 * Restrict the members of containers to the specified page. Pages are
+	 * zero-based, and a page size of {@link #UNPAGED} disables paging.
+	 */
+	public void paginate(int pageSize, int page) {
+		if(pageSize<0) {
+			throw new IllegalArgumentException("Page size cannot be negative");
+		}
+		if(page<0) {
+			throw new IllegalArgumentException("Page cannot be negative");
+		}
+		this.pageSize=pageSize;
+		this.page=pageSize==UNPAGED?0:page;
+	}
+
+	public boolean isPagingRequired() {
+		return this.pageSize!=UNPAGED;
+	}
+
+	public int getPageSize() {
+		return this.pageSize;
+	}
+
+	public int getPage() {
+		return this.page;
+	}
+
 	public boolean isMinimalInclusionRequired() {
 		return this.include.contains(Preference.MINIMAL_CONTAINER);
 	}
@@ -118,7 +155,7 @@ public final class ContentPreferences {
 
 	@Override
 	public int hashCode() {
-		return Objects.hashCode(this.include,this.omit);
+		return Objects.hashCode(this.include,this.omit,this.pageSize,this.page);
 	}
 
 	@Override
@@ -128,7 +165,9 @@ public final class ContentPreferences {
 			ContentPreferences that=(ContentPreferences)obj;
 			result=
 				Objects.equal(this.include,that.include) &&
-				Objects.equal(this.omit,that.omit);
+				Objects.equal(this.omit,that.omit) &&
+				this.pageSize==that.pageSize &&
+				this.page==that.page;
 		}
 		return result;
 	}
@@ -139,6 +178,10 @@ public final class ContentPreferences {
 		builder.append("ContentPreferences [");
 		builder.append("include=").append(this.include).append(", ");
 		builder.append("omit=").append(this.omit);
+		if(isPagingRequired()) {
+			builder.append(", pageSize=").append(this.pageSize);
+			builder.append(", page=").append(this.page);
+		}
 		builder.append("]");
 		return builder.toString();
 	}
@@ -180,6 +223,11 @@ public final class ContentPreferences {
 			return this;
 		}
 		
+		public ContentPreferencesBuilder withPageSize(int pageSize) {
+			this.contentPreferences.paginate(pageSize,this.contentPreferences.getPage());
+			return this;
+		}
+
 		public ContentPreferences build() {
 			return this.contentPreferences;
 		}
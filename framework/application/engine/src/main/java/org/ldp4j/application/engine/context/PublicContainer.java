@@ -27,6 +27,7 @@
 package org.ldp4j.application.engine.context;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.ldp4j.application.data.DataSet;
 
@@ -34,6 +35,14 @@ public interface PublicContainer extends PublicRDFSource {
 
 	Collection<PublicResource> members();
 
+	int numberOfMembers();
+
 	PublicResource createResource(DataSet dataSet, CreationPreferences preferences) throws ApplicationExecutionException, UnsupportedInteractionModelException;
 
+	/**
+	 * Create a new member for each of the specified data sets. All the
+	 * members are created at once: if any of them cannot be created, none is.
+	 */
+	List<PublicResource> createResources(List<DataSet> dataSets) throws ApplicationExecutionException;
+
 }
\ No newline at end of file
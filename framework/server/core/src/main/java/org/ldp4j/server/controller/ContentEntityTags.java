@@ -0,0 +1,109 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
+
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.engine.context.EntityTag;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.common.hash.HashingOutputStream;
+
+/**
+ * Utility class for deriving strong entity tags from the contents of the
+ * serialized representations of the resources. The tag is the 128-bit
+ * MurmurHash3 of the representation, which is computed while the
+ * representation is being marshalled, so no additional pass over the
+ * serialized content is required. Content-derived entity tags are an opt-in
+ * feature that is enabled via the {@value #CONTENT_ENTITY_TAGS} system
+ * property.
+ */
+final class ContentEntityTags {
+
+	static final String CONTENT_ENTITY_TAGS = "org.ldp4j.server.controller.etag.content";
+
+	private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+	static final class Representation {
+
+		private final byte[] content;
+		private final EntityTag entityTag;
+
+		private Representation(byte[] content, EntityTag entityTag) {
+			this.content=content;
+			this.entityTag=entityTag;
+		}
+
+		byte[] content() {
+			return this.content;
+		}
+
+		EntityTag entityTag() {
+			return this.entityTag;
+		}
+
+	}
+
+	private ContentEntityTags() {
+	}
+
+	private static EntityTag toEntityTag(HashCode hash) {
+		return new EntityTag(hash.toString());
+	}
+
+	static boolean isEnabled() {
+		return Boolean.parseBoolean(System.getProperty(CONTENT_ENTITY_TAGS));
+	}
+
+	static EntityTag entityTag(byte[] content) {
+		return toEntityTag(HASH_FUNCTION.hashBytes(content));
+	}
+
+	static Representation serialize(StreamingOutput serializer) throws IOException {
+		ByteArrayOutputStream buffer=new ByteArrayOutputStream();
+		HashingOutputStream output=new HashingOutputStream(HASH_FUNCTION,buffer);
+		serializer.write(output);
+		output.flush();
+		return new Representation(buffer.toByteArray(),toEntityTag(output.hash()));
+	}
+
+	static Representation serialize(OperationContext context, DataSet entity, MediaType mediaType) {
+		try {
+			return serialize(context.serializer(entity,mediaType));
+		} catch (IOException e) {
+			throw new ContentProcessingException("Resource representation cannot be serialized as '"+mediaType+"' ",context.resource(),context);
+		}
+	}
+
+}
@@ -43,7 +43,8 @@ public class ContentPreferencesUtils {
 
 	public static final String PREFERENCE_APPLIED_HEADER = "Preference-Applied";
 	public static final String PREFER_HEADER = "Prefer";
-	private static String PARAMETER="^\\s*(\\w*)\\s*=\\s*\"([^\"]+)\"\\s*$";
+	public static final String MAX_MEMBER_COUNT = "max-member-count";
+	private static String PARAMETER="^\\s*([\\w-]*)\\s*=\\s*\"([^\"]+)\"\\s*$";
 
 	public static ContentPreferences fromPreferenceHeader(String header) {
 		checkNotNull("Preference header cannot be null");
@@ -66,6 +67,14 @@ public class ContentPreferencesUtils {
 				throw new InvalidPreferenceHeaderException("Invalid preference refinement '"+refinement+"'");
 			}
 			String hint=matcher.group(1);
+			if(configured.contains(hint)) {
+				throw new InvalidPreferenceHeaderException("Hint '"+hint+"' has already been configured");
+			}
+			configured.add(hint);
+			if(hint.equals(MAX_MEMBER_COUNT)) {
+				builder.withPageSize(parseMaxMemberCount(matcher.group(2)));
+				continue;
+			}
 			boolean include=true;
 			if(hint.equals("omit")) {
 				include=false;
@@ -74,10 +83,6 @@ public class ContentPreferencesUtils {
 			} else {
 				throw new InvalidPreferenceHeaderException("Invalid preference hint '"+hint+"'");
 			}
-			if(configured.contains(hint)) {
-				throw new InvalidPreferenceHeaderException("Hint '"+hint+"' has already been configured");
-			}
-			configured.add(hint);
 			for(String rawPreference:matcher.group(2).split("\\s")) {
 				Preference preference = Preference.fromString(rawPreference.trim());
 				if(preference==null) {
@@ -92,6 +97,18 @@ public class ContentPreferencesUtils {
 		}
 	}
 
+	private static int parseMaxMemberCount(String rawValue) {
+		try {
+			int value=Integer.parseInt(rawValue.trim());
+			if(value>0) {
+				return value;
+			}
+		} catch (NumberFormatException e) {
+			// Fall through
+		}
+		throw new InvalidPreferenceHeaderException("Invalid "+MAX_MEMBER_COUNT+" value '"+rawValue+"'");
+	}
+
 	private static void validatePrefix(String value, String prefix) {
 		String[] items = prefix.split("=");
 		if(items.length!=2) {
@@ -137,6 +154,9 @@ public class ContentPreferencesUtils {
 		if(hasOmit) {
 			header.append("\"");
 		}
+		if(contentPreferences.isPagingRequired()) {
+			header.append("; ").append(MAX_MEMBER_COUNT).append("=\"").append(contentPreferences.getPageSize()).append("\"");
+		}
 		return header.toString();
 	}
 
@@ -28,6 +28,8 @@ package org.ldp4j.server.controller;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.InputStream;
+
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
@@ -50,7 +52,7 @@ public abstract class EndpointController {
 		private HttpHeaders headers;
 
 		// Optional
-		private String entity;
+		private InputStream entity;
 
 		protected OperationContextBuilder(Operation operation, ApplicationContext applicationContext, PublicResource resource) {
 			this.operation = operation;
@@ -73,7 +75,7 @@ public abstract class EndpointController {
 			return this;
 		}
 
-		public OperationContextBuilder withEntity(String entity) {
+		public OperationContextBuilder withEntity(InputStream entity) {
 			this.entity = entity;
 			return this;
 		}
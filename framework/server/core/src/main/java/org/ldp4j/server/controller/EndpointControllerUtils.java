@@ -27,23 +27,14 @@
 package org.ldp4j.server.controller;
 
 import java.net.URI;
-import java.util.ArrayList;
 import java.util.List;
 
-import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Variant;
 
-import org.ldp4j.application.domain.LDP;
 import org.ldp4j.application.engine.context.Capabilities;
-import org.ldp4j.application.engine.context.PublicBasicContainer;
-import org.ldp4j.application.engine.context.PublicDirectContainer;
-import org.ldp4j.application.engine.context.PublicIndirectContainer;
-import org.ldp4j.application.engine.context.PublicRDFSource;
+import org.ldp4j.application.engine.context.EntityTag;
 import org.ldp4j.application.engine.context.PublicResource;
-import org.ldp4j.application.engine.context.PublicResourceVisitor;
-import org.ldp4j.application.vocabulary.Term;
-import org.ldp4j.server.spi.RuntimeInstance;
 
 public final class EndpointControllerUtils {
 
@@ -56,12 +47,6 @@ public final class EndpointControllerUtils {
 	private EndpointControllerUtils() {
 	}
 
-	private static void addAllowedMethodHeader(ResponseBuilder builder, String method, boolean flag) {
-		if(flag) {
-			builder.header(EndpointControllerUtils.ALLOW_HEADER,method);
-		}
-	}
-
 	/**
 	 * Get a text/plain representation that indicates the acceptable media types
 	 * for the specified resource. The current implementation <b>only</b> takes
@@ -95,26 +80,32 @@ public final class EndpointControllerUtils {
 		// Methods by responding to a HTTP OPTIONS request on the
 		// LDPR’s URL with the HTTP Method tokens in the HTTP
 		// response header Allow."
-		addAllowedMethodHeader(builder,"OPTIONS",true);
-		addAllowedMethodHeader(builder,"HEAD",true);
-		addAllowedMethodHeader(builder,"GET",true);
-		addAllowedMethodHeader(builder,"PUT",capabilities.isModifiable());
-		addAllowedMethodHeader(builder,"PATCH",capabilities.isPatchable());
-		addAllowedMethodHeader(builder,"DELETE",capabilities.isDeletable());
-		addAllowedMethodHeader(builder,"POST",capabilities.isFactory());
-		if(capabilities.isFactory()) {
-			// LDP 1.0 - 7.1.2 : "The Accept-Post HTTP header should appear
-			// in the OPTIONS response for any resource that supports the
-			// use of the POST method."
-			for(MediaType mediaType:RuntimeInstance.getInstance().getSupportedMediaTypes()) {
-				builder.header(EndpointControllerUtils.ACCEPT_POST_HEADER,mediaType.toString());
-			}
-		}
+		ProtocolHeaders.populateAllowedMethods(builder,EndpointControllerUtils.ALLOW_HEADER,capabilities);
+		// LDP 1.0 - 7.1.2 : "The Accept-Post HTTP header should appear
+		// in the OPTIONS response for any resource that supports the
+		// use of the POST method."
+		ProtocolHeaders.populateFactoryMediaTypes(builder,EndpointControllerUtils.ACCEPT_POST_HEADER,capabilities);
+	}
+
+	/**
+	 * LDP 1.0 - 5.2.3.14 : Advertise the media types accepted by the
+	 * containers for creating new members.
+	 */
+	public static void populateAcceptPostHeaders(ResponseBuilder builder, PublicResource resource) {
+		ProtocolHeaders.populateContainerMediaTypes(builder,EndpointControllerUtils.ACCEPT_POST_HEADER,resource);
 	}
 
 	public static void populateProtocolEndorsedHeaders(ResponseBuilder builder, PublicResource resource) {
+		populateProtocolEndorsedHeaders(builder,resource,null);
+	}
+
+	/**
+	 * Populate the protocol endorsed headers using the specified entity tag
+	 * instead of the one of the resource, if any.
+	 */
+	public static void populateProtocolEndorsedHeaders(ResponseBuilder builder, PublicResource resource, EntityTag entityTag) {
 		builder.header(EndpointControllerUtils.LAST_MODIFIED_HEADER,resource.lastModified());
-		builder.header(EndpointControllerUtils.ENTITY_TAG_HEADER,resource.entityTag());
+		builder.header(EndpointControllerUtils.ENTITY_TAG_HEADER,entityTag!=null?entityTag:resource.entityTag());
 	}
 
 	public static void populateProtocolSpecificHeaders(ResponseBuilder builder, PublicResource resource) {
@@ -125,38 +116,7 @@ public final class EndpointControllerUtils {
 		// in all responses to requests made to the LDPC's HTTP Request-URI"
 		// LDP 1.0 - 5.2.1.4 : "LDP servers may provide additional HTTP
 		// Link: rel='type' headers"
-		List<Term> types = resource.accept(
-			new PublicResourceVisitor<List<Term>>() {
-				@Override
-				public List<Term> visitRDFSource(PublicRDFSource resource) {
-					List<Term> base=new ArrayList<Term>();
-					base.add(LDP.RESOURCE);
-					return base;
-				}
-				@Override
-				public List<Term> visitBasicContainer(PublicBasicContainer resource) {
-					List<Term> terms=visitRDFSource(resource);
-					terms.add(LDP.BASIC_CONTAINER);
-					return terms;
-				}
-				@Override
-				public List<Term> visitDirectContainer(PublicDirectContainer resource) {
-					List<Term> terms=visitRDFSource(resource);
-					terms.add(LDP.DIRECT_CONTAINER);
-					return terms;
-				}
-				@Override
-				public List<Term> visitIndirectContainer(PublicIndirectContainer resource) {
-					List<Term> terms=visitRDFSource(resource);
-					terms.add(LDP.INDIRECT_CONTAINER);
-					return terms;
-				}
-			}
-		);
-
-		for(Term type:types) {
-			builder.header(EndpointControllerUtils.LINK_HEADER,createLink(type, "type"));
-		}
+		ProtocolHeaders.populateLinks(builder,EndpointControllerUtils.LINK_HEADER,resource);
 	}
 
 	public static String createLink(Object uriRef, Object rel) {
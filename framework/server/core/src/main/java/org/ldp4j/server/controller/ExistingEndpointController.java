@@ -27,7 +27,7 @@
 package org.ldp4j.server.controller;
 
 import java.net.URI;
-import java.util.Collections;
+import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Locale;
 
@@ -36,6 +36,7 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
 import javax.ws.rs.core.Response.Status;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.Variant;
 
 import org.ldp4j.application.data.DataSet;
@@ -43,18 +44,13 @@ import org.ldp4j.application.domain.LDP;
 import org.ldp4j.application.engine.context.ApplicationContext;
 import org.ldp4j.application.engine.context.ApplicationExecutionException;
 import org.ldp4j.application.engine.context.ContentPreferences;
-import org.ldp4j.application.engine.context.PublicBasicContainer;
+import org.ldp4j.application.engine.context.EntityTag;
 import org.ldp4j.application.engine.context.PublicContainer;
-import org.ldp4j.application.engine.context.PublicDirectContainer;
-import org.ldp4j.application.engine.context.PublicIndirectContainer;
-import org.ldp4j.application.engine.context.PublicRDFSource;
 import org.ldp4j.application.engine.context.PublicResource;
-import org.ldp4j.application.engine.context.PublicResourceVisitor;
 import org.ldp4j.application.engine.context.UnsupportedInteractionModelException;
 import org.ldp4j.application.ext.ContentProcessingException;
 import org.ldp4j.application.ext.InconsistentContentException;
 import org.ldp4j.application.ext.InvalidContentException;
-import org.ldp4j.server.utils.VariantUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -63,7 +59,6 @@ import com.google.common.base.Throwables;
 final class ExistingEndpointController extends AbstractEndpointController {
 
 
-	private static final String ACCEPT_POST_HEADER = "Accept-Post";
 
 	/**
 	 * The status code to signal that the content could not be understood by the
@@ -77,56 +72,165 @@ final class ExistingEndpointController extends AbstractEndpointController {
 
 	private static final String CONTENT_LENGTH_HEADER = "Content-Length";
 
+	private static final String LINK_HEADER = "Link";
+
+	private static final String BATCH_LOCATION_SEPARATOR = "\n";
+
+	private static final Charset REPRESENTATION_CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * System property for enabling the streaming marshalling of the entities
+	 * of GET responses. Only the media types whose writers do not buffer the
+	 * whole representation (Turtle and RDF/XML) are streamed, in which case
+	 * Turtle is written without pretty printing. JSON-LD representations are
+	 * always buffered, as the JSON-LD writer keeps the whole content in
+	 * memory anyway.
+	 */
+	static final String STREAMING_MARSHALLING = "org.ldp4j.server.controller.marshalling.streaming";
+
+	/**
+	 * System property for configuring the number of members returned per page
+	 * when a client does not state its own preference. By default containers
+	 * are not paged.
+	 */
+	static final String PAGE_SIZE = "org.ldp4j.server.controller.paging.size";
+
+	static final String PAGE_QUERY_PARAMETER = "page";
+
 	private static final Logger LOGGER=LoggerFactory.getLogger(ExistingEndpointController.class);
 
+	private final RepresentationCache cache;
+
 	ExistingEndpointController(ApplicationContext applicationContext, PublicResource resource) {
+		this(applicationContext,resource,RepresentationCache.getInstance());
+	}
+
+	ExistingEndpointController(ApplicationContext applicationContext, PublicResource resource, RepresentationCache cache) {
 		super(applicationContext,resource);
+		this.cache=cache;
 	}
 
 	private void addRequiredHeaders(OperationContext context, ResponseBuilder builder) {
+		addRequiredHeaders(context,builder,null);
+	}
+
+	private void addRequiredHeaders(OperationContext context, ResponseBuilder builder, EntityTag entityTag) {
 		EndpointControllerUtils.
-			populateProtocolEndorsedHeaders(builder, context.resource());
+			populateProtocolEndorsedHeaders(builder, context.resource(), entityTag);
 		EndpointControllerUtils.
 			populateProtocolSpecificHeaders(builder, context.resource());
 	}
 
 	private void addOptionsMandatoryHeaders(OperationContext context, ResponseBuilder builder) {
-		addRequiredHeaders(context,builder);
+		addOptionsMandatoryHeaders(context,builder,null);
+	}
+
+	private void addOptionsMandatoryHeaders(OperationContext context, ResponseBuilder builder, EntityTag entityTag) {
+		addRequiredHeaders(context,builder,entityTag);
 		EndpointControllerUtils.
 			populateAllowedHeaders(builder, context.resource().capabilities());
-		addAcceptPostHeaders(context, builder);
+		EndpointControllerUtils.
+			populateAcceptPostHeaders(builder, context.resource());
 	}
 
+	private static int defaultPageSize() {
+		return Integer.getInteger(PAGE_SIZE,ContentPreferences.UNPAGED);
+	}
 
-	private void addAcceptPostHeaders(OperationContext context, ResponseBuilder builder) {
-		List<Variant> acceptPostVariants=
-			context.
-			resource().
-				accept(new PublicResourceVisitor<List<Variant>>() {
-					@Override
-					public List<Variant> visitRDFSource(PublicRDFSource resource) {
-						return Collections.emptyList();
-					}
-					@Override
-					public List<Variant> visitBasicContainer(PublicBasicContainer resource) {
-						return VariantUtils.defaultVariants();
-					}
-					@Override
-					public List<Variant> visitDirectContainer(PublicDirectContainer resource) {
-						return VariantUtils.defaultVariants();
-					}
-					@Override
-					public List<Variant> visitIndirectContainer(PublicIndirectContainer resource) {
-						return VariantUtils.defaultVariants();
-					}
-				}
-			);
-		/**
-		 * 5.2.3.14
-		 */
-		for(Variant variant:acceptPostVariants) {
-			builder.header(ACCEPT_POST_HEADER,variant.getMediaType());
+	private static int requestedPage(OperationContext context) {
+		String rawPage=context.queryParameter(PAGE_QUERY_PARAMETER);
+		int page=0;
+		if(rawPage!=null) {
+			try {
+				page=Math.max(0,Integer.parseInt(rawPage));
+			} catch (NumberFormatException e) {
+				LOGGER.debug("Ignoring invalid page '{}'",rawPage);
+			}
+		}
+		return page;
+	}
+
+	/**
+	 * Restrict the members to be included in the representation of a
+	 * container to the requested page, if paging has been requested by the
+	 * client or enabled by default.
+	 */
+	private boolean applyPaging(OperationContext context, PublicResource resource, ContentPreferences preferences) {
+		if(!(resource instanceof PublicContainer)) {
+			return false;
 		}
+		int pageSize=preferences.isPagingRequired()?preferences.getPageSize():defaultPageSize();
+		if(pageSize<=ContentPreferences.UNPAGED) {
+			return false;
+		}
+		preferences.paginate(pageSize,requestedPage(context));
+		return true;
+	}
+
+	private void addPagingHeaders(OperationContext context, ResponseBuilder builder, PublicContainer container, ContentPreferences preferences) {
+		URI location=context.resolve(container);
+		int page=preferences.getPage();
+		builder.header(LINK_HEADER,EndpointControllerUtils.createLink(LDP.PAGE.qualifiedEntityName(),"type"));
+		builder.header(LINK_HEADER,EndpointControllerUtils.createLink(pageLocation(location,0),"first"));
+		if(page>0) {
+			builder.header(LINK_HEADER,EndpointControllerUtils.createLink(pageLocation(location,page-1),"prev"));
+		}
+		if(((long)page+1)*preferences.getPageSize()<container.numberOfMembers()) {
+			builder.header(LINK_HEADER,EndpointControllerUtils.createLink(pageLocation(location,page+1),"next"));
+		}
+	}
+
+	private static String pageLocation(URI location, int page) {
+		return location+"?"+PAGE_QUERY_PARAMETER+"="+page;
+	}
+
+	private static RepresentationCache.Key cacheKey(OperationContext context, PublicResource resource, Variant variant, ContentPreferences preferences) {
+		return RepresentationCache.key(context.base().toString(),resource.path(),resource.entityTag(),variant.getMediaType(),preferences);
+	}
+
+	/**
+	 * Process a HEAD request using only the metadata of the endpoint, so
+	 * that neither the application handler nor the marshaller are invoked.
+	 * The 'Content-Length' header is only included if the length of the
+	 * representation is known because it has been cached, and omitted
+	 * otherwise.
+	 */
+	private Response doHead(OperationContext context) {
+		// 1. Validate output expectations
+		Variant variant=context.expectedVariant();
+
+		// 2. Verify that we can carry out the operation
+		context.
+			checkOperationSupport().
+			checkPreconditions();
+
+		// 3. Determine the headers that depend on the requested
+		// representation
+		PublicResource resource=context.resource();
+		ContentPreferences preferences=context.contentPreferences();
+		boolean hasPreferences=preferences!=null;
+		if(!hasPreferences) {
+			preferences=ContentPreferences.defaultPreferences();
+		}
+		boolean paged=applyPaging(context,resource,preferences);
+		ResponseBuilder builder=Response.ok();
+		builder.variant(variant);
+		if(hasPreferences) {
+			builder.header(ContentPreferencesUtils.PREFERENCE_APPLIED_HEADER,ContentPreferencesUtils.asPreferenceAppliedHeader(preferences));
+		}
+		if(paged) {
+			addPagingHeaders(context,builder,(PublicContainer)resource,preferences);
+		}
+		if(this.cache.isEnabled()) {
+			RepresentationCache.Entry cached=this.cache.get(cacheKey(context,resource,variant,preferences));
+			if(cached!=null) {
+				builder.header(ExistingEndpointController.CONTENT_LENGTH_HEADER, cached.body().length);
+			}
+		}
+
+		// 4. Add the required headers
+		addOptionsMandatoryHeaders(context, builder);
+		return builder.build();
 	}
 
 	private Response doGet(OperationContext context, boolean includeEntity) {
@@ -140,6 +244,10 @@ final class ExistingEndpointController extends AbstractEndpointController {
 
 		ResponseBuilder builder=Response.serverError();
 		String body=null;
+		byte[] cachedBody=null;
+		StreamingOutput streamingBody=null;
+		EntityTag representationTag=null;
+		boolean contentEntityTags=ContentEntityTags.isEnabled();
 		Status status=null;
 
 		// 3. Determine the body and status of the response
@@ -159,16 +267,61 @@ final class ExistingEndpointController extends AbstractEndpointController {
 					LOGGER.debug("No preferences specified");
 				}
 			}
-			// 3.2. prepare the associated entity
-			DataSet entity=resource.entity(preferences);
-			LOGGER.trace("Data set to serialize: \n {}",entity);
-			// 3.3. serialize the entity
-			body=context.serialize(entity,variant.getMediaType());
+			boolean paged=applyPaging(context,resource,preferences);
+			// 3.2. look for a cached representation. The key is computed
+			// before the entity is retrieved, so that a concurrent
+			// modification can never be cached under a stale entity tag
+			RepresentationCache.Key key=null;
+			if(this.cache.isEnabled()) {
+				key=cacheKey(context,resource,variant,preferences);
+				RepresentationCache.Entry cached=this.cache.get(key);
+				if(cached!=null) {
+					cachedBody=cached.body();
+					if(contentEntityTags) {
+						representationTag=cached.contentEntityTag();
+					}
+				}
+			}
+			if(cachedBody==null) {
+				// 3.3. prepare the associated entity
+				DataSet entity=resource.entity(preferences);
+				LOGGER.trace("Data set to serialize: \n {}",entity);
+				// 3.4. serialize the entity, or defer the serialization to
+				// the JAX-RS runtime if streaming is enabled, the media type
+				// can be streamed and the entity is to be included.
+				// Content-derived entity tags require the whole
+				// representation before the headers can be sent, so
+				// streaming is not used in that case
+				if(contentEntityTags) {
+					ContentEntityTags.Representation representation=
+						ContentEntityTags.serialize(context,entity,variant.getMediaType());
+					cachedBody=representation.content();
+					representationTag=representation.entityTag();
+				} else if(includeEntity && isStreamingEnabled() && context.isStreamable(variant.getMediaType())) {
+					streamingBody=context.serializer(entity,variant.getMediaType());
+				} else {
+					body=context.serialize(entity,variant.getMediaType());
+				}
+				if(key!=null && body!=null) {
+					cachedBody=body.getBytes(REPRESENTATION_CHARSET);
+				}
+				if(key!=null && cachedBody!=null) {
+					this.cache.put(key,cachedBody,representationTag);
+				}
+			}
+			// 3.5. evaluate the preconditions against the actual
+			// representation if content-derived entity tags are enabled
+			if(contentEntityTags) {
+				context.checkPreconditions(representationTag);
+			}
 			status=Status.OK;
 			builder.variant(variant);
 			if(hasPreferences) {
 				builder.header(ContentPreferencesUtils.PREFERENCE_APPLIED_HEADER,ContentPreferencesUtils.asPreferenceAppliedHeader(preferences));
 			}
+			if(paged) {
+				addPagingHeaders(context,builder,(PublicContainer)resource,preferences);
+			}
 		} catch (ApplicationExecutionException e) {
 			status=Status.INTERNAL_SERVER_ERROR;
 			body=Throwables.getStackTraceAsString(e);
@@ -178,18 +331,36 @@ final class ExistingEndpointController extends AbstractEndpointController {
 		}
 
 		// 4. Add the required headers
-		addOptionsMandatoryHeaders(context, builder);
+		addOptionsMandatoryHeaders(context, builder, representationTag);
 
-		// 5. Complete the response
-		builder.
-			status(status.getStatusCode()).
-			header(ExistingEndpointController.CONTENT_LENGTH_HEADER, body.length());
-		if(includeEntity) {
-			builder.entity(body);
+		// 5. Complete the response. When streaming, the length of the
+		// entity is not known in advance, so the 'Content-Length' header is
+		// omitted and the container falls back to chunked transfer encoding
+		builder.status(status.getStatusCode());
+		if(streamingBody!=null) {
+			builder.entity(streamingBody);
+		} else if(cachedBody!=null) {
+			builder.header(ExistingEndpointController.CONTENT_LENGTH_HEADER, cachedBody.length);
+			if(includeEntity) {
+				builder.entity(cachedBody);
+			}
+		} else {
+			builder.header(ExistingEndpointController.CONTENT_LENGTH_HEADER, body.length());
+			if(includeEntity) {
+				builder.entity(body);
+			}
 		}
 		return builder.build();
 	}
 
+	/**
+	 * Streaming marshalling is an opt-in feature that is enabled via the
+	 * {@value #STREAMING_MARSHALLING} system property.
+	 */
+	private static boolean isStreamingEnabled() {
+		return Boolean.parseBoolean(System.getProperty(STREAMING_MARSHALLING));
+	}
+
 	public Response options(OperationContext context) {
 		ResponseBuilder builder=
 			Response.
@@ -198,8 +369,16 @@ final class ExistingEndpointController extends AbstractEndpointController {
 		return builder.build();
 	}
 
+	/**
+	 * Content-derived entity tags cannot be computed from the metadata of
+	 * the endpoint, so in that case HEAD requests are processed as GET
+	 * requests without entity.
+	 */
 	public Response head(OperationContext context) {
-		return doGet(context, false);
+		if(ContentEntityTags.isEnabled()) {
+			return doGet(context, false);
+		}
+		return doHead(context);
 	}
 
 	public Response getResource(OperationContext context) {
@@ -221,6 +400,7 @@ final class ExistingEndpointController extends AbstractEndpointController {
 		// 2. Execute operation and determine response body and status
 		try {
 			context.resource().delete();
+			this.cache.invalidate(context.base().toString(),context.resource().path());
 			status=Status.NO_CONTENT;
 			// TODO: This could be improved by returning an OK with an
 			// additional description of all the resources that were deleted
@@ -256,6 +436,7 @@ final class ExistingEndpointController extends AbstractEndpointController {
 		// 2. Execute operation and determine response body and status
 		try {
 			context.resource().modify(context.dataSet());
+			this.cache.invalidate(context.base().toString(),context.resource().path());
 			statusCode=Status.NO_CONTENT.getStatusCode();
 			// TODO: This could be improved by returning an OK with an
 			// additional description of all the resources that were modified
@@ -292,6 +473,53 @@ final class ExistingEndpointController extends AbstractEndpointController {
 		return builder.build();
 	}
 
+	/**
+	 * Create a member for each of the body parts of a {@code multipart/mixed}
+	 * request entity. As the protocol only allows one 'Location' header per
+	 * response, the locations of the new members are returned in the body of
+	 * the response, one per line, in the same order as the body parts.
+	 */
+	private Response createResources(OperationContext context) {
+		// 1. verify that we can carry out the operation
+		context.
+			checkOperationSupport().
+			checkPreconditions();
+
+		ResponseBuilder builder=Response.serverError();
+		String body=null;
+		Status status=null;
+
+		// 2. Execute operation and determine response body and status
+		try {
+			PublicContainer container=context.container();
+			List<PublicResource> newResources=
+				container.createResources(context.dataSets());
+			this.cache.invalidate(context.base().toString(),container.path());
+			StringBuilder locations=new StringBuilder();
+			for(PublicResource newResource:newResources) {
+				locations.append(context.resolve(newResource)).append(BATCH_LOCATION_SEPARATOR);
+			}
+			status=Status.CREATED;
+			body=locations.toString();
+		} catch (ApplicationExecutionException e) {
+			status=Status.INTERNAL_SERVER_ERROR;
+			body=Throwables.getStackTraceAsString(e);
+			builder.language(Locale.ENGLISH);
+		}
+
+		// 3. Add required headers
+		addRequiredHeaders(context, builder);
+
+		// 4. Complete response.
+		builder.
+			status(status.getStatusCode()).
+			header(ExistingEndpointController.CONTENT_LENGTH_HEADER, body.length()).
+			entity(body).
+			type(MediaType.TEXT_PLAIN);
+
+		return builder.build();
+	}
+
 	@Override
 	public Response patchResource(OperationContext context) {
 		// Verify that we can carry out the operation
@@ -308,6 +536,10 @@ final class ExistingEndpointController extends AbstractEndpointController {
 	}
 
 	public Response createResource(OperationContext context) {
+		if(context.isBatch()) {
+			return createResources(context);
+		}
+
 		// 1. verify that we can carry out the operation
 		context.
 			checkOperationSupport().
@@ -323,6 +555,7 @@ final class ExistingEndpointController extends AbstractEndpointController {
 			PublicContainer container=context.container();
 			PublicResource newResource =
 				container.createResource(context.dataSet(), context.creationPreferences());
+			this.cache.invalidate(context.base().toString(),container.path());
 			URI location = context.resolve(newResource);
 			status=Status.CREATED;
 			body=location.toString();
@@ -27,13 +27,16 @@
 package org.ldp4j.server.controller;
 
 import java.net.URI;
+import java.util.List;
 
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.Variant;
 
 import org.ldp4j.application.data.DataSet;
 import org.ldp4j.application.engine.context.ContentPreferences;
 import org.ldp4j.application.engine.context.CreationPreferences;
+import org.ldp4j.application.engine.context.EntityTag;
 import org.ldp4j.application.engine.context.PublicContainer;
 import org.ldp4j.application.engine.context.PublicResource;
 
@@ -43,8 +46,21 @@ public interface OperationContext {
 
 	String path();
 
+	String queryParameter(String name);
+
 	DataSet dataSet();
 
+	/**
+	 * Whether or not the request entity is a {@code multipart/mixed} entity
+	 * that includes several representations.
+	 */
+	boolean isBatch();
+
+	/**
+	 * Get the data sets of each of the body parts of a batch request entity.
+	 */
+	List<DataSet> dataSets();
+
 	Variant expectedVariant();
 
 	ContentPreferences contentPreferences();
@@ -55,6 +71,12 @@ public interface OperationContext {
 
 	OperationContext checkPreconditions();
 
+	/**
+	 * Evaluate the request preconditions against the entity tag of a
+	 * specific representation of the resource.
+	 */
+	OperationContext checkPreconditions(EntityTag representationTag);
+
 	OperationContext checkOperationSupport();
 
 	PublicResource resource();
@@ -65,4 +87,8 @@ public interface OperationContext {
 
 	String serialize(DataSet entity, MediaType mediaType);
 
+	boolean isStreamable(MediaType mediaType);
+
+	StreamingOutput serializer(DataSet entity, MediaType mediaType);
+
 }
\ No newline at end of file
@@ -26,8 +26,16 @@
  */
 package org.ldp4j.server.controller;
 
+import static com.google.common.base.Preconditions.checkState;
+
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -37,12 +45,13 @@ import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 import javax.ws.rs.core.Variant;
 
 import org.ldp4j.application.data.DataSet;
-import org.ldp4j.application.data.ManagedIndividualId;
 import org.ldp4j.application.engine.context.ApplicationContext;
+import org.ldp4j.application.engine.context.ApplicationExecutionException;
 import org.ldp4j.application.engine.context.ContentPreferences;
 import org.ldp4j.application.engine.context.CreationPreferences;
 import org.ldp4j.application.engine.context.EntityTag;
@@ -50,45 +59,23 @@ import org.ldp4j.application.engine.context.PublicContainer;
 import org.ldp4j.application.engine.context.PublicResource;
 import org.ldp4j.application.engine.context.CreationPreferences.InteractionModel;
 import org.ldp4j.server.data.DataTransformator;
-import org.ldp4j.server.data.ResourceResolver;
+import org.ldp4j.server.data.EntityTooLargeException;
+import org.ldp4j.server.data.MultipartReader;
 import org.ldp4j.server.data.UnsupportedMediaTypeException;
 import org.ldp4j.server.utils.VariantHelper;
 import org.ldp4j.server.utils.VariantUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Throwables;
+
 final class OperationContextImpl implements OperationContext {
 
 	private static final Logger LOGGER=LoggerFactory.getLogger(OperationContextImpl.class);
 
-	private final class OperationContextResourceResolver implements ResourceResolver {
+	static final String MAX_ENTITY_SIZE="org.ldp4j.server.controller.entity.maxsize";
 
-		@Override
-		public URI resolveResource(ManagedIndividualId id) {
-			PublicResource resource=applicationContext.resolveResource(id);
-			if(resource==null) {
-				throw new IllegalStateException("Could not resolve resource "+id);
-			}
-			URI result=base().resolve(resource.path());
-			LOGGER.trace("Resolved resource {} URI to '{}'",id,result);
-			return result;
-		}
-
-		@Override
-		public ManagedIndividualId resolveLocation(URI path) {
-			PublicResource resource =
-				applicationContext.
-					resolveResource(base().relativize(path).toString());
-
-			ManagedIndividualId result = null;
-			if(resource!=null) {
-				result=resource.individualId();
-				LOGGER.trace("Resolved location '{}' to resource {}",path,result);
-			}
-			return result;
-		}
-
-	}
+	private static final long UNLIMITED_ENTITY_SIZE=-1;
 
 	private final Operation          operation;
 	private final UriInfo            uriInfo;
@@ -97,8 +84,10 @@ final class OperationContextImpl implements OperationContext {
 	private final ApplicationContext applicationContext;
 	private final PublicResource resource;
 
-	private String  entity;
+	private PushbackInputStream entity;
 	private DataSet dataSet;
+	private URI base;
+	private ResolutionContext resolutionContext;
 
 	OperationContextImpl(
 		ApplicationContext applicationContext,
@@ -106,7 +95,7 @@ final class OperationContextImpl implements OperationContext {
 		UriInfo uriInfo,
 		HttpHeaders headers,
 		Request request,
-		String entity,
+		InputStream entity,
 		Operation operation) {
 		this.applicationContext = applicationContext;
 		this.resource = resource;
@@ -114,7 +103,9 @@ final class OperationContextImpl implements OperationContext {
 		this.uriInfo=uriInfo;
 		this.headers=headers;
 		this.request=request;
-		this.entity = entity;
+		if(entity!=null) {
+			this.entity = new PushbackInputStream(entity);
+		}
 	}
 
 	private Variant contentVariant() {
@@ -154,8 +145,11 @@ final class OperationContextImpl implements OperationContext {
 		return result;
 	}
 
-	private ResourceResolver resourceResolver() {
-		return new OperationContextResourceResolver();
+	private ResolutionContext resolutionContext() {
+		if(this.resolutionContext==null) {
+			this.resolutionContext=new ResolutionContext(this.applicationContext,base());
+		}
+		return this.resolutionContext;
 	}
 
 	private URI endpoint() {
@@ -174,15 +168,62 @@ final class OperationContextImpl implements OperationContext {
 		return this.request;
 	}
 
-	String entity() {
+	InputStream entity() {
 		return this.entity;
 	}
 
+	/**
+	 * Check whether the request includes a non-empty entity, peeking at the
+	 * first byte of the stream without consuming it.
+	 */
+	private boolean hasEntity() {
+		if(this.entity==null) {
+			return false;
+		}
+		try {
+			int next=this.entity.read();
+			if(next==-1) {
+				return false;
+			}
+			this.entity.unread(next);
+			return true;
+		} catch (IOException e) {
+			throw new ContentProcessingException("Could not read request entity",this.resource,this);
+		}
+	}
+
+	private void checkEntitySize(long maxEntitySize) {
+		List<String> contentLengths=headers().getRequestHeader(HttpHeaders.CONTENT_LENGTH);
+		if(contentLengths==null || contentLengths.isEmpty()) {
+			return;
+		}
+		try {
+			if(Long.parseLong(contentLengths.get(0).trim())>maxEntitySize) {
+				throw new RequestEntityTooLargeException(maxEntitySize,this.resource,this);
+			}
+		} catch (NumberFormatException e) {
+			LOGGER.debug("Ignoring invalid {} header '{}'",HttpHeaders.CONTENT_LENGTH,contentLengths.get(0));
+		}
+	}
+
+	/**
+	 * The maximum size of the request entities can be configured using the
+	 * {@value #MAX_ENTITY_SIZE} system property. By default, the size is
+	 * unlimited. As batch entities are buffered in memory before being
+	 * parsed, the limit also bounds the memory used by batch requests.
+	 */
+	private static long maxEntitySize() {
+		return Long.getLong(MAX_ENTITY_SIZE,UNLIMITED_ENTITY_SIZE);
+	}
+
 	@Override
 	public URI base() {
-		String path = uriInfo.getPath();
-		String prefix = "/"+path.substring(0,path.indexOf('/')+1);
-		return URI.create(uriInfo.getBaseUri().toString().concat(prefix));
+		if(this.base==null) {
+			String path = uriInfo.getPath();
+			String prefix = "/"+path.substring(0,path.indexOf('/')+1);
+			this.base=URI.create(uriInfo.getBaseUri().toString().concat(prefix));
+		}
+		return this.base;
 	}
 
 	@Override
@@ -191,10 +232,15 @@ final class OperationContextImpl implements OperationContext {
 		return path.substring(path.indexOf('/')+1);
 	}
 
+	@Override
+	public String queryParameter(String name) {
+		return uriInfo.getQueryParameters().getFirst(name);
+	}
+
 	@Override
 	public OperationContext checkContents() {
 		List<Variant> supportedVariants=VariantUtils.defaultVariants();
-		if(entity()==null || entity().isEmpty()) {
+		if(!hasEntity()) {
 			throw new MissingContentException(this.resource,this);
 		}
 		if(headers().getMediaType()==null) {
@@ -208,9 +254,30 @@ final class OperationContextImpl implements OperationContext {
 		return this;
 	}
 
+	/**
+	 * When content-derived entity tags are enabled the preconditions of
+	 * retrieval operations are evaluated once the representation to be
+	 * returned is available, whereas the preconditions of the rest of the
+	 * operations are evaluated against the current default representation of
+	 * the resource.
+	 */
 	@Override
 	public OperationContext checkPreconditions() {
-		EntityTag entityTag=this.resource.entityTag();
+		if(!ContentEntityTags.isEnabled()) {
+			return evaluatePreconditions(this.resource.entityTag(),null);
+		}
+		if(Operation.GET.equals(this.operation) || Operation.HEAD.equals(this.operation)) {
+			return this;
+		}
+		return checkPreconditions(currentRepresentationTag());
+	}
+
+	@Override
+	public OperationContext checkPreconditions(EntityTag representationTag) {
+		return evaluatePreconditions(representationTag,representationTag);
+	}
+
+	private OperationContext evaluatePreconditions(EntityTag entityTag, EntityTag representationTag) {
 		Date lastModified=this.resource.lastModified();
 		if(Operation.PUT.equals(this.operation)) {
 			List<String> requestHeader = this.headers.getRequestHeader(HttpHeaders.IF_MATCH);
@@ -225,11 +292,58 @@ final class OperationContextImpl implements OperationContext {
 					new javax.ws.rs.core.EntityTag(entityTag.getValue()));
 		if(builder!=null) {
 			Response response = builder.build();
-			throw new PreconditionFailedException(this.resource,this,response.getStatus());
+			throw new PreconditionFailedException(this.resource,this,response.getStatus(),representationTag);
 		}
 		return this;
 	}
 
+	/**
+	 * The media type of the representation used for evaluating the
+	 * preconditions of non-retrieval operations is that of the request
+	 * entity, if supported, or the one the client would get in a retrieval.
+	 */
+	private MediaType representationMediaType() {
+		List<Variant> variants=VariantUtils.defaultVariants();
+		if(headers().getMediaType()!=null && VariantHelper.forVariants(variants).isSupported(contentVariant())) {
+			return headers().getMediaType();
+		}
+		Variant variant=request.selectVariant(variants);
+		if(variant==null) {
+			variant=variants.get(0);
+		}
+		return variant.getMediaType();
+	}
+
+	/**
+	 * The tag of the default representation is taken from the representation
+	 * cache if available, so that the representation is only serialized if
+	 * it has not been retrieved since the resource was last modified.
+	 */
+	private EntityTag currentRepresentationTag() {
+		MediaType mediaType=representationMediaType();
+		ContentPreferences preferences=ContentPreferences.defaultPreferences();
+		RepresentationCache cache=RepresentationCache.getInstance();
+		RepresentationCache.Key key=null;
+		if(cache.isEnabled()) {
+			key=RepresentationCache.key(base().toString(),this.resource.path(),this.resource.entityTag(),mediaType,preferences);
+			RepresentationCache.Entry cached=cache.get(key);
+			if(cached!=null) {
+				return cached.contentEntityTag();
+			}
+		}
+		DataSet representation=null;
+		try {
+			representation=this.resource.entity(preferences);
+		} catch (ApplicationExecutionException e) {
+			throw Throwables.propagate(e);
+		}
+		ContentEntityTags.Representation serialized=ContentEntityTags.serialize(this,representation,mediaType);
+		if(key!=null) {
+			cache.put(key,serialized.content(),serialized.entityTag());
+		}
+		return serialized.entityTag();
+	}
+
 	@Override
 	public OperationContext checkOperationSupport() {
 		boolean allowed=false;
@@ -270,8 +384,13 @@ final class OperationContextImpl implements OperationContext {
 				DataTransformator transformator =
 					DataTransformator.
 						create(base()).
-						enableResolution(resourceResolver()).
+						enableResolution(resolutionContext()).
 						mediaType(mediaType);
+				long maxEntitySize=maxEntitySize();
+				if(maxEntitySize>0) {
+					checkEntitySize(maxEntitySize);
+					transformator=transformator.maxEntitySize(maxEntitySize);
+				}
 				if(this.operation.equals(Operation.POST)) {
 					transformator=transformator.surrogateEndpoint(endpoint());
 				} else {
@@ -280,6 +399,8 @@ final class OperationContextImpl implements OperationContext {
 				this.dataSet=transformator.unmarshall(this.entity);
 			} catch(UnsupportedMediaTypeException e) {
 				throw new UnsupportedContentException(this.resource,this,contentVariant());
+			} catch(EntityTooLargeException e) {
+				throw new RequestEntityTooLargeException(e.getMaxEntitySize(),this.resource,this);
 			} catch(IOException e) {
 				throw new ContentProcessingException("Entity cannot be parsed as '"+mediaType+"' ",this.resource,this);
 			}
@@ -287,6 +408,76 @@ final class OperationContextImpl implements OperationContext {
 		return this.dataSet;
 	}
 
+	@Override
+	public boolean isBatch() {
+		MediaType mediaType=headers().getMediaType();
+		return
+			mediaType!=null &&
+			MultipartReader.MULTIPART_MIXED.getType().equalsIgnoreCase(mediaType.getType()) &&
+			MultipartReader.MULTIPART_MIXED.getSubtype().equalsIgnoreCase(mediaType.getSubtype());
+	}
+
+	private List<MultipartReader.Part> parts() {
+		String boundary=headers().getMediaType().getParameters().get(MultipartReader.BOUNDARY);
+		if(boundary==null) {
+			throw new ContentProcessingException("Multipart entity boundary not specified",this.resource,this);
+		}
+		long maxEntitySize=maxEntitySize();
+		try {
+			if(maxEntitySize>0) {
+				checkEntitySize(maxEntitySize);
+				return MultipartReader.read(this.entity,boundary,maxEntitySize);
+			}
+			return MultipartReader.read(this.entity,boundary);
+		} catch(EntityTooLargeException e) {
+			throw new RequestEntityTooLargeException(e.getMaxEntitySize(),this.resource,this);
+		} catch(IOException e) {
+			throw new ContentProcessingException("Entity cannot be parsed as '"+MultipartReader.MULTIPART_MIXED+"' ",this.resource,this);
+		}
+	}
+
+	/**
+	 * Each body part is unmarshalled independently, using the endpoint of the
+	 * container as surrogate endpoint, so that each part can refer to the
+	 * resource to be created using the null relative URI.
+	 */
+	@Override
+	public List<DataSet> dataSets() {
+		checkState(isBatch(),"Not a batch request");
+		if(!hasEntity()) {
+			throw new MissingContentException(this.resource,this);
+		}
+		List<MultipartReader.Part> parts=parts();
+		if(parts.isEmpty()) {
+			throw new MissingContentException(this.resource,this);
+		}
+		VariantHelper helper=VariantHelper.forVariants(VariantUtils.defaultVariants());
+		List<DataSet> dataSets=new ArrayList<DataSet>(parts.size());
+		for(MultipartReader.Part part:parts) {
+			if(part.mediaType()==null) {
+				throw new MissingContentTypeException(this.resource,this);
+			}
+			Variant variant=new Variant(part.mediaType(),(String)null,null);
+			if(!helper.isSupported(variant)) {
+				throw new UnsupportedContentException(this.resource,this,variant);
+			}
+			try {
+				DataTransformator transformator =
+					DataTransformator.
+						create(base()).
+						enableResolution(resolutionContext()).
+						mediaType(part.mediaType()).
+						surrogateEndpoint(endpoint());
+				dataSets.add(transformator.unmarshall(new ByteArrayInputStream(part.content())));
+			} catch(UnsupportedMediaTypeException e) {
+				throw new UnsupportedContentException(this.resource,this,variant);
+			} catch(IOException e) {
+				throw new ContentProcessingException("Body part cannot be parsed as '"+part.mediaType()+"' ",this.resource,this);
+			}
+		}
+		return Collections.unmodifiableList(dataSets);
+	}
+
 	@Override
 	public Variant expectedVariant() {
 		List<Variant> variants=VariantUtils.defaultVariants();
@@ -312,23 +503,52 @@ final class OperationContextImpl implements OperationContext {
 		return base().resolve(resource.path());
 	}
 
-	@Override
-	public String serialize(DataSet representation, MediaType mediaType) {
+	private DataTransformator marshallingTransformator(MediaType mediaType) {
 		try {
-			DataTransformator transformator =
+			return
 				DataTransformator.
 					create(base()).
-					enableResolution(resourceResolver()).
+					enableResolution(resolutionContext()).
 					mediaType(mediaType).
 					permanentEndpoint(endpoint());
-			return transformator.marshall(representation);
 		} catch(UnsupportedMediaTypeException e) {
 			throw new UnsupportedContentException(this.resource,this,contentVariant());
+		}
+	}
+
+	@Override
+	public String serialize(DataSet representation, MediaType mediaType) {
+		DataTransformator transformator=marshallingTransformator(mediaType);
+		resolutionContext().prefetch(representation);
+		try {
+			return transformator.marshall(representation);
 		} catch(IOException e) {
 			throw new ContentProcessingException("Resource representation cannot be parsed as '"+mediaType+"' ",this.resource,this);
 		}
 	}
 
+	@Override
+	public boolean isStreamable(MediaType mediaType) {
+		return marshallingTransformator(mediaType).isStreamable();
+	}
+
+	/**
+	 * The returned output is written by the JAX-RS runtime once the response
+	 * headers have been committed, thus any marshalling failure is reported
+	 * as an I/O failure of the response stream.
+	 */
+	@Override
+	public StreamingOutput serializer(final DataSet representation, final MediaType mediaType) {
+		final DataTransformator transformator=marshallingTransformator(mediaType);
+		return new StreamingOutput() {
+			@Override
+			public void write(OutputStream output) throws IOException {
+				resolutionContext().prefetch(representation);
+				transformator.marshall(representation,output);
+			}
+		};
+	}
+
 	@Override
 	public PublicResource resource() {
 		return this.resource;
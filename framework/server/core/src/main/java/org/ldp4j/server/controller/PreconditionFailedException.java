@@ -26,6 +26,7 @@
  */
 package org.ldp4j.server.controller;
 
+import org.ldp4j.application.engine.context.EntityTag;
 import org.ldp4j.application.engine.context.PublicResource;
 
 
@@ -35,13 +36,28 @@ public class PreconditionFailedException extends OperationContextException {
 
 	private final int statusCode;
 
+	private final EntityTag entityTag;
+
 	public PreconditionFailedException(PublicResource resource, OperationContext context, int statusCode) {
+		this(resource,context,statusCode,null);
+	}
+
+	public PreconditionFailedException(PublicResource resource, OperationContext context, int statusCode, EntityTag entityTag) {
 		super("",resource,context);
 		this.statusCode = statusCode;
+		this.entityTag = entityTag;
 	}
 
 	public int getStatusCode() {
 		return statusCode;
 	}
 
+	/**
+	 * The entity tag against which the preconditions were evaluated, or
+	 * {@code null} if the entity tag of the resource was used.
+	 */
+	public EntityTag getEntityTag() {
+		return entityTag;
+	}
+
 }
@@ -0,0 +1,213 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+import org.ldp4j.application.domain.LDP;
+import org.ldp4j.application.engine.context.Capabilities;
+import org.ldp4j.application.engine.context.PublicBasicContainer;
+import org.ldp4j.application.engine.context.PublicDirectContainer;
+import org.ldp4j.application.engine.context.PublicIndirectContainer;
+import org.ldp4j.application.engine.context.PublicRDFSource;
+import org.ldp4j.application.engine.context.PublicResource;
+import org.ldp4j.application.engine.context.PublicResourceVisitor;
+import org.ldp4j.application.vocabulary.Term;
+import org.ldp4j.server.spi.RuntimeInstance;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Pre-rendered values of the protocol headers that only depend on the kind
+ * of a resource and on its capabilities, that is, on its template and on
+ * whether or not it is a root resource.
+ */
+final class ProtocolHeaders {
+
+	private enum Kind {
+		RDF_SOURCE(false),
+		BASIC_CONTAINER(true,LDP.BASIC_CONTAINER),
+		DIRECT_CONTAINER(true,LDP.DIRECT_CONTAINER),
+		INDIRECT_CONTAINER(true,LDP.INDIRECT_CONTAINER),
+		;
+
+		private final boolean container;
+		private final ImmutableList<String> links;
+
+		private Kind(boolean container, Term... types) {
+			this.container=container;
+			ImmutableList.Builder<String> builder=ImmutableList.builder();
+			builder.add(EndpointControllerUtils.createLink(LDP.RESOURCE,"type"));
+			for(Term type:types) {
+				builder.add(EndpointControllerUtils.createLink(type,"type"));
+			}
+			this.links=builder.build();
+		}
+
+	}
+
+	private static final PublicResourceVisitor<Kind> KIND_RESOLVER=
+		new PublicResourceVisitor<Kind>() {
+			@Override
+			public Kind visitRDFSource(PublicRDFSource resource) {
+				return Kind.RDF_SOURCE;
+			}
+			@Override
+			public Kind visitBasicContainer(PublicBasicContainer resource) {
+				return Kind.BASIC_CONTAINER;
+			}
+			@Override
+			public Kind visitDirectContainer(PublicDirectContainer resource) {
+				return Kind.DIRECT_CONTAINER;
+			}
+			@Override
+			public Kind visitIndirectContainer(PublicIndirectContainer resource) {
+				return Kind.INDIRECT_CONTAINER;
+			}
+		};
+
+	private static final int MODIFIABLE = 1;
+	private static final int PATCHABLE  = 2;
+	private static final int DELETABLE  = 4;
+	private static final int FACTORY    = 8;
+
+	private static final ImmutableList<String>[] ALLOWED_METHODS=allowedMethods();
+
+	private static volatile MediaTypes mediaTypes;
+
+	/**
+	 * The supported media types of a given runtime instance.
+	 */
+	private static final class MediaTypes {
+
+		private final RuntimeInstance instance;
+		private final ImmutableList<String> values;
+
+		private MediaTypes(RuntimeInstance instance) {
+			this.instance=instance;
+			ImmutableList.Builder<String> builder=ImmutableList.builder();
+			for(MediaType mediaType:instance.getSupportedMediaTypes()) {
+				builder.add(mediaType.toString());
+			}
+			this.values=builder.build();
+		}
+
+	}
+
+	private ProtocolHeaders() {
+	}
+
+	@SuppressWarnings("unchecked")
+	private static ImmutableList<String>[] allowedMethods() {
+		ImmutableList<String>[] result=new ImmutableList[16];
+		for(int mask=0;mask<result.length;mask++) {
+			ImmutableList.Builder<String> builder=ImmutableList.builder();
+			builder.add("OPTIONS","HEAD","GET");
+			if((mask & MODIFIABLE)!=0) {
+				builder.add("PUT");
+			}
+			if((mask & PATCHABLE)!=0) {
+				builder.add("PATCH");
+			}
+			if((mask & DELETABLE)!=0) {
+				builder.add("DELETE");
+			}
+			if((mask & FACTORY)!=0) {
+				builder.add("POST");
+			}
+			result[mask]=builder.build();
+		}
+		return result;
+	}
+
+	private static int mask(Capabilities capabilities) {
+		int mask=0;
+		if(capabilities.isModifiable()) {
+			mask|=MODIFIABLE;
+		}
+		if(capabilities.isPatchable()) {
+			mask|=PATCHABLE;
+		}
+		if(capabilities.isDeletable()) {
+			mask|=DELETABLE;
+		}
+		if(capabilities.isFactory()) {
+			mask|=FACTORY;
+		}
+		return mask;
+	}
+
+	private static Kind kind(PublicResource resource) {
+		return resource.accept(KIND_RESOLVER);
+	}
+
+	private static void addHeaders(ResponseBuilder builder, String header, ImmutableList<String> values) {
+		for(String value:values) {
+			builder.header(header,value);
+		}
+	}
+
+	static ImmutableList<String> supportedMediaTypes() {
+		RuntimeInstance instance=RuntimeInstance.getInstance();
+		MediaTypes current=mediaTypes;
+		if(current==null || current.instance!=instance) {
+			current=new MediaTypes(instance);
+			mediaTypes=current;
+		}
+		return current.values;
+	}
+
+	static ImmutableList<String> links(PublicResource resource) {
+		return kind(resource).links;
+	}
+
+	static ImmutableList<String> allowedMethods(Capabilities capabilities) {
+		return ALLOWED_METHODS[mask(capabilities)];
+	}
+
+	static void populateLinks(ResponseBuilder builder, String header, PublicResource resource) {
+		addHeaders(builder,header,links(resource));
+	}
+
+	static void populateAllowedMethods(ResponseBuilder builder, String header, Capabilities capabilities) {
+		addHeaders(builder,header,allowedMethods(capabilities));
+	}
+
+	static void populateFactoryMediaTypes(ResponseBuilder builder, String header, Capabilities capabilities) {
+		if(capabilities.isFactory()) {
+			addHeaders(builder,header,supportedMediaTypes());
+		}
+	}
+
+	static void populateContainerMediaTypes(ResponseBuilder builder, String header, PublicResource resource) {
+		if(kind(resource).container) {
+			addHeaders(builder,header,supportedMediaTypes());
+		}
+	}
+
+}
@@ -0,0 +1,342 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.core.MediaType;
+
+import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.engine.context.ContentPreferences.Preference;
+import org.ldp4j.application.engine.context.EntityTag;
+
+import com.google.common.base.Objects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.RemovalCause;
+import com.google.common.cache.RemovalListener;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+/**
+ * Size-bounded cache of serialized representations. Representations are
+ * keyed by the base and path of the endpoint, its entity tag, the media type and
+ * the content preferences used to produce them, so any modification of a
+ * resource, which results in a new entity tag, makes the previous entries
+ * unreachable. Each entry keeps the content-derived entity tag of the
+ * representation along with it, so that a hit never requires hashing the
+ * representation again. Entries are also invalidated explicitly when a
+ * resource is modified or deleted through the controller: the keys of the
+ * cached variants of each endpoint are indexed by its base and path, so that
+ * invalidating an endpoint does not require scanning the whole cache. The
+ * cache is disabled unless a capacity is configured via the {@value #CAPACITY} system
+ * property.
+ */
+public final class RepresentationCache {
+
+	/**
+	 * System property for configuring the maximum number of bytes of
+	 * serialized representations to be kept in the cache.
+	 */
+	public static final String CAPACITY = "org.ldp4j.server.controller.cache.capacity";
+
+	/**
+	 * The endpoint whose representations are cached.
+	 */
+	private static final class Location {
+
+		private final String base;
+		private final String path;
+
+		private Location(String base, String path) {
+			this.base=base;
+			this.path=path;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(this.base,this.path);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			boolean result=false;
+			if(obj instanceof Location) {
+				Location that=(Location)obj;
+				result=
+					this.base.equals(that.base) &&
+					this.path.equals(that.path);
+			}
+			return result;
+		}
+
+	}
+
+	/**
+	 * The key of a cached representation. As content preferences are
+	 * mutable, the key keeps a snapshot of them instead of the preferences
+	 * themselves.
+	 */
+	static final class Key {
+
+		private final Location location;
+		private final EntityTag entityTag;
+		private final MediaType mediaType;
+		private final Set<Preference> includes;
+		private final Set<Preference> omits;
+		private final int pageSize;
+		private final int page;
+
+		private Key(Location location, EntityTag entityTag, MediaType mediaType, ContentPreferences preferences) {
+			this.location=location;
+			this.entityTag=entityTag;
+			this.mediaType=mediaType;
+			this.includes=ImmutableSet.copyOf(preferences.includes());
+			this.omits=ImmutableSet.copyOf(preferences.omits());
+			this.pageSize=preferences.getPageSize();
+			this.page=preferences.getPage();
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(this.location,this.entityTag,this.mediaType,this.includes,this.omits,this.pageSize,this.page);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			boolean result=false;
+			if(obj instanceof Key) {
+				Key that=(Key)obj;
+				result=
+					Objects.equal(this.location,that.location) &&
+					Objects.equal(this.entityTag,that.entityTag) &&
+					Objects.equal(this.mediaType,that.mediaType) &&
+					Objects.equal(this.includes,that.includes) &&
+					Objects.equal(this.omits,that.omits) &&
+					this.pageSize==that.pageSize &&
+					this.page==that.page;
+			}
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return
+				Objects.
+					toStringHelper(getClass()).
+						add("base",this.location.base).
+						add("path",this.location.path).
+						add("entityTag",this.entityTag).
+						add("mediaType",this.mediaType).
+						add("includes",this.includes).
+						add("omits",this.omits).
+						add("pageSize",this.pageSize).
+						add("page",this.page).
+						toString();
+		}
+
+	}
+
+	static final class Entry {
+
+		private final byte[] body;
+		private volatile EntityTag contentEntityTag;
+
+		private Entry(byte[] body, EntityTag contentEntityTag) {
+			this.body=body;
+			this.contentEntityTag=contentEntityTag;
+		}
+
+		byte[] body() {
+			return this.body;
+		}
+
+		/**
+		 * @return the content-derived entity tag of the representation,
+		 *         which is computed at most once per entry
+		 */
+		EntityTag contentEntityTag() {
+			EntityTag result=this.contentEntityTag;
+			if(result==null) {
+				result=ContentEntityTags.entityTag(this.body);
+				this.contentEntityTag=result;
+			}
+			return result;
+		}
+
+	}
+
+	private static final class RepresentationWeigher implements Weigher<Key,Entry> {
+
+		@Override
+		public int weigh(Key key, Entry value) {
+			return value.body().length;
+		}
+
+	}
+
+	/**
+	 * Keeps the variant index in sync with the entries evicted from or
+	 * invalidated in the cache. Replaced entries are still cached, so their
+	 * keys must remain indexed.
+	 */
+	private final class VariantRemover implements RemovalListener<Key,Entry> {
+
+		@Override
+		public void onRemoval(RemovalNotification<Key,Entry> notification) {
+			if(notification.getCause()!=RemovalCause.REPLACED) {
+				unindex(notification.getKey());
+			}
+		}
+
+	}
+
+	private static final RepresentationCache INSTANCE=new RepresentationCache(Long.getLong(CAPACITY,0));
+
+	private final Cache<Key,Entry> cache;
+	private final Map<Location,Set<Key>> variants;
+
+	RepresentationCache(long capacity) {
+		if(capacity>0) {
+			this.cache=
+				CacheBuilder.
+					newBuilder().
+						maximumWeight(capacity).
+						weigher(new RepresentationWeigher()).
+						removalListener(new VariantRemover()).
+						recordStats().
+						build();
+		} else {
+			this.cache=null;
+		}
+		this.variants=Maps.newHashMap();
+	}
+
+	static Key key(String base, String path, EntityTag entityTag, MediaType mediaType, ContentPreferences preferences) {
+		checkNotNull(base,"Base cannot be null");
+		checkNotNull(path,"Path cannot be null");
+		checkNotNull(entityTag,"Entity tag cannot be null");
+		checkNotNull(mediaType,"Media type cannot be null");
+		checkNotNull(preferences,"Content preferences cannot be null");
+		return new Key(new Location(base,path),entityTag,mediaType,preferences);
+	}
+
+	private void index(Key key) {
+		synchronized(this.variants) {
+			Set<Key> keys=this.variants.get(key.location);
+			if(keys==null) {
+				keys=Sets.newHashSet();
+				this.variants.put(key.location,keys);
+			}
+			keys.add(key);
+		}
+	}
+
+	private void unindex(Key key) {
+		synchronized(this.variants) {
+			Set<Key> keys=this.variants.get(key.location);
+			if(keys!=null && keys.remove(key) && keys.isEmpty()) {
+				this.variants.remove(key.location);
+			}
+		}
+	}
+
+	boolean isEnabled() {
+		return this.cache!=null;
+	}
+
+	Entry get(Key key) {
+		if(this.cache==null) {
+			return null;
+		}
+		return this.cache.getIfPresent(key);
+	}
+
+	void put(Key key, byte[] representation) {
+		put(key,representation,null);
+	}
+
+	/**
+	 * Cache a representation along with its content-derived entity tag, if
+	 * already known.
+	 */
+	void put(Key key, byte[] representation, EntityTag contentEntityTag) {
+		if(this.cache!=null) {
+			// Index before caching, so that the index never misses a cached
+			// variant even if it is evicted right away
+			index(key);
+			this.cache.put(key,new Entry(representation,contentEntityTag));
+		}
+	}
+
+	/**
+	 * Discard the representations cached for the endpoint published at a
+	 * given path of a given base.
+	 */
+	void invalidate(String base, String path) {
+		if(this.cache==null) {
+			return;
+		}
+		Set<Key> keys=null;
+		synchronized(this.variants) {
+			keys=this.variants.remove(new Location(base,path));
+		}
+		if(keys!=null) {
+			this.cache.invalidateAll(ImmutableList.copyOf(keys));
+		}
+	}
+
+	public void invalidateAll() {
+		if(this.cache!=null) {
+			this.cache.invalidateAll();
+		}
+	}
+
+	/**
+	 * @return the hit, miss and eviction statistics of the cache, or empty
+	 *         statistics if the cache is disabled
+	 */
+	public CacheStats stats() {
+		if(this.cache==null) {
+			return new CacheStats(0,0,0,0,0,0);
+		}
+		return this.cache.stats();
+	}
+
+	public static RepresentationCache getInstance() {
+		return INSTANCE;
+	}
+
+}
@@ -0,0 +1,141 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.Individual;
+import org.ldp4j.application.data.ManagedIndividual;
+import org.ldp4j.application.data.ManagedIndividualId;
+import org.ldp4j.application.engine.context.ApplicationContext;
+import org.ldp4j.application.engine.context.PublicResource;
+import org.ldp4j.server.data.ResourceResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resource resolver that lives as long as a request. It memoizes the
+ * resolutions in both directions, and allows resolving all the managed
+ * individuals of a data set with a single call to the application context.
+ */
+final class ResolutionContext implements ResourceResolver {
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(ResolutionContext.class);
+
+	private final ApplicationContext applicationContext;
+	private final URI base;
+	private final Map<ManagedIndividualId,URI> locations=new HashMap<ManagedIndividualId,URI>();
+	private final Map<URI,ManagedIndividualId> individuals=new HashMap<URI,ManagedIndividualId>();
+
+	ResolutionContext(ApplicationContext applicationContext, URI base) {
+		this.applicationContext=checkNotNull(applicationContext,"Application context cannot be null");
+		this.base=checkNotNull(base,"Base cannot be null");
+	}
+
+	private void register(ManagedIndividualId id, URI location) {
+		this.locations.put(id,location);
+		this.individuals.put(location,id);
+	}
+
+	URI base() {
+		return this.base;
+	}
+
+	/**
+	 * Resolve the locations of the specified individuals that have not been
+	 * resolved yet.
+	 */
+	void prefetch(Collection<ManagedIndividualId> ids) {
+		List<ManagedIndividualId> pending=new ArrayList<ManagedIndividualId>();
+		for(ManagedIndividualId id:ids) {
+			if(!this.locations.containsKey(id)) {
+				pending.add(id);
+			}
+		}
+		if(pending.isEmpty()) {
+			return;
+		}
+		for(Entry<ManagedIndividualId,String> entry:this.applicationContext.resolvePaths(pending).entrySet()) {
+			register(entry.getKey(),this.base.resolve(entry.getValue()));
+		}
+		LOGGER.trace("Prefetched {} of {} resource URIs",pending.size(),ids.size());
+	}
+
+	/**
+	 * Resolve the locations of the managed individuals of a data set.
+	 */
+	void prefetch(DataSet dataSet) {
+		List<ManagedIndividualId> ids=new ArrayList<ManagedIndividualId>();
+		for(Individual<?,?> individual:dataSet) {
+			if(individual instanceof ManagedIndividual) {
+				ids.add(((ManagedIndividual)individual).id());
+			}
+		}
+		prefetch(ids);
+	}
+
+	@Override
+	public URI resolveResource(ManagedIndividualId id) {
+		URI result=this.locations.get(id);
+		if(result==null) {
+			prefetch(Collections.singleton(id));
+			result=this.locations.get(id);
+			if(result==null) {
+				throw new IllegalStateException("Could not resolve resource "+id);
+			}
+			LOGGER.trace("Resolved resource {} URI to '{}'",id,result);
+		}
+		return result;
+	}
+
+	@Override
+	public ManagedIndividualId resolveLocation(URI path) {
+		ManagedIndividualId result=this.individuals.get(path);
+		if(result==null) {
+			PublicResource resource=
+				this.applicationContext.
+					resolveResource(this.base.relativize(path).toString());
+			if(resource!=null) {
+				result=resource.individualId();
+				this.individuals.put(path,result);
+				LOGGER.trace("Resolved location '{}' to resource {}",path,result);
+			}
+		}
+		return result;
+	}
+
+}
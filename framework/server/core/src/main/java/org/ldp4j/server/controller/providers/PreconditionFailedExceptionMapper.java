@@ -49,7 +49,7 @@ public class PreconditionFailedExceptionMapper implements ExceptionMapper<Precon
 				language(Locale.ENGLISH).
 				type(MediaType.TEXT_PLAIN).
 				entity(message);
-		EndpointControllerUtils.populateProtocolEndorsedHeaders(builder,throwable.getResource());
+		EndpointControllerUtils.populateProtocolEndorsedHeaders(builder,throwable.getResource(),throwable.getEntityTag());
 		EndpointControllerUtils.populateProtocolSpecificHeaders(builder,throwable.getResource());
 		return builder.build();
 	}
@@ -33,6 +33,17 @@ public interface Context {
 
 	URI getBase();
 
+	/**
+	 * The base against which relative URIs are resolved while parsing, if
+	 * different from the base. Parsed URIs that are relative to the
+	 * alternative are translated back to the base, so that the origin of
+	 * each URI can be told apart without parsing the content twice.
+	 *
+	 * @return the alternative base, or {@code null} if the content is parsed
+	 *         against the base.
+	 */
+	URI getAlternative();
+
 	ResourceResolver getResourceResolver();
 
 }
\ No newline at end of file
@@ -30,6 +30,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 
@@ -67,9 +69,12 @@ public final class DataTransformator {
 	private MediaType mediaType;
 	private IMediaTypeProvider provider;
 
+	private long maxEntitySize;
+
 	private DataTransformator() {
 		setResourceResolver(DEFAULT_RESOLVER);
 		setEndpoint(DEFAULT_ENDPOINT, true);
+		setMaxEntitySize(LimitedInputStream.UNLIMITED);
 	}
 
 	private DataTransformator(DataTransformator dataTransformation) {
@@ -77,6 +82,11 @@ public final class DataTransformator {
 		setEndpoint(dataTransformation.endpoint, dataTransformation.permanent);
 		setResourceResolver(dataTransformation.resourceResolver);
 		setMediaType(dataTransformation.mediaType, dataTransformation.provider);
+		setMaxEntitySize(dataTransformation.maxEntitySize);
+	}
+
+	private void setMaxEntitySize(long maxEntitySize) {
+		this.maxEntitySize = maxEntitySize;
 	}
 
 	private void setMediaType(MediaType mediaType, IMediaTypeProvider provider) {
@@ -109,35 +119,42 @@ public final class DataTransformator {
 		return provider;
 	}
 
-	private Context createMarshallingContext() {
+	private Context createContext() {
 		ResourceResolver resolver = this.resourceResolver;
 		URI transformationBase = this.applicationBase.resolve(this.endpoint);
 		Context context=ImmutableContext.newInstance(transformationBase, resolver);
 		return context;
 	}
 
-	private Context createUnmarshallingContext(String entity) throws IOException {
-		ResourceResolver resolver = this.resourceResolver;
+	/**
+	 * Entities sent to surrogate endpoints are parsed against an alternative
+	 * base, so that the safe resolver can tell apart relative and absolute
+	 * URIs while the data set is being populated.
+	 */
+	private Unmarshaller createUnmarshaller() throws UnsupportedMediaTypeException {
 		URI transformationBase = this.applicationBase.resolve(this.endpoint);
-		if(!this.permanent) {
-			resolver=createSafeResolver(entity,transformationBase);
-		}
-		return ImmutableContext.newInstance(transformationBase,resolver);
-	}
-
-	private ResourceResolver createSafeResolver(String entity, URI endpoint) throws IOException {
-		try {
-			return
-				SafeResourceResolver.
-					builder().
-						withApplication(this.applicationBase).
-						withEndpoint(endpoint).
-						withAlternative(createAlternative(endpoint)).
-						withEntity(entity, this.mediaType).
-						build();
-		} catch (ContentTransformationException e) {
-			throw new IOException("Could not create safe resolver",e);
+		IMediaTypeProvider unmarshallingProvider=getProvider(this.mediaType);
+		if(this.permanent) {
+			return unmarshallingProvider.newUnmarshaller(ImmutableContext.newInstance(transformationBase,this.resourceResolver));
 		}
+		URI alternative=createAlternative(transformationBase);
+		SafeResourceResolver resolver=
+			SafeResourceResolver.
+				builder().
+					withApplication(this.applicationBase).
+					withEndpoint(transformationBase).
+					withAlternative(alternative).
+					build();
+		Unmarshaller unmarshaller=
+			unmarshallingProvider.
+				newUnmarshaller(
+					ImmutableContext.
+						newInstance(
+							transformationBase,
+							alternative,
+							resolver));
+		unmarshaller.registerTripleListener(resolver);
+		return unmarshaller;
 	}
 
 	private URI createAlternative(URI endpoint) {
@@ -187,6 +204,25 @@ public final class DataTransformator {
 		return result;
 	}
 
+	/**
+	 * Limit the number of bytes that can be read from the entities
+	 * unmarshalled from a stream. The limit is enforced while the entity is
+	 * being consumed, and an {@link EntityTooLargeException} is thrown as soon
+	 * as it is exceeded.
+	 */
+	public DataTransformator maxEntitySize(long maxEntitySize) {
+		checkArgument(maxEntitySize>0,"Maximum entity size must be greater than zero");
+		DataTransformator result = new DataTransformator(this);
+		result.setMaxEntitySize(maxEntitySize);
+		return result;
+	}
+
+	public DataTransformator unlimitedEntitySize() {
+		DataTransformator result = new DataTransformator(this);
+		result.setMaxEntitySize(LimitedInputStream.UNLIMITED);
+		return result;
+	}
+
 	public DataTransformator disableResolution() {
 		DataTransformator result = new DataTransformator(this);
 		result.setResourceResolver(DEFAULT_RESOLVER);
@@ -197,12 +233,10 @@ public final class DataTransformator {
 		checkNotNull(entity,"Entity cannot be null");
 		checkNotNull(mediaType,"Media type cannot be null");
 
-		Context context=createUnmarshallingContext(entity);
-
-		Unmarshaller unmarshaller=getProvider(mediaType).newUnmarshaller(context);
+		Unmarshaller unmarshaller=createUnmarshaller();
 		try {
 			LOGGER.trace("Raw entity to unmarshall: \n{}",entity);
-			LOGGER.trace("Unmarshalling using base '{}'...",context.getBase());
+			LOGGER.trace("Unmarshalling using base '{}'...",this.applicationBase.resolve(this.endpoint));
 			DataSet dataSet=unmarshaller.unmarshall(entity, mediaType);
 			LOGGER.trace("Unmarshalled data set: \n{}",dataSet);
 			return dataSet;
@@ -211,9 +245,32 @@ public final class DataTransformator {
 		}
 	}
 
+	/**
+	 * Unmarshall the entity as it is read from the stream.
+	 */
+	public DataSet unmarshall(InputStream entity) throws IOException {
+		checkNotNull(entity,"Entity cannot be null");
+		checkNotNull(mediaType,"Media type cannot be null");
+
+		LimitedInputStream input=LimitedInputStream.create(entity,this.maxEntitySize);
+
+		Unmarshaller unmarshaller=createUnmarshaller();
+		try {
+			LOGGER.trace("Streaming unmarshalling using base '{}'...",this.applicationBase.resolve(this.endpoint));
+			DataSet dataSet=unmarshaller.unmarshall(input, mediaType);
+			LOGGER.trace("Unmarshalled data set: \n{}",dataSet);
+			return dataSet;
+		} catch (ContentTransformationException e) {
+			if(input.isLimitExceeded()) {
+				throw new EntityTooLargeException(this.maxEntitySize);
+			}
+			throw new IOException("Entity cannot be parsed as '"+mediaType+"'",e);
+		}
+	}
+
 	public String marshall(DataSet representation) throws IOException {
 		checkNotNull(representation,"Representation cannot be null");
-		Context context = createMarshallingContext();
+		Context context = createContext();
 
 		Marshaller marshaller=this.provider.newMarshaller(context);
 		try {
@@ -226,6 +283,29 @@ public final class DataTransformator {
 		}
 	}
 
+	/**
+	 * @return whether the representations of the media type of the
+	 *         transformator are written to the output stream as they are
+	 *         generated, instead of being buffered in memory first
+	 */
+	public boolean isStreamable() {
+		return this.provider.isStreamable(this.mediaType);
+	}
+
+	public void marshall(DataSet representation, OutputStream output) throws IOException {
+		checkNotNull(representation,"Representation cannot be null");
+		checkNotNull(output,"Output cannot be null");
+		Context context = createContext();
+
+		Marshaller marshaller=this.provider.newMarshaller(context);
+		try {
+			LOGGER.trace("Streaming marshalling using base '{}'",context.getBase());
+			marshaller.marshall(representation, mediaType, output);
+		} catch (ContentTransformationException e) {
+			throw new IOException("Resource representation cannot be parsed as '"+mediaType+"' ",e);
+		}
+	}
+
 	public static DataTransformator create(final URI applicationBase) {
 		checkNotNull(applicationBase,"Application base URI cannot be null");
 		checkArgument(applicationBase.isAbsolute() && !applicationBase.isOpaque(),"Application base URI must be absolute and hierarchical");
@@ -32,10 +32,12 @@ import java.net.URI;
 public final class ImmutableContext implements Context {
 
 	private final URI base;
+	private final URI alternative;
 	private final ResourceResolver resourceResolver;
 
-	private ImmutableContext(URI base, ResourceResolver resourceResolver) {
+	private ImmutableContext(URI base, URI alternative, ResourceResolver resourceResolver) {
 		this.base = base;
+		this.alternative = alternative;
 		this.resourceResolver = resourceResolver;
 	}
 
@@ -44,13 +46,22 @@ public final class ImmutableContext implements Context {
 		return this.base;
 	}
 	
+	@Override
+	public URI getAlternative() {
+		return this.alternative;
+	}
+
 	@Override
 	public ResourceResolver getResourceResolver() {
 		return this.resourceResolver;
 	}
 	
 	public static ImmutableContext newInstance(URI base, ResourceResolver index) {
-		return new ImmutableContext(base,index);
+		return new ImmutableContext(base,null,index);
+	}
+
+	public static ImmutableContext newInstance(URI base, URI alternative, ResourceResolver index) {
+		return new ImmutableContext(base,alternative,index);
 	}
 	
 }
@@ -0,0 +1,106 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.data;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream that fails as soon as more than a given number of bytes are
+ * read from the underlying stream, so that the limit is enforced while the
+ * entity is being consumed and not once it has been completely buffered.
+ */
+final class LimitedInputStream extends FilterInputStream {
+
+	static final long UNLIMITED=-1;
+
+	private final long limit;
+
+	private long count;
+	private long mark;
+	private boolean exceeded;
+
+	private LimitedInputStream(InputStream in, long limit) {
+		super(in);
+		this.limit=limit;
+	}
+
+	private void consumed(long bytes) throws EntityTooLargeException {
+		if(bytes>0) {
+			this.count+=bytes;
+			if(this.limit!=UNLIMITED && this.count>this.limit) {
+				this.exceeded=true;
+				throw new EntityTooLargeException(this.limit);
+			}
+		}
+	}
+
+	boolean isLimitExceeded() {
+		return this.exceeded;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int result=super.read();
+		if(result!=-1) {
+			consumed(1);
+		}
+		return result;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int result=super.read(b,off,len);
+		consumed(result);
+		return result;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long result=super.skip(n);
+		consumed(result);
+		return result;
+	}
+
+	@Override
+	public synchronized void mark(int readlimit) {
+		super.mark(readlimit);
+		this.mark=this.count;
+	}
+
+	@Override
+	public synchronized void reset() throws IOException {
+		super.reset();
+		this.count=this.mark;
+	}
+
+	static LimitedInputStream create(InputStream in, long limit) {
+		return new LimitedInputStream(in,limit);
+	}
+
+}
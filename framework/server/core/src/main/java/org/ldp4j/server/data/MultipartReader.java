@@ -0,0 +1,225 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.data;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+
+import com.google.common.io.ByteStreams;
+
+/**
+ * Minimal reader for {@code multipart/mixed} entities (RFC 2046). Only the
+ * {@code Content-Type} header of the body parts is taken into account. <br>
+ * The parts are not parsed as a stream: the whole entity is buffered in
+ * memory and the content of each part is copied out of it, so reading an
+ * entity requires up to twice its size in memory. As all the members of a
+ * batch have to be unmarshalled before any of them is created, streaming the
+ * parts would not bound the memory required by a batch anyway. Callers are
+ * expected to bound the size of the entities using
+ * {@link #read(InputStream, String, long)}.
+ */
+public final class MultipartReader {
+
+	public static final MediaType MULTIPART_MIXED = new MediaType("multipart","mixed");
+
+	public static final String BOUNDARY = "boundary";
+
+	private static final Charset HEADER_CHARSET = Charset.forName("ISO-8859-1");
+
+	private static final String CONTENT_TYPE_HEADER = "Content-Type";
+
+	public static final class Part {
+
+		private final MediaType mediaType;
+		private final byte[] content;
+
+		private Part(MediaType mediaType, byte[] content) {
+			this.mediaType=mediaType;
+			this.content=content;
+		}
+
+		/**
+		 * The media type of the part, or {@code null} if not specified.
+		 */
+		public MediaType mediaType() {
+			return this.mediaType;
+		}
+
+		public byte[] content() {
+			return this.content;
+		}
+
+	}
+
+	private final byte[] entity;
+	private final byte[] delimiter;
+
+	private MultipartReader(byte[] entity, String boundary) {
+		this.entity=entity;
+		this.delimiter=("--"+boundary).getBytes(HEADER_CHARSET);
+	}
+
+	private int indexOf(byte[] target, int from) {
+		outer:
+		for(int i=from;i<=this.entity.length-target.length;i++) {
+			for(int j=0;j<target.length;j++) {
+				if(this.entity[i+j]!=target[j]) {
+					continue outer;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	private boolean startsWith(int offset, String prefix) {
+		byte[] bytes=prefix.getBytes(HEADER_CHARSET);
+		if(offset+bytes.length>this.entity.length) {
+			return false;
+		}
+		for(int i=0;i<bytes.length;i++) {
+			if(this.entity[offset+i]!=bytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Find the start of the next delimiter line, that is, the line break that
+	 * precedes the delimiter, starting at the specified offset.
+	 */
+	private int nextDelimiter(int from) {
+		int offset=from;
+		while(true) {
+			int candidate=indexOf(this.delimiter,offset);
+			if(candidate<0) {
+				return -1;
+			}
+			if(candidate==0 || this.entity[candidate-1]=='\n') {
+				return candidate;
+			}
+			offset=candidate+1;
+		}
+	}
+
+	private int skipLine(int offset) {
+		int end=offset;
+		while(end<this.entity.length && this.entity[end]!='\n') {
+			end++;
+		}
+		return Math.min(end+1,this.entity.length);
+	}
+
+	private Part parsePart(int start, int end) throws IOException {
+		MediaType mediaType=null;
+		int offset=start;
+		while(offset<end) {
+			int lineEnd=offset;
+			while(lineEnd<end && this.entity[lineEnd]!='\n') {
+				lineEnd++;
+			}
+			String line=new String(this.entity,offset,lineEnd-offset,HEADER_CHARSET).trim();
+			offset=Math.min(lineEnd+1,end);
+			if(line.isEmpty()) {
+				return new Part(mediaType,Arrays.copyOfRange(this.entity,offset,end));
+			}
+			int separator=line.indexOf(':');
+			if(separator<0) {
+				throw new IOException("Invalid body part header '"+line+"'");
+			}
+			if(line.substring(0,separator).trim().equalsIgnoreCase(CONTENT_TYPE_HEADER)) {
+				try {
+					mediaType=MediaType.valueOf(line.substring(separator+1).trim());
+				} catch (IllegalArgumentException e) {
+					throw new IOException("Invalid body part media type '"+line+"'",e);
+				}
+			}
+		}
+		return new Part(mediaType,new byte[0]);
+	}
+
+	private List<Part> parts() throws IOException {
+		int offset=nextDelimiter(0);
+		if(offset<0) {
+			throw new IOException("Could not find multipart boundary");
+		}
+		List<Part> parts=new ArrayList<Part>();
+		while(true) {
+			offset+=this.delimiter.length;
+			if(startsWith(offset,"--")) {
+				return Collections.unmodifiableList(parts);
+			}
+			int start=skipLine(offset);
+			int next=nextDelimiter(start);
+			if(next<0) {
+				throw new IOException("Unterminated multipart entity");
+			}
+			int end=next;
+			if(end>start && this.entity[end-1]=='\n') {
+				end--;
+				if(end>start && this.entity[end-1]=='\r') {
+					end--;
+				}
+			}
+			parts.add(parsePart(start,end));
+			offset=next;
+		}
+	}
+
+	/**
+	 * Read the parts of a multipart entity, failing with an
+	 * {@link EntityTooLargeException} as soon as more than the specified
+	 * number of bytes has been read, before the entity is parsed.
+	 */
+	public static List<Part> read(InputStream entity, String boundary, long maxEntitySize) throws IOException {
+		checkNotNull(entity,"Entity cannot be null");
+		checkNotNull(boundary,"Boundary cannot be null");
+		checkArgument(maxEntitySize>0 || maxEntitySize==LimitedInputStream.UNLIMITED,"Invalid maximum entity size");
+		byte[] content=ByteStreams.toByteArray(LimitedInputStream.create(entity,maxEntitySize));
+		return new MultipartReader(content,boundary).parts();
+	}
+
+	/**
+	 * Read the parts of a multipart entity of any size. The whole entity is
+	 * buffered in memory.
+	 */
+	public static List<Part> read(InputStream entity, String boundary) throws IOException {
+		return read(entity,boundary,LimitedInputStream.UNLIMITED);
+	}
+
+}
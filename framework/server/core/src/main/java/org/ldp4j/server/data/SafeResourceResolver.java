@@ -27,45 +27,47 @@
 package org.ldp4j.server.data;
 
 import java.net.URI;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
-
-import javax.ws.rs.core.MediaType;
+import java.util.LinkedList;
+import java.util.Queue;
 
 import org.ldp4j.application.data.ManagedIndividualId;
-import org.ldp4j.server.spi.ContentTransformationException;
-import org.ldp4j.server.spi.IMediaTypeProvider;
-import org.ldp4j.server.spi.IMediaTypeProvider.Unmarshaller;
-import org.ldp4j.server.spi.RuntimeInstance;
+import org.ldp4j.rdf.Node;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.URIRef;
+import org.ldp4j.server.spi.IMediaTypeProvider.Unmarshaller.TripleListener;
 
-final class SafeResourceResolver implements ResourceResolver {
+/**
+ * Resource resolver that only resolves those locations of an entity that
+ * cannot be mistaken for the resources to be created from it. The entity must
+ * be parsed against the alternative URI, and the resolver must listen to the
+ * triples parsed: the locations gathered from each triple are matched with
+ * the requests of the unmarshaller, so that the entity is only parsed once.
+ */
+final class SafeResourceResolver implements ResourceResolver, TripleListener {
 
-	static final class Resolution {
+	private final URIResolver uriResolver;
+	private final URIDescriber describer;
+	private final Queue<URI> alternatives;
 
-		private final URI path;
-		private final URIDescriptor descriptor;
-		private final URI realPath;
+	private ResourceResolver resolver;
 
-		Resolution(URI path, URIDescriptor descriptor, URI realPath) {
-			this.path = path;
-			this.descriptor = descriptor;
-			this.realPath = realPath;
-		}
+	private SafeResourceResolver(URIResolver uriResolver, URIDescriber describer) {
+		this.uriResolver=uriResolver;
+		this.describer=describer;
+		this.alternatives=new LinkedList<URI>();
+		this.resolver=new NullResourceResolver();
+	}
 
-		@Override
-		public String toString() {
-			return String.format("<%s> [<%s>] : %s",path,realPath,descriptor);
+	private void track(Node node) {
+		if(node instanceof URIRef) {
+			this.alternatives.add(((URIRef)node).getIdentity());
 		}
-
 	}
 
-	private Iterator<Resolution> resolutions;
-	private ResourceResolver resolver;
-
-	private SafeResourceResolver() {
-		this.resolver=new NullResourceResolver();
+	@Override
+	public void handleTriple(Triple triple) {
+		track(triple.getSubject());
+		track(triple.getObject());
 	}
 
 	@Override
@@ -75,15 +77,14 @@ final class SafeResourceResolver implements ResourceResolver {
 
 	@Override
 	public ManagedIndividualId resolveLocation(URI path) {
-		if(!resolutions.hasNext()) {
+		URI alternative=this.alternatives.poll();
+		if(alternative==null) {
 			throw new IllegalStateException("Unexpected resolution <"+path+">");
 		}
-		Resolution resolution=resolutions.next();
-		if(!resolution.path.equals(path)) {
-			throw new IllegalStateException("Invalid resolution: expected <"+resolution.path+"> but requested <"+path+">");
-		}
+		URI uri=this.uriResolver.resolve(path,alternative);
+		URIDescriptor descriptor=this.describer.describe(uri);
 		ManagedIndividualId result=null;
-		if(resolution.descriptor.isResolvable()) {
+		if(descriptor.isResolvable()) {
 			result=this.resolver.resolveLocation(path);
 		}
 		return result;
@@ -95,43 +96,15 @@ final class SafeResourceResolver implements ResourceResolver {
 		}
 	}
 
-	void setResolutions(Iterable<Resolution> resolutions) {
-		this.resolutions=resolutions.iterator();
-	}
-
 	static SafeResourceResolver.SafeResourceResolverBuilder builder() {
 		return new SafeResourceResolverBuilder();
 	}
 
 	static final class SafeResourceResolverBuilder {
 
-		private static final class URITrackingResourceResolver implements ResourceResolver {
-
-			private final List<URI> uris=new ArrayList<URI>();
-
-			@Override
-			public URI resolveResource(ManagedIndividualId id) {
-				return null;
-			}
-
-			@Override
-			public ManagedIndividualId resolveLocation(URI path) {
-				uris.add(path);
-				return null;
-			}
-
-			public List<URI> getURIs() {
-				return Collections.unmodifiableList(uris);
-			}
-
-		}
-
 		private URI application;
 		private URI endpoint;
 		private URI alternative;
-		private MediaType type;
-		private String entity;
-		private IMediaTypeProvider provider;
 
 		private SafeResourceResolverBuilder() {
 		}
@@ -151,60 +124,13 @@ final class SafeResourceResolver implements ResourceResolver {
 			return this;
 		}
 
-		SafeResourceResolverBuilder withEntity(String entity, MediaType type) {
-			this.entity=entity;
-			this.type=type;
-			return this;
-		}
-
-		SafeResourceResolver build() throws ContentTransformationException {
-			List<Resolution> resolutions = this.init();
-			SafeResourceResolver result = new SafeResourceResolver();
-			result.setResolutions(resolutions);
-			return result;
-		}
-
-		private List<Resolution> init() throws ContentTransformationException {
-			URIResolver resolver=URIResolver.newInstance(this.endpoint,this.alternative);
-			URIDescriber describer=URIDescriber.newInstance(this.application,this.endpoint);
-			List<URI> endpointExternals = externals(this.endpoint);
-			List<URI> alternativeExternals = externals(this.alternative);
-			List<Resolution> descriptors=new ArrayList<Resolution>();
-			for(int i=0;i<endpointExternals.size();i++) {
-				URI c1=endpointExternals.get(i);
-				URI c2=alternativeExternals.get(i);
-				URI uri = resolver.resolve(c1, c2);
-				URIDescriptor descriptor = describer.describe(uri);
-				descriptors.add(new Resolution(c1, descriptor, uri));
-			}
-			return descriptors;
-		}
-
-		private List<URI> externals(URI base) throws ContentTransformationException {
-			URITrackingResourceResolver index = new URITrackingResourceResolver();
-			Unmarshaller unmarshaller=
-				provider().
-					newUnmarshaller(
-						ImmutableContext.
-							newInstance(
-								base,
-								index
-							)
-						);
-			unmarshaller.unmarshall(this.entity, this.type);
-			return index.getURIs();
-		}
-
-		private IMediaTypeProvider provider() {
-			if(this.provider==null) {
-				this.provider =
-					RuntimeInstance.
-						getInstance().
-						getMediaTypeProvider(this.type);
-			}
-			return this.provider;
+		SafeResourceResolver build() {
+			return
+				new SafeResourceResolver(
+					URIResolver.newInstance(this.endpoint,this.alternative),
+					URIDescriber.newInstance(this.application,this.endpoint));
 		}
 
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,384 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.frontend;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.ldp4j.application.engine.context.PublicResource;
+import org.ldp4j.server.controller.Operation;
+import org.ldp4j.server.controller.OperationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Dispatches the processing of the LDP operations. By default operations
+ * are processed synchronously in the container thread. If the asynchronous
+ * mode is enabled via the {@value #ASYNC} system property, operations are
+ * processed in bounded executors. Each template has its own pair of
+ * executors, one for retrievals and another for modifications, so that
+ * slow handlers of a template cannot exhaust the threads used by others,
+ * and reads are never queued behind slow writes. Requests that cannot be
+ * queued or whose processing has not started in time are answered with a
+ * {@code 503 Service Unavailable} response including a {@code Retry-After}
+ * header. Requests whose processing has already started when the timeout
+ * expires are given more time instead, as they may already have modified
+ * the resources and retrying them could, for instance, duplicate the
+ * creation of a member.
+ */
+public final class OperationDispatcher {
+
+	/**
+	 * System property for enabling the asynchronous processing of the
+	 * operations.
+	 */
+	public static final String ASYNC = "org.ldp4j.server.frontend.async";
+
+	/**
+	 * System property for configuring the number of threads of each
+	 * executor. The value for the executors of a given template can be
+	 * configured appending {@code .<templateId>} to the property name.
+	 */
+	public static final String THREADS = "org.ldp4j.server.frontend.async.threads";
+
+	/**
+	 * System property for configuring the maximum number of operations
+	 * waiting to be processed by each executor. The value for the executors
+	 * of a given template can be configured appending {@code .<templateId>}
+	 * to the property name.
+	 */
+	public static final String QUEUE_CAPACITY = "org.ldp4j.server.frontend.async.queue";
+
+	/**
+	 * System property for configuring the maximum time (in milliseconds) that
+	 * a request may take to be processed.
+	 */
+	public static final String TIMEOUT = "org.ldp4j.server.frontend.async.timeout";
+
+	/**
+	 * System property for configuring the number of seconds that clients are
+	 * asked to wait before retrying a request that could not be processed.
+	 */
+	public static final String RETRY_AFTER = "org.ldp4j.server.frontend.async.retryAfter";
+
+	static final String DEFAULT_GROUP = "default";
+
+	private static final int DEFAULT_THREADS = 8;
+	private static final int DEFAULT_QUEUE_CAPACITY = 64;
+	private static final long DEFAULT_TIMEOUT = 30000;
+	private static final long DEFAULT_RETRY_AFTER = 5;
+
+	private static final String RETRY_AFTER_HEADER = "Retry-After";
+
+	private static final Logger LOGGER=LoggerFactory.getLogger(OperationDispatcher.class);
+
+	/**
+	 * Snapshot of the metrics of an executor.
+	 */
+	public static final class ExecutorStats {
+
+		private final String name;
+		private final int queueDepth;
+		private final int activeCount;
+		private final long completed;
+		private final long rejected;
+		private final long timedOut;
+
+		private ExecutorStats(String name, int queueDepth, int activeCount, long completed, long rejected, long timedOut) {
+			this.name=name;
+			this.queueDepth=queueDepth;
+			this.activeCount=activeCount;
+			this.completed=completed;
+			this.rejected=rejected;
+			this.timedOut=timedOut;
+		}
+
+		public String name() {
+			return this.name;
+		}
+
+		public int queueDepth() {
+			return this.queueDepth;
+		}
+
+		public int activeCount() {
+			return this.activeCount;
+		}
+
+		public long completed() {
+			return this.completed;
+		}
+
+		public long rejected() {
+			return this.rejected;
+		}
+
+		public long timedOut() {
+			return this.timedOut;
+		}
+
+		@Override
+		public String toString() {
+			return
+				Objects.
+					toStringHelper(getClass()).
+						add("name",this.name).
+						add("queueDepth",this.queueDepth).
+						add("activeCount",this.activeCount).
+						add("completed",this.completed).
+						add("rejected",this.rejected).
+						add("timedOut",this.timedOut).
+						toString();
+		}
+
+	}
+
+	private static final class OperationExecutor {
+
+		private final String name;
+		private final ThreadPoolExecutor executor;
+		private final AtomicLong rejected;
+		private final AtomicLong timedOut;
+
+		private OperationExecutor(String name, int threads, int capacity) {
+			this.name=name;
+			this.executor=
+				new ThreadPoolExecutor(
+					threads,
+					threads,
+					0L,
+					TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<Runnable>(capacity),
+					new ThreadFactoryBuilder().
+						setNameFormat("ldp4j-"+name+"-%d").
+						setDaemon(true).
+						build());
+			this.rejected=new AtomicLong();
+			this.timedOut=new AtomicLong();
+		}
+
+		ExecutorStats stats() {
+			return
+				new ExecutorStats(
+					this.name,
+					this.executor.getQueue().size(),
+					this.executor.getActiveCount(),
+					this.executor.getCompletedTaskCount(),
+					this.rejected.get(),
+					this.timedOut.get());
+		}
+
+	}
+
+	private final boolean async;
+	private final long timeout;
+	private final long retryAfter;
+	private final ConcurrentMap<String,OperationExecutor> executors;
+
+	OperationDispatcher(boolean async, long timeout, long retryAfter) {
+		checkArgument(timeout>0,"Timeout must be greater than zero");
+		checkArgument(retryAfter>=0,"Retry after cannot be negative");
+		this.async=async;
+		this.timeout=timeout;
+		this.retryAfter=retryAfter;
+		this.executors=new ConcurrentHashMap<String,OperationExecutor>();
+	}
+
+	private static boolean isRetrieval(Operation operation) {
+		return
+			Operation.GET.equals(operation) ||
+			Operation.HEAD.equals(operation) ||
+			Operation.OPTIONS.equals(operation);
+	}
+
+	private static int intProperty(String property, String group, int defaultValue) {
+		return Integer.getInteger(property+"."+group,Integer.getInteger(property,defaultValue));
+	}
+
+	static String group(OperationContext context) {
+		PublicResource resource=context.resource();
+		if(resource==null || resource.individualId()==null) {
+			return DEFAULT_GROUP;
+		}
+		return resource.individualId().managerId();
+	}
+
+	private OperationExecutor executor(String group, Operation operation) {
+		String name=group+(isRetrieval(operation)?"-read":"-write");
+		OperationExecutor executor=this.executors.get(name);
+		if(executor==null) {
+			OperationExecutor candidate=
+				new OperationExecutor(
+					name,
+					Math.max(1,intProperty(THREADS,group,DEFAULT_THREADS)),
+					Math.max(1,intProperty(QUEUE_CAPACITY,group,DEFAULT_QUEUE_CAPACITY)));
+			executor=this.executors.putIfAbsent(name,candidate);
+			if(executor==null) {
+				executor=candidate;
+			} else {
+				candidate.executor.shutdown();
+			}
+		}
+		return executor;
+	}
+
+	private Response serviceUnavailable() {
+		return
+			Response.
+				status(Status.SERVICE_UNAVAILABLE).
+				header(RETRY_AFTER_HEADER,this.retryAfter).
+				type(MediaType.TEXT_PLAIN).
+				language(Locale.ENGLISH).
+				entity("Service temporarily unavailable").
+				build();
+	}
+
+	/**
+	 * A response may have already been resumed, i.e., if the request timed
+	 * out while it was being processed.
+	 */
+	private static void resume(AsyncResponse response, Object result) {
+		try {
+			if(result instanceof Throwable) {
+				response.resume((Throwable)result);
+			} else {
+				response.resume(result);
+			}
+		} catch (IllegalStateException e) {
+			LOGGER.debug("Discarding result of request already resumed: {}",result);
+		}
+	}
+
+	private static void process(AsyncResponse response, Callable<Response> task) {
+		Object result=null;
+		try {
+			result=task.call();
+		} catch (Exception e) {
+			result=e;
+		}
+		resume(response,result);
+	}
+
+	boolean isAsync() {
+		return this.async;
+	}
+
+	void dispatch(final Operation operation, String group, final AsyncResponse response, final Callable<Response> task) {
+		checkNotNull(operation,"Operation cannot be null");
+		checkNotNull(response,"Response cannot be null");
+		checkNotNull(task,"Task cannot be null");
+		if(!this.async) {
+			process(response,task);
+			return;
+		}
+		final OperationExecutor executor=executor(group,operation);
+		// Either the executor starts processing the request or the timeout
+		// handler answers it, whatever happens first
+		final AtomicBoolean claimed=new AtomicBoolean(false);
+		response.setTimeout(this.timeout,TimeUnit.MILLISECONDS);
+		response.setTimeoutHandler(
+			new TimeoutHandler() {
+				@Override
+				public void handleTimeout(AsyncResponse asyncResponse) {
+					if(claimed.compareAndSet(false,true)) {
+						executor.timedOut.incrementAndGet();
+						resume(asyncResponse,serviceUnavailable());
+					} else {
+						LOGGER.debug("Extending timeout of {} operation: processing already started",operation);
+						asyncResponse.setTimeout(OperationDispatcher.this.timeout,TimeUnit.MILLISECONDS);
+					}
+				}
+			}
+		);
+		try {
+			executor.executor.execute(
+				new Runnable() {
+					@Override
+					public void run() {
+						// Skip requests that timed out while queued
+						if(claimed.compareAndSet(false,true)) {
+							process(response,task);
+						}
+					}
+				}
+			);
+		} catch (RejectedExecutionException e) {
+			executor.rejected.incrementAndGet();
+			LOGGER.debug("Rejected {} operation: executor {} is saturated",operation,executor.name);
+			resume(response,serviceUnavailable());
+		}
+	}
+
+	/**
+	 * Get a snapshot of the metrics of the executors created so far, indexed
+	 * by executor name.
+	 */
+	public Map<String,ExecutorStats> stats() {
+		ImmutableMap.Builder<String,ExecutorStats> builder=ImmutableMap.builder();
+		for(OperationExecutor executor:this.executors.values()) {
+			builder.put(executor.name,executor.stats());
+		}
+		return builder.build();
+	}
+
+	void shutdown() {
+		for(OperationExecutor executor:this.executors.values()) {
+			executor.executor.shutdown();
+		}
+	}
+
+	static OperationDispatcher create() {
+		return
+			new OperationDispatcher(
+				Boolean.parseBoolean(System.getProperty(ASYNC)),
+				Long.getLong(TIMEOUT,DEFAULT_TIMEOUT),
+				Long.getLong(RETRY_AFTER,DEFAULT_RETRY_AFTER));
+	}
+
+}
@@ -26,7 +26,10 @@
  */
 package org.ldp4j.server.frontend;
 
+import java.io.InputStream;
 import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 import javax.servlet.ServletContext;
 import javax.ws.rs.DELETE;
@@ -37,6 +40,8 @@ import javax.ws.rs.PUT;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -76,6 +81,7 @@ public class ServerFrontend {
 			case SHUTDOWN:
 				ApplicationEngine.
 					deregisterLifecycleListener(ServerFrontend.this.lifecyleListener);
+				ServerFrontend.this.dispatcher.shutdown();
 				break;
 			case UNAVAILABLE:
 				break;
@@ -97,6 +103,8 @@ public class ServerFrontend {
 
 	private final EndpointControllerFactory endpointControllerfactory;
 
+	private final OperationDispatcher dispatcher;
+
 	@Context
 	private ServletContext context;
 
@@ -112,6 +120,10 @@ public class ServerFrontend {
 		return controller;
 	}
 
+	private void dispatch(Operation operation, OperationContext context, AsyncResponse response, Callable<Response> task) {
+		this.dispatcher.dispatch(operation,OperationDispatcher.group(context),response,task);
+	}
+
 	private void checkApplicationEngineAvailable() {
 		if(!this.lifecyleListener.available()) {
 			Response failure =
@@ -129,6 +141,15 @@ public class ServerFrontend {
 		this.lifecyleListener=new LocalApplicationEngineLifecycleListener();
 		ApplicationEngine.registerLifecycleListener(this.lifecyleListener);
 		this.endpointControllerfactory=EndpointControllerFactory.create();
+		this.dispatcher=OperationDispatcher.create();
+	}
+
+	/**
+	 * Get the metrics of the executors used for processing the operations
+	 * when the asynchronous mode is enabled.
+	 */
+	public Map<String,OperationDispatcher.ExecutorStats> executorStats() {
+		return this.dispatcher.stats();
 	}
 
 	/**
@@ -141,24 +162,35 @@ public class ServerFrontend {
 	 * @param path
 	 * @param headers
 	 * @param request
-	 * @return
+	 * @param response
 	 */
 	@OPTIONS
 	@Path(ENDPOINT_PATH)
-	public Response options(
+	public void options(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
-		@Context Request request) {
-		EndpointController controller = createController(path);
-		OperationContext context =
+		@Context Request request,
+		@Suspended AsyncResponse response) {
+		final EndpointController controller = createController(path);
+		final OperationContext context =
 			controller.
 				operationContextBuilder(Operation.OPTIONS).
 					withUriInfo(uriInfo).
 					withHeaders(headers).
 					withRequest(request).
 					build();
-		return controller.options(context);
+		dispatch(
+			Operation.OPTIONS,
+			context,
+			response,
+			new Callable<Response>() {
+				@Override
+				public Response call() {
+					return controller.options(context);
+				}
+			}
+		);
 	}
 
 	/**
@@ -167,24 +199,35 @@ public class ServerFrontend {
 	 * @param path
 	 * @param headers
 	 * @param request
-	 * @return
+	 * @param response
 	 */
 	@HEAD
 	@Path(ENDPOINT_PATH)
-	public Response head(
+	public void head(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
-		@Context Request request) {
-		EndpointController controller = createController(path);
-		OperationContext context =
+		@Context Request request,
+		@Suspended AsyncResponse response) {
+		final EndpointController controller = createController(path);
+		final OperationContext context =
 			controller.
 				operationContextBuilder(Operation.HEAD).
 					withUriInfo(uriInfo).
 					withHeaders(headers).
 					withRequest(request).
 					build();
-		return controller.head(context);
+		dispatch(
+			Operation.HEAD,
+			context,
+			response,
+			new Callable<Response>() {
+				@Override
+				public Response call() {
+					return controller.head(context);
+				}
+			}
+		);
 	}
 
 	// TODO: Add a proper failure mechanism
@@ -205,35 +248,48 @@ public class ServerFrontend {
 
 	@GET
 	@Path(ENDPOINT_PATH)
-	public Response get(
+	public void get(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
-		@Context Request request) {
+		@Context Request request,
+		@Suspended AsyncResponse response) {
 		if(path.equals("") || path.equals("/")) {
-			return get(uriInfo,headers,request);
+			response.resume(get(uriInfo,headers,request));
+			return;
 		}
-		EndpointController controller=createController(path);
-		OperationContext context =
+		final EndpointController controller=createController(path);
+		final OperationContext context =
 			controller.
 				operationContextBuilder(Operation.GET).
 					withUriInfo(uriInfo).
 					withHeaders(headers).
 					withRequest(request).
 					build();
-		return controller.getResource(context);
+		dispatch(
+			Operation.GET,
+			context,
+			response,
+			new Callable<Response>() {
+				@Override
+				public Response call() {
+					return controller.getResource(context);
+				}
+			}
+		);
 	}
 
 	@PUT
 	@Path(ENDPOINT_PATH)
-	public Response put(
+	public void put(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
 		@Context Request request,
-		String entity) {
-		EndpointController controller = createController(path);
-		OperationContext context =
+		InputStream entity,
+		@Suspended AsyncResponse response) {
+		final EndpointController controller = createController(path);
+		final OperationContext context =
 			controller.
 				operationContextBuilder(Operation.PUT).
 					withUriInfo(uriInfo).
@@ -241,19 +297,30 @@ public class ServerFrontend {
 					withRequest(request).
 					withEntity(entity).
 					build();
-		return controller.modifyResource(context);
+		dispatch(
+			Operation.PUT,
+			context,
+			response,
+			new Callable<Response>() {
+				@Override
+				public Response call() {
+					return controller.modifyResource(context);
+				}
+			}
+		);
 	}
 
 	@POST
 	@Path(ENDPOINT_PATH)
-	public Response post(
+	public void post(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
 		@Context Request request,
-		String entity) {
-		EndpointController controller = createController(path);
-		OperationContext context =
+		InputStream entity,
+		@Suspended AsyncResponse response) {
+		final EndpointController controller = createController(path);
+		final OperationContext context =
 			controller.
 				operationContextBuilder(Operation.POST).
 					withUriInfo(uriInfo).
@@ -261,37 +328,59 @@ public class ServerFrontend {
 					withRequest(request).
 					withEntity(entity).
 					build();
-		return controller.createResource(context);
+		dispatch(
+			Operation.POST,
+			context,
+			response,
+			new Callable<Response>() {
+				@Override
+				public Response call() {
+					return controller.createResource(context);
+				}
+			}
+		);
 	}
 
 	@DELETE
 	@Path(ENDPOINT_PATH)
-	public Response delete(
+	public void delete(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
-		@Context Request request) {
-		EndpointController controller = createController(path);
-		OperationContext context =
+		@Context Request request,
+		@Suspended AsyncResponse response) {
+		final EndpointController controller = createController(path);
+		final OperationContext context =
 			controller.
 				operationContextBuilder(Operation.DELETE).
 					withUriInfo(uriInfo).
 					withHeaders(headers).
 					withRequest(request).
 					build();
-		return controller.deleteResource(context);
+		dispatch(
+			Operation.DELETE,
+			context,
+			response,
+			new Callable<Response>() {
+				@Override
+				public Response call() {
+					return controller.deleteResource(context);
+				}
+			}
+		);
 	}
 
 	@PATCH
 	@Path(ENDPOINT_PATH)
-	public Response patch(
+	public void patch(
 		@Context UriInfo uriInfo,
 		@PathParam(ENDPOINT_PATH_PARAM) String path,
 		@Context HttpHeaders headers,
 		@Context Request request,
-		String entity) {
-		EndpointController controller = createController(path);
-		OperationContext context =
+		InputStream entity,
+		@Suspended AsyncResponse response) {
+		final EndpointController controller = createController(path);
+		final OperationContext context =
 			controller.
 				operationContextBuilder(Operation.OPTIONS).
 					withUriInfo(uriInfo).
@@ -299,7 +388,17 @@ public class ServerFrontend {
 					withRequest(request).
 					withEntity(entity).
 					build();
-		return controller.patchResource(context);
+		dispatch(
+			Operation.PATCH,
+			context,
+			response,
+			new Callable<Response>() {
+				@Override
+				public Response call() {
+					return controller.patchResource(context);
+				}
+			}
+		);
 	}
 
 }
@@ -26,8 +26,18 @@
  */
 package org.ldp4j.server.impl;
 
-
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import javax.ws.rs.core.MediaType;
@@ -39,13 +49,57 @@ import org.ldp4j.application.data.NamingScheme;
 import org.ldp4j.application.engine.util.ListenerManager;
 import org.ldp4j.application.engine.util.Notification;
 import org.ldp4j.rdf.Triple;
-import org.ldp4j.rdf.util.TripleSet;
+import org.ldp4j.rdf.TripleHandler;
+import org.ldp4j.rdf.impl.MarshallOptions.MarshallStyle;
 import org.ldp4j.server.data.Context;
+import org.ldp4j.server.data.ImmutableContext;
 import org.ldp4j.server.spi.ContentTransformationException;
 import org.ldp4j.server.spi.IMediaTypeProvider;
+import org.ldp4j.server.utils.MediaTypeUtils;
+
+import com.google.common.collect.AbstractIterator;
 
 abstract class AbstractMediaTypeProvider implements IMediaTypeProvider {
 
+	/**
+	 * Pulls the triples of the individuals one individual at a time, so that
+	 * the serializers write the triples as they are generated instead of
+	 * waiting for the whole data set to be translated. Duplicates are skipped
+	 * within the triples of each individual.
+	 */
+	private static final class TripleStream extends AbstractIterator<Triple> implements TripleSetBuilder.TripleSink {
+
+		private final Iterator<? extends Individual<?,?>> individuals;
+		private final TripleSetBuilder builder;
+		private final Set<Triple> buffer;
+		private Iterator<Triple> current;
+
+		private TripleStream(Context context, Iterator<? extends Individual<?,?>> individuals) {
+			this.individuals=individuals;
+			this.builder=new TripleSetBuilder(context.getResourceResolver(),context.getBase(),this);
+			this.buffer=new LinkedHashSet<Triple>();
+			this.current=this.buffer.iterator();
+		}
+
+		@Override
+		public void addTriple(Triple triple) {
+			this.buffer.add(triple);
+		}
+
+		@Override
+		protected Triple computeNext() {
+			while(!this.current.hasNext()) {
+				this.buffer.clear();
+				if(!this.builder.generateNextTriples(this.individuals)) {
+					return endOfData();
+				}
+				this.current=this.buffer.iterator();
+			}
+			return this.current.next();
+		}
+
+	}
+
 	private final class MarshallerImplementation implements Marshaller {
 
 		private final Context context;
@@ -54,17 +108,39 @@ abstract class AbstractMediaTypeProvider implements IMediaTypeProvider {
 			this.context = context;
 		}
 
+		private Iterable<Triple> generateTriples(final DataSet content) {
+			return new Iterable<Triple>() {
+				@Override
+				public Iterator<Triple> iterator() {
+					return new TripleStream(context,content.iterator());
+				}
+			};
+		}
+
 		@Override
 		public String marshall(DataSet content, MediaType targetMediaType) throws ContentTransformationException {
 			validateContent(content);
 			validateMediaType(targetMediaType);
-			TripleSetBuilder tripleSetBuilder = new TripleSetBuilder(context.getResourceResolver(),context.getBase());
-			for(Individual<?,?> individual:content) {
-				tripleSetBuilder.generateTriples(individual);
+			StringWriter writer=new StringWriter();
+			doMarshallContent(context,generateTriples(content),targetMediaType,writer,MarshallStyle.PRETTY_PRINTING);
+			return writer.toString();
+		}
+
+		@Override
+		public void marshall(DataSet content, MediaType targetMediaType, OutputStream output) throws ContentTransformationException {
+			validateContent(content);
+			validateMediaType(targetMediaType);
+			validateOutput(output);
+			Writer writer=new BufferedWriter(new OutputStreamWriter(output,MediaTypeUtils.charset(targetMediaType)));
+			MarshallStyle style=isStreamable(targetMediaType)?MarshallStyle.STREAMING:MarshallStyle.PRETTY_PRINTING;
+			doMarshallContent(context,generateTriples(content),targetMediaType,writer,style);
+			try {
+				writer.flush();
+			} catch (IOException e) {
+				throw new ContentTransformationException("Could not flush marshalled contents",e);
 			}
-			TripleSet triples=tripleSetBuilder.build();
-			return doMarshallContent(context,triples,targetMediaType);
 		}
+
 	}
 
 	private final class UnmarshallerImpl implements Unmarshaller {
@@ -83,27 +159,59 @@ abstract class AbstractMediaTypeProvider implements IMediaTypeProvider {
 		public DataSet unmarshall(String content, MediaType type) throws ContentTransformationException {
 			validateContent(content);
 			validateMediaType(type);
-			Iterable<Triple> triples = doUnmarshallContent(context,content,type);
+			return unmarshall(new StringReader(content),type);
+		}
+
+		@Override
+		public DataSet unmarshall(InputStream content, MediaType type) throws ContentTransformationException {
+			validateContent(content);
+			validateMediaType(type);
+			return unmarshall(new InputStreamReader(content,MediaTypeUtils.charset(type)),type);
+		}
+
+		/**
+		 * Triples are added to the data set as soon as the parser emits them,
+		 * so that the raw content and the parsed triples are never fully
+		 * kept in memory. Listeners get the triples as parsed, before
+		 * translating the locations relative to the alternative base of the
+		 * context, if any.
+		 */
+		private DataSet unmarshall(Reader content, MediaType type) throws ContentTransformationException {
 			final DataSet dataSet=DataSetFactory.createDataSet(NamingScheme.getDefault().name(context.getBase()));
-			final ValueAdapter adapter=new ValueAdapter(context.getResourceResolver(),dataSet,context.getBase());
-			for(final Triple triple:triples) {
-				this.listeners.notify(
-					new Notification<IMediaTypeProvider.Unmarshaller.TripleListener>() {
-						@Override
-						public void propagate(TripleListener listener) {
-							listener.handleTriple(triple);
-						}
+			final ValueAdapter adapter=new ValueAdapter(context.getResourceResolver(),dataSet,context.getBase(),context.getAlternative());
+			doUnmarshallContent(
+				parsingContext(),
+				content,
+				type,
+				new TripleHandler() {
+					@Override
+					public void handleTriple(final Triple triple) {
+						UnmarshallerImpl.this.listeners.notify(
+							new Notification<IMediaTypeProvider.Unmarshaller.TripleListener>() {
+								@Override
+								public void propagate(TripleListener listener) {
+									listener.handleTriple(triple);
+								}
+							}
+						);
+						Individual<?,?> individual=adapter.getIndividual(triple.getSubject());
+						individual.
+							addValue(
+								triple.getPredicate().getIdentity(),
+								adapter.getValue(triple.getObject()));
 					}
-				);
-				Individual<?,?> individual=adapter.getIndividual(triple.getSubject());
-				individual.
-					addValue(
-						triple.getPredicate().getIdentity(), 
-						adapter.getValue(triple.getObject()));
-			}
+				}
+			);
 			return dataSet;
 		}
 
+		private Context parsingContext() {
+			if(this.context.getAlternative()==null) {
+				return this.context;
+			}
+			return ImmutableContext.newInstance(this.context.getAlternative(),this.context.getResourceResolver());
+		}
+
 		@Override
 		public void registerTripleListener(TripleListener listener) {
 			this.listeners.registerListener(listener);
@@ -137,6 +245,12 @@ abstract class AbstractMediaTypeProvider implements IMediaTypeProvider {
 		}
 	}
 
+	private void validateOutput(OutputStream output) {
+		if(output==null) {
+			throw new IllegalArgumentException("Object 'output' cannot be null");
+		}
+	}
+
 	private void validateContent(Object content) {
 		if(content==null) {
 			throw new IllegalArgumentException("Object 'content' cannot be null");
@@ -153,8 +267,18 @@ abstract class AbstractMediaTypeProvider implements IMediaTypeProvider {
 		return new UnmarshallerImpl(context);
 	}
 
-	protected abstract Iterable<Triple> doUnmarshallContent(Context context,String content, MediaType type) throws ContentTransformationException;
+	/**
+	 * Parse the content, handing each triple to the specified handler as soon
+	 * as it is available.
+	 */
+	protected abstract void doUnmarshallContent(Context context, Reader content, MediaType type, TripleHandler handler) throws ContentTransformationException;
 
-	protected abstract String doMarshallContent(Context context, Iterable<Triple> content, MediaType type) throws ContentTransformationException;
+	/**
+	 * Serialize the specified triples into the given writer using the
+	 * specified style. The streaming style is only requested for the media
+	 * types that are {@link #isStreamable(MediaType) streamable}.
+	 * Implementations must not close the writer.
+	 */
+	protected abstract void doMarshallContent(Context context, Iterable<Triple> content, MediaType type, Writer writer, MarshallStyle style) throws ContentTransformationException;
 
 }
@@ -27,7 +27,8 @@
 package org.ldp4j.server.impl;
 
 import java.io.IOException;
-import java.io.StringWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.util.Set;
 
 import javax.ws.rs.core.MediaType;
@@ -35,7 +36,9 @@ import javax.ws.rs.core.MediaType;
 import org.ldp4j.rdf.Format;
 import org.ldp4j.rdf.RDFContext;
 import org.ldp4j.rdf.Triple;
-import org.ldp4j.rdf.impl.UnmarshallOptions;
+import org.ldp4j.rdf.TripleHandler;
+import org.ldp4j.rdf.impl.MarshallOptions;
+import org.ldp4j.rdf.impl.MarshallOptions.MarshallStyle;
 import org.ldp4j.server.data.Context;
 import org.ldp4j.server.spi.ContentTransformationException;
 
@@ -52,23 +55,26 @@ public class RDFXMLMediaTypeProvider extends AbstractMediaTypeProvider {
 	}
 
 	@Override
-	protected Iterable<Triple> doUnmarshallContent(Context context, String content, MediaType type) throws ContentTransformationException {
+	protected void doUnmarshallContent(Context context, Reader content, MediaType type, TripleHandler handler) throws ContentTransformationException {
 		try {
 			RDFContext rdfContext = RDFContext.createContext(context.getBase());
-			rdfContext.setOption(UnmarshallOptions.TRIPLE_ORDERING, UnmarshallOptions.Ordering.KEEP_TRIPLE_ORDER);
-			return rdfContext.deserialize(content, Format.RDF_XML);
+			rdfContext.deserialize(content, Format.RDF_XML, handler);
 		} catch (IOException e) {
 			throw new ContentTransformationException("Could not unmarshall contents",e);
 		}
 	}
 
 	@Override
-	protected String doMarshallContent(Context context, Iterable<Triple> content, MediaType type) throws ContentTransformationException {
+	public boolean isStreamable(MediaType type) {
+		return isSupported(type) && MarshallOptions.isStreamable(Format.RDF_XML);
+	}
+
+	@Override
+	protected void doMarshallContent(Context context, Iterable<Triple> content, MediaType type, Writer writer, MarshallStyle style) throws ContentTransformationException {
 		try {
 			RDFContext rdfContext = RDFContext.createContext(context.getBase());
-			StringWriter writer = new StringWriter();
+			rdfContext.setOption(MarshallOptions.MARSHALL_STYLE, style);
 			rdfContext.serialize(content, Format.RDF_XML, writer);
-			return writer.toString(); 
 		} catch (IOException e) {
 			throw new ContentTransformationException("Could not marshall contents",e);
 		}
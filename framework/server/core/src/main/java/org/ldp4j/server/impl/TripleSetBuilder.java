@@ -32,11 +32,13 @@ import static org.ldp4j.rdf.util.RDFModelDSL.triple;
 import static org.ldp4j.rdf.util.RDFModelDSL.uriRef;
 
 import java.net.URI;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.HashMap;
-import java.util.List;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.Queue;
+import java.util.Set;
 
 import javax.xml.namespace.QName;
 
@@ -54,11 +56,48 @@ import org.ldp4j.application.data.ValueVisitor;
 import org.ldp4j.application.vocabulary.Term;
 import org.ldp4j.rdf.BlankNode;
 import org.ldp4j.rdf.Resource;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.URIRef;
+import org.ldp4j.rdf.util.RDFModelDSL;
 import org.ldp4j.rdf.util.TripleSet;
 import org.ldp4j.server.data.ResourceResolver;
 
+/**
+ * Translates individuals into triples. Each individual reachable from the
+ * requested ones is processed once, and the triples are emitted to the sink
+ * as soon as they are generated. The visitors are reused, the individuals are
+ * processed iteratively and the resources of the individuals are memoized, so
+ * that the cost is linear in the number of property values.
+ */
 final class TripleSetBuilder {
 
+	interface TripleSink {
+
+		void addTriple(Triple triple);
+
+	}
+
+	private static final class TripleSetSink implements TripleSink {
+
+		private TripleSet triples=newTripleSet();
+
+		@Override
+		public void addTriple(Triple triple) {
+			this.triples.add(triple);
+		}
+
+		private static TripleSet newTripleSet() {
+			return new TripleSet(TripleSet.Ordering.SORTED,RDFModelDSL.dictionary());
+		}
+
+		private TripleSet release() {
+			TripleSet result=this.triples;
+			this.triples=newTripleSet();
+			return result;
+		}
+
+	}
+
 	private interface NameMapper<T extends Resource<?>> {
 
 		T getResource(Name<?> name);
@@ -106,31 +145,65 @@ final class TripleSetBuilder {
 		}
 	}
 
+	private final class ResourceMapper implements IndividualVisitor {
+
+		private Resource<?> resource;
+
+		private Resource<?> getResource(Individual<?,?> individual) {
+			individual.accept(this);
+			Resource<?> result=this.resource;
+			this.resource=null;
+			return result;
+		}
+
+		@Override
+		public void visitManagedIndividual(ManagedIndividual individual) {
+			ManagedIndividualId id = individual.id();
+			URI path = resourceResolver.resolveResource(id);
+			if(path==null) {
+				throw new IllegalStateException("Could not resolve individual '"+id+"'");
+			}
+			this.resource=uriRef(base.resolve(path));
+		}
+
+		@Override
+		public void visitLocalIndividual(LocalIndividual individual) {
+			this.resource=nameMapper.getResource(individual.name());
+		}
+
+		@Override
+		public void visitExternalIndividual(ExternalIndividual individual) {
+			this.resource=uriRef(individual.id());
+		}
+
+	}
+
 	private final class TripleGenerator implements ValueVisitor {
 
-		private final Resource<?> subject;
-		private final URI predicate;
+		private Resource<?> subject;
+		private URIRef predicate;
 
-		private TripleGenerator(Individual<?,?> individual, Property property) {
-			this.subject = toResource(individual);
-			this.predicate = property.predicate();
+		private void generate(Resource<?> subject, URIRef predicate, Property property) {
+			this.subject = subject;
+			this.predicate = predicate;
+			property.accept(this);
 		}
 
 		@Override
 		public void visitIndividual(Individual<?,?> individual) {
-			triples.add(
+			sink.addTriple(
 				triple(
 					subject,
 					predicate,
 					toResource(individual)
 				)
 			);
-			TripleSetBuilder.this.generateTriples(individual);
+			enqueue(individual);
 		}
 
 		@Override
 		public void visitLiteral(Literal<?> literal) {
-			triples.add(
+			sink.addTriple(
 				triple(
 					subject,
 					predicate,
@@ -141,76 +214,105 @@ final class TripleSetBuilder {
 	}
 
 	private final ResourceResolver resourceResolver;
-	private final Map<Object,Resource<?>> localResources;
-	private final List<Object> visitedIndividuals;
-
 	private final URI base;
-	private TripleSet triples;
+
+	private final Map<Object,Resource<?>> resources;
+	private final Set<Object> visitedIndividuals;
+	private final Queue<Individual<?,?>> pendingIndividuals;
+
+	private final LocalNameVisitor nameMapper;
+	private final ResourceMapper resourceMapper;
+	private final TripleGenerator tripleGenerator;
+
+	private final TripleSink sink;
+	private final TripleSetSink tripleSetSink;
 
 	TripleSetBuilder(ResourceResolver resourceResolver, URI base) {
+		this(resourceResolver,base,new TripleSetSink());
+	}
+
+	TripleSetBuilder(ResourceResolver resourceResolver, URI base, TripleSink sink) {
 		this.resourceResolver=resourceResolver;
 		this.base = base;
-		this.localResources=new HashMap<Object,Resource<?>>();
-		this.visitedIndividuals=new ArrayList<Object>();
-		this.triples=new TripleSet();
+		this.resources=new HashMap<Object,Resource<?>>();
+		this.visitedIndividuals=new HashSet<Object>();
+		this.pendingIndividuals=new ArrayDeque<Individual<?,?>>();
+		this.nameMapper=new LocalNameVisitor();
+		this.resourceMapper=new ResourceMapper();
+		this.tripleGenerator=new TripleGenerator();
+		this.sink=sink;
+		this.tripleSetSink=(sink instanceof TripleSetSink)?(TripleSetSink)sink:null;
 	}
 
 	private Resource<?> toResource(Individual<?,?> individual) {
-		final AtomicReference<Resource<?>> result=new AtomicReference<Resource<?>>();
-		individual.accept(
-			new IndividualVisitor() {
-				@Override
-				public void visitManagedIndividual(ManagedIndividual individual) {
-					ManagedIndividualId id = individual.id();
-					URI path = resourceResolver.resolveResource(id);
-					if(path==null) {
-						throw new IllegalStateException("Could not resolve individual '"+id+"'");
-					}
-					result.set(uriRef(base.resolve(path)));
-				}
-				@Override
-				public void visitLocalIndividual(LocalIndividual individual) {
-					result.set(toSessionResource(individual.name()));
-				}
-				@Override
-				public void visitExternalIndividual(ExternalIndividual individual) {
-					result.set(uriRef(individual.id()));
-				}
-			}
-		);
-		return result.get();
+		Object id=individual.id();
+		Resource<?> resource=this.resources.get(id);
+		if(resource==null) {
+			resource=this.resourceMapper.getResource(individual);
+			this.resources.put(id,resource);
+		}
+		return resource;
 	}
 
-	private Resource<?> toSessionResource(Name<?> id) {
-		Resource<?> local=localResources.get(id);
-		if(local==null) {
-			NameMapper<?> mapper=new LocalNameVisitor();
-			local=mapper.getResource(id);
-			localResources.put(id, local);
+	private void enqueue(Individual<?,?> individual) {
+		if(this.visitedIndividuals.add(individual.id())) {
+			this.pendingIndividuals.add(individual);
 		}
-		return local;
 	}
 
+	/**
+	 * Get the triples generated so far, provided that the builder was created
+	 * without an external sink.
+	 */
 	TripleSet build() {
-		TripleSet result = triples;
+		if(this.tripleSetSink==null) {
+			throw new IllegalStateException("Triples have been emitted to an external sink");
+		}
+		TripleSet result = this.tripleSetSink.release();
 		clear();
 		return result;
 	}
 
 	void clear() {
-		triples=new TripleSet();
-		localResources.clear();
-		visitedIndividuals.clear();
+		this.resources.clear();
+		this.visitedIndividuals.clear();
+		this.pendingIndividuals.clear();
+	}
+
+	private boolean generatePendingTriples() {
+		Individual<?,?> next=this.pendingIndividuals.poll();
+		if(next==null) {
+			return false;
+		}
+		Resource<?> subject=toResource(next);
+		for(Property property:next) {
+			this.tripleGenerator.generate(subject,uriRef(property.predicate()),property);
+		}
+		return true;
 	}
 
 	void generateTriples(Individual<?,?> individual) {
-		Object id = individual.id();
-		if(!visitedIndividuals.contains(id)) {
-			visitedIndividuals.add(id);
-			for(Property property:individual) {
-				property.accept(new TripleGenerator(individual,property));
+		enqueue(individual);
+		while(generatePendingTriples()) {
+			// Keep on until all the reachable individuals are processed
+		}
+	}
+
+	/**
+	 * Emit the triples of a single individual: the next one pending, or else
+	 * the next of the specified individuals. This allows the caller to pull
+	 * the triples incrementally instead of generating all of them at once.
+	 *
+	 * @return {@code false} if there are no more individuals to process.
+	 */
+	boolean generateNextTriples(Iterator<? extends Individual<?,?>> individuals) {
+		while(!generatePendingTriples()) {
+			if(!individuals.hasNext()) {
+				return false;
 			}
+			enqueue(individuals.next());
 		}
+		return true;
 	}
 
-}
\ No newline at end of file
+}
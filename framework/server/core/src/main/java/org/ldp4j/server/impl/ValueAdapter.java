@@ -54,9 +54,10 @@ final class ValueAdapter {
 
 		@Override
 		public Individual<?,?> visitURIRef(URIRef node, Individual<?,?> defaultResult) {
-			ManagedIndividualId resourceId = resourceResolver.resolveLocation(node.getIdentity());
+			URI location = location(node);
+			ManagedIndividualId resourceId = resourceResolver.resolveLocation(location);
 			if(resourceId==null) {
-				return dataSet.individual(base.relativize(node.getIdentity()),ExternalIndividual.class);
+				return dataSet.individual(base.relativize(location),ExternalIndividual.class);
 			}
 			return dataSet.individual(resourceId, ManagedIndividual.class);
 		}
@@ -88,9 +89,10 @@ final class ValueAdapter {
 
 		@Override
 		public Value visitURIRef(URIRef node, Value defaultResult) {
-			ManagedIndividualId resourceId = resourceResolver.resolveLocation(node.getIdentity());
+			URI location = location(node);
+			ManagedIndividualId resourceId = resourceResolver.resolveLocation(location);
 			if(resourceId==null) {
-				return dataSet.individual(base.relativize(node.getIdentity()),ExternalIndividual.class);
+				return dataSet.individual(base.relativize(location),ExternalIndividual.class);
 			}
 			return dataSet.individual(resourceId, ManagedIndividual.class);
 		}
@@ -112,14 +114,38 @@ final class ValueAdapter {
 
 	private final URI base;
 
+	private final String basePrefix;
+	private final String alternativePrefix;
+
 	ValueAdapter(ResourceResolver resourceResolver, DataSet dataSet, URI base) {
+		this(resourceResolver,dataSet,base,null);
+	}
+
+	ValueAdapter(ResourceResolver resourceResolver, DataSet dataSet, URI base, URI alternative) {
 		this.resourceResolver = resourceResolver;
 		this.dataSet = dataSet;
 		this.base = base;
+		this.basePrefix = base.resolve("/").toString();
+		this.alternativePrefix = alternative==null?null:alternative.resolve("/").toString();
 		this.nameGenerator = new NameGenerator();
 		this.objectGenerator = new ObjectGenerator();
 	}
 
+	/**
+	 * Translate the locations parsed against the alternative base back to
+	 * the base. Only the scheme and authority of both bases differ.
+	 */
+	private URI location(URIRef node) {
+		URI location=node.getIdentity();
+		if(this.alternativePrefix!=null) {
+			String rawLocation=location.toString();
+			if(rawLocation.startsWith(this.alternativePrefix)) {
+				location=URI.create(this.basePrefix.concat(rawLocation.substring(this.alternativePrefix.length())));
+			}
+		}
+		return location;
+	}
+
 	Individual<?,?> getIndividual(Resource<?> resource) {
 		return resource.accept(nameGenerator);
 	}
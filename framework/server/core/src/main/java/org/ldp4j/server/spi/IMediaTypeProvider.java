@@ -26,6 +26,8 @@
  */
 package org.ldp4j.server.spi;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.Set;
 
 import javax.ws.rs.core.MediaType;
@@ -39,7 +41,9 @@ public interface IMediaTypeProvider {
 	public interface Marshaller {
 		
 		String marshall(DataSet content, MediaType targetMediaType) throws ContentTransformationException;
-		
+
+		void marshall(DataSet content, MediaType targetMediaType, OutputStream output) throws ContentTransformationException;
+
 	}
 	
 	public interface Unmarshaller {
@@ -53,11 +57,20 @@ public interface IMediaTypeProvider {
 		void deregisterTripleListener(TripleListener listener);
 		
 		DataSet unmarshall(String content, MediaType targetMediaType) throws ContentTransformationException;
+
+		DataSet unmarshall(InputStream content, MediaType targetMediaType) throws ContentTransformationException;
 		
 	}
 
 	boolean isSupported(MediaType type);
 
+	/**
+	 * @return whether the representations of the specified media type are
+	 *         written to the output stream as they are generated, instead of
+	 *         being buffered in memory first
+	 */
+	boolean isStreamable(MediaType type);
+
 	Set<MediaType> getSupportedMediaTypes();
 
 	Marshaller newMarshaller(Context configuration);
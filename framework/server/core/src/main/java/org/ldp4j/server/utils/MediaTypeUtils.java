@@ -0,0 +1,69 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.utils;
+
+import java.nio.charset.Charset;
+
+import javax.ws.rs.core.MediaType;
+
+public final class MediaTypeUtils {
+
+	private static final String CHARSET_PARAMETER = "charset";
+
+	private static final Charset DEFAULT_CHARSET=Charset.forName("UTF-8");
+
+	private MediaTypeUtils() {
+	}
+
+	/**
+	 * Get the charset declared by a media type. If no charset is declared, or
+	 * the declared one is not supported, UTF-8 is used.
+	 *
+	 * @param mediaType
+	 *            The media type whose charset is to be retrieved.
+	 * @return The charset to use for the media type.
+	 */
+	public static Charset charset(MediaType mediaType) {
+		Charset result=DEFAULT_CHARSET;
+		if(mediaType!=null) {
+			String charset=mediaType.getParameters().get(CHARSET_PARAMETER);
+			if(charset!=null && isSupported(charset)) {
+				result=Charset.forName(charset);
+			}
+		}
+		return result;
+	}
+
+	private static boolean isSupported(String charset) {
+		try {
+			return Charset.isSupported(charset);
+		} catch (IllegalArgumentException e) {
+			return false;
+		}
+	}
+
+}
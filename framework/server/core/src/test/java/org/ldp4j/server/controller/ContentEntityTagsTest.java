@@ -0,0 +1,76 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import org.junit.Test;
+import org.ldp4j.application.engine.context.EntityTag;
+
+public class ContentEntityTagsTest {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static StreamingOutput output(final String content) {
+		return new StreamingOutput() {
+			@Override
+			public void write(OutputStream output) throws IOException {
+				output.write(content.getBytes(UTF_8));
+			}
+		};
+	}
+
+	@Test
+	public void testEntityTagsAreStrong() throws Exception {
+		EntityTag entityTag=ContentEntityTags.entityTag("<a> <b> <c> .".getBytes(UTF_8));
+		assertThat(entityTag.isWeak(),equalTo(false));
+		assertThat(entityTag.getValue().length(),equalTo(32));
+	}
+
+	@Test
+	public void testIncrementalHashMatchesContentHash() throws Exception {
+		ContentEntityTags.Representation representation=ContentEntityTags.serialize(output("<a> <b> <c> ."));
+		assertThat(new String(representation.content(),UTF_8),equalTo("<a> <b> <c> ."));
+		assertThat(representation.entityTag(),equalTo(ContentEntityTags.entityTag(representation.content())));
+	}
+
+	@Test
+	public void testDifferentContentsHaveDifferentEntityTags() throws Exception {
+		EntityTag first=ContentEntityTags.serialize(output("<a> <b> <c> .")).entityTag();
+		EntityTag second=ContentEntityTags.serialize(output("<a> <b> <d> .")).entityTag();
+		assertThat(first,not(equalTo(second)));
+	}
+
+}
@@ -48,6 +48,15 @@ public class ContentPreferencesUtilsTest {
 	private static final String SINGLE_INCLUDE_PREFERENCE = "return=representation; include=\"http://www.w3.org/ns/ldp#PreferMinimalContainer\"";
 	private static final String MULTIPLE_INCLUDE_PREFERENCE = "return=representation; include=\"http://www.w3.org/ns/ldp#PreferContainment http://www.w3.org/ns/ldp#PreferMembership\"";
 
+	private static final String PAGED_PREFERENCES = "return=representation; include=\"http://www.w3.org/ns/ldp#PreferMinimalContainer\"; max-member-count=\"25\"";
+
+	private static final ContentPreferences PAGED =
+			ContentPreferences.
+				builder().
+					withInclude(Preference.MINIMAL_CONTAINER).
+					withPageSize(25).
+					build();
+
 	private static final ContentPreferences COMPOSITE_PREFERENCES = 
 			ContentPreferences.
 				builder().
@@ -102,6 +111,12 @@ public class ContentPreferencesUtilsTest {
 		assertThat(ContentPreferencesUtils.fromPreferenceHeader(SINGLE_INCLUDE_PREFERENCE),equalTo(SINGLE_INCLUDE));
 		assertThat(ContentPreferencesUtils.fromPreferenceHeader(MULTIPLE_INCLUDE_PREFERENCE),equalTo(MULTIPLE_INCLUDES));
 		assertThat(ContentPreferencesUtils.fromPreferenceHeader(MULTIPLE_OMIT_PREFERENCES),equalTo(MULTIPLE_OMITS));
+		assertThat(ContentPreferencesUtils.fromPreferenceHeader(PAGED_PREFERENCES),equalTo(PAGED));
+	}
+
+	@Test(expected=InvalidPreferenceHeaderException.class)
+	public void testFromPreferenceHeader$invalidValues$non_positive_max_member_count() throws Exception {
+		ContentPreferencesUtils.fromPreferenceHeader("return=representation; max-member-count=\"0\"");
 	}
 
 	@Test(expected=InvalidPreferenceHeaderException.class)
@@ -144,6 +159,7 @@ public class ContentPreferencesUtilsTest {
 		assertThat(ContentPreferencesUtils.fromPreferenceHeader(ContentPreferencesUtils.asPreferenceHeader(COMPOSITE_PREFERENCES)),equalTo(COMPOSITE_PREFERENCES));
 		assertThat(ContentPreferencesUtils.fromPreferenceHeader(ContentPreferencesUtils.asPreferenceHeader(MULTIPLE_INCLUDES)),equalTo(MULTIPLE_INCLUDES));
 		assertThat(ContentPreferencesUtils.fromPreferenceHeader(ContentPreferencesUtils.asPreferenceHeader(MULTIPLE_OMITS)),equalTo(MULTIPLE_OMITS));
+		assertThat(ContentPreferencesUtils.fromPreferenceHeader(ContentPreferencesUtils.asPreferenceHeader(PAGED)),equalTo(PAGED));
 	}
 
 }
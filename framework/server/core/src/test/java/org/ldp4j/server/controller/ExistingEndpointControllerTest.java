@@ -0,0 +1,252 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.StreamingOutput;
+import javax.ws.rs.core.Variant;
+
+import org.junit.Test;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.engine.context.Capabilities;
+import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.engine.context.CreationPreferences;
+import org.ldp4j.application.engine.context.EntityTag;
+import org.ldp4j.application.engine.context.PublicBasicContainer;
+import org.ldp4j.application.engine.context.PublicResource;
+import org.ldp4j.application.engine.context.PublicResourceVisitor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ExistingEndpointControllerTest {
+
+	private static final URI BASE = URI.create("http://localhost:8080/ldp4j/");
+
+	private static final Variant TURTLE = new Variant(MediaType.valueOf("text/turtle"),(String)null,null);
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final String REPRESENTATION = "<> <http://www.example.org/vocab#name> \"Ana María\" .\n";
+
+	private static final List<String> REPRESENTATION_HEADERS=
+		Arrays.asList("Content-Type","ETag","Last-Modified","Link","Allow","Accept-Post","Preference-Applied");
+
+	@SuppressWarnings("unchecked")
+	private PublicBasicContainer basicContainer(String path) {
+		final PublicBasicContainer container=mock(PublicBasicContainer.class);
+		when(container.accept(any(PublicResourceVisitor.class))).
+			thenAnswer(
+				new Answer<Object>() {
+					@Override
+					public Object answer(InvocationOnMock invocation) throws Throwable {
+						return ((PublicResourceVisitor<Object>)invocation.getArguments()[0]).visitBasicContainer(container);
+					}
+				}
+			);
+		Capabilities capabilities=mock(Capabilities.class);
+		when(capabilities.isFactory()).thenReturn(true);
+		when(container.capabilities()).thenReturn(capabilities);
+		when(container.path()).thenReturn(path);
+		when(container.entityTag()).thenReturn(new EntityTag(path));
+		when(container.lastModified()).thenReturn(new Date(1000));
+		return container;
+	}
+
+	private OperationContext context(PublicResource resource) {
+		OperationContext context=mock(OperationContext.class);
+		when(context.base()).thenReturn(BASE);
+		when(context.resource()).thenReturn(resource);
+		when(context.checkOperationSupport()).thenReturn(context);
+		when(context.checkContents()).thenReturn(context);
+		when(context.checkPreconditions()).thenReturn(context);
+		return context;
+	}
+
+	/**
+	 * Prepare a context for retrieving a container with five members, whose
+	 * representation is {@link #REPRESENTATION}.
+	 */
+	private OperationContext readContext(PublicBasicContainer container, ContentPreferences preferences) throws Exception {
+		DataSet entity=mock(DataSet.class);
+		OperationContext context=context(container);
+		when(context.expectedVariant()).thenReturn(TURTLE);
+		when(context.contentPreferences()).thenReturn(preferences);
+		when(context.resolve(container)).thenReturn(BASE.resolve(container.path()));
+		when(context.serialize(entity,TURTLE.getMediaType())).thenReturn(REPRESENTATION);
+		when(context.serializer(entity,TURTLE.getMediaType())).
+			thenReturn(
+				new StreamingOutput() {
+					@Override
+					public void write(OutputStream output) throws IOException, WebApplicationException {
+						output.write(REPRESENTATION.getBytes(UTF_8));
+					}
+				}
+			);
+		when(container.entity(any(ContentPreferences.class))).thenReturn(entity);
+		when(container.numberOfMembers()).thenReturn(5);
+		return context;
+	}
+
+	private static String header(Response response, String header) {
+		Object value=response.getMetadata().getFirst(header);
+		return value==null?null:value.toString();
+	}
+
+	@Test
+	public void testHeadHeadersMatchGetHeaders() throws Exception {
+		PublicBasicContainer container=basicContainer("books/");
+		ContentPreferences preferences=ContentPreferences.defaultPreferences();
+		preferences.paginate(2,0);
+		OperationContext context=readContext(container,preferences);
+		when(context.queryParameter(ExistingEndpointController.PAGE_QUERY_PARAMETER)).thenReturn("1");
+		ExistingEndpointController sut=new ExistingEndpointController(null,container,new RepresentationCache(0));
+
+		Response head=sut.head(context);
+		Response get=sut.getResource(context);
+
+		assertThat(head.getStatus(),equalTo(get.getStatus()));
+		for(String header:REPRESENTATION_HEADERS) {
+			assertThat("Header '"+header+"' differs",head.getMetadata().get(header),equalTo(get.getMetadata().get(header)));
+		}
+		assertThat(head.getMetadata().get("Preference-Applied"),notNullValue());
+		assertThat(head.getMetadata().get("Link"),hasItem((Object)EndpointControllerUtils.createLink(BASE.resolve("books/")+"?page=0","prev")));
+		assertThat(head.getMetadata().get("Link"),hasItem((Object)EndpointControllerUtils.createLink(BASE.resolve("books/")+"?page=2","next")));
+		assertThat(head.getEntity(),nullValue());
+		verify(container,times(1)).entity(any(ContentPreferences.class));
+	}
+
+	@Test
+	public void testHeadContentLengthRequiresCachedRepresentation() throws Exception {
+		PublicBasicContainer container=basicContainer("books/");
+		OperationContext context=readContext(container,null);
+		ExistingEndpointController sut=new ExistingEndpointController(null,container,new RepresentationCache(1024));
+
+		assertThat(header(sut.head(context),"Content-Length"),nullValue());
+
+		Response get=sut.getResource(context);
+		Response head=sut.head(context);
+		assertThat(header(get,"Content-Length"),equalTo(Integer.toString(REPRESENTATION.getBytes(UTF_8).length)));
+		assertThat(header(head,"Content-Length"),equalTo(header(get,"Content-Length")));
+		assertThat(head.getEntity(),nullValue());
+		verify(container,times(1)).entity(any(ContentPreferences.class));
+	}
+
+	/**
+	 * When streaming is enabled, only the media types that can be streamed
+	 * are marshalled by the JAX-RS runtime. The rest are buffered, so that
+	 * the length of the representation is still reported.
+	 */
+	@Test
+	public void testOnlyStreamableMediaTypesAreStreamed() throws Exception {
+		PublicBasicContainer container=basicContainer("books/");
+		OperationContext context=readContext(container,null);
+		ExistingEndpointController sut=new ExistingEndpointController(null,container,new RepresentationCache(0));
+
+		System.setProperty(ExistingEndpointController.STREAMING_MARSHALLING,"true");
+		try {
+			when(context.isStreamable(TURTLE.getMediaType())).thenReturn(true);
+			Response streamed=sut.getResource(context);
+			assertThat(streamed.getEntity(),instanceOf(StreamingOutput.class));
+			assertThat(header(streamed,"Content-Length"),nullValue());
+
+			when(context.isStreamable(TURTLE.getMediaType())).thenReturn(false);
+			Response buffered=sut.getResource(context);
+			assertThat(buffered.getEntity(),equalTo((Object)REPRESENTATION));
+			assertThat(header(buffered,"Content-Length"),equalTo(Integer.toString(REPRESENTATION.length())));
+		} finally {
+			System.clearProperty(ExistingEndpointController.STREAMING_MARSHALLING);
+		}
+	}
+
+	@Test
+	public void testHeadIsProcessedAsGetWithContentEntityTags() throws Exception {
+		PublicBasicContainer container=basicContainer("books/");
+		OperationContext context=readContext(container,null);
+		ExistingEndpointController sut=new ExistingEndpointController(null,container,new RepresentationCache(0));
+		EntityTag contentEntityTag=ContentEntityTags.entityTag(REPRESENTATION.getBytes(UTF_8));
+
+		System.setProperty(ContentEntityTags.CONTENT_ENTITY_TAGS,"true");
+		try {
+			Response head=sut.head(context);
+			assertThat(header(head,"ETag"),equalTo(contentEntityTag.toString()));
+			assertThat(header(head,"Content-Length"),equalTo(Integer.toString(REPRESENTATION.getBytes(UTF_8).length)));
+			assertThat(head.getEntity(),nullValue());
+			verify(container).entity(any(ContentPreferences.class));
+			verify(context).checkPreconditions(contentEntityTag);
+		} finally {
+			System.clearProperty(ContentEntityTags.CONTENT_ENTITY_TAGS);
+		}
+	}
+
+	@Test
+	public void testBatchCreationReturnsTheLocationsOfTheNewMembers() throws Exception {
+		PublicBasicContainer container=basicContainer("books/");
+		PublicResource first=mock(PublicResource.class);
+		PublicResource second=mock(PublicResource.class);
+		List<DataSet> dataSets=Arrays.asList(mock(DataSet.class),mock(DataSet.class));
+		OperationContext context=context(container);
+		when(context.isBatch()).thenReturn(true);
+		when(context.container()).thenReturn(container);
+		when(context.dataSets()).thenReturn(dataSets);
+		when(context.resolve(first)).thenReturn(BASE.resolve("books/1/"));
+		when(context.resolve(second)).thenReturn(BASE.resolve("books/2/"));
+		when(container.createResources(dataSets)).thenReturn(Arrays.asList(first,second));
+
+		Response response=new ExistingEndpointController(null,container).createResource(context);
+
+		String locations=BASE.resolve("books/1/")+"\n"+BASE.resolve("books/2/")+"\n";
+		assertThat(response.getStatus(),equalTo(Response.Status.CREATED.getStatusCode()));
+		assertThat(response.getEntity(),equalTo((Object)locations));
+		assertThat(response.getMetadata().getFirst("Content-Length").toString(),equalTo(Integer.toString(locations.length())));
+		assertThat(response.getMetadata().getFirst("Location"),nullValue());
+		verify(container,never()).createResource(any(DataSet.class),any(CreationPreferences.class));
+	}
+
+}
@@ -0,0 +1,113 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Test;
+import org.ldp4j.application.domain.LDP;
+import org.ldp4j.application.engine.context.Capabilities;
+import org.ldp4j.application.engine.context.PublicBasicContainer;
+import org.ldp4j.application.engine.context.PublicRDFSource;
+import org.ldp4j.application.engine.context.PublicResourceVisitor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ProtocolHeadersTest {
+
+	private Capabilities capabilities(boolean modifiable, boolean deletable, boolean factory) {
+		Capabilities capabilities=mock(Capabilities.class);
+		when(capabilities.isModifiable()).thenReturn(modifiable);
+		when(capabilities.isDeletable()).thenReturn(deletable);
+		when(capabilities.isFactory()).thenReturn(factory);
+		return capabilities;
+	}
+
+	@SuppressWarnings("unchecked")
+	private PublicBasicContainer basicContainer() {
+		final PublicBasicContainer container=mock(PublicBasicContainer.class);
+		when(container.accept(any(PublicResourceVisitor.class))).
+			thenAnswer(
+				new Answer<Object>() {
+					@Override
+					public Object answer(InvocationOnMock invocation) throws Throwable {
+						return ((PublicResourceVisitor<Object>)invocation.getArguments()[0]).visitBasicContainer(container);
+					}
+				}
+			);
+		return container;
+	}
+
+	@SuppressWarnings("unchecked")
+	private PublicRDFSource rdfSource() {
+		final PublicRDFSource source=mock(PublicRDFSource.class);
+		when(source.accept(any(PublicResourceVisitor.class))).
+			thenAnswer(
+				new Answer<Object>() {
+					@Override
+					public Object answer(InvocationOnMock invocation) throws Throwable {
+						return ((PublicResourceVisitor<Object>)invocation.getArguments()[0]).visitRDFSource(source);
+					}
+				}
+			);
+		return source;
+	}
+
+	@Test
+	public void testAllowedMethodsArePrerendered() throws Exception {
+		assertThat(
+			ProtocolHeaders.allowedMethods(capabilities(true,true,true)),
+			contains("OPTIONS","HEAD","GET","PUT","DELETE","POST"));
+		assertThat(
+			ProtocolHeaders.allowedMethods(capabilities(false,false,false)),
+			contains("OPTIONS","HEAD","GET"));
+		assertThat(
+			ProtocolHeaders.allowedMethods(capabilities(true,false,true)),
+			sameInstance(ProtocolHeaders.allowedMethods(capabilities(true,false,true))));
+	}
+
+	@Test
+	public void testLinksDependOnResourceKind() throws Exception {
+		assertThat(
+			ProtocolHeaders.links(rdfSource()),
+			contains(EndpointControllerUtils.createLink(LDP.RESOURCE,"type")));
+		assertThat(
+			ProtocolHeaders.links(basicContainer()),
+			contains(
+				EndpointControllerUtils.createLink(LDP.RESOURCE,"type"),
+				EndpointControllerUtils.createLink(LDP.BASIC_CONTAINER,"type")));
+		assertThat(
+			ProtocolHeaders.links(basicContainer()),
+			sameInstance(ProtocolHeaders.links(basicContainer())));
+	}
+
+}
@@ -0,0 +1,147 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+import org.ldp4j.application.engine.context.ContentPreferences;
+import org.ldp4j.application.engine.context.EntityTag;
+
+public class RepresentationCacheTest {
+
+	private static final String BASE = "http://localhost:8080/ldp4j/";
+
+	private static final MediaType TURTLE = MediaType.valueOf("text/turtle");
+
+	private RepresentationCache.Key key(String path, String entityTag) {
+		return RepresentationCache.key(BASE,path,new EntityTag(entityTag),TURTLE,ContentPreferences.defaultPreferences());
+	}
+
+	@Test
+	public void testDisabledByDefault() throws Exception {
+		RepresentationCache sut=new RepresentationCache(0);
+		sut.put(key("resource/","1"),new byte[]{1});
+		assertThat(sut.isEnabled(),equalTo(false));
+		assertThat(sut.get(key("resource/","1")),nullValue());
+	}
+
+	@Test
+	public void testEntriesAreKeyedByEntityTag() throws Exception {
+		RepresentationCache sut=new RepresentationCache(1024);
+		sut.put(key("resource/","1"),new byte[]{1});
+		assertThat(sut.get(key("resource/","1")),notNullValue());
+		assertThat(sut.get(key("resource/","2")),nullValue());
+		assertThat(sut.stats().hitCount(),equalTo(1L));
+		assertThat(sut.stats().missCount(),equalTo(1L));
+	}
+
+	@Test
+	public void testEntriesAreKeyedByPreferences() throws Exception {
+		RepresentationCache sut=new RepresentationCache(1024);
+		ContentPreferences paged=ContentPreferences.defaultPreferences();
+		paged.paginate(10,1);
+		sut.put(key("resource/","1"),new byte[]{1});
+		assertThat(sut.get(RepresentationCache.key(BASE,"resource/",new EntityTag("1"),TURTLE,paged)),nullValue());
+	}
+
+	@Test
+	public void testInvalidateByPath() throws Exception {
+		RepresentationCache sut=new RepresentationCache(1024);
+		sut.put(key("resource/","1"),new byte[]{1});
+		sut.put(key("other/","1"),new byte[]{1});
+		sut.invalidate(BASE,"resource/");
+		assertThat(sut.get(key("resource/","1")),nullValue());
+		assertThat(sut.get(key("other/","1")),notNullValue());
+	}
+
+	@Test
+	public void testInvalidateAllVariantsOfPath() throws Exception {
+		RepresentationCache sut=new RepresentationCache(1024);
+		ContentPreferences paged=ContentPreferences.defaultPreferences();
+		paged.paginate(10,1);
+		RepresentationCache.Key pagedKey=RepresentationCache.key(BASE,"resource/",new EntityTag("1"),TURTLE,paged);
+		sut.put(key("resource/","1"),new byte[]{1});
+		sut.put(key("resource/","2"),new byte[]{1});
+		sut.put(pagedKey,new byte[]{1});
+		sut.put(key("resource/","1"),new byte[]{2});
+		sut.invalidate(BASE,"resource/");
+		assertThat(sut.get(key("resource/","1")),nullValue());
+		assertThat(sut.get(key("resource/","2")),nullValue());
+		assertThat(sut.get(pagedKey),nullValue());
+	}
+
+	@Test
+	public void testInvalidateHonoursBase() throws Exception {
+		RepresentationCache sut=new RepresentationCache(1024);
+		RepresentationCache.Key otherBase=RepresentationCache.key("http://example.org/ldp4j/","resource/",new EntityTag("1"),TURTLE,ContentPreferences.defaultPreferences());
+		sut.put(key("resource/","1"),new byte[]{1});
+		sut.put(otherBase,new byte[]{1});
+		sut.invalidate(BASE,"resource/");
+		assertThat(sut.get(key("resource/","1")),nullValue());
+		assertThat(sut.get(otherBase),notNullValue());
+	}
+
+	@Test
+	public void testKeysAreNotAffectedByLaterPreferenceChanges() throws Exception {
+		RepresentationCache sut=new RepresentationCache(1024);
+		ContentPreferences preferences=ContentPreferences.defaultPreferences();
+		sut.put(RepresentationCache.key(BASE,"resource/",new EntityTag("1"),TURTLE,preferences),new byte[]{1});
+		preferences.paginate(10,1);
+		assertThat(sut.get(key("resource/","1")),notNullValue());
+		assertThat(sut.get(RepresentationCache.key(BASE,"resource/",new EntityTag("1"),TURTLE,preferences)),nullValue());
+	}
+
+	@Test
+	public void testCapacityIsBoundedInBytes() throws Exception {
+		RepresentationCache sut=new RepresentationCache(10);
+		for(int i=0;i<10;i++) {
+			sut.put(key("resource"+i+"/","1"),new byte[5]);
+		}
+		assertThat(sut.stats().evictionCount()>=8,equalTo(true));
+	}
+
+	@Test
+	public void testEntriesKeepTheirContentEntityTag() throws Exception {
+		RepresentationCache sut=new RepresentationCache(1024);
+		byte[] body=new byte[]{1,2,3};
+		EntityTag tag=ContentEntityTags.entityTag(body);
+		sut.put(key("tagged/","1"),body,tag);
+		sut.put(key("untagged/","1"),body);
+		assertThat(sut.get(key("tagged/","1")).contentEntityTag(),sameInstance(tag));
+		EntityTag computed=sut.get(key("untagged/","1")).contentEntityTag();
+		assertThat(computed,equalTo(tag));
+		assertThat(sut.get(key("untagged/","1")).contentEntityTag(),sameInstance(computed));
+	}
+
+}
@@ -0,0 +1,114 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.controller;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.application.data.ManagedIndividualId;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.application.engine.context.ApplicationContext;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ResolutionContextTest {
+
+	private static final URI BASE=URI.create("http://localhost:8080/ldp4j/");
+
+	private ApplicationContext applicationContext;
+	private ResolutionContext sut;
+
+	@Before
+	public void setUp() throws Exception {
+		applicationContext=mock(ApplicationContext.class);
+		when(applicationContext.resolvePaths(anyCollectionOf(ManagedIndividualId.class))).
+			thenAnswer(
+				new Answer<Map<ManagedIndividualId,String>>() {
+					@Override
+					public Map<ManagedIndividualId,String> answer(InvocationOnMock invocation) throws Throwable {
+						@SuppressWarnings("unchecked")
+						Collection<ManagedIndividualId> ids=(Collection<ManagedIndividualId>)invocation.getArguments()[0];
+						Map<ManagedIndividualId,String> result=new LinkedHashMap<ManagedIndividualId,String>();
+						for(ManagedIndividualId id:ids) {
+							if(!id.name().id().equals("unknown")) {
+								result.put(id,"resources/"+id.name().id()+"/");
+							}
+						}
+						return result;
+					}
+				}
+			);
+		sut=new ResolutionContext(applicationContext,BASE);
+	}
+
+	private ManagedIndividualId id(String name) {
+		return ManagedIndividualId.createId(NamingScheme.getDefault().name(name),"template");
+	}
+
+	@Test
+	public void testPrefetchedResourcesAreResolvedOnce() throws Exception {
+		sut.prefetch(Arrays.asList(id("1"),id("2"),id("3")));
+		assertThat(sut.resolveResource(id("1")),equalTo(BASE.resolve("resources/1/")));
+		assertThat(sut.resolveResource(id("3")),equalTo(BASE.resolve("resources/3/")));
+		sut.prefetch(Arrays.asList(id("1"),id("2")));
+		verify(applicationContext,times(1)).resolvePaths(anyCollectionOf(ManagedIndividualId.class));
+	}
+
+	@Test
+	public void testResolvedLocationsAreMemoized() throws Exception {
+		URI location=sut.resolveResource(id("1"));
+		assertThat(sut.resolveLocation(location),equalTo(id("1")));
+		verify(applicationContext,never()).resolveResource(anyString());
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testUnknownResourcesCannotBeResolved() throws Exception {
+		sut.resolveResource(id("unknown"));
+	}
+
+	@Test
+	public void testUnknownLocationsAreNotResolved() throws Exception {
+		assertThat(sut.resolveLocation(BASE.resolve("unknown/")),nullValue());
+	}
+
+}
@@ -0,0 +1,114 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.Set;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.DataSetFactory;
+import org.ldp4j.application.data.DataSetUtils;
+import org.ldp4j.application.data.ExternalIndividual;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.rdf.Format;
+import org.ldp4j.rdf.RDFContext;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.rdf.util.TripleSet;
+import org.ldp4j.server.spi.RuntimeInstance;
+import org.ldp4j.server.utils.MediaTypeUtils;
+
+public class DataTransformatorTest {
+
+	private static final URI APPLICATION = URI.create("http://www.example.org/target/");
+	private static final URI ENDPOINT = URI.create("resource/");
+
+	private static final URI KNOWS = URI.create("http://www.example.org/vocab#knows");
+	private static final URI NAME = URI.create("http://www.example.org/vocab#name");
+
+	private DataSet dataSet() {
+		DataSet dataSet=DataSetFactory.createDataSet(NamingScheme.getDefault().name("example"));
+		ExternalIndividual self=dataSet.individual(APPLICATION.resolve(ENDPOINT),ExternalIndividual.class);
+		ExternalIndividual other=dataSet.individual(URI.create("http://www.example.org/other"),ExternalIndividual.class);
+		self.addValue(NAME,DataSetUtils.newLiteral("Ana María"));
+		self.addValue(KNOWS,other);
+		other.addValue(NAME,DataSetUtils.newLiteral("Consuelo"));
+		other.addValue(KNOWS,self);
+		return dataSet;
+	}
+
+	private TripleSet parse(String representation, MediaType mediaType) throws Exception {
+		Format format=Format.valueOf(mediaType.getType()+"/"+mediaType.getSubtype());
+		TripleSet result=new TripleSet();
+		for(Triple triple:RDFContext.createContext(APPLICATION).deserialize(representation,format)) {
+			result.add(triple);
+		}
+		return result;
+	}
+
+	/**
+	 * The representations written to a stream, which are used when streaming
+	 * marshalling is enabled, must be equivalent to those marshalled into a
+	 * string, for every supported media type. The media types that cannot be
+	 * streamed are buffered, and thus their representations must be the
+	 * same. The streamable ones are not pretty printed, so they must only
+	 * describe the same triples.
+	 */
+	@Test
+	public void testStreamedMarshallingIsEquivalent() throws Exception {
+		Set<MediaType> mediaTypes=RuntimeInstance.getInstance().getSupportedMediaTypes();
+		assertThat(mediaTypes.isEmpty(),equalTo(false));
+		DataSet dataSet=dataSet();
+		for(MediaType mediaType:mediaTypes) {
+			DataTransformator sut=
+				DataTransformator.
+					create(APPLICATION).
+						permanentEndpoint(ENDPOINT).
+						mediaType(mediaType);
+			String buffered=sut.marshall(dataSet);
+			ByteArrayOutputStream output=new ByteArrayOutputStream();
+			sut.marshall(dataSet,output);
+			String streamed=new String(output.toByteArray(),MediaTypeUtils.charset(mediaType));
+			assertThat("Empty representation for "+mediaType,buffered.trim(),not(equalTo("")));
+			if(sut.isStreamable()) {
+				TripleSet expected=parse(buffered,mediaType);
+				TripleSet actual=parse(streamed,mediaType);
+				assertThat("Different triples for "+mediaType,actual.containsAll(expected) && expected.containsAll(actual),equalTo(true));
+			} else {
+				assertThat("Different representations for "+mediaType,streamed,equalTo(buffered));
+			}
+		}
+	}
+
+}
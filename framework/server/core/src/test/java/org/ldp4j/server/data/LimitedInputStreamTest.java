@@ -0,0 +1,86 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Test;
+
+import com.google.common.io.ByteStreams;
+
+public class LimitedInputStreamTest {
+
+	private static InputStream content(int size) {
+		return new ByteArrayInputStream(new byte[size]);
+	}
+
+	@Test
+	public void testUnlimitedStream() throws IOException {
+		LimitedInputStream sut=LimitedInputStream.create(content(1024),LimitedInputStream.UNLIMITED);
+		assertThat(ByteStreams.toByteArray(sut).length,equalTo(1024));
+		assertThat(sut.isLimitExceeded(),equalTo(false));
+	}
+
+	@Test
+	public void testStreamWithinLimit() throws IOException {
+		LimitedInputStream sut=LimitedInputStream.create(content(1024),1024);
+		assertThat(ByteStreams.toByteArray(sut).length,equalTo(1024));
+		assertThat(sut.isLimitExceeded(),equalTo(false));
+	}
+
+	@Test
+	public void testStreamExceedingLimit() throws IOException {
+		LimitedInputStream sut=LimitedInputStream.create(content(1025),1024);
+		try {
+			ByteStreams.toByteArray(sut);
+			fail("Should not read beyond the limit");
+		} catch (EntityTooLargeException e) {
+			assertThat(e.getMaxEntitySize(),equalTo(1024L));
+			assertThat(sut.isLimitExceeded(),equalTo(true));
+		}
+	}
+
+	@Test
+	public void testSingleByteReadsExceedingLimit() throws IOException {
+		LimitedInputStream sut=LimitedInputStream.create(content(3),2);
+		sut.read();
+		sut.read();
+		try {
+			sut.read();
+			fail("Should not read beyond the limit");
+		} catch (EntityTooLargeException e) {
+			assertThat(sut.isLimitExceeded(),equalTo(true));
+		}
+	}
+
+}
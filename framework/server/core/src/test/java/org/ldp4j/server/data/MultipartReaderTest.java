@@ -0,0 +1,116 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.data;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+
+public class MultipartReaderTest {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final String BOUNDARY = "batch-boundary";
+
+	private static InputStream entity(String content) {
+		return new ByteArrayInputStream(content.getBytes(UTF_8));
+	}
+
+	private static String content(MultipartReader.Part part) {
+		return new String(part.content(),UTF_8);
+	}
+
+	@Test
+	public void testReadParts() throws IOException {
+		String entity=
+			"preamble\r\n"+
+			"--batch-boundary\r\n"+
+			"Content-Type: text/turtle\r\n"+
+			"\r\n"+
+			"<> a <#Book> .\r\n"+
+			"--batch-boundary\r\n"+
+			"content-type: application/rdf+xml\r\n"+
+			"X-Ignored: value\r\n"+
+			"\r\n"+
+			"<rdf:RDF/>\r\n"+
+			"--batch-boundary--\r\n"+
+			"epilogue";
+		List<MultipartReader.Part> parts=MultipartReader.read(entity(entity),BOUNDARY);
+		assertThat(parts.size(),equalTo(2));
+		assertThat(parts.get(0).mediaType(),equalTo(MediaType.valueOf("text/turtle")));
+		assertThat(content(parts.get(0)),equalTo("<> a <#Book> ."));
+		assertThat(parts.get(1).mediaType(),equalTo(MediaType.valueOf("application/rdf+xml")));
+		assertThat(content(parts.get(1)),equalTo("<rdf:RDF/>"));
+	}
+
+	@Test
+	public void testBoundariesWithinContentAreIgnored() throws IOException {
+		String entity=
+			"--batch-boundary\n"+
+			"Content-Type: text/turtle\n"+
+			"\n"+
+			"<> <#comment> \"--batch-boundary\" .\n"+
+			"--batch-boundary--\n";
+		List<MultipartReader.Part> parts=MultipartReader.read(entity(entity),BOUNDARY);
+		assertThat(parts.size(),equalTo(1));
+		assertThat(content(parts.get(0)),equalTo("<> <#comment> \"--batch-boundary\" ."));
+	}
+
+	@Test
+	public void testPartsWithoutContentType() throws IOException {
+		String entity=
+			"--batch-boundary\r\n"+
+			"\r\n"+
+			"content\r\n"+
+			"--batch-boundary--";
+		List<MultipartReader.Part> parts=MultipartReader.read(entity(entity),BOUNDARY);
+		assertThat(parts.size(),equalTo(1));
+		assertThat(parts.get(0).mediaType(),nullValue());
+		assertThat(content(parts.get(0)),equalTo("content"));
+	}
+
+	@Test(expected=IOException.class)
+	public void testUnterminatedEntity() throws IOException {
+		MultipartReader.read(entity("--batch-boundary\r\nContent-Type: text/turtle\r\n\r\ncontent"),BOUNDARY);
+	}
+
+	@Test(expected=EntityTooLargeException.class)
+	public void testEntityTooLarge() throws IOException {
+		MultipartReader.read(entity("--batch-boundary\r\n\r\ncontent\r\n--batch-boundary--"),BOUNDARY,8);
+	}
+
+}
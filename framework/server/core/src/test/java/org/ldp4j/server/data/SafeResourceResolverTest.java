@@ -110,10 +110,9 @@ public class SafeResourceResolverTest {
 					withApplication(application).
 					withEndpoint(endpoint).
 					withAlternative(alternative).
-					withEntity(rawEntity,this.mediaType).
 					build();
 		safeResolver.setResourceResolver(resolver);
-		DataSet dataSet=unmarshall(rawEntity,endpoint,safeResolver);
+		DataSet dataSet=unmarshall(rawEntity,endpoint,alternative,safeResolver);
 		assertThat(checked,hasSize(resolutions.size()));
 		assertThat(checked,hasItems(application,endpoint,r1,r2,r3));
 		assertThat(dataSet.individualOfId(id1),notNullValue());
@@ -123,16 +122,49 @@ public class SafeResourceResolverTest {
 		assertThat(dataSet.individualOfId(id5),notNullValue());
 	}
 
-	private ManagedIndividualId resourceId(int id, String templateId) {
-		return ManagedIndividualId.createId(NamingScheme.getDefault().name(id), templateId);
+	@Test
+	public void testRelativeLocationsAreNotResolved() throws ContentTransformationException {
+		URI application = URI.create("http://www.example.org/target/");
+		URI endpoint = application.resolve("resource/");
+		URI alternative = URI.create("http://ldp4jwww.example.org/target/resource/");
+		final Set<URI> checked=new HashSet<URI>();
+		SafeResourceResolver safeResolver=
+			SafeResourceResolver.
+				builder().
+					withApplication(application).
+					withEndpoint(endpoint).
+					withAlternative(alternative).
+					build();
+		safeResolver.setResourceResolver(
+			new ResourceResolver() {
+				@Override
+				public URI resolveResource(ManagedIndividualId id) {
+					return null;
+				}
+				@Override
+				public ManagedIndividualId resolveLocation(URI path) {
+					checked.add(path);
+					return resourceId(1,"example");
+				}
+			}
+		);
+		String rawEntity=
+			"<> <http://www.example.org/vocab#p> <child/> , <../sibling/> , <http://www.example.org/target/other/> .";
+		DataSet dataSet=unmarshall(rawEntity,endpoint,alternative,safeResolver);
+		assertThat(checked,hasSize(1));
+		assertThat(checked,hasItems(application.resolve("other/")));
+		assertThat(dataSet.individualOfId(URI.create("child/")),notNullValue());
+		assertThat(dataSet.individualOfId(application.resolve("sibling/")),notNullValue());
 	}
 
-	private DataSet unmarshall(String entity, URI base, ResourceResolver resolver) throws ContentTransformationException {
-		return newUnmarshaller(base,resolver).unmarshall(entity, this.mediaType);
+	private ManagedIndividualId resourceId(int id, String templateId) {
+		return ManagedIndividualId.createId(NamingScheme.getDefault().name(id), templateId);
 	}
 
-	private Unmarshaller newUnmarshaller(URI base, ResourceResolver resolver) {
-		return this.provider.newUnmarshaller(ImmutableContext.newInstance(base,resolver));
+	private DataSet unmarshall(String entity, URI base, URI alternative, SafeResourceResolver resolver) throws ContentTransformationException {
+		Unmarshaller unmarshaller=this.provider.newUnmarshaller(ImmutableContext.newInstance(base,alternative,resolver));
+		unmarshaller.registerTripleListener(resolver);
+		return unmarshaller.unmarshall(entity, this.mediaType);
 	}
 
 	private String loadResource(String resourceName) {
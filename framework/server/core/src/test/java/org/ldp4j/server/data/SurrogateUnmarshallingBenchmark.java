@@ -0,0 +1,237 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.data;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.ManagedIndividualId;
+import org.ldp4j.server.spi.ContentTransformationException;
+import org.ldp4j.server.spi.IMediaTypeProvider;
+import org.ldp4j.server.spi.RuntimeInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput of unmarshalling an entity sent to a surrogate
+ * endpoint, i.e., the entity of a create request, using the single parsing
+ * pass of the {@link SafeResourceResolver} with that of the former approach,
+ * which parsed the entity twice to compute the resolutions before parsing it
+ * a third time to build the data set. The throughput of unmarshalling the
+ * entity for a permanent endpoint, which just parses it, is reported as
+ * reference. The benchmark is not part of the unit test suite and is run
+ * using the 'benchmarks' profile.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations=5,time=1,timeUnit=TimeUnit.SECONDS)
+@Measurement(iterations=10,time=1,timeUnit=TimeUnit.SECONDS)
+@Fork(1)
+public class SurrogateUnmarshallingBenchmark {
+
+	/**
+	 * The resolver used for surrogate endpoints before the entities were
+	 * resolved in a single pass: the locations of the entity are gathered
+	 * parsing it against the endpoint and against the alternative base, and
+	 * the resolutions computed from them are replayed while the data set is
+	 * built.
+	 */
+	private static final class TwoPassResourceResolver implements ResourceResolver {
+
+		private static final class URITrackingResourceResolver implements ResourceResolver {
+
+			private final List<URI> uris=new ArrayList<URI>();
+
+			@Override
+			public URI resolveResource(ManagedIndividualId id) {
+				return null;
+			}
+
+			@Override
+			public ManagedIndividualId resolveLocation(URI path) {
+				this.uris.add(path);
+				return null;
+			}
+
+		}
+
+		private static final class Resolution {
+
+			private final URI path;
+			private final URIDescriptor descriptor;
+
+			private Resolution(URI path, URIDescriptor descriptor) {
+				this.path=path;
+				this.descriptor=descriptor;
+			}
+
+		}
+
+		private final Iterator<Resolution> resolutions;
+		private final ResourceResolver resolver;
+
+		private TwoPassResourceResolver(List<Resolution> resolutions) {
+			this.resolutions=resolutions.iterator();
+			this.resolver=new NullResourceResolver();
+		}
+
+		@Override
+		public URI resolveResource(ManagedIndividualId id) {
+			return this.resolver.resolveResource(id);
+		}
+
+		@Override
+		public ManagedIndividualId resolveLocation(URI path) {
+			if(!this.resolutions.hasNext()) {
+				throw new IllegalStateException("Unexpected resolution <"+path+">");
+			}
+			Resolution resolution=this.resolutions.next();
+			if(!resolution.path.equals(path)) {
+				throw new IllegalStateException("Invalid resolution: expected <"+resolution.path+"> but requested <"+path+">");
+			}
+			ManagedIndividualId result=null;
+			if(resolution.descriptor.isResolvable()) {
+				result=this.resolver.resolveLocation(path);
+			}
+			return result;
+		}
+
+		private static List<URI> externals(IMediaTypeProvider provider, URI base, String entity, MediaType type) throws ContentTransformationException {
+			URITrackingResourceResolver index=new URITrackingResourceResolver();
+			provider.
+				newUnmarshaller(ImmutableContext.newInstance(base,index)).
+					unmarshall(entity,type);
+			return index.uris;
+		}
+
+		static TwoPassResourceResolver create(IMediaTypeProvider provider, URI application, URI endpoint, URI alternative, String entity, MediaType type) throws ContentTransformationException {
+			URIResolver uriResolver=URIResolver.newInstance(endpoint,alternative);
+			URIDescriber describer=URIDescriber.newInstance(application,endpoint);
+			List<URI> endpointExternals=externals(provider,endpoint,entity,type);
+			List<URI> alternativeExternals=externals(provider,alternative,entity,type);
+			List<Resolution> resolutions=new ArrayList<Resolution>();
+			for(int i=0;i<endpointExternals.size();i++) {
+				URI c1=endpointExternals.get(i);
+				URI c2=alternativeExternals.get(i);
+				resolutions.add(new Resolution(c1,describer.describe(uriResolver.resolve(c1,c2))));
+			}
+			return new TwoPassResourceResolver(resolutions);
+		}
+
+	}
+
+	private static final int RESOURCES=5000;
+
+	private static final URI APPLICATION=URI.create("http://www.example.org/target/");
+	private static final URI ENDPOINT=URI.create("resource/");
+	private static final MediaType TURTLE=new MediaType("text","turtle");
+
+	private DataTransformator permanent;
+	private DataTransformator surrogate;
+	private IMediaTypeProvider provider;
+	private URI base;
+	private URI alternative;
+	private String entity;
+
+	@Setup
+	public void setUp() throws Exception {
+		DataTransformator transformator=
+			DataTransformator.
+				create(APPLICATION).
+					mediaType(TURTLE);
+		this.permanent=transformator.permanentEndpoint(ENDPOINT);
+		this.surrogate=transformator.surrogateEndpoint(ENDPOINT);
+		this.provider=RuntimeInstance.getInstance().getMediaTypeProvider(TURTLE);
+		this.base=APPLICATION.resolve(ENDPOINT);
+		this.alternative=new URI(this.base.getScheme(),null,"ldp4j".concat(this.base.getHost()),this.base.getPort(),this.base.getPath(),null,null);
+		StringBuilder builder=new StringBuilder();
+		builder.append("@prefix ex: <http://www.example.org/vocab#> .\n");
+		for(int i=0;i<RESOURCES;i++) {
+			builder.
+				append("<child").append(i).append("/> ").
+					append("ex:title \"Resource ").append(i).append("\" ; ").
+					append("ex:parent <> ; ").
+					append("ex:sibling <../sibling").append(i).append("/> ; ").
+					append("ex:seeAlso <http://www.example.org/target/other").append(i).append("/> .\n");
+		}
+		this.entity=builder.toString();
+	}
+
+	@Benchmark
+	public DataSet permanent() throws Exception {
+		return this.permanent.unmarshall(this.entity);
+	}
+
+	@Benchmark
+	public DataSet surrogateSinglePass() throws Exception {
+		return this.surrogate.unmarshall(this.entity);
+	}
+
+	@Benchmark
+	public DataSet surrogateTwoPassBaseline() throws Exception {
+		ResourceResolver resolver=
+			TwoPassResourceResolver.
+				create(this.provider,APPLICATION,this.base,this.alternative,this.entity,TURTLE);
+		return
+			this.provider.
+				newUnmarshaller(ImmutableContext.newInstance(this.base,resolver)).
+					unmarshall(this.entity,TURTLE);
+	}
+
+	/**
+	 * Tracing the parsed data sets would dominate the measurements, so the
+	 * benchmarks use their own logging configuration.
+	 */
+	@Test
+	public void runBenchmarks() throws Exception {
+		new Runner(
+			new OptionsBuilder().
+				include(getClass().getName()).
+				jvmArgsAppend("-Dlog4j.configuration=log4j-benchmarks.properties").
+				build()).
+			run();
+	}
+
+}
@@ -0,0 +1,320 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.frontend;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Date;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.container.AsyncResponse;
+import javax.ws.rs.container.TimeoutHandler;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.Status;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.ldp4j.server.controller.Operation;
+
+public class OperationDispatcherTest {
+
+	private static final String GROUP = "template";
+
+	private static final class CapturingAsyncResponse implements AsyncResponse {
+
+		private final CountDownLatch resumed=new CountDownLatch(1);
+		private volatile Object result;
+		private volatile TimeoutHandler timeoutHandler;
+		private final AtomicInteger timeouts=new AtomicInteger();
+
+		Object await() throws InterruptedException {
+			assertThat(this.resumed.await(5,TimeUnit.SECONDS),equalTo(true));
+			return this.result;
+		}
+
+		TimeoutHandler timeoutHandler() {
+			return this.timeoutHandler;
+		}
+
+		int timeouts() {
+			return this.timeouts.get();
+		}
+
+		private synchronized void complete(Object result) {
+			if(!isSuspended()) {
+				throw new IllegalStateException("Already resumed");
+			}
+			this.result=result;
+			this.resumed.countDown();
+		}
+
+		@Override
+		public void resume(Object response) {
+			complete(response);
+		}
+
+		@Override
+		public void resume(Throwable response) {
+			complete(response);
+		}
+
+		@Override
+		public void cancel() {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void cancel(int retryAfter) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public void cancel(Date retryAfter) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public boolean isSuspended() {
+			return this.resumed.getCount()>0;
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return false;
+		}
+
+		@Override
+		public boolean isDone() {
+			return !isSuspended();
+		}
+
+		@Override
+		public void setTimeout(long time, TimeUnit unit) {
+			// Timeouts are triggered explicitly by the tests
+			this.timeouts.incrementAndGet();
+		}
+
+		@Override
+		public void setTimeoutHandler(TimeoutHandler handler) {
+			this.timeoutHandler=handler;
+		}
+
+		@Override
+		public boolean register(Class<?> callback) {
+			return false;
+		}
+
+		@Override
+		public boolean[] register(Class<?> callback, Class<?>... callbacks) {
+			return new boolean[callbacks.length+1];
+		}
+
+		@Override
+		public boolean register(Object callback) {
+			return false;
+		}
+
+		@Override
+		public boolean[] register(Object callback, Object... callbacks) {
+			return new boolean[callbacks.length+1];
+		}
+
+	}
+
+	private static Callable<Response> respond(final Response response) {
+		return new Callable<Response>() {
+			@Override
+			public Response call() {
+				return response;
+			}
+		};
+	}
+
+	private static Callable<Response> block(final CountDownLatch started, final CountDownLatch release) {
+		return new Callable<Response>() {
+			@Override
+			public Response call() throws Exception {
+				started.countDown();
+				release.await(5,TimeUnit.SECONDS);
+				return Response.noContent().build();
+			}
+		};
+	}
+
+	private OperationDispatcher sut;
+
+	@Before
+	public void setUp() {
+		System.setProperty(OperationDispatcher.THREADS+"."+GROUP,"1");
+		System.setProperty(OperationDispatcher.QUEUE_CAPACITY+"."+GROUP,"1");
+	}
+
+	@After
+	public void tearDown() {
+		if(this.sut!=null) {
+			this.sut.shutdown();
+		}
+		System.clearProperty(OperationDispatcher.THREADS+"."+GROUP);
+		System.clearProperty(OperationDispatcher.QUEUE_CAPACITY+"."+GROUP);
+	}
+
+	@Test
+	public void testSynchronousDispatch() throws Exception {
+		this.sut=new OperationDispatcher(false,1000,5);
+		Response expected=Response.ok().build();
+		CapturingAsyncResponse response=new CapturingAsyncResponse();
+		this.sut.dispatch(Operation.GET,GROUP,response,respond(expected));
+		assertThat(response.isDone(),equalTo(true));
+		assertThat(response.await(),sameInstance((Object)expected));
+		assertThat(this.sut.stats().isEmpty(),equalTo(true));
+	}
+
+	@Test
+	public void testFailuresAreResumed() throws Exception {
+		this.sut=new OperationDispatcher(true,1000,5);
+		final IllegalStateException failure=new IllegalStateException("failure");
+		CapturingAsyncResponse response=new CapturingAsyncResponse();
+		this.sut.dispatch(
+			Operation.PUT,
+			GROUP,
+			response,
+			new Callable<Response>() {
+				@Override
+				public Response call() {
+					throw failure;
+				}
+			}
+		);
+		assertThat(response.await(),sameInstance((Object)failure));
+	}
+
+	@Test
+	public void testSaturatedExecutorsRejectOperations() throws Exception {
+		this.sut=new OperationDispatcher(true,1000,7);
+		CountDownLatch started=new CountDownLatch(1);
+		CountDownLatch release=new CountDownLatch(1);
+		CapturingAsyncResponse running=new CapturingAsyncResponse();
+		CapturingAsyncResponse queued=new CapturingAsyncResponse();
+		CapturingAsyncResponse rejected=new CapturingAsyncResponse();
+		this.sut.dispatch(Operation.PUT,GROUP,running,block(started,release));
+		assertThat(started.await(5,TimeUnit.SECONDS),equalTo(true));
+		this.sut.dispatch(Operation.PUT,GROUP,queued,respond(Response.noContent().build()));
+		this.sut.dispatch(Operation.PUT,GROUP,rejected,respond(Response.noContent().build()));
+		Response response=(Response)rejected.await();
+		assertThat(response.getStatus(),equalTo(Status.SERVICE_UNAVAILABLE.getStatusCode()));
+		assertThat(String.valueOf(response.getMetadata().getFirst("Retry-After")),equalTo("7"));
+		OperationDispatcher.ExecutorStats stats=this.sut.stats().get(GROUP+"-write");
+		assertThat(stats.queueDepth(),equalTo(1));
+		assertThat(stats.rejected(),equalTo(1L));
+		release.countDown();
+		assertThat(running.await(),notNullValue());
+		assertThat(queued.await(),notNullValue());
+	}
+
+	@Test
+	public void testReadsAreNotQueuedBehindWrites() throws Exception {
+		this.sut=new OperationDispatcher(true,1000,5);
+		CountDownLatch started=new CountDownLatch(1);
+		CountDownLatch release=new CountDownLatch(1);
+		CapturingAsyncResponse write=new CapturingAsyncResponse();
+		CapturingAsyncResponse read=new CapturingAsyncResponse();
+		this.sut.dispatch(Operation.POST,GROUP,write,block(started,release));
+		assertThat(started.await(5,TimeUnit.SECONDS),equalTo(true));
+		Response expected=Response.ok().build();
+		this.sut.dispatch(Operation.GET,GROUP,read,respond(expected));
+		assertThat(read.await(),sameInstance((Object)expected));
+		assertThat(write.isSuspended(),equalTo(true));
+		release.countDown();
+		assertThat(write.await(),notNullValue());
+	}
+
+	@Test
+	public void testQueuedOperationsTimeOut() throws Exception {
+		System.setProperty(OperationDispatcher.QUEUE_CAPACITY+"."+GROUP,"2");
+		this.sut=new OperationDispatcher(true,1000,5);
+		CountDownLatch started=new CountDownLatch(1);
+		CountDownLatch release=new CountDownLatch(1);
+		final AtomicInteger executed=new AtomicInteger();
+		CapturingAsyncResponse running=new CapturingAsyncResponse();
+		CapturingAsyncResponse queued=new CapturingAsyncResponse();
+		this.sut.dispatch(Operation.DELETE,GROUP,running,block(started,release));
+		assertThat(started.await(5,TimeUnit.SECONDS),equalTo(true));
+		this.sut.dispatch(
+			Operation.POST,
+			GROUP,
+			queued,
+			new Callable<Response>() {
+				@Override
+				public Response call() {
+					executed.incrementAndGet();
+					return Response.noContent().build();
+				}
+			}
+		);
+		CapturingAsyncResponse marker=new CapturingAsyncResponse();
+		this.sut.dispatch(Operation.PUT,GROUP,marker,respond(Response.noContent().build()));
+		queued.timeoutHandler().handleTimeout(queued);
+		Object result=queued.await();
+		assertThat(result,instanceOf(Response.class));
+		assertThat(((Response)result).getStatus(),equalTo(Status.SERVICE_UNAVAILABLE.getStatusCode()));
+		assertThat(this.sut.stats().get(GROUP+"-write").timedOut(),equalTo(1L));
+		release.countDown();
+		assertThat(running.await(),notNullValue());
+		// The executor processes the operations in order, so the queued
+		// operation has been skipped once the marker has been processed
+		assertThat(marker.await(),notNullValue());
+		assertThat(executed.get(),equalTo(0));
+	}
+
+	@Test
+	public void testRunningWritesAreNotTimedOut() throws Exception {
+		this.sut=new OperationDispatcher(true,1000,5);
+		CountDownLatch started=new CountDownLatch(1);
+		CountDownLatch release=new CountDownLatch(1);
+		CapturingAsyncResponse response=new CapturingAsyncResponse();
+		this.sut.dispatch(Operation.POST,GROUP,response,block(started,release));
+		assertThat(started.await(5,TimeUnit.SECONDS),equalTo(true));
+		int timeouts=response.timeouts();
+		response.timeoutHandler().handleTimeout(response);
+		assertThat(response.isSuspended(),equalTo(true));
+		assertThat(response.timeouts(),equalTo(timeouts+1));
+		release.countDown();
+		Object result=response.await();
+		assertThat(result,instanceOf(Response.class));
+		assertThat(((Response)result).getStatus(),equalTo(Status.NO_CONTENT.getStatusCode()));
+		assertThat(this.sut.stats().get(GROUP+"-write").timedOut(),equalTo(0L));
+	}
+
+}
@@ -0,0 +1,153 @@
+/**
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   This file is part of the LDP4j Project:
+ *     http://www.ldp4j.org/
+ *
+ *   Center for Open Middleware
+ *     http://www.centeropenmiddleware.com/
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Copyright (C) 2014 Center for Open Middleware.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *             http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *   limitations under the License.
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ *   Artifact    : org.ldp4j.framework:ldp4j-server-core:1.0.0-SNAPSHOT
+ *   Bundle      : ldp4j-server-core-1.0.0-SNAPSHOT.jar
+ * #-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=-=#
+ */
+package org.ldp4j.server.impl;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import org.junit.Test;
+import org.ldp4j.application.data.DataSet;
+import org.ldp4j.application.data.DataSetFactory;
+import org.ldp4j.application.data.DataSetUtils;
+import org.ldp4j.application.data.Individual;
+import org.ldp4j.application.data.LocalIndividual;
+import org.ldp4j.application.data.ManagedIndividual;
+import org.ldp4j.application.data.ManagedIndividualId;
+import org.ldp4j.application.data.Name;
+import org.ldp4j.application.data.NamingScheme;
+import org.ldp4j.rdf.Triple;
+import org.ldp4j.server.data.ResourceResolver;
+
+public class TripleSetBuilderTest {
+
+	private static final URI BASE = URI.create("http://www.example.org/");
+
+	private static final URI KNOWS = URI.create("http://www.example.org/vocab#knows");
+	private static final URI NAME = URI.create("http://www.example.org/vocab#name");
+
+	private static final class CountingResourceResolver implements ResourceResolver {
+
+		private int resolutions;
+
+		@Override
+		public URI resolveResource(ManagedIndividualId id) {
+			resolutions++;
+			return URI.create(id.name().id().toString()+"/");
+		}
+
+		@Override
+		public ManagedIndividualId resolveLocation(URI path) {
+			return null;
+		}
+
+	}
+
+	private ManagedIndividualId managedId(String name) {
+		return ManagedIndividualId.createId(NamingScheme.getDefault().name(name), "template");
+	}
+
+	@Test
+	public void testCyclesAreTraversedOnceAndResolutionsAreMemoized() {
+		DataSet dataSet=DataSetFactory.createDataSet(NamingScheme.getDefault().name("example"));
+		ManagedIndividual alice=dataSet.individual(managedId("alice"),ManagedIndividual.class);
+		ManagedIndividual bob=dataSet.individual(managedId("bob"),ManagedIndividual.class);
+		@SuppressWarnings("rawtypes")
+		LocalIndividual address=dataSet.individual((Name)NamingScheme.getDefault().name("address"),LocalIndividual.class);
+		alice.addValue(KNOWS,bob);
+		bob.addValue(KNOWS,alice);
+		alice.addValue(KNOWS,address);
+		bob.addValue(KNOWS,address);
+		address.addValue(NAME,DataSetUtils.newLiteral("Main Street"));
+
+		final List<Triple> triples=new ArrayList<Triple>();
+		CountingResourceResolver resolver=new CountingResourceResolver();
+		TripleSetBuilder builder=
+			new TripleSetBuilder(
+				resolver,
+				BASE,
+				new TripleSetBuilder.TripleSink() {
+					@Override
+					public void addTriple(Triple triple) {
+						triples.add(triple);
+					}
+				}
+			);
+		for(Individual<?,?> individual:dataSet) {
+			builder.generateTriples(individual);
+		}
+		assertThat(triples.size(),equalTo(5));
+		assertThat(resolver.resolutions,equalTo(2));
+	}
+
+	@Test
+	public void testTripleSetIsBuiltByDefault() {
+		DataSet dataSet=DataSetFactory.createDataSet(NamingScheme.getDefault().name("example"));
+		ManagedIndividual alice=dataSet.individual(managedId("alice"),ManagedIndividual.class);
+		alice.addValue(NAME,DataSetUtils.newLiteral("Alice"));
+		TripleSetBuilder builder=new TripleSetBuilder(new CountingResourceResolver(),BASE);
+		builder.generateTriples(alice);
+		assertThat(builder.build().size(),equalTo(1));
+		assertThat(builder.build().size(),equalTo(0));
+	}
+
+	@Test
+	public void testTriplesArePulledOneIndividualAtATime() {
+		DataSet dataSet=DataSetFactory.createDataSet(NamingScheme.getDefault().name("example"));
+		ManagedIndividual alice=dataSet.individual(managedId("alice"),ManagedIndividual.class);
+		ManagedIndividual bob=dataSet.individual(managedId("bob"),ManagedIndividual.class);
+		alice.addValue(KNOWS,bob);
+		alice.addValue(NAME,DataSetUtils.newLiteral("Alice"));
+		bob.addValue(NAME,DataSetUtils.newLiteral("Bob"));
+
+		final List<Triple> triples=new ArrayList<Triple>();
+		TripleSetBuilder builder=
+			new TripleSetBuilder(
+				new CountingResourceResolver(),
+				BASE,
+				new TripleSetBuilder.TripleSink() {
+					@Override
+					public void addTriple(Triple triple) {
+						triples.add(triple);
+					}
+				}
+			);
+		Iterator<Individual<?,?>> individuals=Arrays.<Individual<?,?>>asList(alice,bob).iterator();
+		assertThat(builder.generateNextTriples(individuals),equalTo(true));
+		assertThat(triples.size(),equalTo(2));
+		assertThat(builder.generateNextTriples(individuals),equalTo(true));
+		assertThat(triples.size(),equalTo(3));
+		assertThat(builder.generateNextTriples(individuals),equalTo(false));
+		assertThat(triples.size(),equalTo(3));
+	}
+
+}